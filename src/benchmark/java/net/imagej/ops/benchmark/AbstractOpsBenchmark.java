@@ -0,0 +1,118 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.benchmark;
+
+import java.util.Random;
+
+import net.imagej.ops.OpService;
+import net.imglib2.FinalDimensions;
+import net.imglib2.img.Img;
+import net.imglib2.type.NativeType;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.integer.UnsignedShortType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.type.numeric.real.FloatType;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.scijava.Context;
+
+/**
+ * Base class for the JMH benchmarks of the op families. Each trial gets its
+ * own {@link Context}, so op discovery is not part of the measurement.
+ * <p>
+ * The benchmarks are only compiled with the {@code benchmark} profile; run
+ * them with {@code mvn -Pbenchmark integration-test}, which writes the results
+ * as JSON to {@code target/jmh-result.json}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractOpsBenchmark {
+
+	protected Context context;
+
+	protected OpService ops;
+
+	@Setup
+	public void setUpContext() {
+		context = new Context(OpService.class);
+		ops = context.service(OpService.class);
+	}
+
+	@TearDown
+	public void disposeContext() {
+		context.dispose();
+		context = null;
+		ops = null;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Gets an instance of the pixel type with the given name, one of
+	 * {@code uint8}, {@code uint16}, {@code float32} or {@code float64}.
+	 */
+	protected static NativeType<?> pixelType(final String name) {
+		switch (name) {
+			case "uint8":
+				return new UnsignedByteType();
+			case "uint16":
+				return new UnsignedShortType();
+			case "float32":
+				return new FloatType();
+			case "float64":
+				return new DoubleType();
+			default:
+				throw new IllegalArgumentException("Unknown pixel type: " + name);
+		}
+	}
+
+	/**
+	 * Creates an image of the named pixel type and the given dimensions, filled
+	 * with reproducible random values in [0, 255].
+	 */
+	protected Img<? extends RealType<?>> randomImg(final String type,
+		final long... dims)
+	{
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		final Img<? extends RealType<?>> img = ops.create().img(
+			new FinalDimensions(dims), (NativeType) pixelType(type));
+		final Random random = new Random(0xdeadbeef);
+		for (final RealType<?> t : img) {
+			t.setReal(random.nextInt(256));
+		}
+		return img;
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.imagej.ops.Ops;
+import net.imagej.ops.filter.convolve.ConvolveFFTF;
+import net.imagej.ops.filter.convolve.ConvolveNaiveF;
+import net.imglib2.img.Img;
+import net.imglib2.type.numeric.RealType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks Gaussian smoothing and convolution in the spatial and frequency
+ * domain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConvolveBenchmark extends AbstractOpsBenchmark {
+
+	@Param({ "256", "1024" })
+	public long size;
+
+	@Param({ "uint8", "float32" })
+	public String type;
+
+	@Param({ "5", "31" })
+	public long kernelSize;
+
+	private Img<? extends RealType<?>> in;
+
+	private Img<? extends RealType<?>> out;
+
+	private Img<? extends RealType<?>> kernel;
+
+	@Setup
+	public void setUp() {
+		in = randomImg(type, size, size);
+		out = randomImg(type, size, size);
+		kernel = randomImg("float32", kernelSize, kernelSize);
+	}
+
+	@Benchmark
+	public Object gauss() {
+		return ops.run(Ops.Filter.Gauss.class, out, in, kernelSize / 6.0);
+	}
+
+	@Benchmark
+	public Object convolveFFT() {
+		return ops.run(ConvolveFFTF.class, in, kernel);
+	}
+
+	@Benchmark
+	public Object convolveNaive() {
+		return ops.run(ConvolveNaiveF.class, in, kernel);
+	}
+
+}
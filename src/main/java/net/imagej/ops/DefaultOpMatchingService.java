@@ -32,10 +32,16 @@ package net.imagej.ops;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.function.Predicate;
 
 import net.imagej.ops.OpCandidate.StatusCode;
@@ -43,19 +49,34 @@ import net.imagej.ops.OpCandidate.StatusCode;
 import org.scijava.Context;
 import org.scijava.InstantiableException;
 import org.scijava.convert.ConvertService;
+import org.scijava.event.EventHandler;
 import org.scijava.log.LogService;
 import org.scijava.module.Module;
 import org.scijava.module.ModuleInfo;
 import org.scijava.module.ModuleItem;
 import org.scijava.module.ModuleService;
+import org.scijava.module.event.ModulesAddedEvent;
+import org.scijava.module.event.ModulesRemovedEvent;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
+import org.scijava.plugin.event.PluginsAddedEvent;
+import org.scijava.plugin.event.PluginsRemovedEvent;
 import org.scijava.service.AbstractService;
 import org.scijava.service.Service;
 import org.scijava.util.ConversionUtils;
 
 /**
  * Default service for finding {@link Op}s which match a request.
+ * <p>
+ * The available ops of each {@link OpEnvironment} are indexed by name, and
+ * the outcome of each successful match is remembered (keyed on the op
+ * references and the classes of their arguments), so that repeated requests
+ * for the same op do not need to scan and type-check every candidate again.
+ * Matches which involve a {@link Contingent} op, or which need to convert an
+ * argument, are not remembered, since their outcome may depend on the
+ * argument values. Both structures are discarded whenever the set of plugins
+ * or modules changes.
+ * </p>
  * 
  * @author Curtis Rueden
  */
@@ -76,6 +97,12 @@ public class DefaultOpMatchingService extends AbstractService implements
 	@Parameter
 	private LogService log;
 
+	/** Maximum number of remembered matches per op environment. */
+	private static final int MAX_MEMO_SIZE = 4096;
+
+	/** Table of name indices, one per op environment. */
+	private final Map<OpEnvironment, OpIndex> indices = new WeakHashMap<>();
+
 	// -- OpMatchingService methods --
 
 	@Override
@@ -87,6 +114,15 @@ public class DefaultOpMatchingService extends AbstractService implements
 	public OpCandidate findMatch(final OpEnvironment ops,
 		final List<OpRef> refs)
 	{
+		// check whether this request was already resolved before
+		final OpIndex index = index(ops);
+		final MatchKey key = new MatchKey(refs);
+		final OpCandidate memo = memoMatch(ops, refs, index.recall(key));
+		if (memo != null) {
+			final List<OpCandidate> single = Collections.singletonList(memo);
+			return singleMatch(single, single);
+		}
+
 		// find candidates with matching name & type
 		final List<OpCandidate> candidates = findCandidates(ops, refs);
 		assertCandidates(candidates, refs.get(0));
@@ -94,7 +130,12 @@ public class DefaultOpMatchingService extends AbstractService implements
 		// narrow down candidates to the exact matches
 		final List<OpCandidate> matches = filterMatches(candidates);
 
-		return singleMatch(candidates, matches);
+		final OpCandidate match = singleMatch(candidates, matches);
+		if (isMemorable(candidates, match)) {
+			index.remember(key, new MatchEntry(match.opInfo(), refs.indexOf(match
+				.getRef())));
+		}
+		return match;
 	}
 
 	@Override
@@ -109,7 +150,7 @@ public class DefaultOpMatchingService extends AbstractService implements
 		final List<OpRef> refs)
 	{
 		final ArrayList<OpCandidate> candidates = new ArrayList<>();
-		for (final OpInfo info : ops.infos()) {
+		for (final OpInfo info : index(ops).infos(refs)) {
 			for (final OpRef ref : refs) {
 				if (isCandidate(info, ref)) {
 					candidates.add(new OpCandidate(ops, ref, info));
@@ -205,8 +246,97 @@ public class DefaultOpMatchingService extends AbstractService implements
 		return paddedArgs;
 	}
 
+	// -- Event handlers --
+
+	@EventHandler
+	protected void onEvent(final PluginsAddedEvent event) {
+		clearIndices();
+	}
+
+	@EventHandler
+	protected void onEvent(final PluginsRemovedEvent event) {
+		clearIndices();
+	}
+
+	@EventHandler
+	protected void onEvent(final ModulesAddedEvent event) {
+		clearIndices();
+	}
+
+	@EventHandler
+	protected void onEvent(final ModulesRemovedEvent event) {
+		clearIndices();
+	}
+
 	// -- Helper methods --
 
+	/** Gets the name index of the given op environment, building it if needed. */
+	private OpIndex index(final OpEnvironment ops) {
+		synchronized (indices) {
+			OpIndex index = indices.get(ops);
+			if (index == null) {
+				index = new OpIndex(ops.infos());
+				indices.put(ops, index);
+			}
+			return index;
+		}
+	}
+
+	/** Discards all name indices and remembered matches. */
+	private void clearIndices() {
+		synchronized (indices) {
+			indices.clear();
+		}
+	}
+
+	/**
+	 * Reconstructs a previously found match for the given references, verifying
+	 * that the remembered op still accepts the arguments.
+	 * <p>
+	 * Helper method of {@link #findMatch(OpEnvironment, List)}.
+	 * </p>
+	 * 
+	 * @return The initialized candidate, or null if there is no usable entry.
+	 */
+	private OpCandidate memoMatch(final OpEnvironment ops,
+		final List<OpRef> refs, final MatchEntry entry)
+	{
+		if (entry == null) return null;
+		final OpRef ref = refs.get(entry.refIndex);
+		final OpCandidate candidate = new OpCandidate(ops, ref, entry.info);
+		if (!isCandidate(entry.info, ref)) return null;
+		final List<OpCandidate> valid = validCandidates(Collections.singletonList(
+			candidate));
+		if (valid.isEmpty()) return null;
+		if (typesMatch(candidate, candidate.getArgs()) >= 0) return null;
+		return moduleConforms(candidate) ? candidate : null;
+	}
+
+	/**
+	 * Determines whether the outcome of a match depends only on the classes of
+	 * the arguments. This is not the case as soon as one of the considered
+	 * modules is {@link Contingent}, since its decision can depend on the
+	 * argument values themselves. Neither is it when the match needs to convert
+	 * its arguments: converters may accept some values of a class but not
+	 * others, so a higher priority candidate might match other values.
+	 * <p>
+	 * Helper method of {@link #findMatch(OpEnvironment, List)}.
+	 * </p>
+	 */
+	private boolean isMemorable(final List<OpCandidate> candidates,
+		final OpCandidate match)
+	{
+		// NB: Perfect and cast matches are decided on the classes alone.
+		if (!typesPerfectMatch(match) && findCastLevels(match) < 0) return false;
+		for (final OpCandidate candidate : candidates) {
+			final Module module = candidate.getModule();
+			if (module != null && module.getDelegateObject() instanceof Contingent) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/** Helper method of {@link #findCandidates}. */
 	private boolean isCandidate(final OpInfo info, final OpRef ref) {
 		if (!info.nameMatches(ref.getName())) return false;
@@ -630,4 +760,155 @@ public class DefaultOpMatchingService extends AbstractService implements
 			type);
 	}
 
+	// -- Helper classes --
+
+	/**
+	 * Table of the available ops of one {@link OpEnvironment}, indexed by name
+	 * and alias, together with a bounded memory of already resolved matches.
+	 */
+	private static class OpIndex {
+
+		/** All available ops, in their original order. */
+		private final List<OpInfo> infos;
+
+		/** Table mapping names (with and without namespace) to op positions. */
+		private final Map<String, BitSet> positions = new HashMap<>();
+
+		/** Table of resolved matches, in least recently used order. */
+		private final Map<MatchKey, MatchEntry> memo = new LinkedHashMap<
+			MatchKey, MatchEntry>(16, 0.75f, true)
+		{
+
+			@Override
+			protected boolean removeEldestEntry(
+				final Map.Entry<MatchKey, MatchEntry> eldest)
+			{
+				return size() > MAX_MEMO_SIZE;
+			}
+		};
+
+		public OpIndex(final Collection<OpInfo> infos) {
+			this.infos = new ArrayList<>(infos);
+			for (int i = 0; i < this.infos.size(); i++) {
+				final OpInfo info = this.infos.get(i);
+				addName(info.getName(), i);
+				final String[] aliases = info.getAliases();
+				if (aliases == null) continue;
+				for (final String alias : aliases) {
+					addName(alias, i);
+				}
+			}
+		}
+
+		/**
+		 * Gets the ops whose name might match one of the given references, in
+		 * their original order.
+		 */
+		public List<OpInfo> infos(final List<OpRef> refs) {
+			final BitSet matches = new BitSet(infos.size());
+			for (final OpRef ref : refs) {
+				// NB: No name means that all ops are potential matches.
+				if (ref.getName() == null) return infos;
+				final BitSet p = positions.get(ref.getName());
+				if (p != null) matches.or(p);
+			}
+			final ArrayList<OpInfo> result = new ArrayList<>(matches.cardinality());
+			for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i +
+				1))
+			{
+				result.add(infos.get(i));
+			}
+			return result;
+		}
+
+		public MatchEntry recall(final MatchKey key) {
+			synchronized (memo) {
+				return memo.get(key);
+			}
+		}
+
+		public void remember(final MatchKey key, final MatchEntry entry) {
+			synchronized (memo) {
+				memo.put(key, entry);
+			}
+		}
+
+		/** Registers the given name, as well as its namespace-free form. */
+		private void addName(final String name, final int position) {
+			if (name == null) return;
+			addPosition(name, position);
+			final int dot = name.lastIndexOf(".");
+			if (dot >= 0) addPosition(name.substring(dot + 1), position);
+		}
+
+		private void addPosition(final String name, final int position) {
+			BitSet p = positions.get(name);
+			if (p == null) {
+				p = new BitSet();
+				positions.put(name, p);
+			}
+			p.set(position);
+		}
+
+	}
+
+	/**
+	 * Key of a remembered match: the name, types and output types of each
+	 * {@link OpRef}, along with the classes of its arguments.
+	 */
+	private static class MatchKey {
+
+		private final Object[] parts;
+		private final int hash;
+
+		public MatchKey(final List<OpRef> refs) {
+			final ArrayList<Object> list = new ArrayList<>();
+			for (final OpRef ref : refs) {
+				list.add(ref.getName());
+				list.add(ref.getTypes());
+				list.add(ref.getOutTypes());
+				final Object[] args = ref.getArgs();
+				list.add(args.length);
+				for (final Object arg : args) {
+					// NB: Distinguish typed null placeholders from actual instances.
+					if (arg instanceof Class) {
+						list.add(Class.class);
+						list.add(arg);
+					}
+					else {
+						list.add(arg == null ? null : arg.getClass());
+						list.add(null);
+					}
+				}
+			}
+			parts = list.toArray();
+			hash = Arrays.hashCode(parts);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof MatchKey)) return false;
+			return Arrays.equals(parts, ((MatchKey) o).parts);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+	}
+
+	/** The op which was matched, and the index of the matching reference. */
+	private static class MatchEntry {
+
+		private final OpInfo info;
+		private final int refIndex;
+
+		public MatchEntry(final OpInfo info, final int refIndex) {
+			this.info = info;
+			this.refIndex = refIndex;
+		}
+
+	}
+
 }
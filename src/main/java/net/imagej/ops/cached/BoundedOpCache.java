@@ -0,0 +1,259 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.cached;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import net.imglib2.IterableInterval;
+import net.imglib2.type.numeric.RealType;
+
+/**
+ * {@link OpCache} bounded by the total weight (by default, the estimated size
+ * in bytes) of the stored results, evicting the least recently used results
+ * first.
+ * <p>
+ * The keys are spread over independently locked segments, such that concurrent
+ * lookups do not contend on a single lock. The maximum weight applies to all
+ * segments together: when it is exceeded, the least recently used result of
+ * each segment is evicted in turn. Results heavier than the maximum weight
+ * are not stored at all. Hit, miss and eviction counts are recorded for tuning
+ * the bound.
+ * </p>
+ */
+public class BoundedOpCache implements OpCache {
+
+	/** Estimated weight of results whose size is unknown. */
+	private static final long DEFAULT_WEIGHT = 64;
+
+	private final Segment[] segments;
+	private final ToLongFunction<Object> weigher;
+	private final long maxWeight;
+
+	private final AtomicLong weight = new AtomicLong();
+	private final AtomicInteger nextVictim = new AtomicInteger();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates a cache holding results up to the given estimated size in bytes.
+	 */
+	public BoundedOpCache(final long maxWeight) {
+		this(maxWeight, defaultConcurrencyLevel(),
+			BoundedOpCache::estimateSize);
+	}
+
+	/**
+	 * Creates a cache holding results up to the given total weight.
+	 * 
+	 * @param maxWeight the maximum total weight of the stored results
+	 * @param concurrencyLevel the number of independently locked segments
+	 * @param weigher computes the weight of a result
+	 */
+	public BoundedOpCache(final long maxWeight, final int concurrencyLevel,
+		final ToLongFunction<Object> weigher)
+	{
+		if (maxWeight < 0) {
+			throw new IllegalArgumentException("Negative maximum weight: " +
+				maxWeight);
+		}
+		if (concurrencyLevel < 1) {
+			throw new IllegalArgumentException("Invalid concurrency level: " +
+				concurrencyLevel);
+		}
+		segments = new Segment[concurrencyLevel];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = new Segment();
+		}
+		this.weigher = weigher;
+		this.maxWeight = maxWeight;
+	}
+
+	// -- BoundedOpCache methods --
+
+	/** Gets the number of lookups which found a result. */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/** Gets the number of lookups which found no result. */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/** Gets the number of results evicted to stay within the maximum weight. */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/** Gets the number of stored results. */
+	public long size() {
+		long size = 0;
+		for (final Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.map.size();
+			}
+		}
+		return size;
+	}
+
+	/** Gets the total weight of the stored results. */
+	public long weight() {
+		return weight.get();
+	}
+
+	/**
+	 * Estimates the size in bytes of the given result, as used by default to
+	 * weigh the results.
+	 */
+	public static long estimateSize(final Object value) {
+		if (value instanceof RealType) {
+			return 16;
+		}
+		if (value instanceof IterableInterval) {
+			final IterableInterval<?> ii = (IterableInterval<?>) value;
+			final Object type = ii.size() == 0 ? null : ii.firstElement();
+			final long bits = type instanceof RealType ? ((RealType<?>) type)
+				.getBitsPerPixel() : 64;
+			return DEFAULT_WEIGHT + (ii.size() * bits + 7) / 8;
+		}
+		return DEFAULT_WEIGHT;
+	}
+
+	// -- OpCache methods --
+
+	@Override
+	public Object get(final Object key) {
+		final Segment segment = segment(key);
+		final Entry entry;
+		synchronized (segment) {
+			entry = segment.map.get(key);
+		}
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.value;
+	}
+
+	@Override
+	public void put(final Object key, final Object value) {
+		final long w = Math.max(0, weigher.applyAsLong(value));
+		final Segment segment = segment(key);
+		synchronized (segment) {
+			final Entry previous = w > maxWeight ? segment.map.remove(key)
+				: segment.map.put(key, new Entry(value, w));
+			if (previous != null) weight.addAndGet(-previous.weight);
+			if (w > maxWeight) return;
+			weight.addAndGet(w);
+		}
+		evict(key);
+	}
+
+	@Override
+	public void clear() {
+		for (final Segment segment : segments) {
+			synchronized (segment) {
+				for (final Entry entry : segment.map.values()) {
+					weight.addAndGet(-entry.weight);
+				}
+				segment.map.clear();
+			}
+		}
+	}
+
+	// -- Helper methods --
+
+	private Segment segment(final Object key) {
+		final int h = key.hashCode();
+		return segments[((h ^ (h >>> 16)) & 0x7fffffff) % segments.length];
+	}
+
+	/**
+	 * Evicts the least recently used result of each segment in turn, until the
+	 * total weight is within bounds again. The given key, which was just
+	 * stored, is kept.
+	 */
+	private void evict(final Object key) {
+		while (weight.get() > maxWeight) {
+			final Segment segment = segments[Math.floorMod(nextVictim
+				.getAndIncrement(), segments.length)];
+			// NB: Only one segment is locked at a time, so concurrent evictions
+			// cannot deadlock.
+			synchronized (segment) {
+				final Iterator<Map.Entry<Object, Entry>> iter = segment.map.entrySet()
+					.iterator();
+				if (!iter.hasNext()) continue;
+				Map.Entry<Object, Entry> eldest = iter.next();
+				if (eldest.getKey() == key) {
+					if (!iter.hasNext()) continue;
+					eldest = iter.next();
+				}
+				iter.remove();
+				weight.addAndGet(-eldest.getValue().weight);
+				evictions.increment();
+			}
+		}
+	}
+
+	private static int defaultConcurrencyLevel() {
+		return Math.min(16, Runtime.getRuntime().availableProcessors());
+	}
+
+	// -- Helper classes --
+
+	private static class Entry {
+
+		private final Object value;
+		private final long weight;
+
+		public Entry(final Object value, final long weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+	/** Part of the cache, ordered from least to most recently used. */
+	private static class Segment {
+
+		private final Map<Object, Entry> map = new LinkedHashMap<>(16, 0.75f,
+			true);
+	}
+
+}
@@ -30,7 +30,9 @@
 
 package net.imagej.ops.cached;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 import net.imagej.ops.AbstractOp;
@@ -51,6 +53,9 @@ import org.scijava.plugin.Parameter;
 
 /**
  * Creates {@link CachedFunctionOp}s which know how to cache their outputs.
+ * The outputs are stored in an {@link OpCache}, by default backed by the
+ * {@link CacheService}; use e.g. a {@link BoundedOpCache} to limit the memory
+ * held by the outputs.
  * 
  * @author Christian Dietz (University of Konstanz)
  */
@@ -59,6 +64,7 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 	@Parameter
 	private CacheService cs;
 	private Collection<Class<?>> ignoredOps;
+	private volatile OpCache cache;
 
 	public CachedOpEnvironment(final OpEnvironment parent) {
 		this(parent, null, new ArrayList<>());
@@ -83,6 +89,32 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		this.ignoredOps = ignoredOps;
 	}
 
+	public CachedOpEnvironment(final OpEnvironment parent,
+		final Collection<? extends OpInfo> prioritizedInfos,
+		final Collection<Class<?>> ignoredOps, final OpCache cache)
+	{
+		this(parent, prioritizedInfos, ignoredOps);
+		this.cache = cache;
+	}
+
+	// -- CachedOpEnvironment methods --
+
+	/** Gets the cache in which the outputs of the cached ops are stored. */
+	public OpCache getCache() {
+		if (cache == null) cache = new CacheServiceOpCache(cs);
+		return cache;
+	}
+
+	/**
+	 * Sets the cache in which the outputs of the cached ops are stored. Cached
+	 * ops which were created before switch to the new cache as well.
+	 */
+	public void setCache(final OpCache cache) {
+		this.cache = cache;
+	}
+
+	// -- OpEnvironment methods --
+
 	@Override
 	public Op op(final OpRef ref) {
 		final Op op = super.op(ref);
@@ -151,9 +183,6 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		UnaryFunctionOp<I, O>
 	{
 
-		@Parameter
-		private CacheService cache;
-
 		private final UnaryFunctionOp<I, O> delegate;
 
 		private final Object[] args;
@@ -170,6 +199,7 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 
 			final Hash hash = new Hash(input, delegate, args);
 
+			final OpCache cache = getCache();
 			@SuppressWarnings("unchecked")
 			O output = (O) cache.get(hash);
 
@@ -225,9 +255,6 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		UnaryHybridCF<I, O>
 	{
 
-		@Parameter
-		private CacheService cache;
-
 		private final UnaryHybridCF<I, O> delegate;
 
 		private final Object[] args;
@@ -244,6 +271,7 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		public O compute1(final I input) {
 			final Hash hash = new Hash(input, delegate, args);
 
+			final OpCache cache = getCache();
 			@SuppressWarnings("unchecked")
 			O output = (O) cache.get(hash);
 
@@ -278,14 +306,23 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 
 	/**
 	 * Simple utility class to wrap two objects and an array of objects in a
-	 * single object which combines their hashes.
+	 * single object which combines their hashes. The input is only referenced
+	 * weakly, such that the cache does not keep it alive; once it is collected,
+	 * the key matches no other key, and its output is left to eviction.
 	 */
 	private class Hash {
 
 		private final int hash;
+		private final WeakReference<Object> input;
+		private final String opName;
+		private final Object[] args;
 
 		public Hash(final Object o1, final Object o2, final Object[] args) {
-			long h = o1.hashCode() ^ o2.getClass().getSimpleName().hashCode();
+			input = new WeakReference<>(o1);
+			opName = o2.getClass().getSimpleName();
+			this.args = args;
+
+			long h = o1.hashCode() ^ opName.hashCode();
 
 			for (final Object o : args) {
 				h ^= o.hashCode();
@@ -302,8 +339,14 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		@Override
 		public boolean equals(final Object obj) {
 			if (obj == this) return true;
-			if (obj instanceof Hash) return hash == ((Hash) obj).hash;
-			return false;
+			if (!(obj instanceof Hash)) return false;
+			// NB: Compare the wrapped objects, such that colliding hashes can
+			// never return the output of another input.
+			final Hash other = (Hash) obj;
+			final Object in = input.get();
+			return hash == other.hash && in != null && in.equals(other.input
+				.get()) && opName.equals(other.opName) && Arrays.equals(args,
+					other.args);
 		}
 	}
 }
@@ -30,6 +30,8 @@
 
 package net.imagej.ops.convert.clip;
 
+import java.util.function.DoubleUnaryOperator;
+
 import net.imagej.ops.Ops;
 import net.imagej.ops.convert.RealTypeConverter;
 import net.imglib2.IterableInterval;
@@ -42,7 +44,8 @@ import org.scijava.plugin.Plugin;
  */
 @Plugin(type = Ops.Convert.Clip.class)
 public class ClipRealTypes<I extends RealType<I>, O extends RealType<O>>
-	extends RealTypeConverter<I, O> implements Ops.Convert.Clip
+	extends RealTypeConverter<I, O> implements Ops.Convert.Clip,
+	DoubleUnaryOperator
 {
 
 	private double outMax;
@@ -51,16 +54,14 @@ public class ClipRealTypes<I extends RealType<I>, O extends RealType<O>>
 
 	@Override
 	public void compute1(final I input, final O output) {
-		final double v = input.getRealDouble();
-		if (v > outMax) {
-			output.setReal(outMax);
-		}
-		else if (v < outMin) {
-			output.setReal(outMin);
-		}
-		else {
-			output.setReal(v);
-		}
+		output.setReal(applyAsDouble(input.getRealDouble()));
+	}
+
+	@Override
+	public double applyAsDouble(final double v) {
+		if (v > outMax) return outMax;
+		if (v < outMin) return outMin;
+		return v;
 	}
 
 	@Override
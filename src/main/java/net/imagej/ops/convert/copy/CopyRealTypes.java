@@ -30,6 +30,8 @@
 
 package net.imagej.ops.convert.copy;
 
+import java.util.function.DoubleUnaryOperator;
+
 import net.imagej.ops.Ops;
 import net.imagej.ops.convert.RealTypeConverter;
 import net.imglib2.IterableInterval;
@@ -42,12 +44,18 @@ import org.scijava.plugin.Plugin;
  */
 @Plugin(type = Ops.Convert.Copy.class)
 public class CopyRealTypes<I extends RealType<I>, O extends RealType<O>>
-	extends RealTypeConverter<I, O> implements Ops.Convert.Copy
+	extends RealTypeConverter<I, O> implements Ops.Convert.Copy,
+	DoubleUnaryOperator
 {
 
 	@Override
 	public void compute1(final I input, final O output) {
-		output.setReal(input.getRealDouble());
+		output.setReal(applyAsDouble(input.getRealDouble()));
+	}
+
+	@Override
+	public double applyAsDouble(final double value) {
+		return value;
 	}
 
 	@Override
@@ -30,6 +30,8 @@
 
 package net.imagej.ops.convert.scale;
 
+import java.util.function.DoubleUnaryOperator;
+
 import net.imagej.ops.Ops;
 import net.imagej.ops.convert.RealTypeConverter;
 import net.imglib2.IterableInterval;
@@ -42,7 +44,8 @@ import org.scijava.plugin.Plugin;
  */
 @Plugin(type = Ops.Convert.Scale.class)
 public class ScaleRealTypes<I extends RealType<I>, O extends RealType<O>>
-	extends RealTypeConverter<I, O> implements Ops.Convert.Scale
+	extends RealTypeConverter<I, O> implements Ops.Convert.Scale,
+	DoubleUnaryOperator
 {
 
 	protected double inMin;
@@ -53,7 +56,12 @@ public class ScaleRealTypes<I extends RealType<I>, O extends RealType<O>>
 
 	@Override
 	public void compute1(final I input, final O output) {
-		output.setReal((input.getRealDouble() - inMin) / factor + outMin);
+		output.setReal(applyAsDouble(input.getRealDouble()));
+	}
+
+	@Override
+	public double applyAsDouble(final double value) {
+		return (value - inMin) / factor + outMin;
 	}
 
 	@Override
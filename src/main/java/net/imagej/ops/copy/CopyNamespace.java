@@ -149,23 +149,25 @@ public class CopyNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.copy.CopyRAI.class)
+	@OpMethod(ops = { net.imagej.ops.copy.CopyRAI.class,
+		net.imagej.ops.copy.CopyStorageArrays.class })
 	public <T> RandomAccessibleInterval<T> rai(
 			final RandomAccessibleInterval<T> in) {
 		@SuppressWarnings("unchecked")
 		final RandomAccessibleInterval<T> result = (RandomAccessibleInterval<T>) ops()
-				.run(net.imagej.ops.copy.CopyRAI.class, in);
+				.run(net.imagej.ops.Ops.Copy.RAI.class, in);
 		return result;
 	}
 
 	// FIXME: Potentially, the passed RAis are incompatible. how to handle this?
-	@OpMethod(op = net.imagej.ops.copy.CopyRAI.class)
+	@OpMethod(ops = { net.imagej.ops.copy.CopyRAI.class,
+		net.imagej.ops.copy.CopyStorageArrays.class })
 	public <T> RandomAccessibleInterval<T> rai(
 			final RandomAccessibleInterval<T> out,
 			final RandomAccessibleInterval<T> in) {
 		@SuppressWarnings("unchecked")
 		final RandomAccessibleInterval<T> result = (RandomAccessibleInterval<T>) ops()
-				.run(net.imagej.ops.copy.CopyRAI.class, out, in);
+				.run(net.imagej.ops.Ops.Copy.RAI.class, out, in);
 		return result;
 	}
 
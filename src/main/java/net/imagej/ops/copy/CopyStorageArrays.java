@@ -0,0 +1,135 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.copy;
+
+import java.lang.reflect.Array;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.map.PrimitiveArrays;
+import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.cell.CellImg;
+import net.imglib2.img.planar.PlanarImg;
+import net.imglib2.type.NativeType;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Copies an {@link ArrayImg}, {@link PlanarImg} or {@link CellImg} into an
+ * image of the same kind, element type and layout, using parallel block
+ * {@link System#arraycopy}s of the backing arrays.
+ * 
+ * @param <T>
+ */
+@Plugin(type = Ops.Copy.RAI.class, priority = Priority.HIGH_PRIORITY)
+public class CopyStorageArrays<T extends NativeType<T>> extends
+	AbstractUnaryHybridCF<RandomAccessibleInterval<T>, RandomAccessibleInterval<T>>
+	implements Ops.Copy.RAI, Contingent, Parallel
+{
+
+	/** Maximum number of array elements copied per block. */
+	private static final int BLOCK_SIZE = 1 << 16;
+
+	@Override
+	public RandomAccessibleInterval<T> createOutput(
+		final RandomAccessibleInterval<T> input)
+	{
+		// NB: Workaround for ArrayImgFactory not overriding create(Dimensions, T).
+		final long[] dims = new long[input.numDimensions()];
+		input.dimensions(dims);
+		final Img<T> img = (Img<T>) input;
+		return img.factory().create(dims, img.firstElement().createVariable());
+	}
+
+	@Override
+	public void compute1(final RandomAccessibleInterval<T> input,
+		final RandomAccessibleInterval<T> output)
+	{
+		final Object[] src = PrimitiveArrays.storage((IterableInterval<?>) input);
+		final Object[] dst = PrimitiveArrays.storage((IterableInterval<?>) output);
+
+		// split the arrays into blocks of at most BLOCK_SIZE elements
+		final int[] firstBlocks = new int[src.length + 1];
+		for (int a = 0; a < src.length; a++) {
+			final int length = Array.getLength(src[a]);
+			firstBlocks[a + 1] = firstBlocks[a] + Math.max(1, (length +
+				BLOCK_SIZE - 1) / BLOCK_SIZE);
+		}
+
+		// NB: A block is already a large unit of work, so every block may be a
+		// chunk of its own.
+		ops().thread().chunker(new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				int a = 0;
+				for (int i = 0; i < numSteps; i++) {
+					final int block = startIndex + i * stepSize;
+					while (firstBlocks[a + 1] <= block) {
+						a++;
+					}
+					final int offset = (block - firstBlocks[a]) * BLOCK_SIZE;
+					final int length = Math.min(BLOCK_SIZE, Array.getLength(src[a]) -
+						offset);
+					System.arraycopy(src[a], offset, dst[a], offset, length);
+				}
+			}
+		}, firstBlocks[src.length], 1);
+	}
+
+	@Override
+	public boolean conforms() {
+		if (!(in() instanceof Img)) return false;
+		final Img<T> in = (Img<T>) in();
+		final Object[] src = PrimitiveArrays.storage(in);
+		if (src == null) return false;
+		if (out() == null) return true;
+		if (!(out() instanceof IterableInterval)) return false;
+		final IterableInterval<?> out = (IterableInterval<?>) out();
+		if (!PrimitiveArrays.sameStorage(in, out)) return false;
+		final Object[] dst = PrimitiveArrays.storage(out);
+		if (dst == null || dst.length != src.length) return false;
+		for (int a = 0; a < src.length; a++) {
+			if (Array.getLength(src[a]) != Array.getLength(dst[a])) return false;
+		}
+		return true;
+	}
+
+}
@@ -355,6 +355,142 @@ public class DeconvolveNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(op = net.imagej.ops.deconvolve.RichardsonLucyC.class)
+	public <
+		I extends RealType<I>, O extends RealType<O>, K extends RealType<K>, C extends ComplexType<C>>
+		RandomAccessibleInterval<O> richardsonLucy(
+			final RandomAccessibleInterval<O> out,
+			final RandomAccessibleInterval<I> in1,
+			final RandomAccessibleInterval<K> in2,
+			final RandomAccessibleInterval<C> fftInput,
+			final RandomAccessibleInterval<C> fftKernel,
+			final boolean performInputFFT, final boolean performKernelFFT,
+			final int maxIterations, final Interval imgConvolutionInterval,
+			final UnaryInplaceOp<O, O> accelerator,
+			final UnaryComputerOp<RandomAccessibleInterval<O>, RandomAccessibleInterval<O>> update,
+			RandomAccessibleInterval<O> raiExtendedEstimate,
+			final ArrayList<UnaryInplaceOp<RandomAccessibleInterval<O>, RandomAccessibleInterval<O>>> iterativePostProcessing,
+			final double convergenceTolerance)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> result =
+			(RandomAccessibleInterval<O>) ops().run(
+				net.imagej.ops.deconvolve.RichardsonLucyC.class, out, in1, in2,
+				fftInput, fftKernel, performInputFFT, performKernelFFT, maxIterations,
+				imgConvolutionInterval, accelerator, update, raiExtendedEstimate,
+				iterativePostProcessing, convergenceTolerance);
+		return result;
+	}
+
+//-- DeconvolveOps.RichardsonLucyTiled
+
+	@OpMethod(op = net.imagej.ops.deconvolve.RichardsonLucyTiledF.class)
+	public <I extends RealType<I>, O extends RealType<O>, K extends RealType<K>>
+		RandomAccessibleInterval<O> richardsonLucyTiled(
+			final RandomAccessibleInterval<I> in,
+			final RandomAccessibleInterval<K> kernel, final int maxIterations)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> result =
+			(RandomAccessibleInterval<O>) ops().run(
+				net.imagej.ops.deconvolve.RichardsonLucyTiledF.class, in, kernel,
+				maxIterations);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.deconvolve.RichardsonLucyTiledF.class)
+	public <I extends RealType<I>, O extends RealType<O>, K extends RealType<K>>
+		RandomAccessibleInterval<O> richardsonLucyTiled(
+			final RandomAccessibleInterval<I> in,
+			final RandomAccessibleInterval<K> kernel, final int maxIterations,
+			final long... tileSize)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> result =
+			(RandomAccessibleInterval<O>) ops().run(
+				net.imagej.ops.deconvolve.RichardsonLucyTiledF.class, in, kernel,
+				maxIterations, tileSize);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.deconvolve.RichardsonLucyTiledF.class)
+	public <I extends RealType<I>, O extends RealType<O>, K extends RealType<K>>
+		RandomAccessibleInterval<O> richardsonLucyTiled(
+			final RandomAccessibleInterval<I> in,
+			final RandomAccessibleInterval<K> kernel, final int maxIterations,
+			final long[] tileSize, final long... overlap)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> result =
+			(RandomAccessibleInterval<O>) ops().run(
+				net.imagej.ops.deconvolve.RichardsonLucyTiledF.class, in, kernel,
+				maxIterations, tileSize, overlap);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.deconvolve.RichardsonLucyTiledF.class)
+	public <I extends RealType<I>, O extends RealType<O>, K extends RealType<K>>
+		RandomAccessibleInterval<O> richardsonLucyTiled(
+			final RandomAccessibleInterval<I> in,
+			final RandomAccessibleInterval<K> kernel, final int maxIterations,
+			final long[] tileSize, final long[] overlap,
+			final boolean nonCirculant)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> result =
+			(RandomAccessibleInterval<O>) ops().run(
+				net.imagej.ops.deconvolve.RichardsonLucyTiledF.class, in, kernel,
+				maxIterations, tileSize, overlap, nonCirculant);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.deconvolve.RichardsonLucyTiledF.class)
+	public <I extends RealType<I>, O extends RealType<O>, K extends RealType<K>>
+		RandomAccessibleInterval<O> richardsonLucyTiled(
+			final RandomAccessibleInterval<I> in,
+			final RandomAccessibleInterval<K> kernel, final int maxIterations,
+			final long[] tileSize, final long[] overlap,
+			final boolean nonCirculant, final boolean accelerate)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> result =
+			(RandomAccessibleInterval<O>) ops().run(
+				net.imagej.ops.deconvolve.RichardsonLucyTiledF.class, in, kernel,
+				maxIterations, tileSize, overlap, nonCirculant, accelerate);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.deconvolve.RichardsonLucyTiledF.class)
+	public <I extends RealType<I>, O extends RealType<O>, K extends RealType<K>>
+		RandomAccessibleInterval<O> richardsonLucyTiled(
+			final RandomAccessibleInterval<O> out,
+			final RandomAccessibleInterval<I> in,
+			final RandomAccessibleInterval<K> kernel, final int maxIterations)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> result =
+			(RandomAccessibleInterval<O>) ops().run(
+				net.imagej.ops.deconvolve.RichardsonLucyTiledF.class, out, in, kernel,
+				maxIterations);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.deconvolve.RichardsonLucyTiledF.class)
+	public <I extends RealType<I>, O extends RealType<O>, K extends RealType<K>>
+		RandomAccessibleInterval<O> richardsonLucyTiled(
+			final RandomAccessibleInterval<O> out,
+			final RandomAccessibleInterval<I> in,
+			final RandomAccessibleInterval<K> kernel, final int maxIterations,
+			final long[] tileSize, final long... overlap)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> result =
+			(RandomAccessibleInterval<O>) ops().run(
+				net.imagej.ops.deconvolve.RichardsonLucyTiledF.class, out, in, kernel,
+				maxIterations, tileSize, overlap);
+		return result;
+	}
+
 //-- DeconvolveOps.RichardsonLucyTV
 
 	@OpMethod(op = net.imagej.ops.deconvolve.RichardsonLucyTVF.class)
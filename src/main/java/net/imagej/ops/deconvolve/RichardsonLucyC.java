@@ -33,6 +33,7 @@ package net.imagej.ops.deconvolve;
 import java.util.ArrayList;
 
 import net.imagej.ops.Ops;
+import net.imagej.ops.deconvolve.accelerate.VectorAccelerator;
 import net.imagej.ops.filter.AbstractIterativeFFTFilterC;
 import net.imagej.ops.filter.convolve.ConvolveFFTC;
 import net.imagej.ops.filter.fft.FFTMethodsOpC;
@@ -44,6 +45,7 @@ import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imagej.ops.special.hybrid.Hybrids;
 import net.imagej.ops.special.hybrid.UnaryHybridCF;
 import net.imagej.ops.special.inplace.UnaryInplaceOp;
+import net.imglib2.Cursor;
 import net.imglib2.Dimensions;
 import net.imglib2.FinalInterval;
 import net.imglib2.Interval;
@@ -51,6 +53,7 @@ import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.img.Img;
 import net.imglib2.type.numeric.ComplexType;
 import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Intervals;
 import net.imglib2.util.Util;
 import net.imglib2.view.IntervalView;
 import net.imglib2.view.Views;
@@ -107,6 +110,15 @@ public class RichardsonLucyC<I extends RealType<I>, O extends RealType<O>, K ext
 	private ArrayList<UnaryInplaceOp<RandomAccessibleInterval<O>, RandomAccessibleInterval<O>>> iterativePostProcessing =
 		null;
 
+	/**
+	 * Relative change of the estimate (sum of absolute changes divided by the
+	 * sum of absolute values) below which the iterations stop before the
+	 * maximum number of iterations is reached. The default of 0 always performs
+	 * the maximum number of iterations.
+	 */
+	@Parameter(required = false)
+	private double convergenceTolerance = 0;
+
 	private BinaryComputerOp<RandomAccessibleInterval<I>, RandomAccessibleInterval<O>, RandomAccessibleInterval<O>> rlCorrection;
 
 	private UnaryFunctionOp<Interval, Img<O>> create;
@@ -121,6 +133,11 @@ public class RichardsonLucyC<I extends RealType<I>, O extends RealType<O>, K ext
 
 	private RandomAccessibleInterval<O> raiExtendedReblurred;
 
+	/** Estimate of the workspace, used if no starting estimate is passed in */
+	private RandomAccessibleInterval<O> estimateBuffer;
+
+	private int iterations;
+
 	@Override
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public void initialize() {
@@ -160,51 +177,79 @@ public class RichardsonLucyC<I extends RealType<I>, O extends RealType<O>, K ext
 	public void compute2(RandomAccessibleInterval<I> in,
 		RandomAccessibleInterval<K> kernel, RandomAccessibleInterval<O> out)
 	{
-		// if a starting point for the estimate was not passed in then create
-		// estimate Img and use the input as the starting point
-		if (raiExtendedEstimate == null) {
+		// if a starting point for the estimate was not passed in then use the
+		// estimate of the workspace and the input as the starting point
+		final RandomAccessibleInterval<O> estimate;
+		if (raiExtendedEstimate != null) {
+			estimate = raiExtendedEstimate;
+		}
+		else {
+			estimateBuffer = workspace(estimateBuffer);
+			estimate = estimateBuffer;
+			copy.compute1(in, estimate);
+		}
 
-			raiExtendedEstimate = create.compute1(getImgConvolutionInterval());
+		// image for the reblurred, reused by subsequent calls
+		raiExtendedReblurred = workspace(raiExtendedReblurred);
 
-			copy.compute1(in, raiExtendedEstimate);
+		// perform fft of psf, unless it has been passed in
+		if (getPerformKernelFFT()) {
+			fftKernel.compute1(kernel, getFFTKernel());
 		}
 
-		// create image for the reblurred
-		raiExtendedReblurred = create.compute1(getImgConvolutionInterval());
+		// the acceleration history of the previous call does not apply
+		if (getAccelerator() instanceof VectorAccelerator) {
+			((VectorAccelerator<?>) getAccelerator()).reset();
+		}
 
-		// perform fft of psf
-		fftKernel.compute1(kernel, getFFTKernel());
+		// NB: The multiplicative update can be fused with the convergence test;
+		// other updates (e.g. total variation) are applied as separate ops.
+		final boolean fusedUpdate = update instanceof RichardsonLucyUpdate;
 
 		// -- perform iterations --
 
-		for (int i = 0; i < getMaxIterations(); i++) {
+		iterations = 0;
+		while (iterations < getMaxIterations()) {
 
 			if (status != null) {
-				status.showProgress(i, getMaxIterations());
+				status.showProgress(iterations, getMaxIterations());
 			}
 
 			// create reblurred by convolving kernel with estimate
 			// NOTE: the FFT of the PSF of the kernel has been passed in as a
 			// parameter. when the op was set up, and computed above, so we can use
 			// compute1
-			convolver.compute1(raiExtendedEstimate, this.raiExtendedReblurred);
+			convolver.compute1(estimate, this.raiExtendedReblurred);
 
 			// compute correction factor
 			rlCorrection.compute2(in, raiExtendedReblurred, raiExtendedReblurred);
 
 			// perform update to calculate new estimate
-			update.compute1(raiExtendedReblurred, raiExtendedEstimate);
+			final double change;
+			if (fusedUpdate) {
+				change = multiplyUpdate(raiExtendedReblurred, estimate);
+			}
+			else {
+				change = convergenceTolerance > 0 ? relativeChange(
+					raiExtendedReblurred, estimate) : Double.POSITIVE_INFINITY;
+				update.compute1(raiExtendedReblurred, estimate);
+			}
 
 			// apply post processing
 			if (iterativePostProcessing != null) {
 				for (UnaryInplaceOp<RandomAccessibleInterval<O>, RandomAccessibleInterval<O>> pp : iterativePostProcessing) {
-					pp.mutate(raiExtendedEstimate);
+					pp.mutate(estimate);
 				}
 			}
 
+			iterations++;
+
+			// stop early if the estimate has converged
+			if (change < convergenceTolerance) break;
+
 			// accelerate the algorithm by taking a larger step
 			if (getAccelerator() != null) {
-				getAccelerator().mutate(raiExtendedEstimate);
+				getAccelerator().mutate(estimate);
 			}
 		}
 
@@ -218,8 +263,84 @@ public class RichardsonLucyC<I extends RealType<I>, O extends RealType<O>, K ext
 			end[d] = start[d] + out.dimension(d) - 1;
 		}
 
-		copy2.compute1(Views.interval(raiExtendedEstimate, new FinalInterval(start,
-			end)), out);
+		copy2.compute1(Views.interval(estimate, new FinalInterval(start, end)),
+			out);
+	}
+
+	/**
+	 * Gets the number of iterations performed by the last call, which is less
+	 * than the maximum number of iterations if the estimate converged.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Gets a buffer of the size of the convolution interval, reusing the given
+	 * one if it fits.
+	 */
+	private RandomAccessibleInterval<O> workspace(
+		final RandomAccessibleInterval<O> buffer)
+	{
+		if (buffer != null && Intervals.equalDimensions(buffer,
+			getImgConvolutionInterval())) return buffer;
+		return create.compute1(getImgConvolutionInterval());
+	}
+
+	/**
+	 * Multiplies the estimate by the correction factor, and measures the
+	 * relative change of the estimate in the same pass.
+	 * 
+	 * @return the relative change of the estimate, or infinity if no
+	 *         convergence tolerance is set
+	 */
+	private double multiplyUpdate(final RandomAccessibleInterval<O> correction,
+		final RandomAccessibleInterval<O> estimate)
+	{
+		final Cursor<O> c = Views.flatIterable(correction).cursor();
+		final Cursor<O> e = Views.flatIterable(estimate).cursor();
+
+		if (convergenceTolerance <= 0) {
+			while (e.hasNext()) {
+				e.next().mul(c.next());
+			}
+			return Double.POSITIVE_INFINITY;
+		}
+
+		double change = 0;
+		double total = 0;
+		while (e.hasNext()) {
+			final O value = e.next();
+			final double previous = value.getRealDouble();
+			value.mul(c.next());
+			final double current = value.getRealDouble();
+			change += Math.abs(current - previous);
+			total += Math.abs(current);
+		}
+		return change / total;
+	}
+
+	/**
+	 * Measures the relative change a multiplicative update by the correction
+	 * factor would make to the estimate.
+	 */
+	private double relativeChange(final RandomAccessibleInterval<O> correction,
+		final RandomAccessibleInterval<O> estimate)
+	{
+		final Cursor<O> c = Views.flatIterable(correction).cursor();
+		final Cursor<O> e = Views.flatIterable(estimate).cursor();
+
+		double change = 0;
+		double total = 0;
+		while (e.hasNext()) {
+			final double previous = e.next().getRealDouble();
+			final double factor = c.next().getRealDouble();
+			change += Math.abs(previous * (factor - 1));
+			total += Math.abs(previous * factor);
+		}
+		return change / total;
 	}
 
 }
@@ -0,0 +1,449 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+package net.imagej.ops.deconvolve;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.deconvolve.accelerate.VectorAccelerator;
+import net.imagej.ops.filter.fft.CreateOutputFFTMethods;
+import net.imagej.ops.filter.fft.FFTMethodsOpC;
+import net.imagej.ops.filter.pad.PadInputFFTMethods;
+import net.imagej.ops.filter.pad.PadShiftKernelFFTMethods;
+import net.imagej.ops.special.computer.BinaryComputerOp;
+import net.imagej.ops.special.computer.Computers;
+import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.special.function.BinaryFunctionOp;
+import net.imagej.ops.special.function.Functions;
+import net.imagej.ops.special.hybrid.AbstractBinaryHybridCF;
+import net.imagej.ops.special.inplace.Inplaces;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imglib2.Cursor;
+import net.imglib2.Dimensions;
+import net.imglib2.FinalDimensions;
+import net.imglib2.Interval;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.outofbounds.OutOfBoundsMirrorFactory;
+import net.imglib2.outofbounds.OutOfBoundsMirrorFactory.Boundary;
+import net.imglib2.type.NativeType;
+import net.imglib2.type.numeric.ComplexType;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.complex.ComplexFloatType;
+import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.util.IntervalIndexer;
+import net.imglib2.util.Intervals;
+import net.imglib2.util.Util;
+import net.imglib2.view.Views;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Richardson Lucy deconvolution of large images, which deconvolves
+ * overlapping tiles independently, in parallel, with {@link RichardsonLucyC}.
+ * Each tile consists of a core block of the output, extended by an overlap on
+ * each side which is discarded after deconvolution.
+ * <p>
+ * The padded kernel and its FFT are computed once per tile shape. Each tile
+ * in progress borrows a workspace of its shape from a pool, i.e. the FFT
+ * buffer, the tile output and the Richardson Lucy computer with its estimate
+ * buffers, and gives it back when done; at most one idle workspace per
+ * processor is kept. Only the kernel FFTs and the workspaces are held in
+ * memory, in addition to the input and output. For volumes larger than the
+ * heap, pass a cell or disk-cached output image to the computer; the default
+ * output is created by {@code create.img}.
+ * </p>
+ * <p>
+ * By default, the overlap is the extent of the PSF, and the core blocks are a
+ * multiple of it. In non-circulant mode, the boundaries of each tile are
+ * handled by the {@link NonCirculantNormalizationFactor} of its deconvolution,
+ * which depends on the tile; each tile is then deconvolved by its own
+ * {@link RichardsonLucyF}.
+ * </p>
+ * 
+ * @param <I>
+ * @param <O>
+ * @param <K>
+ * @param <C>
+ */
+@Plugin(type = Ops.Deconvolve.RichardsonLucyTiled.class,
+	priority = Priority.HIGH_PRIORITY)
+public class RichardsonLucyTiledF<I extends RealType<I> & NativeType<I>, O extends RealType<O> & NativeType<O>, K extends RealType<K> & NativeType<K>, C extends ComplexType<C> & NativeType<C>>
+	extends
+	AbstractBinaryHybridCF<RandomAccessibleInterval<I>, RandomAccessibleInterval<K>, RandomAccessibleInterval<O>>
+	implements Ops.Deconvolve.RichardsonLucyTiled, Contingent
+{
+
+	/** Default size of the core blocks, in multiples of the PSF extent. */
+	private static final int DEFAULT_TILE_FACTOR = 4;
+
+	/** Minimum default size of the core blocks. */
+	private static final int MIN_TILE_SIZE = 64;
+
+	/**
+	 * max number of iterations
+	 */
+	@Parameter
+	private int maxIterations;
+
+	/**
+	 * Size of the core block of each tile. If null, a multiple of the PSF
+	 * extent is used.
+	 */
+	@Parameter(required = false)
+	private long[] tileSize;
+
+	/**
+	 * Overlap added to each side of the core blocks. If null, the PSF extent is
+	 * used.
+	 */
+	@Parameter(required = false)
+	private long[] overlap;
+
+	/**
+	 * indicates whether to use non-circulant edge handling
+	 */
+	@Parameter(required = false)
+	private boolean nonCirculant = false;
+
+	/**
+	 * indicates whether to use acceleration
+	 */
+	@Parameter(required = false)
+	private boolean accelerate = false;
+
+	@Override
+	public boolean conforms() {
+		return out() == null || Intervals.equalDimensions(in1(), out());
+	}
+
+	@Override
+	public void compute2(final RandomAccessibleInterval<I> input,
+		final RandomAccessibleInterval<K> kernel,
+		final RandomAccessibleInterval<O> output)
+	{
+		final O outType = Util.getTypeFromInterval(output);
+
+		// NB: Like RichardsonLucyF, the output is zero-min; tiles are placed in
+		// the coordinates of the input.
+		final RandomAccessibleInterval<O> placed = Views.translate(Views.zeroMin(
+			output), Intervals.minAsLongArray(input));
+
+		final int n = input.numDimensions();
+		final long[] core = new long[n];
+		final long[] margin = new long[n];
+		final long[] tiles = new long[n];
+		for (int d = 0; d < n; d++) {
+			core[d] = tileSize != null ? tileSize[d] : Math.max(
+				DEFAULT_TILE_FACTOR * kernel.dimension(d), MIN_TILE_SIZE);
+			margin[d] = overlap != null ? overlap[d] : kernel.dimension(d);
+			tiles[d] = (input.dimension(d) + core[d] - 1) / core[d];
+		}
+
+		final long numTiles = Intervals.numElements(tiles);
+
+		// NB: The workspace pool and the kernel FFT of each tile shape are set up
+		// before the tiles are processed in parallel, so that the tiles only read
+		// the shapes.
+		final WorkspacePool pool = new WorkspacePool(outType);
+		if (!nonCirculant) {
+			final long[] tileMin = new long[n];
+			final long[] tileMax = new long[n];
+			for (long index = 0; index < numTiles; index++) {
+				tileBounds(input, index, tiles, core, margin, null, null, tileMin,
+					tileMax);
+				pool.addShape(Views.zeroMin(Views.interval(input, tileMin, tileMax)),
+					kernel);
+			}
+		}
+
+		ops().thread().chunker(new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
+			{
+				final long[] coreMin = new long[n];
+				final long[] coreMax = new long[n];
+				final long[] tileMin = new long[n];
+				final long[] tileMax = new long[n];
+
+				long index = startIndex;
+				for (long step = 0; step < numSteps; step++, index += stepSize) {
+					tileBounds(input, index, tiles, core, margin, coreMin, coreMax,
+						tileMin, tileMax);
+					final RandomAccessibleInterval<I> tileInput = Views.zeroMin(Views
+						.interval(input, tileMin, tileMax));
+					final RandomAccessibleInterval<O> coreBlock = Views.interval(
+						placed, coreMin, coreMax);
+
+					// keep the core block, discard the overlap
+					if (nonCirculant) {
+						copyCore(Views.translate(deconvolveNonCirculant(tileInput, kernel,
+							outType), tileMin.clone()), coreBlock);
+						continue;
+					}
+
+					// NB: The workspace is borrowed for this tile only: while the
+					// nested tasks of the tile are joined, this thread may start
+					// another tile, which must not share the buffers.
+					final Workspace workspace = pool.borrow(tileInput);
+					copyCore(Views.translate(workspace.deconvolve(tileInput), tileMin
+						.clone()), coreBlock);
+					pool.giveBack(workspace);
+				}
+			}
+		}, numTiles);
+	}
+
+	/**
+	 * Creates the output, of the type of the input if the input and kernel are
+	 * of the same type, or {@link FloatType} otherwise.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public RandomAccessibleInterval<O> createOutput(
+		final RandomAccessibleInterval<I> input,
+		final RandomAccessibleInterval<K> kernel)
+	{
+		final Object type;
+		if (Util.getTypeFromInterval(input).getClass() == Util.getTypeFromInterval(
+			kernel).getClass())
+		{
+			type = Util.getTypeFromInterval(input).createVariable();
+		}
+		else {
+			type = new FloatType();
+		}
+		return ops().create().img(input, (O) type);
+	}
+
+	// -- Helper methods --
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private RandomAccessibleInterval<O> deconvolveNonCirculant(
+		final RandomAccessibleInterval<I> tileInput,
+		final RandomAccessibleInterval<K> kernel, final O outType)
+	{
+		final BinaryFunctionOp<RandomAccessibleInterval<I>, RandomAccessibleInterval<K>, RandomAccessibleInterval<O>> deconvolve =
+			(BinaryFunctionOp) Functions.binary(ops(), RichardsonLucyF.class,
+				RandomAccessibleInterval.class, tileInput, kernel, null, null, null,
+				outType, null, maxIterations, true, accelerate);
+		return deconvolve.compute2(tileInput, kernel);
+	}
+
+	/**
+	 * Computes the bounds of the core block and of the tile with the given
+	 * index. The core bounds are skipped if null.
+	 */
+	private static void tileBounds(final Interval input, final long index,
+		final long[] tiles, final long[] core, final long[] margin,
+		final long[] coreMin, final long[] coreMax, final long[] tileMin,
+		final long[] tileMax)
+	{
+		final int n = input.numDimensions();
+		final long[] tile = new long[n];
+		IntervalIndexer.indexToPosition(index, tiles, tile);
+		for (int d = 0; d < n; d++) {
+			final long min = input.min(d) + tile[d] * core[d];
+			final long max = Math.min(min + core[d], input.max(d) + 1) - 1;
+			if (coreMin != null) {
+				coreMin[d] = min;
+				coreMax[d] = max;
+			}
+			tileMin[d] = Math.max(min - margin[d], input.min(d));
+			tileMax[d] = Math.min(max + margin[d], input.max(d));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private RandomAccessibleInterval<C> createFFT(final Dimensions paddedSize) {
+		final ComplexType<C> fftType = (ComplexType<C>) ops().create().nativeType(
+			ComplexFloatType.class);
+		return (RandomAccessibleInterval<C>) ops().run(
+			CreateOutputFFTMethods.class, paddedSize, fftType, true);
+	}
+
+	private void copyCore(final RandomAccessibleInterval<O> tileOutput,
+		final RandomAccessibleInterval<O> core)
+	{
+		final Cursor<O> cursor = Views.iterable(core).localizingCursor();
+		final RandomAccess<O> access = tileOutput.randomAccess();
+		while (cursor.hasNext()) {
+			cursor.fwd();
+			access.setPosition(cursor);
+			cursor.get().set(access.get());
+		}
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * The workspaces of all tile shapes. A tile borrows a workspace and gives it
+	 * back once its core block is copied. At most one idle workspace per
+	 * processor is kept for reuse; more are only created while more tiles are in
+	 * progress.
+	 */
+	private class WorkspacePool {
+
+		private final O outType;
+		private final Map<String, TileShape> shapes = new HashMap<>();
+		private final int maxIdle = Runtime.getRuntime().availableProcessors();
+		private final AtomicInteger idle = new AtomicInteger();
+
+		private WorkspacePool(final O outType) {
+			this.outType = outType;
+		}
+
+		private void addShape(final RandomAccessibleInterval<I> tileInput,
+			final RandomAccessibleInterval<K> kernel)
+		{
+			final String key = key(tileInput);
+			if (!shapes.containsKey(key)) {
+				shapes.put(key, new TileShape(tileInput, kernel));
+			}
+		}
+
+		private Workspace borrow(final RandomAccessibleInterval<I> tileInput) {
+			final TileShape shape = shapes.get(key(tileInput));
+			final Workspace workspace = shape.idle.poll();
+			if (workspace == null) return new Workspace(shape, tileInput, outType);
+			idle.decrementAndGet();
+			return workspace;
+		}
+
+		private void giveBack(final Workspace workspace) {
+			if (idle.incrementAndGet() <= maxIdle) {
+				workspace.shape.idle.push(workspace);
+			}
+			else {
+				idle.decrementAndGet();
+			}
+		}
+
+		private String key(final RandomAccessibleInterval<I> tileInput) {
+			return Arrays.toString(Intervals.dimensionsAsLongArray(tileInput));
+		}
+	}
+
+	/**
+	 * The parts shared by all workspaces of one tile shape: the padded size, the
+	 * padded kernel and its FFT, which is computed once and only read by the
+	 * deconvolutions.
+	 */
+	private class TileShape {
+
+		private final Dimensions paddedSize;
+		private final RandomAccessibleInterval<K> paddedKernel;
+		private final RandomAccessibleInterval<C> fftKernel;
+		private final Deque<Workspace> idle = new ConcurrentLinkedDeque<>();
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private TileShape(final RandomAccessibleInterval<I> tileInput,
+			final RandomAccessibleInterval<K> kernel)
+		{
+			final int n = tileInput.numDimensions();
+			final long[] size = new long[n];
+			for (int d = 0; d < n; d++) {
+				size[d] = tileInput.dimension(d) + kernel.dimension(d) - 1;
+			}
+			paddedSize = new FinalDimensions(size);
+
+			paddedKernel = (RandomAccessibleInterval<K>) ops().run(
+				PadShiftKernelFFTMethods.class, kernel, paddedSize, true);
+			fftKernel = createFFT(paddedSize);
+			((UnaryComputerOp) Computers.unary(ops(), FFTMethodsOpC.class, fftKernel,
+				paddedKernel)).compute1(paddedKernel, fftKernel);
+		}
+	}
+
+	/**
+	 * The buffers and ops of one tile in progress, set up as
+	 * {@link RichardsonLucyF} does, except that the kernel FFT of the shape is
+	 * passed in.
+	 */
+	private class Workspace {
+
+		private final TileShape shape;
+		private final BinaryFunctionOp<RandomAccessibleInterval<I>, Dimensions, RandomAccessibleInterval<I>> padOp;
+		private final RandomAccessibleInterval<O> tileOutput;
+		private final BinaryComputerOp<RandomAccessibleInterval<I>, RandomAccessibleInterval<K>, RandomAccessibleInterval<O>> richardsonLucy;
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Workspace(final TileShape shape,
+			final RandomAccessibleInterval<I> tileInput, final O outType)
+		{
+			this.shape = shape;
+
+			padOp = (BinaryFunctionOp) Functions.binary(ops(),
+				PadInputFFTMethods.class, RandomAccessibleInterval.class,
+				RandomAccessibleInterval.class, Dimensions.class, true,
+				new OutOfBoundsMirrorFactory<>(Boundary.SINGLE));
+			final RandomAccessibleInterval<I> paddedInput = padOp.compute2(
+				tileInput, shape.paddedSize);
+
+			tileOutput = ops().create().img(tileInput, outType.createVariable());
+
+			final Object accelerator = accelerate ? Inplaces.unary(ops(),
+				VectorAccelerator.class, tileOutput) : null;
+			final Object update = Computers.unary(ops(), RichardsonLucyUpdate.class,
+				RandomAccessibleInterval.class, RandomAccessibleInterval.class);
+
+			richardsonLucy = (BinaryComputerOp) Computers.binary(ops(),
+				RichardsonLucyC.class, tileOutput, paddedInput, shape.paddedKernel,
+				createFFT(shape.paddedSize), shape.fftKernel, true, false,
+				maxIterations, paddedInput, accelerator, update);
+		}
+
+		private RandomAccessibleInterval<O> deconvolve(
+			final RandomAccessibleInterval<I> tileInput)
+		{
+			richardsonLucy.compute2(padOp.compute2(tileInput, shape.paddedSize),
+				shape.paddedKernel, tileOutput);
+			return tileOutput;
+		}
+	}
+
+}
@@ -42,6 +42,7 @@ import net.imglib2.img.Img;
 import net.imglib2.img.array.ArrayImgFactory;
 import net.imglib2.type.NativeType;
 import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Intervals;
 import net.imglib2.util.Util;
 import net.imglib2.view.Views;
 
@@ -70,6 +71,12 @@ public class VectorAccelerator<T extends RealType<T> & NativeType<T>> extends
 	Img<T> gk;
 	Img<T> gkm1;
 
+	/** Buffer holding gkm1; kept when the history is discarded */
+	Img<T> gkm1_buffer = null;
+
+	/** Whether a prediction has been made since the last reset */
+	boolean predicted = false;
+
 	private UnaryFunctionOp<Dimensions, Img<T>> create;
 
 	double accelerationFactor = 0.0f;
@@ -93,28 +100,40 @@ public class VectorAccelerator<T extends RealType<T> & NativeType<T>> extends
 	}
 
 	public void initialize(RandomAccessibleInterval<T> yk_iterated) {
-		if (yk_prediction == null) {
+		if (yk_prediction == null || !Intervals.equalDimensions(yk_prediction,
+			yk_iterated))
+		{
 
 			long[] temp = new long[yk_iterated.numDimensions()];
 			yk_iterated.dimensions(temp);
 
 			FinalDimensions dims = new FinalDimensions(temp);
 
-			yk_prediction = create.compute1(dims);
 			xkm1_previous = create.compute1(dims);
 			yk_prediction = create.compute1(dims);
 			gk = create.compute1(dims);
+			gkm1_buffer = create.compute1(dims);
 			hk_vector = create.compute1(dims);
 
 		}
 
 	}
 
+	/**
+	 * Discards the history of previous iterations, such that the next
+	 * deconvolution starts afresh. The buffers are kept for reuse.
+	 */
+	public void reset() {
+		predicted = false;
+		gkm1 = null;
+		accelerationFactor = 0.0;
+	}
+
 	public void accelerate(RandomAccessibleInterval<T> yk_iterated) {
 
 		// use the iterated prediction and the previous value of the prediction
 		// to calculate the acceleration factor
-		if (yk_prediction != null) {
+		if (predicted) {
 
 			accelerationFactor = computeAccelerationFactor(yk_iterated);
 
@@ -136,8 +155,8 @@ public class VectorAccelerator<T extends RealType<T> & NativeType<T>> extends
 			Subtract(xk_estimate, xkm1_previous, hk_vector);
 
 			// make the next prediction
-			yk_prediction = AddAndScale(xk_estimate, hk_vector,
-				(float) accelerationFactor);
+			AddAndScale(xk_estimate, hk_vector, (float) accelerationFactor,
+				yk_prediction);
 		}
 		else {
 
@@ -146,6 +165,7 @@ public class VectorAccelerator<T extends RealType<T> & NativeType<T>> extends
 
 			Copy(xk_estimate, yk_prediction);
 		}
+		predicted = true;
 
 		// make a copy of the estimate to use as previous next time
 		Copy(xk_estimate, xkm1_previous);
@@ -158,18 +178,20 @@ public class VectorAccelerator<T extends RealType<T> & NativeType<T>> extends
 		// gk=StaticFunctions.Subtract(yk_iterated, yk_prediction);
 		Subtract(yk_iterated, yk_prediction, gk);
 
+		double factor = 0.0;
 		if (gkm1 != null) {
 			double numerator = DotProduct(gk, gkm1);
 			double denominator = DotProduct(gkm1, gkm1);
 
-			gkm1 = gk.copy();
-			return numerator / denominator;
-
+			factor = numerator / denominator;
 		}
 
-		gkm1 = gk.copy();
+		// NB: Swap the buffers instead of copying, gk is overwritten next time.
+		gkm1 = gk;
+		gk = gkm1_buffer;
+		gkm1_buffer = gkm1;
 
-		return 0.0;
+		return factor;
 
 	}
 
@@ -236,7 +258,14 @@ public class VectorAccelerator<T extends RealType<T> & NativeType<T>> extends
 		final Img<T> img2, final float a)
 	{
 		Img<T> out = create.compute1(img1);
+		AddAndScale(img1, img2, a, out);
+		return out;
+	}
 
+	/** Computes {@code img1 + a * img2} into the given output. */
+	public void AddAndScale(final RandomAccessibleInterval<T> img1,
+		final Img<T> img2, final float a, final Img<T> out)
+	{
 		final Cursor<T> cursor1 = Views.iterable(img1).cursor();
 		final Cursor<T> cursor2 = img2.cursor();
 		final Cursor<T> cursorOut = out.cursor();
@@ -253,7 +282,5 @@ public class VectorAccelerator<T extends RealType<T> & NativeType<T>> extends
 
 			cursorOut.get().setReal(val3);
 		}
-
-		return out;
 	}
 }
@@ -0,0 +1,536 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.features.haralick;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imagej.ops.image.cooccurrenceMatrix.MatrixOrientation;
+import net.imagej.ops.image.cooccurrenceMatrix.MatrixOrientation2D;
+import net.imagej.ops.image.cooccurrenceMatrix.MatrixOrientation3D;
+import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imglib2.Cursor;
+import net.imglib2.IterableInterval;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.util.IntervalIndexer;
+import net.imglib2.util.Intervals;
+
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Computes several {@link HaralickFeature}s for several orientations at once.
+ * The input is quantized once, the co-occurrences of all orientations are
+ * counted in a single parallel pass, and the marginal distributions are
+ * derived once per orientation and shared by all features.
+ * <p>
+ * The results equal those of the individual features, which compute the
+ * {@link net.imagej.ops.Ops.Image.CooccurrenceMatrix} over and over, for 2D
+ * inputs and for 3D inputs which fill their bounding box. Pixels outside of
+ * the input (e.g. of a label region) never form a pair, whereas the 3D
+ * co-occurrence matrix counts the voxels outside of a masked region as grey
+ * level 0, so the results differ for masked 3D regions.
+ * </p>
+ * 
+ * @param <T> input type
+ */
+@Plugin(type = Ops.Haralick.FeatureSet.class, label = "Haralick: Feature Set")
+public class DefaultHaralickFeatureSet<T extends RealType<T>> extends
+	AbstractUnaryFunctionOp<IterableInterval<T>, Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>>>
+	implements Ops.Haralick.FeatureSet, Contingent
+{
+
+	/** Avoid log 0; the same value as used by the individual features. */
+	private static final double EPSILON = 0.00000001f;
+
+	/** All supported features, in the order of their results. */
+	private static final Map<Class<? extends Op>, ToDoubleFunction<CoocStatistics>> FEATURES =
+		new LinkedHashMap<>();
+
+	static {
+		FEATURES.put(Ops.Haralick.ASM.class, CoocStatistics::asm);
+		FEATURES.put(Ops.Haralick.ClusterPromenence.class,
+			CoocStatistics::clusterPromenence);
+		FEATURES.put(Ops.Haralick.ClusterShade.class,
+			CoocStatistics::clusterShade);
+		FEATURES.put(Ops.Haralick.Contrast.class, CoocStatistics::contrast);
+		FEATURES.put(Ops.Haralick.Correlation.class, CoocStatistics::correlation);
+		FEATURES.put(Ops.Haralick.DifferenceEntropy.class,
+			CoocStatistics::differenceEntropy);
+		FEATURES.put(Ops.Haralick.DifferenceVariance.class,
+			CoocStatistics::differenceVariance);
+		FEATURES.put(Ops.Haralick.Entropy.class, CoocStatistics::entropy);
+		FEATURES.put(Ops.Haralick.ICM1.class, CoocStatistics::icm1);
+		FEATURES.put(Ops.Haralick.ICM2.class, CoocStatistics::icm2);
+		FEATURES.put(Ops.Haralick.IFDM.class, CoocStatistics::ifdm);
+		FEATURES.put(Ops.Haralick.MaxProbability.class,
+			CoocStatistics::maxProbability);
+		FEATURES.put(Ops.Haralick.SumAverage.class, CoocStatistics::sumAverage);
+		FEATURES.put(Ops.Haralick.SumEntropy.class, CoocStatistics::sumEntropy);
+		FEATURES.put(Ops.Haralick.SumVariance.class,
+			CoocStatistics::sumVariance);
+		FEATURES.put(Ops.Haralick.TextureHomogeneity.class,
+			CoocStatistics::textureHomogeneity);
+		FEATURES.put(Ops.Haralick.Variance.class, CoocStatistics::variance);
+	}
+
+	@Parameter
+	private int numGreyLevels = 32;
+
+	@Parameter
+	private int distance = 1;
+
+	/** The orientations to compute; all orientations of the input by default. */
+	@Parameter(required = false)
+	private MatrixOrientation[] orientations;
+
+	/**
+	 * The features to compute, given by their op types (e.g.
+	 * {@link net.imagej.ops.Ops.Haralick.ASM}); all features by default.
+	 */
+	@Parameter(required = false)
+	private Class<? extends Op>[] features;
+
+	@Override
+	public Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> compute1(
+		final IterableInterval<T> input)
+	{
+		final MatrixOrientation[] dirs = orientations != null ? orientations
+			: defaultOrientations(input.numDimensions());
+		final Iterable<Class<? extends Op>> featureTypes = features != null
+			? Arrays.asList(features) : FEATURES.keySet();
+
+		final long[] dims = Intervals.dimensionsAsLongArray(input);
+		final int[] grid = quantize(input, dims);
+		final long[][] counts = countPairs(grid, dims, dirs);
+
+		final Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> result =
+			new LinkedHashMap<>();
+		for (int o = 0; o < dirs.length; o++) {
+			final CoocStatistics stats = new CoocStatistics(counts[o],
+				numGreyLevels);
+			final Map<Class<? extends Op>, DoubleType> values =
+				new LinkedHashMap<>();
+			for (final Class<? extends Op> feature : featureTypes) {
+				values.put(feature, new DoubleType(FEATURES.get(feature).applyAsDouble(
+					stats)));
+			}
+			result.put(dirs[o], values);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean conforms() {
+		final int n = in().numDimensions();
+		if (orientations == null) {
+			if (n != 2 && n != 3) return false;
+		}
+		else {
+			for (final MatrixOrientation orientation : orientations) {
+				if (!orientation.isCompatible(n)) return false;
+			}
+		}
+		if (features != null) {
+			for (final Class<? extends Op> feature : features) {
+				if (!FEATURES.containsKey(feature)) return false;
+			}
+		}
+		return numGreyLevels > 0 && Intervals.numElements(in()) <=
+			Integer.MAX_VALUE;
+	}
+
+	// -- Helper methods --
+
+	private static MatrixOrientation[] defaultOrientations(final int n) {
+		return n == 2 ? MatrixOrientation2D.values() : MatrixOrientation3D
+			.values();
+	}
+
+	/**
+	 * Quantizes the input into grey levels, in a flat array spanning its
+	 * bounding box. Positions which are not part of the input are set to -1.
+	 */
+	private int[] quantize(final IterableInterval<T> input, final long[] dims) {
+		final int n = dims.length;
+		final long[] min = Intervals.minAsLongArray(input);
+		final int size = (int) Intervals.numElements(dims);
+		final double[] values = new double[size];
+		final int[] grid = new int[size];
+		Arrays.fill(grid, -1);
+
+		double localMin = Double.POSITIVE_INFINITY;
+		double localMax = Double.NEGATIVE_INFINITY;
+		final long[] pos = new long[n];
+		final Cursor<T> cursor = input.localizingCursor();
+		while (cursor.hasNext()) {
+			cursor.fwd();
+			cursor.localize(pos);
+			for (int d = 0; d < n; d++) {
+				pos[d] -= min[d];
+			}
+			final int index = (int) IntervalIndexer.positionToIndex(pos, dims);
+			final double value = cursor.get().getRealDouble();
+			values[index] = value;
+			grid[index] = 0;
+			if (value < localMin) localMin = value;
+			if (value > localMax) localMax = value;
+		}
+
+		// NB: Same quantization as the CooccurrenceMatrix ops.
+		final double diff = localMax - localMin;
+		for (int i = 0; i < size; i++) {
+			if (grid[i] < 0) continue;
+			grid[i] = (int) (((values[i] - localMin) / diff) * (numGreyLevels - 1));
+		}
+		return grid;
+	}
+
+	/**
+	 * Counts the pairs of grey levels of all orientations, processing the lines
+	 * along the first dimension in parallel.
+	 * 
+	 * @return for each orientation, the counts of the pairs (first, second) at
+	 *         index {@code first * numGreyLevels + second}
+	 */
+	private long[][] countPairs(final int[] grid, final long[] dims,
+		final MatrixOrientation[] dirs)
+	{
+		final int n = dims.length;
+		final int g = numGreyLevels;
+		final int width = (int) dims[0];
+
+		final int[][] steps = new int[dirs.length][n];
+		final int[] offsets = new int[dirs.length];
+		for (int o = 0; o < dirs.length; o++) {
+			long stride = 1;
+			for (int d = 0; d < n; d++) {
+				steps[o][d] = dirs[o].getValueAtDim(d) * distance;
+				offsets[o] += steps[o][d] * stride;
+				stride *= dims[d];
+			}
+		}
+
+		final long[] lineDims = dims.clone();
+		lineDims[0] = 1;
+		final long[][] counts = new long[dirs.length][g * g];
+		if (grid.length == 0) return counts;
+
+		ops().thread().chunker(new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				final long[][] local = new long[dirs.length][g * g];
+				final boolean[] valid = new boolean[dirs.length];
+				final long[] pos = new long[n];
+
+				int line = startIndex;
+				for (int step = 0; step < numSteps; step++, line += stepSize) {
+					// NB: The second pixel of a pair must lie within the lines.
+					IntervalIndexer.indexToPosition(line, lineDims, pos);
+					for (int o = 0; o < dirs.length; o++) {
+						valid[o] = true;
+						for (int d = 1; d < n; d++) {
+							final long p = pos[d] + steps[o][d];
+							if (p < 0 || p >= dims[d]) valid[o] = false;
+						}
+					}
+
+					final int start = line * width;
+					for (int x = 0; x < width; x++) {
+						final int first = grid[start + x];
+						if (first < 0) continue;
+						for (int o = 0; o < dirs.length; o++) {
+							final int sx = x + steps[o][0];
+							if (!valid[o] || sx < 0 || sx >= width) continue;
+							final int second = grid[start + x + offsets[o]];
+							if (second >= 0) local[o][first * g + second]++;
+						}
+					}
+				}
+
+				synchronized (counts) {
+					for (int o = 0; o < dirs.length; o++) {
+						for (int i = 0; i < counts[o].length; i++) {
+							counts[o][i] += local[o][i];
+						}
+					}
+				}
+			}
+		}, grid.length / width);
+
+		return counts;
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * The normalized co-occurrence matrix of one orientation together with its
+	 * marginal distributions, from which all features are computed. The
+	 * definitions follow the individual features and the helpers in
+	 * {@link net.imagej.ops.features.haralick.helper}.
+	 */
+	private static class CoocStatistics {
+
+		private final int g;
+		private final double[] matrix;
+
+		/** Column sums, as computed by {@code CoocPX}. */
+		private final double[] px;
+		/** Row sums, as computed by {@code CoocPY}. */
+		private final double[] py;
+		private final double[] pxplusy;
+		private final double[] pxminusy;
+
+		private final double meanx;
+		private final double meany;
+		private final double stdx;
+		private final double stdy;
+
+		public CoocStatistics(final long[] counts, final int g) {
+			this.g = g;
+			matrix = new double[g * g];
+			px = new double[g];
+			py = new double[g];
+			pxplusy = new double[2 * g + 1];
+			pxminusy = new double[g];
+
+			long nrPairs = 0;
+			for (final long count : counts) {
+				nrPairs += count;
+			}
+			final double divisor = nrPairs > 0 ? 1.0 / nrPairs : 0;
+
+			for (int i = 0; i < g; i++) {
+				for (int j = 0; j < g; j++) {
+					final double p = counts[i * g + j] * divisor;
+					matrix[i * g + j] = p;
+					px[j] += p;
+					py[i] += p;
+					pxplusy[i + j + 2] += p;
+					pxminusy[Math.abs(i - j)] += p;
+				}
+			}
+
+			double mx = 0, my = 0;
+			for (int i = 0; i < g; i++) {
+				mx += i * px[i];
+				my += i * py[i];
+			}
+			meanx = mx;
+			meany = my;
+
+			double sx = 0, sy = 0;
+			for (int i = 0; i < g; i++) {
+				sx += (i - meanx) * (i - meanx) * px[i];
+				sy += (i - meany) * (i - meany) * py[i];
+			}
+			stdx = sx;
+			stdy = sy;
+		}
+
+		public double asm() {
+			double res = 0;
+			for (final double p : matrix) {
+				res += p * p;
+			}
+			return res;
+		}
+
+		public double clusterPromenence() {
+			double res = 0;
+			for (int i = 0; i < g; i++) {
+				for (int j = 0; j < g; j++) {
+					res += Math.pow(i + j - meanx - meany, 4) * matrix[i * g + j];
+				}
+			}
+			return res;
+		}
+
+		public double clusterShade() {
+			double res = 0;
+			for (int i = 0; i < g; i++) {
+				for (int j = 0; j < g; j++) {
+					res += Math.pow(i + j - meanx - meany, 3) * matrix[i * g + j];
+				}
+			}
+			return res;
+		}
+
+		public double contrast() {
+			double res = 0;
+			for (int k = 0; k < g; k++) {
+				res += k * k * pxminusy[k];
+			}
+			return res;
+		}
+
+		public double correlation() {
+			double res = 0;
+			for (int i = 0; i < g; i++) {
+				for (int j = 0; j < g; j++) {
+					res += ((i - meanx) * (j - meany)) * (matrix[i * g + j] / (stdx *
+						stdy));
+				}
+			}
+			return Double.isNaN(res) ? 0 : res;
+		}
+
+		public double differenceEntropy() {
+			double res = 0;
+			for (int k = 0; k < g; k++) {
+				res += pxminusy[k] * Math.log(pxminusy[k] + EPSILON);
+			}
+			return -res;
+		}
+
+		public double differenceVariance() {
+			double sum = 0;
+			for (int k = 0; k < g; k++) {
+				sum += k * pxminusy[k];
+			}
+			double res = 0;
+			for (int k = 0; k < g; k++) {
+				res += (k - sum) * pxminusy[k];
+			}
+			return res;
+		}
+
+		public double entropy() {
+			double res = 0;
+			for (final double p : matrix) {
+				res += p * Math.log10(p + EPSILON);
+			}
+			return -res;
+		}
+
+		public double icm1() {
+			final double[] hxy = hxy();
+			return (entropy() - hxy[2]) / (hxy[0] > hxy[1] ? hxy[0] : hxy[1]);
+		}
+
+		public double icm2() {
+			final double res = Math.sqrt(1 - Math.exp(-2 * (hxy()[3] - entropy())));
+			return Double.isNaN(res) ? 0 : res;
+		}
+
+		public double ifdm() {
+			double res = 0;
+			for (int i = 0; i < g; i++) {
+				for (int j = 0; j < g; j++) {
+					if (i != j) res += matrix[i * g + j] / Math.abs(i - j);
+				}
+			}
+			return res;
+		}
+
+		public double maxProbability() {
+			double res = 0;
+			for (final double p : matrix) {
+				if (p > res) res = p;
+			}
+			return res;
+		}
+
+		public double sumAverage() {
+			double res = 0;
+			for (int k = 2; k <= 2 * g; k++) {
+				res += k * pxplusy[k];
+			}
+			return res;
+		}
+
+		public double sumEntropy() {
+			double res = 0;
+			for (int k = 2; k <= 2 * g; k++) {
+				res += pxplusy[k] * Math.log10(pxplusy[k] + EPSILON);
+			}
+			return -res;
+		}
+
+		public double sumVariance() {
+			final double average = sumAverage();
+			double res = 0;
+			for (int k = 2; k <= 2 * g; k++) {
+				res += (k - average) * (k - average) * pxplusy[k];
+			}
+			return res;
+		}
+
+		public double textureHomogeneity() {
+			double res = 0;
+			for (int i = 0; i < g; i++) {
+				for (int j = 0; j < g; j++) {
+					res += matrix[i * g + j] / (1 + Math.abs(i - j));
+				}
+			}
+			return res;
+		}
+
+		public double variance() {
+			double res = 0;
+			for (int i = 0; i < g; i++) {
+				for (int j = 0; j < g; j++) {
+					final double p = matrix[i * g + j];
+					res += (i - meanx) * (i - meanx) * p + (j - meany) * (j - meany) * p;
+				}
+			}
+			return res / 2;
+		}
+
+		/** Computes the entropies HX, HY, HXY1 and HXY2, as {@code CoocHXY}. */
+		private double[] hxy() {
+			double hx = 0, hy = 0, hxy1 = 0, hxy2 = 0;
+			for (int i = 0; i < g; i++) {
+				hx += px[i] * Math.log(px[i] + EPSILON);
+				hy += py[i] * Math.log(py[i] + EPSILON);
+			}
+			for (int i = 0; i < g; i++) {
+				for (int j = 0; j < g; j++) {
+					final double pxy = px[i] * py[j];
+					hxy1 += matrix[i * g + j] * Math.log(pxy + EPSILON);
+					hxy2 += pxy * Math.log(pxy + EPSILON);
+				}
+			}
+			return new double[] { -hx, -hy, -hxy1, -hxy2 };
+		}
+	}
+
+}
@@ -30,8 +30,11 @@
 
 package net.imagej.ops.features.haralick;
 
+import java.util.Map;
+
 import net.imagej.ops.AbstractNamespace;
 import net.imagej.ops.Namespace;
+import net.imagej.ops.Op;
 import net.imagej.ops.OpMethod;
 import net.imagej.ops.image.cooccurrenceMatrix.MatrixOrientation;
 import net.imglib2.IterableInterval;
@@ -235,6 +238,47 @@ public class HaralickNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.features.haralick.DefaultHaralickFeatureSet.class)
+	public <T extends RealType<T>> Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> featureSet(
+		final IterableInterval<T> in, final int numGreyLevels, final int distance)
+	{
+		@SuppressWarnings("unchecked")
+		final Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> result =
+			(Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>>) ops().run(
+				net.imagej.ops.Ops.Haralick.FeatureSet.class, in, numGreyLevels,
+				distance);
+		return result;
+	}
+
+	@OpMethod(
+		op = net.imagej.ops.features.haralick.DefaultHaralickFeatureSet.class)
+	public <T extends RealType<T>> Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> featureSet(
+		final IterableInterval<T> in, final int numGreyLevels, final int distance,
+		final MatrixOrientation... orientations)
+	{
+		@SuppressWarnings("unchecked")
+		final Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> result =
+			(Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>>) ops().run(
+				net.imagej.ops.Ops.Haralick.FeatureSet.class, in, numGreyLevels,
+				distance, orientations);
+		return result;
+	}
+
+	@OpMethod(
+		op = net.imagej.ops.features.haralick.DefaultHaralickFeatureSet.class)
+	public <T extends RealType<T>> Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> featureSet(
+		final IterableInterval<T> in, final int numGreyLevels, final int distance,
+		final MatrixOrientation[] orientations, final Class<?>... features)
+	{
+		@SuppressWarnings("unchecked")
+		final Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> result =
+			(Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>>) ops().run(
+				net.imagej.ops.Ops.Haralick.FeatureSet.class, in, numGreyLevels,
+				distance, orientations, features);
+		return result;
+	}
+
 	@OpMethod(op = net.imagej.ops.features.haralick.DefaultICM1.class)
 	public <T extends RealType<T>> DoubleType icm1(final IterableInterval<T> in,
 		final int numGreyLevels, final int distance,
@@ -40,6 +40,7 @@ import net.imagej.ops.create.img.CreateImgFromDimsAndType;
 import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
 import net.imagej.ops.thread.chunker.CursorBasedChunk;
 import net.imglib2.Cursor;
 import net.imglib2.FinalInterval;
@@ -171,7 +172,8 @@ public class HistogramOfOrientedGradients2D<T extends RealType<T>>
 			}
 		};
 
-		ops().thread().chunker(chunkable, Views.flatIterable(magnitudes).size());
+		ops().thread().chunker(chunkable, Views.flatIterable(magnitudes).size(),
+			ChunkerForkJoin.PIXEL_GRAIN_SIZE);
 
 		// stores each Thread to execute
 		final List<Callable<Void>> listCallables = new ArrayList<>();
@@ -0,0 +1,180 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter;
+
+import java.util.function.Consumer;
+
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessible;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.Img;
+import net.imglib2.type.NativeType;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.util.Intervals;
+import net.imglib2.util.Util;
+import net.imglib2.view.Views;
+
+/**
+ * Abstract base class for minimum and maximum filters over a
+ * {@link net.imglib2.algorithm.neighborhood.RectangleShape}. Since the extremum
+ * of a box is separable, the filter is applied along each dimension in turn,
+ * using the van Herk/Gil-Werman algorithm, which needs three comparisons per
+ * pixel and dimension regardless of the span.
+ * <p>
+ * The intermediate results are stored in images of the input type (or
+ * {@link DoubleType} for non-native input types), so that they are exact.
+ * </p>
+ * 
+ * @param <T> input type
+ * @param <V> output type
+ */
+public abstract class AbstractRectangleExtremumFilter<T extends RealType<T>, V extends RealType<V>>
+	extends AbstractRectangleShapeFilter<T, V>
+{
+
+	@Override
+	public boolean conforms() {
+		// NB: The extremum of a box without its center is not separable.
+		return super.conforms() && !getShape().isSkippingCenter();
+	}
+
+	@Override
+	public void compute1(final RandomAccessibleInterval<T> input,
+		final IterableInterval<V> output)
+	{
+		final int n = input.numDimensions();
+		final int span = getShape().getSpan();
+
+		RandomAccessible<? extends RealType<?>> source = Views.extend(input,
+			getOutOfBoundsFactory());
+		for (int d = 0; d < n; d++) {
+			// NB: Later dimensions still need the margin of the box.
+			final long[] min = Intervals.minAsLongArray(input);
+			final long[] max = Intervals.maxAsLongArray(input);
+			for (int k = d + 1; k < n; k++) {
+				min[k] -= span;
+				max[k] += span;
+			}
+			final Interval interval = new FinalInterval(min, max);
+
+			final RandomAccessibleInterval<? extends RealType<?>> target;
+			if (d == n - 1) target = placeOutput(input, output);
+			else target = createBuffer(input, interval);
+			final RandomAccessible<? extends RealType<?>> lineSource = source;
+			final int dim = d;
+			processLines(interval, d, () -> new ExtremumLine(lineSource, target, dim,
+				span, interval.dimension(dim)));
+			source = target;
+		}
+	}
+
+	/** Gets the more extreme of the two values. */
+	protected abstract double select(double a, double b);
+
+	// -- Helper methods --
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private RandomAccessibleInterval<? extends RealType<?>> createBuffer(
+		final RandomAccessibleInterval<T> input, final Interval interval)
+	{
+		final T type = Util.getTypeFromInterval(input);
+		final RealType<?> bufferType = type instanceof NativeType ? type
+			.createVariable() : new DoubleType();
+		final Img<? extends RealType<?>> buffer = (Img) ops().create().img(
+			interval, (NativeType) bufferType);
+		return Views.translate(buffer, Intervals.minAsLongArray(interval));
+	}
+
+	// -- Helper classes --
+
+	/** Computes the running extremum of single lines. */
+	private class ExtremumLine implements Consumer<long[]> {
+
+		private final RandomAccess<? extends RealType<?>> in;
+		private final RandomAccess<? extends RealType<?>> out;
+		private final int d;
+		private final int span;
+		private final int length;
+		private final double[] values;
+		private final double[] prefix;
+		private final double[] suffix;
+
+		public ExtremumLine(final RandomAccessible<? extends RealType<?>> source,
+			final RandomAccessible<? extends RealType<?>> target, final int d,
+			final int span, final long length)
+		{
+			in = source.randomAccess();
+			out = target.randomAccess();
+			this.d = d;
+			this.span = span;
+			this.length = (int) length;
+			values = new double[this.length + 2 * span];
+			prefix = new double[values.length];
+			suffix = new double[values.length];
+		}
+
+		@Override
+		public void accept(final long[] position) {
+			in.setPosition(position);
+			in.setPosition(position[d] - span, d);
+			for (int i = 0; i < values.length; i++) {
+				values[i] = in.get().getRealDouble();
+				in.fwd(d);
+			}
+
+			// extrema from the start of each block, and to the end of each block
+			final int w = 2 * span + 1;
+			for (int start = 0; start < values.length; start += w) {
+				final int end = Math.min(start + w, values.length);
+				prefix[start] = values[start];
+				for (int i = start + 1; i < end; i++) {
+					prefix[i] = select(prefix[i - 1], values[i]);
+				}
+				suffix[end - 1] = values[end - 1];
+				for (int i = end - 2; i >= start; i--) {
+					suffix[i] = select(suffix[i + 1], values[i]);
+				}
+			}
+
+			// each window consists of the end of one block and the start of the next
+			out.setPosition(position);
+			for (int i = 0; i < length; i++) {
+				out.get().setReal(select(suffix[i], prefix[i + w - 1]));
+				out.fwd(d);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.special.computer.AbstractUnaryComputerOp;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imglib2.Interval;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.neighborhood.RectangleShape;
+import net.imglib2.algorithm.neighborhood.Shape;
+import net.imglib2.outofbounds.OutOfBoundsBorderFactory;
+import net.imglib2.outofbounds.OutOfBoundsFactory;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.IntervalIndexer;
+import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
+
+import org.scijava.plugin.Parameter;
+
+/**
+ * Abstract base class for filters which slide a {@link RectangleShape} over the
+ * input line by line, instead of computing the statistic of each neighborhood
+ * from scratch. The output must be a {@link RandomAccessibleInterval} of the
+ * same dimensions as the input; it may have a different origin.
+ * 
+ * @param <T> input type
+ * @param <V> output type
+ */
+public abstract class AbstractRectangleShapeFilter<T extends RealType<T>, V extends RealType<V>>
+	extends
+	AbstractUnaryComputerOp<RandomAccessibleInterval<T>, IterableInterval<V>>
+	implements Contingent
+{
+
+	/**
+	 * The shape, which must be a {@link RectangleShape}. It is declared as a
+	 * {@link Shape}, so that the filters share the namespace methods of the
+	 * default filters.
+	 */
+	@Parameter
+	private Shape shape;
+
+	@Parameter(required = false)
+	private OutOfBoundsFactory<T, RandomAccessibleInterval<T>> outOfBoundsFactory =
+		new OutOfBoundsBorderFactory<>();
+
+	@Override
+	public boolean conforms() {
+		if (!(shape instanceof RectangleShape)) return false;
+		if (out() == null) return true;
+		return out() instanceof RandomAccessibleInterval && (in() == null ||
+			Intervals.equalDimensions(in(), out()));
+	}
+
+	/**
+	 * Get the shape (structuring element) used by this filter.
+	 * 
+	 * @return the shape
+	 */
+	public RectangleShape getShape() {
+		return (RectangleShape) shape;
+	}
+
+	/**
+	 * @return the factory used to extend the input beyond its bounds.
+	 */
+	public OutOfBoundsFactory<T, RandomAccessibleInterval<T>>
+		getOutOfBoundsFactory()
+	{
+		return outOfBoundsFactory;
+	}
+
+	/**
+	 * Translates the output such that its elements have the positions of the
+	 * corresponding input elements.
+	 * 
+	 * @param input the input
+	 * @param output the output, of the same dimensions as the input
+	 * @return the output in the coordinates of the input
+	 */
+	protected RandomAccessibleInterval<V> placeOutput(
+		final RandomAccessibleInterval<T> input, final IterableInterval<V> output)
+	{
+		final long[] offset = new long[input.numDimensions()];
+		for (int d = 0; d < offset.length; d++) {
+			offset[d] = input.min(d) - output.min(d);
+		}
+		return Views.translate((RandomAccessibleInterval<V>) output, offset);
+	}
+
+	/**
+	 * Processes all lines along dimension {@code d} of the given interval in
+	 * parallel. Each chunk of lines obtains its own task from the given
+	 * supplier, such that tasks can hold buffers without synchronization. A
+	 * task receives the position of the first element of each line; it must not
+	 * keep a reference to the array.
+	 * 
+	 * @param interval the interval whose lines are processed
+	 * @param d the dimension along which the lines run
+	 * @param tasks supplier of per-chunk line tasks
+	 */
+	protected void processLines(final Interval interval, final int d,
+		final Supplier<Consumer<long[]>> tasks)
+	{
+		final int n = interval.numDimensions();
+		final long[] min = Intervals.minAsLongArray(interval);
+		final long[] lines = Intervals.dimensionsAsLongArray(interval);
+		lines[d] = 1;
+
+		ops().thread().chunker(new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
+			{
+				final Consumer<long[]> task = tasks.get();
+				final long[] position = new long[n];
+				for (long i = 0; i < numSteps; i++) {
+					IntervalIndexer.indexToPosition(startIndex + i * stepSize, lines,
+						position);
+					for (int k = 0; k < n; k++) {
+						position[k] += min[k];
+					}
+					task.accept(position);
+				}
+			}
+		}, Intervals.numElements(lines));
+	}
+
+}
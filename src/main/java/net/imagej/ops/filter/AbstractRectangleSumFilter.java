@@ -0,0 +1,285 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter;
+
+import java.util.function.Consumer;
+
+import net.imglib2.FinalDimensions;
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessible;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.Img;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
+
+/**
+ * Abstract base class for filters which are computed from the sums of powers
+ * of the values within a {@link net.imglib2.algorithm.neighborhood.RectangleShape}
+ * (e.g. mean and variance). The box sums are separable: they are computed by
+ * running sums along each dimension in turn, at a constant cost per pixel and
+ * dimension regardless of the span. Shapes skipping the center are supported
+ * by subtracting the center value from the sums.
+ * <p>
+ * The sums are taken over the values minus a shift, a sample value of the
+ * image. For images whose values are large compared to their spread, this
+ * keeps the running sums small, and avoids the cancellation of large sums of
+ * powers.
+ * </p>
+ * 
+ * @param <T> input type
+ * @param <V> output type
+ */
+public abstract class AbstractRectangleSumFilter<T extends RealType<T>, V extends RealType<V>>
+	extends AbstractRectangleShapeFilter<T, V>
+{
+
+	@Override
+	public boolean conforms() {
+		// NB: Only span 0 yields fewer than 2 values, whatever the dimensionality.
+		return super.conforms() && count(in() == null ? 1 : in()
+			.numDimensions()) >= minCount();
+	}
+
+	@Override
+	public void compute1(final RandomAccessibleInterval<T> input,
+		final IterableInterval<V> output)
+	{
+		final int n = input.numDimensions();
+		final int span = getShape().getSpan();
+		final int powers = numPowers();
+		final RandomAccessible<T> extended = Views.extend(input,
+			getOutOfBoundsFactory());
+
+		final RandomAccess<T> sample = input.randomAccess();
+		sample.setPosition(Intervals.minAsLongArray(input));
+		final double shift = sample.get().getRealDouble();
+
+		// NB: In the first pass, each channel reads the powers of the input.
+		RandomAccessible<?>[] sources = new RandomAccessible<?>[powers];
+		for (int p = 0; p < powers; p++) {
+			sources[p] = extended;
+		}
+		for (int d = 0; d < n; d++) {
+			// NB: Later dimensions still need the margin of the box.
+			final long[] min = Intervals.minAsLongArray(input);
+			final long[] max = Intervals.maxAsLongArray(input);
+			for (int k = d + 1; k < n; k++) {
+				min[k] -= span;
+				max[k] += span;
+			}
+			final Interval interval = new FinalInterval(min, max);
+
+			final RandomAccessible<?>[] targets = new RandomAccessible<?>[powers];
+			for (int p = 0; p < powers; p++) {
+				targets[p] = createBuffer(interval);
+			}
+			final RandomAccessible<?>[] lineSources = sources;
+			final int dim = d;
+			processLines(interval, d, () -> new SumLine(lineSources, targets, dim == 0,
+				shift, dim, span, interval.dimension(dim)));
+			sources = targets;
+		}
+
+		final boolean skipCenter = getShape().isSkippingCenter();
+		final RandomAccessible<?>[] sums = sources;
+		final long count = count(n);
+		processLines(input, 0, () -> new ResultLine(sums, extended, placeOutput(
+			input, output), skipCenter, shift, count, input.dimension(0)));
+	}
+
+	/**
+	 * Gets the number of powers of the values whose sums are needed, e.g. 1 for
+	 * the sum only, 2 for the sum and the sum of squares.
+	 */
+	protected abstract int numPowers();
+
+	/**
+	 * Gets the minimum number of values in the neighborhood for which the
+	 * filter is defined, e.g. 1 for the mean, 2 for the sample variance.
+	 */
+	protected long minCount() {
+		return 1;
+	}
+
+	/**
+	 * Computes the filter result from the sums of the powers of the shifted
+	 * values.
+	 * 
+	 * @param sums the sum of the values minus the shift (index 0), of their
+	 *          squares (index 1), and so on, up to {@link #numPowers()}
+	 * @param shift the value subtracted from each value before summing
+	 * @param count the number of values in the neighborhood
+	 * @return the filter result
+	 */
+	protected abstract double compute(double[] sums, double shift, long count);
+
+	// -- Helper methods --
+
+	/** Gets the number of values in the neighborhood of the shape. */
+	private long count(final int n) {
+		final int span = getShape().getSpan();
+		long count = 1;
+		for (int d = 0; d < n; d++) {
+			count *= 2 * span + 1;
+		}
+		if (getShape().isSkippingCenter()) count--;
+		return count;
+	}
+
+	private RandomAccessibleInterval<DoubleType> createBuffer(
+		final Interval interval)
+	{
+		final Img<DoubleType> buffer = ops().create().img(new FinalDimensions(
+			Intervals.dimensionsAsLongArray(interval)), new DoubleType());
+		return Views.translate(buffer, Intervals.minAsLongArray(interval));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static RandomAccess<? extends RealType<?>> randomAccess(
+		final RandomAccessible<?> source)
+	{
+		return ((RandomAccessible<? extends RealType<?>>) source).randomAccess();
+	}
+
+	// -- Helper classes --
+
+	/** Computes the running sums of single lines, for each power. */
+	private static class SumLine implements Consumer<long[]> {
+
+		private final RandomAccess<? extends RealType<?>>[] in;
+		private final RandomAccess<? extends RealType<?>>[] out;
+		private final boolean raise;
+		private final double shift;
+		private final int d;
+		private final int span;
+		private final int length;
+		private final double[] prefix;
+
+		@SuppressWarnings("unchecked")
+		public SumLine(final RandomAccessible<?>[] sources,
+			final RandomAccessible<?>[] targets, final boolean raise,
+			final double shift, final int d, final int span, final long length)
+		{
+			in = new RandomAccess[sources.length];
+			out = new RandomAccess[targets.length];
+			for (int p = 0; p < sources.length; p++) {
+				in[p] = randomAccess(sources[p]);
+				out[p] = randomAccess(targets[p]);
+			}
+			this.raise = raise;
+			this.shift = shift;
+			this.d = d;
+			this.span = span;
+			this.length = (int) length;
+			prefix = new double[this.length + 2 * span + 1];
+		}
+
+		@Override
+		public void accept(final long[] position) {
+			final int w = 2 * span + 1;
+			for (int p = 0; p < in.length; p++) {
+				in[p].setPosition(position);
+				in[p].setPosition(position[d] - span, d);
+				for (int i = 1; i < prefix.length; i++) {
+					final double value = in[p].get().getRealDouble();
+					prefix[i] = prefix[i - 1] + (raise ? Math.pow(value - shift, p + 1)
+						: value);
+					in[p].fwd(d);
+				}
+
+				out[p].setPosition(position);
+				for (int i = 0; i < length; i++) {
+					out[p].get().setReal(prefix[i + w] - prefix[i]);
+					out[p].fwd(d);
+				}
+			}
+		}
+	}
+
+	/** Computes the filter results of single lines along the first dimension. */
+	private class ResultLine implements Consumer<long[]> {
+
+		private final RandomAccess<? extends RealType<?>>[] sums;
+		private final RandomAccess<T> center;
+		private final RandomAccess<V> out;
+		private final boolean skipCenter;
+		private final double shift;
+		private final long count;
+		private final long length;
+		private final double[] values;
+
+		@SuppressWarnings("unchecked")
+		public ResultLine(final RandomAccessible<?>[] sources,
+			final RandomAccessible<T> input, final RandomAccessible<V> output,
+			final boolean skipCenter, final double shift, final long count,
+			final long length)
+		{
+			sums = new RandomAccess[sources.length];
+			for (int p = 0; p < sources.length; p++) {
+				sums[p] = randomAccess(sources[p]);
+			}
+			center = input.randomAccess();
+			out = output.randomAccess();
+			this.skipCenter = skipCenter;
+			this.shift = shift;
+			this.count = count;
+			this.length = length;
+			values = new double[sources.length];
+		}
+
+		@Override
+		public void accept(final long[] position) {
+			for (final RandomAccess<?> sum : sums) {
+				sum.setPosition(position);
+			}
+			center.setPosition(position);
+			out.setPosition(position);
+			for (long i = 0; i < length; i++) {
+				final double value = skipCenter ? center.get().getRealDouble() - shift
+					: 0;
+				for (int p = 0; p < sums.length; p++) {
+					values[p] = sums[p].get().getRealDouble();
+					if (skipCenter) values[p] -= Math.pow(value, p + 1);
+					sums[p].fwd(0);
+				}
+				out.get().setReal(compute(values, shift, count));
+				center.fwd(0);
+				out.fwd(0);
+			}
+		}
+	}
+
+}
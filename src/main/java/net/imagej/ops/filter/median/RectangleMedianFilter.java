@@ -0,0 +1,201 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter.median;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import net.imagej.ops.Ops;
+import net.imagej.ops.filter.AbstractRectangleShapeFilter;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessible;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.neighborhood.RectangleShape;
+import net.imglib2.type.numeric.IntegerType;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Util;
+import net.imglib2.view.Views;
+
+import org.scijava.plugin.Plugin;
+
+/**
+ * {@link MedianFilterOp} for {@link RectangleShape}s and {@link IntegerType}s
+ * with at most 2<sup>16</sup> distinct values. A histogram of the window is
+ * updated while it slides along the first dimension (Huang's algorithm), such
+ * that only the entering and leaving hyperplanes of the box are visited per
+ * pixel.
+ * 
+ * @param <T> input type
+ * @param <V> output type
+ */
+@Plugin(type = Ops.Filter.Median.class)
+public class RectangleMedianFilter<T extends RealType<T>, V extends RealType<V>>
+	extends AbstractRectangleShapeFilter<T, V> implements MedianFilterOp<T, V>
+{
+
+	/** Maximum number of bins of the histogram. */
+	private static final int MAX_HISTOGRAM_SIZE = 1 << 16;
+
+	@Override
+	public boolean conforms() {
+		if (!super.conforms() || getShape().isSkippingCenter()) return false;
+		if (in() == null) return false;
+		final T type = Util.getTypeFromInterval(in());
+		return type instanceof IntegerType && type.getMaxValue() - type
+			.getMinValue() < MAX_HISTOGRAM_SIZE;
+	}
+
+	@Override
+	public void compute1(final RandomAccessibleInterval<T> input,
+		final IterableInterval<V> output)
+	{
+		final T type = Util.getTypeFromInterval(input);
+		final long offset = (long) type.getMinValue();
+		final int bins = (int) (type.getMaxValue() - type.getMinValue()) + 1;
+		final RandomAccessible<T> source = Views.extend(input,
+			getOutOfBoundsFactory());
+		final RandomAccessible<V> target = placeOutput(input, output);
+		final int span = getShape().getSpan();
+		final int length = (int) input.dimension(0);
+
+		processLines(input, 0, () -> new MedianLine(source, target, span, length,
+			offset, bins));
+	}
+
+	// -- Helper classes --
+
+	/** Computes the running median of single lines along the first dimension. */
+	private class MedianLine implements Consumer<long[]> {
+
+		private final RandomAccess<T> in;
+		private final RandomAccess<V> out;
+		private final int span;
+		private final int length;
+		private final long offset;
+		private final int[] histogram;
+
+		/** Bins of the rows of the box, one row per offset in the other dims. */
+		private final int[][] rows;
+
+		/** Position of the k-th lowest element of the window. */
+		private final int k;
+
+		public MedianLine(final RandomAccessible<T> source,
+			final RandomAccessible<V> target, final int span, final int length,
+			final long offset, final int bins)
+		{
+			in = source.randomAccess();
+			out = target.randomAccess();
+			this.span = span;
+			this.length = length;
+			this.offset = offset;
+			histogram = new int[bins];
+
+			final int n = source.numDimensions();
+			final int width = 2 * span + 1;
+			long rowCount = 1;
+			for (int d = 1; d < n; d++) {
+				rowCount *= width;
+			}
+			rows = new int[(int) rowCount][length + 2 * span];
+			k = (int) (rowCount * width / 2);
+		}
+
+		@Override
+		public void accept(final long[] position) {
+			readRows(position);
+			Arrays.fill(histogram, 0);
+
+			// fill the histogram with the first window
+			final int width = 2 * span + 1;
+			for (final int[] row : rows) {
+				for (int x = 0; x < width; x++) {
+					histogram[row[x]]++;
+				}
+			}
+			int median = 0;
+			int below = 0;
+			while (below + histogram[median] <= k) {
+				below += histogram[median++];
+			}
+
+			out.setPosition(position);
+			for (int x = 0; x < length; x++) {
+				if (x > 0) {
+					// slide the window: remove the leaving, add the entering column
+					for (final int[] row : rows) {
+						final int leaving = row[x - 1];
+						final int entering = row[x + width - 1];
+						histogram[leaving]--;
+						if (leaving < median) below--;
+						histogram[entering]++;
+						if (entering < median) below++;
+					}
+					while (below > k) {
+						below -= histogram[--median];
+					}
+					while (below + histogram[median] <= k) {
+						below += histogram[median++];
+					}
+				}
+				out.get().setReal(median + offset);
+				out.fwd(0);
+			}
+		}
+
+		/** Reads the bins of all rows of the box around the given line. */
+		private void readRows(final long[] position) {
+			final int n = position.length;
+			final long[] rowOffset = new long[n];
+			for (int d = 1; d < n; d++) {
+				rowOffset[d] = -span;
+			}
+			for (final int[] row : rows) {
+				in.setPosition(position[0] - span, 0);
+				for (int d = 1; d < n; d++) {
+					in.setPosition(position[d] + rowOffset[d], d);
+				}
+				for (int x = 0; x < row.length; x++) {
+					row[x] = (int) ((long) in.get().getRealDouble() - offset);
+					in.fwd(0);
+				}
+
+				// advance to the next row offset
+				for (int d = 1; d < n; d++) {
+					if (++rowOffset[d] <= span) break;
+					rowOffset[d] = -span;
+				}
+			}
+		}
+	}
+
+}
@@ -37,6 +37,7 @@ import net.imagej.ops.Ops.Geometric.Voxelization;
 import net.imagej.ops.geom.geom2d.DefaultConvexHull2D;
 import net.imagej.ops.geom.geom3d.CovarianceOf2ndMultiVariate3D;
 import net.imagej.ops.geom.geom3d.DefaultConvexHull3D;
+import net.imagej.ops.geom.geom3d.QuickHull3D;
 import net.imagej.ops.geom.geom3d.mesh.Mesh;
 import net.imagej.ops.geom.geom3d.mesh.VertexInterpolator;
 import net.imglib2.IterableInterval;
@@ -276,7 +277,7 @@ public class GeomNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = DefaultConvexHull3D.class)
+	@OpMethod(ops = { DefaultConvexHull3D.class, QuickHull3D.class })
 	public Mesh convexHull(final Mesh in) {
 		final Mesh result = (Mesh) ops().run(
 			net.imagej.ops.Ops.Geometric.ConvexHull.class, in);
@@ -332,7 +333,8 @@ public class GeomNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.geom.geom2d.DefaultFeret.class)
+	@OpMethod(ops = { net.imagej.ops.geom.geom2d.DefaultFeret.class,
+		net.imagej.ops.geom.geom2d.CalipersFeret.class })
 	public Pair<RealLocalizable, RealLocalizable> feret(final Polygon in) {
 		@SuppressWarnings("unchecked")
 		final Pair<RealLocalizable, RealLocalizable> result =
@@ -369,6 +371,36 @@ public class GeomNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(op = net.imagej.ops.geom.geom2d.DefaultMinFeretsAngle.class)
+	public DoubleType minFeretsAngle(final Polygon in) {
+		final DoubleType result = (DoubleType) ops().run(
+			net.imagej.ops.Ops.Geometric.MinFeretsAngle.class, in);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.geom.geom2d.DefaultMinFeretsAngle.class)
+	public DoubleType minFeretsAngle(final DoubleType out, final Polygon in) {
+		final DoubleType result = (DoubleType) ops().run(
+			net.imagej.ops.Ops.Geometric.MinFeretsAngle.class, out, in);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.geom.geom2d.DefaultMinFeretsDiameter.class)
+	public DoubleType minFeretsDiameter(final Polygon in) {
+		final DoubleType result = (DoubleType) ops().run(
+			net.imagej.ops.Ops.Geometric.MinFeretsDiameter.class, in);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.geom.geom2d.DefaultMinFeretsDiameter.class)
+	public DoubleType minFeretsDiameter(final DoubleType out,
+		final Polygon in)
+	{
+		final DoubleType result = (DoubleType) ops().run(
+			net.imagej.ops.Ops.Geometric.MinFeretsDiameter.class, out, in);
+		return result;
+	}
+
 	@OpMethod(op = net.imagej.ops.geom.geom3d.DefaultMainElongation.class)
 	public <B extends BooleanType<B>> DoubleType mainElongation(
 		final IterableRegion<B> in)
@@ -413,7 +445,8 @@ public class GeomNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.geom.geom3d.DefaultMarchingCubes.class)
+	@OpMethod(ops = { net.imagej.ops.geom.geom3d.DefaultMarchingCubes.class,
+		net.imagej.ops.geom.geom3d.SlabMarchingCubes.class })
 	public <T extends Type<T>> Mesh marchingCubes(
 		final RandomAccessibleInterval<T> in)
 	{
@@ -422,7 +455,8 @@ public class GeomNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.geom.geom3d.DefaultMarchingCubes.class)
+	@OpMethod(ops = { net.imagej.ops.geom.geom3d.DefaultMarchingCubes.class,
+		net.imagej.ops.geom.geom3d.SlabMarchingCubes.class })
 	public <T extends Type<T>> Mesh marchingCubes(
 		final RandomAccessibleInterval<T> in, final double isolevel)
 	{
@@ -431,7 +465,8 @@ public class GeomNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.geom.geom3d.DefaultMarchingCubes.class)
+	@OpMethod(ops = { net.imagej.ops.geom.geom3d.DefaultMarchingCubes.class,
+		net.imagej.ops.geom.geom3d.SlabMarchingCubes.class })
 	public <T extends Type<T>> Mesh marchingCubes(
 		final RandomAccessibleInterval<T> in, final double isolevel,
 		final VertexInterpolator interpolatorClass)
@@ -589,8 +624,9 @@ public class GeomNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(
-		op = net.imagej.ops.geom.geom2d.DefaultSmallestEnclosingRectangle.class)
+	@OpMethod(ops = {
+		net.imagej.ops.geom.geom2d.DefaultSmallestEnclosingRectangle.class,
+		net.imagej.ops.geom.geom2d.CalipersSmallestEnclosingRectangle.class })
 	public Polygon smallestEnclosingBoundingBox(final Polygon in) {
 		final Polygon result = (Polygon) ops().run(
 			net.imagej.ops.Ops.Geometric.SmallestEnclosingBoundingBox.class, in);
@@ -0,0 +1,70 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.geom.geom2d;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.ops.Ops;
+import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
+import net.imglib2.RealLocalizable;
+import net.imglib2.RealPoint;
+import net.imglib2.roi.geometric.Polygon;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Implementation of {@code geom.smallestEnclosingBoundingBox}, which finds the
+ * rectangle with the smallest area with rotating calipers. One side of this
+ * rectangle lies on an edge of the convex hull, and the calipers visit all
+ * edges in one pass around the hull.
+ */
+@Plugin(type = Ops.Geometric.SmallestEnclosingBoundingBox.class,
+	label = "Geometric (2D): Smallest Enclosing Rectangle",
+	priority = Priority.HIGH_PRIORITY)
+public class CalipersSmallestEnclosingRectangle extends
+	AbstractUnaryFunctionOp<Polygon, Polygon> implements
+	Ops.Geometric.SmallestEnclosingBoundingBox
+{
+
+	@Override
+	public Polygon compute1(final Polygon input) {
+		final List<RealLocalizable> corners = new ArrayList<>();
+		for (final double[] corner : new RotatingCalipers(input)
+			.minimumAreaRectangle())
+		{
+			corners.add(new RealPoint(corner));
+		}
+		return new Polygon(corners);
+	}
+
+}
@@ -0,0 +1,288 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.geom.geom2d;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import net.imglib2.RealLocalizable;
+import net.imglib2.roi.geometric.Polygon;
+
+/**
+ * Rotating calipers on the convex hull of the vertices of a {@link Polygon}.
+ * <p>
+ * The hull is computed with Andrew's monotone chain, as in
+ * {@link DefaultConvexHull2D}, but on index arrays: of duplicate vertices it
+ * keeps the first one, and collinear vertices are dropped. Each caliper then
+ * walks around the h vertices of the hull once, i.e. in O(h).
+ * </p>
+ */
+final class RotatingCalipers {
+
+	private final List<RealLocalizable> vertices;
+
+	/** Indices of the hull's vertices, in counter clock wise order. */
+	private final int[] hull;
+
+	private final double[] x;
+
+	private final double[] y;
+
+	RotatingCalipers(final Polygon polygon) {
+		vertices = polygon.getVertices();
+		final int n = vertices.size();
+		final double[] px = new double[n];
+		final double[] py = new double[n];
+		final Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			px[i] = vertices.get(i).getDoublePosition(0);
+			py[i] = vertices.get(i).getDoublePosition(1);
+			order[i] = i;
+		}
+		// sort by x, y and index, such that the first of equal vertices comes first
+		Arrays.sort(order, new Comparator<Integer>() {
+
+			@Override
+			public int compare(final Integer a, final Integer b) {
+				int result = Double.compare(px[a], px[b]);
+				if (result == 0) result = Double.compare(py[a], py[b]);
+				return result != 0 ? result : Integer.compare(a, b);
+			}
+		});
+
+		// NB: Of equal vertices, only the first is kept.
+		final int[] unique = new int[n];
+		int m = 0;
+		for (final int p : order) {
+			if (m == 0 || px[unique[m - 1]] != px[p] || py[unique[m - 1]] != py[p]) {
+				unique[m++] = p;
+			}
+		}
+
+		// lower hull from left to right, then upper hull from right to left
+		final int[] chain = new int[2 * m];
+		int size = 0;
+		for (int pass = 0; pass < 2; pass++) {
+			final int start = size;
+			for (int k = 0; k < m; k++) {
+				final int p = unique[pass == 0 ? k : m - 1 - k];
+				while (size - start >= 2 && cross(px, py, chain[size - 2],
+					chain[size - 1], p) <= 0)
+				{
+					size--;
+				}
+				chain[size++] = p;
+			}
+			// the last vertex of each chain is the first of the other
+			if (size > 1) size--;
+		}
+		hull = Arrays.copyOf(chain, size);
+
+		x = new double[hull.length];
+		y = new double[hull.length];
+		for (int i = 0; i < hull.length; i++) {
+			x[i] = px[hull[i]];
+			y[i] = py[hull[i]];
+		}
+	}
+
+	/**
+	 * Returns the two vertices with the largest distance. Of several pairs with
+	 * the same distance, the one with the first vertices is returned, i.e. the
+	 * same pair as in {@link DefaultFeret}, in the order of the polygon.
+	 */
+	RealLocalizable[] diameter() {
+		final int h = hull.length;
+		if (h == 1 && vertices.size() > 1) {
+			// NB: All vertices are equal.
+			return new RealLocalizable[] { vertices.get(0), vertices.get(1) };
+		}
+		int best0 = Math.min(hull[0], hull[h - 1]);
+		int best1 = Math.max(hull[0], hull[h - 1]);
+		double max = distanceSq(0, h - 1);
+		// all antipodal pairs of vertices
+		int j = 1 % h;
+		for (int i = 0; i < h && h > 2; i++) {
+			final int i1 = (i + 1) % h;
+			while (area(i, i1, (j + 1) % h) > area(i, i1, j)) {
+				j = (j + 1) % h;
+			}
+			final int j1 = (j + 1) % h;
+			// NB: If the edge at j is parallel to the edge at i, j + 1 is
+			// antipodal, too.
+			final boolean parallel = area(i, i1, j1) == area(i, i1, j);
+			for (final int[] pair : new int[][] { { i, j }, { i1, j }, { i, j1 }, {
+				i1, j1 } })
+			{
+				if (!parallel && pair[1] == j1) continue;
+				final double d = distanceSq(pair[0], pair[1]);
+				final int a = Math.min(hull[pair[0]], hull[pair[1]]);
+				final int b = Math.max(hull[pair[0]], hull[pair[1]]);
+				if (d > max || d == max && (a < best0 || a == best0 && b < best1)) {
+					max = d;
+					best0 = a;
+					best1 = b;
+				}
+			}
+		}
+		return new RealLocalizable[] { vertices.get(best0), vertices.get(best1) };
+	}
+
+	/**
+	 * Returns the smallest distance between two parallel lines which enclose the
+	 * polygon, and the direction in which it is measured, as unit vector.
+	 * 
+	 * @return width, x and y of the direction
+	 */
+	double[] width() {
+		final int h = hull.length;
+		if (h < 3) {
+			// NB: The width of a point or segment is zero, normal to the segment.
+			final double dx = x[h - 1] - x[0];
+			final double dy = y[h - 1] - y[0];
+			final double length = Math.hypot(dx, dy);
+			return length == 0 ? new double[] { 0, 1, 0 } : new double[] { 0, -dy /
+				length, dx / length };
+		}
+		double[] min = null;
+		int j = 1;
+		for (int i = 0; i < h; i++) {
+			final int i1 = (i + 1) % h;
+			while (area(i, i1, (j + 1) % h) > area(i, i1, j)) {
+				j = (j + 1) % h;
+			}
+			final double dx = x[i1] - x[i];
+			final double dy = y[i1] - y[i];
+			final double length = Math.hypot(dx, dy);
+			final double width = area(i, i1, j) / length;
+			if (min == null || width < min[0]) {
+				min = new double[] { width, -dy / length, dx / length };
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * Returns the corners of the rectangle with the smallest area which encloses
+	 * the polygon, in counter clock wise order. One of its sides lies on an edge
+	 * of the hull.
+	 */
+	double[][] minimumAreaRectangle() {
+		final int h = hull.length;
+		double minArea = Double.POSITIVE_INFINITY;
+		double[][] corners = null;
+		// the vertices with the smallest and largest projection along the edge,
+		// and the one furthest from it
+		int left = 0;
+		int right = 0;
+		int top = 0;
+		for (int i = 0; i < h; i++) {
+			final int i1 = (i + 1) % h;
+			double ux = x[i1] - x[i];
+			double uy = y[i1] - y[i];
+			final double length = Math.hypot(ux, uy);
+			if (length == 0) {
+				// NB: A single point has no edges.
+				ux = 1;
+				uy = 0;
+			}
+			else {
+				ux /= length;
+				uy /= length;
+			}
+			if (i == 0) {
+				for (int k = 1; k < h; k++) {
+					if (dot(ux, uy, k) < dot(ux, uy, left)) left = k;
+					if (dot(ux, uy, k) > dot(ux, uy, right)) right = k;
+					if (dot(-uy, ux, k) > dot(-uy, ux, top)) top = k;
+				}
+			}
+			else {
+				while (dot(ux, uy, (right + 1) % h) > dot(ux, uy, right)) {
+					right = (right + 1) % h;
+				}
+				while (dot(-uy, ux, (top + 1) % h) > dot(-uy, ux, top)) {
+					top = (top + 1) % h;
+				}
+				while (dot(ux, uy, (left + 1) % h) < dot(ux, uy, left)) {
+					left = (left + 1) % h;
+				}
+			}
+
+			final double minU = dot(ux, uy, left);
+			final double maxU = dot(ux, uy, right);
+			// NB: The interior is left of the edge.
+			final double minV = dot(-uy, ux, i);
+			final double maxV = dot(-uy, ux, top);
+			final double area = (maxU - minU) * (maxV - minV);
+			if (area < minArea) {
+				minArea = area;
+				corners = new double[][] { corner(ux, uy, minU, minV), corner(ux, uy,
+					maxU, minV), corner(ux, uy, maxU, maxV), corner(ux, uy, minU,
+						maxV) };
+			}
+		}
+		return corners;
+	}
+
+	// -- Helper methods --
+
+	/** Returns the point at u along the unit vector and v along its normal. */
+	private static double[] corner(final double ux, final double uy,
+		final double u, final double v)
+	{
+		return new double[] { u * ux - v * uy, u * uy + v * ux };
+	}
+
+	/** Returns the projection of hull vertex k onto the vector. */
+	private double dot(final double ux, final double uy, final int k) {
+		return ux * x[k] + uy * y[k];
+	}
+
+	/** Returns twice the area of the triangle of hull vertices a, b and c. */
+	private double area(final int a, final int b, final int c) {
+		return (x[b] - x[a]) * (y[c] - y[a]) - (y[b] - y[a]) * (x[c] - x[a]);
+	}
+
+	private double distanceSq(final int a, final int b) {
+		final double dx = x[a] - x[b];
+		final double dy = y[a] - y[b];
+		return dx * dx + dy * dy;
+	}
+
+	private static double cross(final double[] px, final double[] py,
+		final int o, final int a, final int b)
+	{
+		return (px[a] - px[o]) * (py[b] - py[o]) - (py[a] - py[o]) * (px[b] -
+			px[o]);
+	}
+}
@@ -55,7 +55,9 @@ public class BoundaryPixelCountConvexHullMesh extends
 
 	@Override
 	public void initialize() {
-		convexHullFunc = Functions.unary(ops(), Ops.Geometric.ConvexHull.class, Mesh.class, in());
+		// NB: The number of vertices depends on which points on the faces of the
+		// hull become vertices, so this count sticks to DefaultConvexHull3D.
+		convexHullFunc = Functions.unary(ops(), DefaultConvexHull3D.class, Mesh.class, in());
 	}
 
 	@Override
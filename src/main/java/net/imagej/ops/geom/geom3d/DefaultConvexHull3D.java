@@ -39,6 +39,7 @@ import java.util.Set;
 import net.imagej.ops.Ops;
 import net.imagej.ops.geom.geom3d.mesh.DefaultMesh;
 import net.imagej.ops.geom.geom3d.mesh.Horizon;
+import net.imagej.ops.geom.geom3d.mesh.IndexedMesh;
 import net.imagej.ops.geom.geom3d.mesh.Mesh;
 import net.imagej.ops.geom.geom3d.mesh.TriangularFacet;
 import net.imagej.ops.geom.geom3d.mesh.Vertex;
@@ -73,9 +74,18 @@ public class DefaultConvexHull3D extends AbstractUnaryFunctionOp<Mesh, Mesh>
 	public Mesh compute1(final Mesh input) {
 		DefaultMesh output = new DefaultMesh();
 		Set<Vertex> vertices = new LinkedHashSet<>();
-		for (final RealLocalizable v : input.getVertices()) {
-			vertices.add(new Vertex(v.getDoublePosition(0), v.getDoublePosition(1), v
-				.getDoublePosition(2)));
+		if (input instanceof IndexedMesh) {
+			final IndexedMesh indexed = (IndexedMesh) input;
+			final double[] buffer = indexed.getVertexBuffer();
+			for (int i = 0; i < 3 * indexed.vertexCount(); i += 3) {
+				vertices.add(new Vertex(buffer[i], buffer[i + 1], buffer[i + 2]));
+			}
+		}
+		else {
+			for (final RealLocalizable v : input.getVertices()) {
+				vertices.add(new Vertex(v.getDoublePosition(0), v.getDoublePosition(1),
+					v.getDoublePosition(2)));
+			}
 		}
 		List<TriangularFacet> facets = new ArrayList<>();
 		List<TriangularFacet> facetsWithPointInFront = new ArrayList<>();
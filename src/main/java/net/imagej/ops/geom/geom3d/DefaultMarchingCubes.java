@@ -30,13 +30,13 @@
 
 package net.imagej.ops.geom.geom3d;
 
+import java.util.Arrays;
+
 import net.imagej.ops.Contingent;
 import net.imagej.ops.Ops;
 import net.imagej.ops.geom.geom3d.mesh.BitTypeVertexInterpolator;
-import net.imagej.ops.geom.geom3d.mesh.DefaultMesh;
+import net.imagej.ops.geom.geom3d.mesh.IndexedMesh;
 import net.imagej.ops.geom.geom3d.mesh.Mesh;
-import net.imagej.ops.geom.geom3d.mesh.TriangularFacet;
-import net.imagej.ops.geom.geom3d.mesh.Vertex;
 import net.imagej.ops.geom.geom3d.mesh.VertexInterpolator;
 import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
 import net.imglib2.Cursor;
@@ -54,7 +54,8 @@ import org.scijava.plugin.Plugin;
 /**
  * This is a marching cubes implementation. It is inspired by Paul Bourke's
  * (http://paulbourke.net/geometry/polygonise/) implementation. Especially the
- * lookup tables are from his implementation.
+ * lookup tables are from his implementation. The vertices on the cube edges
+ * are shared by all adjacent triangles of the resulting {@link IndexedMesh}.
  * 
  * @author Tim-Oliver Buchholz (University of Konstanz)
  * @param <T> BooleanType
@@ -74,14 +75,18 @@ public class DefaultMarchingCubes<T extends BooleanType<T>> extends
 
 	@SuppressWarnings({ "unchecked" })
 	@Override
-	public DefaultMesh compute1(final RandomAccessibleInterval<T> input) {
-		DefaultMesh output = new DefaultMesh();
+	public IndexedMesh compute1(final RandomAccessibleInterval<T> input) {
+		IndexedMesh output = new IndexedMesh();
 		ExtendedRandomAccessibleInterval<T, RandomAccessibleInterval<T>> extended =
 			Views.extendValue(input, (T) new BoolType(false));
 		Cursor<T> c = Views.interval(extended, new FinalInterval(new long[] { input
 			.min(0) - 1, input.min(1) - 1, input.min(2) - 1 }, new long[] { input.max(
 				0) + 1, input.max(1) + 1, input.max(2) + 1 })).localizingCursor();
 
+		// the vertices of the cube edges, which are shared by up to four cubes
+		final EdgeVertexMap edgeVertices = new EdgeVertexMap();
+		final int[] edgeVertexIndices = new int[12];
+
 		while (c.hasNext()) {
 			c.next();
 
@@ -110,87 +115,66 @@ public class DefaultMarchingCubes<T extends BooleanType<T>> extends
 			int cubeindex = getCubeIndex(vertex_values);
 
 			if (cubeindex != 0) {
-				int[] p0 = new int[] { 0 + cursorX, 0 + cursorY, 0 + cursorZ };
-				int[] p1 = new int[] { 1 + cursorX, 0 + cursorY, 0 + cursorZ };
-				int[] p2 = new int[] { 1 + cursorX, 0 + cursorY, 1 + cursorZ };
-				int[] p3 = new int[] { 0 + cursorX, 0 + cursorY, 1 + cursorZ };
-				int[] p4 = new int[] { 0 + cursorX, 1 + cursorY, 0 + cursorZ };
-				int[] p5 = new int[] { 1 + cursorX, 1 + cursorY, 0 + cursorZ };
-				int[] p6 = new int[] { 1 + cursorX, 1 + cursorY, 1 + cursorZ };
-				int[] p7 = new int[] { 0 + cursorX, 1 + cursorY, 1 + cursorZ };
-
-				double[][] vertlist = new double[12][];
-
-				/* Find the vertices where the surface intersects the cube */
-				if (0 != (EDGE_TABLE[cubeindex] & 1)) {
-					vertlist[0] = interpolatePoint(p0, p1, vertex_values[0],
-						vertex_values[1]);
-				}
-				if (0 != (EDGE_TABLE[cubeindex] & 2)) {
-					vertlist[1] = interpolatePoint(p1, p2, vertex_values[1],
-						vertex_values[2]);
-				}
-				if (0 != (EDGE_TABLE[cubeindex] & 4)) {
-					vertlist[2] = interpolatePoint(p2, p3, vertex_values[2],
-						vertex_values[3]);
-				}
-				if (0 != (EDGE_TABLE[cubeindex] & 8)) {
-					vertlist[3] = interpolatePoint(p3, p0, vertex_values[3],
-						vertex_values[0]);
-				}
-				if (0 != (EDGE_TABLE[cubeindex] & 16)) {
-					vertlist[4] = interpolatePoint(p4, p5, vertex_values[4],
-						vertex_values[5]);
-				}
-				if (0 != (EDGE_TABLE[cubeindex] & 32)) {
-					vertlist[5] = interpolatePoint(p5, p6, vertex_values[5],
-						vertex_values[6]);
-				}
-				if (0 != (EDGE_TABLE[cubeindex] & 64)) {
-					vertlist[6] = interpolatePoint(p6, p7, vertex_values[6],
-						vertex_values[7]);
-				}
-				if (0 != (EDGE_TABLE[cubeindex] & 128)) {
-					vertlist[7] = interpolatePoint(p7, p4, vertex_values[7],
-						vertex_values[4]);
-				}
-				if (0 != (EDGE_TABLE[cubeindex] & 256)) {
-					vertlist[8] = interpolatePoint(p0, p4, vertex_values[0],
-						vertex_values[4]);
-				}
-				if (0 != (EDGE_TABLE[cubeindex] & 512)) {
-					vertlist[9] = interpolatePoint(p1, p5, vertex_values[1],
-						vertex_values[5]);
+				/*
+				 * Create the triangles, with the vertices where the surface intersects
+				 * the cube. NB: The vertices are added in the order of their first use.
+				 */
+				Arrays.fill(edgeVertexIndices, -1);
+				for (i = 0; TRIANGLE_TABLE[cubeindex][i] != -1; i++) {
+					final int e = TRIANGLE_TABLE[cubeindex][i];
+					if (edgeVertexIndices[e] < 0) {
+						edgeVertexIndices[e] = edgeVertex(input, output, edgeVertices,
+							cursorX, cursorY, cursorZ, vertex_values, e);
+					}
 				}
-				if (0 != (EDGE_TABLE[cubeindex] & 1024)) {
-					vertlist[10] = interpolatePoint(p2, p6, vertex_values[2],
-						vertex_values[6]);
-				}
-				if (0 != (EDGE_TABLE[cubeindex] & 2048)) {
-					vertlist[11] = interpolatePoint(p3, p7, vertex_values[3],
-						vertex_values[7]);
-				}
-
-				/* Create the triangle */
 				for (i = 0; TRIANGLE_TABLE[cubeindex][i] != -1; i += 3) {
-
-					TriangularFacet face = new TriangularFacet(new Vertex(
-						vertlist[TRIANGLE_TABLE[cubeindex][i]][0],
-						vertlist[TRIANGLE_TABLE[cubeindex][i]][1],
-						vertlist[TRIANGLE_TABLE[cubeindex][i]][2]), new Vertex(
-							vertlist[TRIANGLE_TABLE[cubeindex][i + 1]][0],
-							vertlist[TRIANGLE_TABLE[cubeindex][i + 1]][1],
-							vertlist[TRIANGLE_TABLE[cubeindex][i + 1]][2]), new Vertex(
-								vertlist[TRIANGLE_TABLE[cubeindex][i + 2]][0],
-								vertlist[TRIANGLE_TABLE[cubeindex][i + 2]][1],
-								vertlist[TRIANGLE_TABLE[cubeindex][i + 2]][2]));
-					output.addFace(face);
+					output.addTriangle(edgeVertexIndices[TRIANGLE_TABLE[cubeindex][i]],
+						edgeVertexIndices[TRIANGLE_TABLE[cubeindex][i + 1]],
+						edgeVertexIndices[TRIANGLE_TABLE[cubeindex][i + 2]]);
 				}
 			}
 		}
+		output.trim();
 		return output;
 	}
 
+	/**
+	 * Get the index of the vertex on edge e of the cube at (x, y, z), and
+	 * create it if no adjacent cube has done so yet.
+	 */
+	private int edgeVertex(final RandomAccessibleInterval<T> input,
+		final IndexedMesh output, final EdgeVertexMap edgeVertices, final int x,
+		final int y, final int z, final double[] vertex_values, final int e)
+	{
+		final int[] a = CORNERS[EDGES[e][0]];
+		final int[] b = CORNERS[EDGES[e][1]];
+		final long key = edgeKey(input, x + Math.min(a[0], b[0]), y + Math.min(a[1],
+			b[1]), z + Math.min(a[2], b[2]), a[0] != b[0] ? 0 : a[1] != b[1] ? 1
+				: 2);
+		int index = edgeVertices.get(key);
+		if (index < 0) {
+			final double[] p = interpolatePoint(new int[] { x + a[0], y + a[1], z +
+				a[2] }, new int[] { x + b[0], y + b[1], z + b[2] },
+				vertex_values[EDGES[e][0]], vertex_values[EDGES[e][1]]);
+			index = output.addVertex(p[0], p[1], p[2]);
+			edgeVertices.put(key, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Unique key of the edge which starts at (x, y, z) and runs along the given
+	 * axis, within the interval extended by one in each direction.
+	 */
+	static long edgeKey(final RandomAccessibleInterval<?> input,
+		final long x, final long y, final long z, final int axis)
+	{
+		final long sizeX = input.dimension(0) + 2;
+		final long sizeY = input.dimension(1) + 2;
+		return (((z - input.min(2) + 1) * sizeY + y - input.min(1) + 1) * sizeX +
+			x - input.min(0) + 1) * 3 + axis;
+	}
+
 	private double[] interpolatePoint(int[] p0, int[] p1, double v0, double v1) {
 		interpolatorClass.setPoint1(p0);
 		interpolatorClass.setPoint2(p1);
@@ -235,6 +219,16 @@ public class DefaultMarchingCubes<T extends BooleanType<T>> extends
 				cursorY + 1, cursorZ + 1 }))).cursor();
 	}
 
+	// The corners of the cube, in the order of the lookup tables
+	static final int[][] CORNERS = new int[][] { { 0, 0, 0 }, { 1, 0, 0 },
+		{ 1, 0, 1 }, { 0, 0, 1 }, { 0, 1, 0 }, { 1, 1, 0 }, { 1, 1, 1 }, { 0, 1,
+			1 } };
+
+	// The corners of the twelve edges of the cube
+	static final int[][] EDGES = new int[][] { { 0, 1 }, { 1, 2 }, { 2,
+		3 }, { 3, 0 }, { 4, 5 }, { 5, 6 }, { 6, 7 }, { 7, 4 }, { 0, 4 }, { 1, 5 },
+		{ 2, 6 }, { 3, 7 } };
+
 	// For any edge, if one vertex is inside of the surface and the other is
 	// outside of the surface
 	// then the edge intersects the surface
@@ -248,7 +242,7 @@ public class DefaultMarchingCubes<T extends BooleanType<T>> extends
 	// This table is from Paul Bourke's
 	// (http://paulbourke.net/geometry/polygonise/)
 	// Marching Cubes implementation.
-	private static final int[] EDGE_TABLE = new int[] { 0x000, 0x109, 0x203,
+	static final int[] EDGE_TABLE = new int[] { 0x000, 0x109, 0x203,
 		0x30a, 0x406, 0x50f, 0x605, 0x70c, 0x80c, 0x905, 0xa0f, 0xb06, 0xc0a, 0xd03,
 		0xe09, 0xf00, 0x190, 0x099, 0x393, 0x29a, 0x596, 0x49f, 0x795, 0x69c, 0x99c,
 		0x895, 0xb9f, 0xa96, 0xd9a, 0xc93, 0xf99, 0xe90, 0x230, 0x339, 0x033, 0x13a,
@@ -285,7 +279,7 @@ public class DefaultMarchingCubes<T extends BooleanType<T>> extends
 	// This table is from Paul Bourke's
 	// (http://paulbourke.net/geometry/polygonise/)
 	// Marching Cubes implementation.
-	private static final int[][] TRIANGLE_TABLE = new int[][] { { -1, -1, -1, -1,
+	static final int[][] TRIANGLE_TABLE = new int[][] { { -1, -1, -1, -1,
 		-1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1 }, { 0, 8, 3, -1, -1, -1, -1,
 			-1, -1, -1, -1, -1, -1, -1, -1, -1 }, { 0, 1, 9, -1, -1, -1, -1, -1, -1,
 				-1, -1, -1, -1, -1, -1, -1 }, { 1, 8, 3, 9, 8, 1, -1, -1, -1, -1, -1,
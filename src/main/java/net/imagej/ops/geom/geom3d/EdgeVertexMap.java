@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.geom.geom3d;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from the edge keys of marching cubes to vertex
+ * indices, without boxing.
+ */
+final class EdgeVertexMap {
+
+	private long[] keys = newKeys(1 << 10);
+	private int[] values = new int[1 << 10];
+	private int size;
+
+	/** The vertex index of the edge, or -1 if there is none. */
+	int get(final long key) {
+		for (int slot = slot(key, keys.length);; slot = (slot + 1) &
+			(keys.length - 1))
+		{
+			if (keys[slot] == key) return values[slot];
+			if (keys[slot] == -1) return -1;
+		}
+	}
+
+	void put(final long key, final int value) {
+		if (2 * (size + 1) > keys.length) rehash();
+		insert(keys, values, key, value);
+		size++;
+	}
+
+	/** Removes all edges, keeping the capacity. */
+	void clear() {
+		Arrays.fill(keys, -1);
+		size = 0;
+	}
+
+	private void rehash() {
+		final long[] newKeys = newKeys(keys.length << 1);
+		final int[] newValues = new int[keys.length << 1];
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != -1) insert(newKeys, newValues, keys[slot],
+				values[slot]);
+		}
+		keys = newKeys;
+		values = newValues;
+	}
+
+	private static void insert(final long[] keys, final int[] values,
+		final long key, final int value)
+	{
+		int slot = slot(key, keys.length);
+		while (keys[slot] != -1 && keys[slot] != key) {
+			slot = (slot + 1) & (keys.length - 1);
+		}
+		keys[slot] = key;
+		values[slot] = value;
+	}
+
+	private static int slot(final long key, final int length) {
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash >>> 32 ^ hash) & (length - 1);
+	}
+
+	private static long[] newKeys(final int length) {
+		final long[] keys = new long[length];
+		Arrays.fill(keys, -1);
+		return keys;
+	}
+}
@@ -0,0 +1,677 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.geom.geom3d;
+
+import java.util.Arrays;
+
+import net.imagej.ops.Ops;
+import net.imagej.ops.geom.geom3d.mesh.IndexedMesh;
+import net.imagej.ops.geom.geom3d.mesh.Mesh;
+import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
+import net.imglib2.RealLocalizable;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Quickhull implementation for large point clouds, e.g. the vertices of
+ * marching cubes meshes.
+ * <p>
+ * It follows {@link DefaultConvexHull3D}, but keeps all bookkeeping in
+ * primitive arrays: the facets are linked to their neighbors across each edge
+ * and to the previous and next facet of the hull, and the points in front of a
+ * facet (its conflict list) are linked through an index array. Visible facets
+ * are therefore removed in constant time, and the horizon is found by walking
+ * the neighbors of the visible facets. Before the points are assigned to the
+ * initial simplex, all points strictly inside the convex hull of the extreme
+ * points of each axis are discarded.
+ * </p>
+ * <p>
+ * {@link #hull(double[])} computes the convex hull of raw point clouds.
+ * </p>
+ */
+@Plugin(type = Ops.Geometric.ConvexHull.class, priority = Priority.HIGH_PRIORITY)
+public class QuickHull3D extends AbstractUnaryFunctionOp<Mesh, Mesh>
+	implements Ops.Geometric.ConvexHull
+{
+
+	/**
+	 * Precision of a double.
+	 */
+	private static final double DOUBLE_PREC = 2.2204460492503131e-16;
+
+	@Override
+	public Mesh compute1(final Mesh input) {
+		final double[] points;
+		if (input instanceof IndexedMesh) {
+			final IndexedMesh indexed = (IndexedMesh) input;
+			points = Arrays.copyOf(indexed.getVertexBuffer(), 3 * indexed
+				.vertexCount());
+		}
+		else {
+			points = new double[3 * input.getVertices().size()];
+			int i = 0;
+			for (final RealLocalizable v : input.getVertices()) {
+				points[i++] = v.getDoublePosition(0);
+				points[i++] = v.getDoublePosition(1);
+				points[i++] = v.getDoublePosition(2);
+			}
+		}
+		return hull(points);
+	}
+
+	/**
+	 * Computes the convex hull of a point cloud.
+	 * 
+	 * @param points the coordinates of the points, i.e. x, y and z of point
+	 *          {@code i} are {@code points[3 * i]} to {@code points[3 * i + 2]}.
+	 * @return the facets of the convex hull in counter clock wise order, with
+	 *         its vertices in the order of their first use. The mesh is empty if
+	 *         all points lie in one plane.
+	 */
+	public static IndexedMesh hull(final double[] points) {
+		if (points.length % 3 != 0) {
+			throw new IllegalArgumentException(
+				"The number of coordinates is not a multiple of three.");
+		}
+		final Hull hull = new Hull(points);
+		if (hull.createSimplex()) {
+			hull.compute();
+		}
+		return hull.toMesh();
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * The state of one hull computation.
+	 * <p>
+	 * Edge {@code k} of facet {@code f} runs from vertex {@code k} to vertex
+	 * {@code (k + 1) % 3} of the facet, and {@code neighbors[3 * f + k]} is the
+	 * facet on its other side. Facet ids of removed facets are reused.
+	 * </p>
+	 */
+	private static final class Hull {
+
+		private static final int INITIAL_CAPACITY = 64;
+
+		/** No facet or point. */
+		private static final int NONE = -1;
+
+		private final double[] points;
+
+		private final int numPoints;
+
+		private double epsilon;
+
+		/** Next point in the conflict list of the same facet. */
+		private final int[] nextPoint;
+
+		// facets
+
+		private int[] vertices = new int[3 * INITIAL_CAPACITY];
+
+		private int[] neighbors = new int[3 * INITIAL_CAPACITY];
+
+		/** Unit normal and offset of each facet's plane. */
+		private double[] planes = new double[4 * INITIAL_CAPACITY];
+
+		/** First and last point of each conflict list. */
+		private int[] firstPoint = new int[INITIAL_CAPACITY];
+
+		private int[] lastPoint = new int[INITIAL_CAPACITY];
+
+		/** The point with the largest distance in each conflict list. */
+		private int[] furthest = new int[INITIAL_CAPACITY];
+
+		private double[] furthestDistance = new double[INITIAL_CAPACITY];
+
+		/** The doubly-linked list of all facets of the hull. */
+		private int[] prevFacet = new int[INITIAL_CAPACITY];
+
+		private int[] nextFacet = new int[INITIAL_CAPACITY];
+
+		private int firstFacet = NONE;
+
+		private int lastFacet = NONE;
+
+		/**
+		 * The doubly-linked queue of the facets with points in front, in the
+		 * order in which they got their first point.
+		 */
+		private int[] prevPending = new int[INITIAL_CAPACITY];
+
+		private int[] nextPending = new int[INITIAL_CAPACITY];
+
+		private int firstPending = NONE;
+
+		private int lastPending = NONE;
+
+		/** Whether each facet id is visible from the current eye point. */
+		private boolean[] visible = new boolean[INITIAL_CAPACITY];
+
+		private int numFacetIds;
+
+		private int[] freeFacets = new int[INITIAL_CAPACITY];
+
+		private int numFreeFacets;
+
+		// scratch buffers of one iteration
+
+		private int[] horizon = new int[INITIAL_CAPACITY];
+
+		private int[] visibleFacets = new int[INITIAL_CAPACITY];
+
+		private int[] stack = new int[3 * INITIAL_CAPACITY];
+
+		private int[] newFacets = new int[INITIAL_CAPACITY];
+
+		private int numVisible;
+
+		private int numHorizon;
+
+		private Hull(final double[] points) {
+			this.points = points;
+			numPoints = points.length / 3;
+			nextPoint = new int[numPoints];
+		}
+
+		/**
+		 * Creates the initial simplex of four facets and assigns all points
+		 * outside of it. v0 and v1 are the extreme points of the dimension with
+		 * the largest extent, v2 is the point with the largest distance to
+		 * v0----v1, and v3 the point with the largest distance to the plane of
+		 * v0, v1 and v2.
+		 * 
+		 * @return false if all points lie in one plane
+		 */
+		private boolean createSimplex() {
+			if (numPoints < 4) return false;
+
+			// indices of the min and max points of each dimension
+			final int[] extremes = new int[6];
+			final double[] max = new double[3];
+			final double[] min = new double[3];
+			for (int d = 0; d < 3; d++) {
+				min[d] = max[d] = points[d];
+			}
+			for (int i = 1; i < numPoints; i++) {
+				for (int d = 0; d < 3; d++) {
+					final double c = points[3 * i + d];
+					if (c < min[d]) {
+						min[d] = c;
+						extremes[d] = i;
+					}
+					else if (c > max[d]) {
+						max[d] = c;
+						extremes[d + 3] = i;
+					}
+				}
+			}
+
+			// This epsilon formula comes from John Lloyd's quickhull
+			// implementation http://www.cs.ubc.ca/~lloyd/java/quickhull3d.html
+			epsilon = 0;
+			int axis = 0;
+			for (int d = 0; d < 3; d++) {
+				epsilon += Math.max(Math.abs(min[d]), Math.abs(max[d]));
+				if (max[d] - min[d] > max[axis] - min[axis]) axis = d;
+			}
+			epsilon *= 3 * DOUBLE_PREC;
+
+			final int v0 = extremes[axis];
+			final int v1 = extremes[axis + 3];
+
+			// d = |(v - v0) x (v - v1)|^2 / |v1 - v0|^2, without the common
+			// denominator
+			int v2 = NONE;
+			double maxDistance = epsilon;
+			for (int i = 0; i < numPoints; i++) {
+				final double ax = points[3 * i] - points[3 * v0];
+				final double ay = points[3 * i + 1] - points[3 * v0 + 1];
+				final double az = points[3 * i + 2] - points[3 * v0 + 2];
+				final double bx = points[3 * i] - points[3 * v1];
+				final double by = points[3 * i + 1] - points[3 * v1 + 1];
+				final double bz = points[3 * i + 2] - points[3 * v1 + 2];
+				final double cx = ay * bz - az * by;
+				final double cy = az * bx - ax * bz;
+				final double cz = ax * by - ay * bx;
+				final double distance = cx * cx + cy * cy + cz * cz;
+				if (distance > maxDistance) {
+					maxDistance = distance;
+					v2 = i;
+				}
+			}
+			if (v2 == NONE) return false;
+
+			final int f0 = newFacet(v0, v1, v2);
+			int v3 = NONE;
+			maxDistance = epsilon;
+			for (int i = 0; i < numPoints; i++) {
+				final double distance = Math.abs(distance(f0, i));
+				if (distance > maxDistance) {
+					maxDistance = distance;
+					v3 = i;
+				}
+			}
+			if (v3 == NONE) return false;
+
+			// v3 must be behind f0
+			if (distance(f0, v3) > 0) {
+				vertices[3 * f0 + 1] = v2;
+				vertices[3 * f0 + 2] = v1;
+				computePlane(f0);
+			}
+			final int a = vertices[3 * f0];
+			final int b = vertices[3 * f0 + 1];
+			final int c = vertices[3 * f0 + 2];
+			final int[] simplex = { f0, newFacet(b, a, v3), newFacet(c, b, v3),
+				newFacet(a, c, v3) };
+			// the neighbor across each edge has the same edge in reverse
+			for (final int f : simplex) {
+				for (int k = 0; k < 3; k++) {
+					final int tail = vertices[3 * f + k];
+					final int head = vertices[3 * f + (k + 1) % 3];
+					for (final int g : simplex) {
+						final int j = edgeIndex(g, head);
+						if (g != f && j != NONE && vertices[3 * g + (j + 1) % 3] == tail) {
+							neighbors[3 * f + k] = g;
+						}
+					}
+				}
+			}
+
+			final double[] filter = interiorFilter(extremes, new int[] { a, b, c,
+				v3 });
+			for (int i = 0; i < numPoints; i++) {
+				if (i == a || i == b || i == c || i == v3 || isInside(filter, i)) {
+					continue;
+				}
+				assignPoint(i, simplex, simplex.length);
+			}
+			for (final int f : simplex) {
+				addFacet(f);
+			}
+			return true;
+		}
+
+		/**
+		 * Computes the planes of the facets of the convex hull of the given
+		 * points, oriented outwards. Any plane through three of the points which
+		 * has all others behind it is a plane of a facet.
+		 */
+		private double[] interiorFilter(final int[] extremes,
+			final int[] simplex)
+		{
+			final int[] corners = new int[extremes.length + simplex.length];
+			int numCorners = 0;
+			for (final int[] group : new int[][] { simplex, extremes }) {
+				for (final int i : group) {
+					boolean duplicate = false;
+					for (int j = 0; j < numCorners; j++) {
+						duplicate |= corners[j] == i;
+					}
+					if (!duplicate) corners[numCorners++] = i;
+				}
+			}
+
+			double[] filter = new double[0];
+			final int f = newFacet(corners[0], corners[1], corners[2]);
+			for (int i = 0; i < numCorners; i++) {
+				for (int j = i + 1; j < numCorners; j++) {
+					for (int k = j + 1; k < numCorners; k++) {
+						vertices[3 * f] = corners[i];
+						vertices[3 * f + 1] = corners[j];
+						vertices[3 * f + 2] = corners[k];
+						computePlane(f);
+						if (normalLengthSq(f) == 0) continue;
+						boolean behind = true;
+						boolean inFront = true;
+						for (int l = 0; l < numCorners; l++) {
+							final double distance = distance(f, corners[l]);
+							behind &= distance <= epsilon;
+							inFront &= distance >= -epsilon;
+						}
+						if (behind || inFront) {
+							final double sign = behind ? 1 : -1;
+							filter = Arrays.copyOf(filter, filter.length + 4);
+							for (int d = 0; d < 4; d++) {
+								filter[filter.length - 4 + d] = sign * planes[4 * f + d];
+							}
+						}
+					}
+				}
+			}
+			freeFacet(f);
+			return filter;
+		}
+
+		/** Whether the point is behind all planes, by more than epsilon. */
+		private boolean isInside(final double[] filter, final int point) {
+			if (filter.length == 0) return false;
+			final double x = points[3 * point];
+			final double y = points[3 * point + 1];
+			final double z = points[3 * point + 2];
+			for (int p = 0; p < filter.length; p += 4) {
+				if (filter[p] * x + filter[p + 1] * y + filter[p + 2] * z -
+					filter[p + 3] >= -epsilon)
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Adds the furthest point of the first pending facet to the hull, until
+		 * no point is in front of any facet.
+		 */
+		private void compute() {
+			while (firstPending != NONE) {
+				final int eye = furthest[firstPending];
+				findHorizon(firstPending, eye);
+				createFacets(eye);
+
+				// reassign the points of the visible facets, which are removed
+				for (int i = 0; i < numVisible; i++) {
+					final int f = visibleFacets[i];
+					int point = firstPoint[f];
+					while (point != NONE) {
+						final int next = nextPoint[point];
+						if (point != eye) assignPoint(point, newFacets, numHorizon);
+						point = next;
+					}
+					removeFacet(f);
+				}
+				for (int i = 0; i < numHorizon; i++) {
+					addFacet(newFacets[i]);
+				}
+			}
+		}
+
+		/**
+		 * Marks all facets which are visible from the eye point, starting at the
+		 * given one, and collects the edges of the horizon in counter clock wise
+		 * order. Each horizon edge is stored as {@code 3 * f + k}, with the
+		 * visible facet f and its edge index k.
+		 */
+		private void findHorizon(final int start, final int eye) {
+			numVisible = 0;
+			numHorizon = 0;
+			// entries of (facet, first edge, number of edges left)
+			int top = 0;
+			visible[start] = true;
+			visibleFacets[numVisible++] = start;
+			stack[top++] = start;
+			stack[top++] = 0;
+			stack[top++] = 3;
+			while (top > 0) {
+				final int f = stack[top - 3];
+				final int edge = stack[top - 2];
+				if (stack[top - 1] == 0) {
+					top -= 3;
+					continue;
+				}
+				stack[top - 2] = (edge + 1) % 3;
+				stack[top - 1]--;
+
+				final int g = neighbors[3 * f + edge];
+				if (visible[g]) continue;
+				if (distance(g, eye) > epsilon) {
+					visible[g] = true;
+					visibleFacets = grow(visibleFacets, numVisible + 1);
+					visibleFacets[numVisible++] = g;
+					// continue after the edge through which g is entered
+					final int entry = edgeIndex(g, vertices[3 * f + (edge + 1) % 3]);
+					stack = grow(stack, top + 3);
+					stack[top++] = g;
+					stack[top++] = (entry + 1) % 3;
+					stack[top++] = 2;
+				}
+				else {
+					horizon = grow(horizon, numHorizon + 1);
+					horizon[numHorizon++] = 3 * f + edge;
+				}
+			}
+		}
+
+		/** Creates a cone of facets from each horizon edge to the eye point. */
+		private void createFacets(final int eye) {
+			final int numNew = numHorizon;
+			newFacets = grow(newFacets, numNew);
+			for (int i = 0; i < numNew; i++) {
+				final int f = horizon[i] / 3;
+				final int edge = horizon[i] % 3;
+				final int tail = vertices[3 * f + edge];
+				final int head = vertices[3 * f + (edge + 1) % 3];
+				final int outside = neighbors[3 * f + edge];
+				final int n = newFacet(tail, head, eye);
+				neighbors[3 * n] = outside;
+				neighbors[3 * outside + edgeIndex(outside, head)] = n;
+				newFacets[i] = n;
+			}
+			for (int i = 0; i < numNew; i++) {
+				final int n = newFacets[i];
+				neighbors[3 * n + 1] = newFacets[(i + 1) % numNew];
+				neighbors[3 * n + 2] = newFacets[(i + numNew - 1) % numNew];
+			}
+		}
+
+		/**
+		 * Assigns the point to the facet with the largest distance to it, if it
+		 * is in front of any.
+		 */
+		private void assignPoint(final int point, final int[] facets,
+			final int numFacets)
+		{
+			int maxFacet = NONE;
+			double maxDistance = epsilon;
+			for (int i = 0; i < numFacets; i++) {
+				final double distance = distance(facets[i], point);
+				if (distance > maxDistance) {
+					maxDistance = distance;
+					maxFacet = facets[i];
+				}
+			}
+			// NB: Points behind all facets are inside of the convex hull.
+			if (maxFacet == NONE) return;
+
+			nextPoint[point] = NONE;
+			if (firstPoint[maxFacet] == NONE) {
+				firstPoint[maxFacet] = point;
+				furthest[maxFacet] = point;
+				furthestDistance[maxFacet] = maxDistance;
+			}
+			else {
+				nextPoint[lastPoint[maxFacet]] = point;
+				if (maxDistance > furthestDistance[maxFacet]) {
+					furthest[maxFacet] = point;
+					furthestDistance[maxFacet] = maxDistance;
+				}
+			}
+			lastPoint[maxFacet] = point;
+		}
+
+		/** Returns the signed distance of the point to the plane of facet f. */
+		private double distance(final int f, final int point) {
+			return planes[4 * f] * points[3 * point] + planes[4 * f + 1] *
+				points[3 * point + 1] + planes[4 * f + 2] * points[3 * point + 2] -
+				planes[4 * f + 3];
+		}
+
+		/** Returns the index of the edge of facet f which starts at the vertex. */
+		private int edgeIndex(final int f, final int vertex) {
+			for (int k = 0; k < 3; k++) {
+				if (vertices[3 * f + k] == vertex) return k;
+			}
+			return NONE;
+		}
+
+		/** Returns the squared length of facet f's normal, i.e. 0 or 1. */
+		private double normalLengthSq(final int f) {
+			return planes[4 * f] * planes[4 * f] + planes[4 * f + 1] * planes[4 * f +
+				1] + planes[4 * f + 2] * planes[4 * f + 2];
+		}
+
+		/**
+		 * Creates a facet, which is neither part of the hull nor linked to its
+		 * neighbors yet.
+		 */
+		private int newFacet(final int v0, final int v1, final int v2) {
+			final int f;
+			if (numFreeFacets > 0) {
+				f = freeFacets[--numFreeFacets];
+			}
+			else {
+				f = numFacetIds++;
+				if (f == firstPoint.length) growFacets();
+			}
+			vertices[3 * f] = v0;
+			vertices[3 * f + 1] = v1;
+			vertices[3 * f + 2] = v2;
+			computePlane(f);
+			firstPoint[f] = NONE;
+			lastPoint[f] = NONE;
+			furthest[f] = NONE;
+			visible[f] = false;
+			return f;
+		}
+
+		/** Computes the unit normal and the offset of facet f's plane. */
+		private void computePlane(final int f) {
+			final int p0 = 3 * vertices[3 * f];
+			final int p1 = 3 * vertices[3 * f + 1];
+			final int p2 = 3 * vertices[3 * f + 2];
+			final double ax = points[p1] - points[p0];
+			final double ay = points[p1 + 1] - points[p0 + 1];
+			final double az = points[p1 + 2] - points[p0 + 2];
+			final double bx = points[p2] - points[p0];
+			final double by = points[p2 + 1] - points[p0 + 1];
+			final double bz = points[p2 + 2] - points[p0 + 2];
+			double nx = ay * bz - az * by;
+			double ny = az * bx - ax * bz;
+			double nz = ax * by - ay * bx;
+			final double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+			if (length > 0) {
+				nx /= length;
+				ny /= length;
+				nz /= length;
+			}
+			planes[4 * f] = nx;
+			planes[4 * f + 1] = ny;
+			planes[4 * f + 2] = nz;
+			// the offset of the centroid, as in TriangularFacet
+			planes[4 * f + 3] = (nx * (points[p0] + points[p1] + points[p2]) + ny *
+				(points[p0 + 1] + points[p1 + 1] + points[p2 + 1]) + nz * (points[p0 +
+					2] + points[p1 + 2] + points[p2 + 2])) / 3;
+		}
+
+		/** Appends facet f to the hull, and to the queue if it has points. */
+		private void addFacet(final int f) {
+			prevFacet[f] = lastFacet;
+			nextFacet[f] = NONE;
+			if (lastFacet == NONE) firstFacet = f;
+			else nextFacet[lastFacet] = f;
+			lastFacet = f;
+
+			if (firstPoint[f] == NONE) return;
+			prevPending[f] = lastPending;
+			nextPending[f] = NONE;
+			if (lastPending == NONE) firstPending = f;
+			else nextPending[lastPending] = f;
+			lastPending = f;
+		}
+
+		/** Removes facet f from the hull and the queue, and frees its id. */
+		private void removeFacet(final int f) {
+			if (prevFacet[f] == NONE) firstFacet = nextFacet[f];
+			else nextFacet[prevFacet[f]] = nextFacet[f];
+			if (nextFacet[f] == NONE) lastFacet = prevFacet[f];
+			else prevFacet[nextFacet[f]] = prevFacet[f];
+
+			if (firstPoint[f] != NONE) {
+				if (prevPending[f] == NONE) firstPending = nextPending[f];
+				else nextPending[prevPending[f]] = nextPending[f];
+				if (nextPending[f] == NONE) lastPending = prevPending[f];
+				else prevPending[nextPending[f]] = prevPending[f];
+			}
+			freeFacet(f);
+		}
+
+		private void freeFacet(final int f) {
+			visible[f] = false;
+			freeFacets = grow(freeFacets, numFreeFacets + 1);
+			freeFacets[numFreeFacets++] = f;
+		}
+
+		private void growFacets() {
+			final int capacity = 2 * firstPoint.length;
+			vertices = Arrays.copyOf(vertices, 3 * capacity);
+			neighbors = Arrays.copyOf(neighbors, 3 * capacity);
+			planes = Arrays.copyOf(planes, 4 * capacity);
+			firstPoint = Arrays.copyOf(firstPoint, capacity);
+			lastPoint = Arrays.copyOf(lastPoint, capacity);
+			furthest = Arrays.copyOf(furthest, capacity);
+			furthestDistance = Arrays.copyOf(furthestDistance, capacity);
+			prevFacet = Arrays.copyOf(prevFacet, capacity);
+			nextFacet = Arrays.copyOf(nextFacet, capacity);
+			prevPending = Arrays.copyOf(prevPending, capacity);
+			nextPending = Arrays.copyOf(nextPending, capacity);
+			visible = Arrays.copyOf(visible, capacity);
+		}
+
+		private static int[] grow(final int[] array, final int size) {
+			return size <= array.length ? array : Arrays.copyOf(array, Math.max(
+				size, 2 * array.length));
+		}
+
+		/** Creates a mesh of the hull's facets and their vertices. */
+		private IndexedMesh toMesh() {
+			final IndexedMesh mesh = new IndexedMesh();
+			final int[] indices = new int[numPoints];
+			Arrays.fill(indices, NONE);
+			for (int f = firstFacet; f != NONE; f = nextFacet[f]) {
+				for (int k = 0; k < 3; k++) {
+					final int v = vertices[3 * f + k];
+					if (indices[v] == NONE) {
+						indices[v] = mesh.addVertex(points[3 * v], points[3 * v + 1],
+							points[3 * v + 2]);
+					}
+				}
+				mesh.addTriangle(indices[vertices[3 * f]], indices[vertices[3 * f +
+					1]], indices[vertices[3 * f + 2]]);
+			}
+			mesh.trim();
+			return mesh;
+		}
+	}
+
+}
@@ -0,0 +1,371 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.geom.geom3d;
+
+import static net.imagej.ops.geom.geom3d.DefaultMarchingCubes.CORNERS;
+import static net.imagej.ops.geom.geom3d.DefaultMarchingCubes.EDGES;
+import static net.imagej.ops.geom.geom3d.DefaultMarchingCubes.EDGE_TABLE;
+import static net.imagej.ops.geom.geom3d.DefaultMarchingCubes.TRIANGLE_TABLE;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.geom.geom3d.mesh.BitTypeVertexInterpolator;
+import net.imagej.ops.geom.geom3d.mesh.IndexedMesh;
+import net.imagej.ops.geom.geom3d.mesh.Mesh;
+import net.imagej.ops.geom.geom3d.mesh.VertexInterpolator;
+import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.type.BooleanType;
+
+import org.scijava.ItemIO;
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Marching cubes on Z-slabs, which are processed in parallel.
+ * <p>
+ * Each task reads two consecutive planes into padded byte buffers, computes
+ * the cube indices of a layer with bit operations and keeps the vertices of
+ * the cube edges in primitive maps, which only hold the edges of the current
+ * layer. The slab meshes are then stitched in order, joining the vertices on
+ * the shared planes. The result is the same {@link IndexedMesh} as the one of
+ * {@link DefaultMarchingCubes}.
+ * </p>
+ */
+@Plugin(type = Ops.Geometric.MarchingCubes.class,
+	priority = Priority.HIGH_PRIORITY)
+public class SlabMarchingCubes<T extends BooleanType<T>> extends
+	AbstractUnaryFunctionOp<RandomAccessibleInterval<T>, Mesh> implements
+	Ops.Geometric.MarchingCubes, Contingent, Parallel
+{
+
+	/**
+	 * Minimum number of cube layers per slab. A layer is a whole plane of work,
+	 * so a few layers amortise the stitching of the slab, and even small stacks
+	 * are split among the threads.
+	 */
+	static final long LAYER_GRAIN_SIZE = 4;
+
+	@Parameter(type = ItemIO.INPUT, required = false)
+	private double isolevel = 1;
+
+	@Parameter(type = ItemIO.INPUT, required = false)
+	private VertexInterpolator interpolatorClass =
+		new BitTypeVertexInterpolator();
+
+	@Override
+	public IndexedMesh compute1(final RandomAccessibleInterval<T> input) {
+		final int width = (int) input.dimension(0) + 2;
+		final int height = (int) input.dimension(1) + 2;
+		// NB: the cube layers start one plane below the input
+		final long layers = input.dimension(2) + 1;
+
+		final ConcurrentSkipListMap<Long, Slab> slabs =
+			new ConcurrentSkipListMap<>();
+		ops().thread().chunker(new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
+			{
+				if (stepSize != 1) {
+					// NB: Slabs must consist of consecutive layers.
+					for (long i = 0; i < numSteps; i++) {
+						execute(startIndex + i * stepSize, 1, 1);
+					}
+					return;
+				}
+				final Slab slab = new Slab(input, width, height, startIndex, numSteps);
+				for (long i = 0; i < numSteps; i++) {
+					slab.march(startIndex + i);
+				}
+				slabs.put(startIndex, slab);
+			}
+		}, layers, LAYER_GRAIN_SIZE);
+
+		return stitch(slabs.values(), (long) width * height);
+	}
+
+	@Override
+	public boolean conforms() {
+		return in().numDimensions() == 3 && (in().dimension(0) + 2) * (in()
+			.dimension(1) + 2) <= Integer.MAX_VALUE - 8;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Joins the slab meshes, mapping the vertices on the bottom plane of each
+	 * slab to the ones of the previous slab.
+	 */
+	private IndexedMesh stitch(final Iterable<Slab> slabs,
+		final long planeSize)
+	{
+		final IndexedMesh output = new IndexedMesh();
+		EdgeVertexMap boundary = new EdgeVertexMap();
+		for (final Slab slab : slabs) {
+			final EdgeVertexMap next = new EdgeVertexMap();
+			final int[] indices = new int[slab.vertexCount];
+			for (int v = 0; v < slab.vertexCount; v++) {
+				final long key = slab.keys[v];
+				final boolean horizontal = key % 3 != 2;
+				final long plane = key / 3 / planeSize;
+				int index = -1;
+				if (horizontal && plane == slab.first) index = boundary.get(key);
+				if (index < 0) {
+					index = output.addVertex(slab.vertices[3 * v], slab.vertices[3 * v +
+						1], slab.vertices[3 * v + 2]);
+				}
+				indices[v] = index;
+				if (horizontal && plane == slab.first + slab.layers) {
+					next.put(key, index);
+				}
+			}
+			for (int t = 0; t < 3 * slab.triangleCount; t += 3) {
+				output.addTriangle(indices[slab.triangles[t]], indices[slab.triangles[t +
+					1]], indices[slab.triangles[t + 2]]);
+			}
+			boundary = next;
+		}
+		output.trim();
+		return output;
+	}
+
+	// -- Helper classes --
+
+	/** The mesh of consecutive cube layers, with the edge key of each vertex. */
+	private class Slab {
+
+		private final RandomAccessibleInterval<T> input;
+		private final RandomAccess<T> access;
+		private final int width;
+		private final int height;
+		private final long first;
+		private final long layers;
+
+		private byte[] lower;
+		private byte[] upper;
+		private long upperPlane = Long.MIN_VALUE;
+
+		/** Edges in the lower and upper plane, and between them. */
+		private EdgeVertexMap lowerEdges = new EdgeVertexMap();
+		private EdgeVertexMap upperEdges = new EdgeVertexMap();
+		private final EdgeVertexMap verticalEdges = new EdgeVertexMap();
+
+		private final int[] edgeVertexIndices = new int[12];
+		private final int[] point1 = new int[3];
+		private final int[] point2 = new int[3];
+		private final boolean midpoints;
+		// whether a background and a foreground corner are below the isolevel
+		private final int backgroundBits;
+		private final int foregroundBits;
+
+		private double[] vertices = new double[3 * 1024];
+		private long[] keys = new long[1024];
+		private int[] triangles = new int[3 * 1024];
+		private int vertexCount;
+		private int triangleCount;
+
+		private Slab(final RandomAccessibleInterval<T> input, final int width,
+			final int height, final long first, final long layers)
+		{
+			this.input = input;
+			this.width = width;
+			this.height = height;
+			this.first = first;
+			this.layers = layers;
+			access = input.randomAccess();
+			lower = new byte[width * height];
+			upper = new byte[width * height];
+			midpoints = interpolatorClass instanceof BitTypeVertexInterpolator;
+			backgroundBits = 0 < isolevel ? 0xff : 0;
+			foregroundBits = 1 < isolevel ? 0xff : 0;
+		}
+
+		/** Adds the triangles of the cubes between planes z and z + 1. */
+		private void march(final long z) {
+			if (upperPlane == z) {
+				final byte[] swap = lower;
+				lower = upper;
+				upper = swap;
+			}
+			else {
+				read(lower, z);
+			}
+			read(upper, z + 1);
+			upperPlane = z + 1;
+
+			final long minX = input.min(0) - 1;
+			final long minY = input.min(1) - 1;
+			final long minZ = input.min(2) - 1;
+			for (int y = 0; y < height - 1; y++) {
+				for (int x = 0; x < width - 1; x++) {
+					final int o = y * width + x;
+					// the corners in the order of the lookup tables
+					final int corners = lower[o] | lower[o + 1] << 1 | upper[o + 1] << 2 |
+						upper[o] << 3 | lower[o + width] << 4 | lower[o + width + 1] << 5 |
+						upper[o + width + 1] << 6 | upper[o + width] << 7;
+					final int cubeindex = corners & foregroundBits | ~corners &
+						backgroundBits;
+					if (EDGE_TABLE[cubeindex] == 0) continue;
+
+					Arrays.fill(edgeVertexIndices, -1);
+					final int[] triangleTable = TRIANGLE_TABLE[cubeindex];
+					for (int i = 0; triangleTable[i] != -1; i++) {
+						final int e = triangleTable[i];
+						if (edgeVertexIndices[e] < 0) {
+							edgeVertexIndices[e] = edgeVertex(x, y, z, minX + x, minY + y,
+								minZ + z, corners, e);
+						}
+					}
+					for (int i = 0; triangleTable[i] != -1; i += 3) {
+						addTriangle(edgeVertexIndices[triangleTable[i]],
+							edgeVertexIndices[triangleTable[i + 1]],
+							edgeVertexIndices[triangleTable[i + 2]]);
+					}
+				}
+			}
+
+			// NB: Only the upper plane is shared with the next layer.
+			final EdgeVertexMap swap = lowerEdges;
+			lowerEdges = upperEdges;
+			upperEdges = swap;
+			upperEdges.clear();
+			verticalEdges.clear();
+		}
+
+		/**
+		 * Reads the plane at z, relative to one plane below the input, with a
+		 * background margin of one voxel.
+		 */
+		private void read(final byte[] plane, final long z) {
+			Arrays.fill(plane, (byte) 0);
+			final long position = input.min(2) - 1 + z;
+			if (position < input.min(2) || position > input.max(2)) return;
+
+			access.setPosition(position, 2);
+			for (int y = 1; y < height - 1; y++) {
+				access.setPosition(input.min(0), 0);
+				access.setPosition(input.min(1) + y - 1, 1);
+				final int offset = y * width;
+				for (int x = 1; x < width - 1; x++) {
+					if (access.get().get()) plane[offset + x] = 1;
+					access.fwd(0);
+				}
+			}
+		}
+
+		/**
+		 * Gets the index of the vertex on edge e of the cube at (x, y, z), and
+		 * creates it if no adjacent cube of the slab has done so yet.
+		 */
+		private int edgeVertex(final int x, final int y, final long z,
+			final long cubeX, final long cubeY, final long cubeZ, final int corners,
+			final int e)
+		{
+			final int[] a = CORNERS[EDGES[e][0]];
+			final int[] b = CORNERS[EDGES[e][1]];
+			final int axis = a[0] != b[0] ? 0 : a[1] != b[1] ? 1 : 2;
+			final int lowerZ = Math.min(a[2], b[2]);
+			final EdgeVertexMap edges = axis == 2 ? verticalEdges : lowerZ == 0
+				? lowerEdges : upperEdges;
+			final long key = (((z + lowerZ) * height + y + Math.min(a[1], b[1])) *
+				width + x + Math.min(a[0], b[0])) * 3 + axis;
+			int index = edges.get(key);
+			if (index >= 0) return index;
+
+			final double value1 = corners >>> EDGES[e][0] & 1;
+			final double value2 = corners >>> EDGES[e][1] & 1;
+			if (midpoints) {
+				index = addVertex(cubeX + (a[0] + b[0]) / 2.0, cubeY + (a[1] + b[1]) /
+					2.0, cubeZ + (a[2] + b[2]) / 2.0, key);
+			}
+			else {
+				for (int d = 0; d < 3; d++) {
+					point1[d] = (int) ((d == 0 ? cubeX : d == 1 ? cubeY : cubeZ) + a[d]);
+					point2[d] = (int) ((d == 0 ? cubeX : d == 1 ? cubeY : cubeZ) + b[d]);
+				}
+				final double[] p;
+				// NB: Interpolators are ops with state, shared by all slabs.
+				synchronized (interpolatorClass) {
+					interpolatorClass.setPoint1(point1);
+					interpolatorClass.setPoint2(point2);
+					interpolatorClass.setValue1(value1);
+					interpolatorClass.setValue2(value2);
+					interpolatorClass.setIsoLevel(isolevel);
+					interpolatorClass.run();
+					p = interpolatorClass.getOutput();
+				}
+				index = addVertex(p[0], p[1], p[2], key);
+			}
+			edges.put(key, index);
+			return index;
+		}
+
+		private int addVertex(final double x, final double y, final double z,
+			final long key)
+		{
+			if (vertexCount == keys.length) {
+				keys = Arrays.copyOf(keys, 2 * keys.length);
+				vertices = Arrays.copyOf(vertices, 3 * keys.length);
+			}
+			vertices[3 * vertexCount] = x;
+			vertices[3 * vertexCount + 1] = y;
+			vertices[3 * vertexCount + 2] = z;
+			keys[vertexCount] = key;
+			return vertexCount++;
+		}
+
+		private void addTriangle(final int v0, final int v1, final int v2) {
+			if (3 * triangleCount == triangles.length) {
+				triangles = Arrays.copyOf(triangles, 2 * triangles.length);
+			}
+			triangles[3 * triangleCount] = v0;
+			triangles[3 * triangleCount + 1] = v1;
+			triangles[3 * triangleCount + 2] = v2;
+			triangleCount++;
+		}
+	}
+}
@@ -54,6 +54,9 @@ public class DefaultVolume
 
 	@Override
 	public DoubleType compute1(final Mesh input) {
+		if (input instanceof IndexedMesh) {
+			return new DoubleType(Math.abs(volume((IndexedMesh) input)));
+		}
 		double volume = 0;
 		for (Facet f : input.getFacets()) {
 			TriangularFacet tf = (TriangularFacet) f;
@@ -62,6 +65,22 @@ public class DefaultVolume
 		return new DoubleType(Math.abs(volume));
 	}
 
+	private double volume(final IndexedMesh input) {
+		final double[] v = input.getVertexBuffer();
+		final int[] t = input.getTriangleBuffer();
+		double volume = 0;
+		for (int i = 0; i < 3 * input.triangleCount(); i += 3) {
+			final int p0 = 3 * t[i];
+			final int p1 = 3 * t[i + 1];
+			final int p2 = 3 * t[i + 2];
+			// p0 . (p1 x p2)
+			volume += v[p0] * (v[p1 + 1] * v[p2 + 2] - v[p1 + 2] * v[p2 + 1]) +
+				v[p0 + 1] * (v[p1 + 2] * v[p2] - v[p1] * v[p2 + 2]) + v[p0 + 2] *
+					(v[p1] * v[p2 + 1] - v[p1 + 1] * v[p2]);
+		}
+		return volume / 6.0f;
+	}
+
 	private double signedVolumeOfTriangle(Vector3D p0, Vector3D p1, Vector3D p2) {
 		 return p0.dotProduct(p1.crossProduct(p2)) / 6.0f;
 	}
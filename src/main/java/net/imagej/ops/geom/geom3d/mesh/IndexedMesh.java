@@ -0,0 +1,279 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.geom.geom3d.mesh;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import net.imglib2.RealLocalizable;
+
+/**
+ * A triangle {@link Mesh} which stores its vertices, vertex normals and
+ * triangles in flat primitive buffers.
+ * <p>
+ * Vertex {@code i} has the coordinates {@code 3 * i} to {@code 3 * i + 2} of
+ * the vertex buffer, and triangle {@code t} the vertex indices {@code 3 * t} to
+ * {@code 3 * t + 2} of the triangle buffer, in counter clock wise order. The
+ * vertex normals are the sums of the (area weighted) normals of the adjacent
+ * triangles.
+ * </p>
+ * <p>
+ * {@link #getVertices()} and {@link #getFacets()} are views, which create their
+ * elements on access. Ops which handle many triangles should use the buffers
+ * instead.
+ * </p>
+ */
+public class IndexedMesh implements Mesh {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private double[] vertices;
+
+	private float[] normals;
+
+	private int[] triangles;
+
+	private int vertexCount;
+
+	private int triangleCount;
+
+	/**
+	 * The sum of the area of all triangles.
+	 */
+	private double area;
+
+	/**
+	 * A new empty mesh.
+	 */
+	public IndexedMesh() {
+		vertices = new double[3 * INITIAL_CAPACITY];
+		normals = new float[3 * INITIAL_CAPACITY];
+		triangles = new int[3 * INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Add a new vertex.
+	 * 
+	 * @return the index of the vertex
+	 */
+	public int addVertex(final double x, final double y, final double z) {
+		if (3 * vertexCount == vertices.length) {
+			vertices = Arrays.copyOf(vertices, grow(vertices.length));
+			normals = Arrays.copyOf(normals, vertices.length);
+		}
+		final int offset = 3 * vertexCount;
+		vertices[offset] = x;
+		vertices[offset + 1] = y;
+		vertices[offset + 2] = z;
+		return vertexCount++;
+	}
+
+	/**
+	 * Add a new triangle of three vertices in counter clock wise order.
+	 * 
+	 * @return the index of the triangle
+	 */
+	public int addTriangle(final int v0, final int v1, final int v2) {
+		if (3 * triangleCount == triangles.length) {
+			triangles = Arrays.copyOf(triangles, grow(triangles.length));
+		}
+		final int offset = 3 * triangleCount;
+		triangles[offset] = v0;
+		triangles[offset + 1] = v1;
+		triangles[offset + 2] = v2;
+
+		// the cross product of two edges, as in TriangularFacet
+		final double ux = vertices[3 * v1] - vertices[3 * v0];
+		final double uy = vertices[3 * v1 + 1] - vertices[3 * v0 + 1];
+		final double uz = vertices[3 * v1 + 2] - vertices[3 * v0 + 2];
+		final double wx = vertices[3 * v2] - vertices[3 * v0];
+		final double wy = vertices[3 * v2 + 1] - vertices[3 * v0 + 1];
+		final double wz = vertices[3 * v2 + 2] - vertices[3 * v0 + 2];
+		final double nx = uy * wz - uz * wy;
+		final double ny = uz * wx - ux * wz;
+		final double nz = ux * wy - uy * wx;
+		addNormal(v0, nx, ny, nz);
+		addNormal(v1, nx, ny, nz);
+		addNormal(v2, nx, ny, nz);
+		area += 0.5 * Math.sqrt(nx * nx + ny * ny + nz * nz);
+		return triangleCount++;
+	}
+
+	/**
+	 * Shrink the buffers to the number of vertices and triangles.
+	 */
+	public void trim() {
+		vertices = Arrays.copyOf(vertices, 3 * vertexCount);
+		normals = Arrays.copyOf(normals, 3 * vertexCount);
+		triangles = Arrays.copyOf(triangles, 3 * triangleCount);
+	}
+
+	/**
+	 * Get the number of vertices.
+	 * 
+	 * @return the number of vertices
+	 */
+	public int vertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * Get the number of triangles.
+	 * 
+	 * @return the number of triangles
+	 */
+	public int triangleCount() {
+		return triangleCount;
+	}
+
+	/**
+	 * Get the vertex buffer, of which the first {@code 3 * vertexCount()}
+	 * entries are used.
+	 * 
+	 * @return the vertex coordinates
+	 */
+	public double[] getVertexBuffer() {
+		return vertices;
+	}
+
+	/**
+	 * Get the normal buffer, of which the first {@code 3 * vertexCount()}
+	 * entries are used.
+	 * 
+	 * @return the vertex normals
+	 */
+	public float[] getNormalBuffer() {
+		return normals;
+	}
+
+	/**
+	 * Get the triangle buffer, of which the first {@code 3 * triangleCount()}
+	 * entries are used.
+	 * 
+	 * @return the vertex indices of the triangles
+	 */
+	public int[] getTriangleBuffer() {
+		return triangles;
+	}
+
+	@Override
+	public double getSurfaceArea() {
+		return area;
+	}
+
+	@Override
+	public boolean triangularFacets() {
+		return true;
+	}
+
+	@Override
+	public Set<RealLocalizable> getVertices() {
+		return new AbstractSet<RealLocalizable>() {
+
+			@Override
+			public Iterator<RealLocalizable> iterator() {
+				return new Iterator<RealLocalizable>() {
+
+					private int next = 0;
+
+					@Override
+					public boolean hasNext() {
+						return next < vertexCount;
+					}
+
+					@Override
+					public RealLocalizable next() {
+						if (!hasNext()) throw new NoSuchElementException();
+						return vertex(next++);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return vertexCount;
+			}
+		};
+	}
+
+	@Override
+	public List<Facet> getFacets() {
+		return new AbstractList<Facet>() {
+
+			@Override
+			public Facet get(final int index) {
+				if (index < 0 || index >= triangleCount) {
+					throw new IndexOutOfBoundsException("" + index);
+				}
+				final int offset = 3 * index;
+				return new TriangularFacet(vertex(triangles[offset]), vertex(
+					triangles[offset + 1]), vertex(triangles[offset + 2]));
+			}
+
+			@Override
+			public int size() {
+				return triangleCount;
+			}
+		};
+	}
+
+	// -- Helper methods --
+
+	private Vertex vertex(final int index) {
+		final int offset = 3 * index;
+		return new Vertex(vertices[offset], vertices[offset + 1],
+			vertices[offset + 2]);
+	}
+
+	private void addNormal(final int v, final double nx, final double ny,
+		final double nz)
+	{
+		normals[3 * v] += nx;
+		normals[3 * v + 1] += ny;
+		normals[3 * v + 2] += nz;
+	}
+
+	private static int grow(final int length) {
+		final long grown = 2L * length;
+		if (grown > Integer.MAX_VALUE - 8) {
+			if (length >= Integer.MAX_VALUE - 8) {
+				throw new IllegalStateException("Mesh is too large");
+			}
+			return Integer.MAX_VALUE - 8 - (Integer.MAX_VALUE - 8) % 3;
+		}
+		return (int) grown;
+	}
+}
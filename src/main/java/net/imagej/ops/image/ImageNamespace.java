@@ -30,6 +30,8 @@
 
 package net.imagej.ops.image;
 
+import java.util.Map;
+
 import net.imagej.ops.AbstractNamespace;
 import net.imagej.ops.Namespace;
 import net.imagej.ops.OpMethod;
@@ -41,6 +43,7 @@ import net.imglib2.histogram.Histogram1d;
 import net.imglib2.type.BooleanType;
 import net.imglib2.type.Type;
 import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.integer.LongType;
 
 import org.scijava.plugin.Plugin;
 
@@ -101,7 +104,8 @@ public class ImageNamespace extends AbstractNamespace {
 	/** Executes the "distancetransform" operation on the given arguments. */
 	@OpMethod(ops = { net.imagej.ops.image.distancetransform.DefaultDistanceTransform.class,
 			net.imagej.ops.image.distancetransform.DistanceTransform2D.class,
-			net.imagej.ops.image.distancetransform.DistanceTransform3D.class })
+			net.imagej.ops.image.distancetransform.DistanceTransform3D.class,
+			net.imagej.ops.image.distancetransform.SeparableDistanceTransform.class })
 	public <B extends BooleanType<B>, T extends RealType<T>> RandomAccessibleInterval<T> distancetransform(
 			final RandomAccessibleInterval<B> in, final RandomAccessibleInterval<T> out) {
 		@SuppressWarnings("unchecked")
@@ -113,7 +117,8 @@ public class ImageNamespace extends AbstractNamespace {
 	/** Executes the "distancetransform" operation on the given arguments. */
 	@OpMethod(ops = { net.imagej.ops.image.distancetransform.DefaultDistanceTransform.class,
 			net.imagej.ops.image.distancetransform.DistanceTransform2D.class,
-			net.imagej.ops.image.distancetransform.DistanceTransform3D.class })
+			net.imagej.ops.image.distancetransform.DistanceTransform3D.class,
+			net.imagej.ops.image.distancetransform.SeparableDistanceTransform.class })
 	public <B extends BooleanType<B>, T extends RealType<T>> RandomAccessibleInterval<T> distancetransform(
 			final RandomAccessibleInterval<B> in) {
 		@SuppressWarnings("unchecked")
@@ -122,10 +127,32 @@ public class ImageNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	/** Executes the "distancetransform" operation on the given arguments. */
+	@OpMethod(op = net.imagej.ops.image.distancetransform.SeparableDistanceTransform.class)
+	public <B extends BooleanType<B>, T extends RealType<T>> RandomAccessibleInterval<T> distancetransform(
+			final RandomAccessibleInterval<T> out, final RandomAccessibleInterval<B> in, final double[] spacing) {
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<T> result = (RandomAccessibleInterval<T>) ops()
+				.run(Ops.Image.DistanceTransform.class, out, in, spacing);
+		return result;
+	}
+
+	/** Executes the "distancetransform" operation on the given arguments. */
+	@OpMethod(op = net.imagej.ops.image.distancetransform.SeparableDistanceTransform.class)
+	public <B extends BooleanType<B>, T extends RealType<T>> RandomAccessibleInterval<T> distancetransform(
+			final RandomAccessibleInterval<T> out, final RandomAccessibleInterval<B> in, final double[] spacing,
+			final RandomAccessibleInterval<LongType> features) {
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<T> result = (RandomAccessibleInterval<T>) ops()
+				.run(Ops.Image.DistanceTransform.class, out, in, spacing, features);
+		return result;
+	}
+
 	// -- equation --
 
 	/** Executes the "equation" operation on the given arguments. */
-	@OpMethod(op = net.imagej.ops.image.equation.DefaultEquation.class)
+	@OpMethod(ops = { net.imagej.ops.image.equation.DefaultEquation.class,
+		net.imagej.ops.image.equation.CompiledEquation.class })
 	public <T extends RealType<T>> IterableInterval<T> equation(final String in) {
 		@SuppressWarnings("unchecked")
 		final IterableInterval<T> result = (IterableInterval<T>) ops().run(
@@ -134,7 +161,8 @@ public class ImageNamespace extends AbstractNamespace {
 	}
 
 	/** Executes the "equation" operation on the given arguments. */
-	@OpMethod(op = net.imagej.ops.image.equation.DefaultEquation.class)
+	@OpMethod(ops = { net.imagej.ops.image.equation.DefaultEquation.class,
+		net.imagej.ops.image.equation.CompiledEquation.class })
 	public <T extends RealType<T>> IterableInterval<T> equation(
 			final IterableInterval<T> out, final String in) {
 		@SuppressWarnings("unchecked")
@@ -143,6 +171,18 @@ public class ImageNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	/** Executes the "equation" operation on the given arguments. */
+	@OpMethod(op = net.imagej.ops.image.equation.CompiledEquation.class)
+	public <T extends RealType<T>> IterableInterval<T> equation(
+		final IterableInterval<T> out, final String in,
+		final Map<String, ? extends IterableInterval<? extends RealType<?>>> images)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<T> result = (IterableInterval<T>) ops().run(
+			net.imagej.ops.Ops.Image.Equation.class, out, in, images);
+		return result;
+	}
+
 	// -- fill --
 
 	/** Executes the "fill" operation on the given arguments. */
@@ -0,0 +1,323 @@
+package net.imagej.ops.image.distancetransform;
+
+import java.util.Arrays;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.create.img.CreateImgFromDimsAndType;
+import net.imagej.ops.special.function.Functions;
+import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imglib2.FinalInterval;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.Img;
+import net.imglib2.img.ImgFactory;
+import net.imglib2.img.array.ArrayImgFactory;
+import net.imglib2.img.cell.CellImgFactory;
+import net.imglib2.type.BooleanType;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.integer.LongType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.util.Intervals;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Computes the Euclidean distance of each foreground ({@code true}) element to
+ * the nearest background ({@code false}) element, for images of any
+ * dimensionality and size.
+ * <p>
+ * The transform is separable: one pass per dimension computes the lower
+ * envelope of parabolas along each line (Felzenszwalb & Huttenlocher, Meijster
+ * et al.). Squared distances are kept in a {@code double} buffer between the
+ * passes, which is cell-backed if the image has more than 2^31 elements. The
+ * lines of each pass are processed in parallel chunks, so that every task
+ * handles many lines with the same scratch arrays.
+ * </p>
+ * <p>
+ * The optional spacing gives the size of the elements along each dimension.
+ * If a feature image is given, it receives the flat index of the nearest
+ * background element, in the iteration order of the input interval; which can
+ * be used to propagate labels to the nearest background elements. Elements
+ * which cannot reach any background element get an infinite distance and a
+ * feature index of -1.
+ * </p>
+ * Sources: <a href=
+ * "http://fab.cba.mit.edu/classes/S62.12/docs/Meijster_distance.pdf">Meijster
+ * et al.</a>, <a href=
+ * "http://cs.brown.edu/~pff/papers/dt-final.pdf">Felzenszwalb &
+ * Huttenlocher</a>
+ */
+@Plugin(type = Ops.Image.DistanceTransform.class,
+	priority = Priority.HIGH_PRIORITY)
+public class SeparableDistanceTransform<B extends BooleanType<B>, T extends RealType<T>>
+		extends AbstractUnaryHybridCF<RandomAccessibleInterval<B>, RandomAccessibleInterval<T>>
+		implements Ops.Image.DistanceTransform, Contingent, Parallel {
+
+	/** Cell size of the squared distance buffer for huge images. */
+	private static final int CELL_SIZE = 64;
+
+	@Parameter(required = false)
+	private double[] spacing;
+
+	@Parameter(required = false)
+	private RandomAccessibleInterval<LongType> features;
+
+	@SuppressWarnings("rawtypes")
+	private UnaryFunctionOp<FinalInterval, RandomAccessibleInterval> createOp;
+
+	@Override
+	public boolean conforms() {
+		if (spacing != null) {
+			if (spacing.length != in().numDimensions()) return false;
+			for (final double s : spacing) {
+				if (!(s > 0) || Double.isInfinite(s)) return false;
+			}
+		}
+		if (features != null && !Intervals.equalDimensions(in(), features)) {
+			return false;
+		}
+		return out() == null || Intervals.equalDimensions(in(), out());
+	}
+
+	@Override
+	public void initialize() {
+		createOp = Functions.unary(ops(), CreateImgFromDimsAndType.class, RandomAccessibleInterval.class,
+				new FinalInterval(in()), new FloatType());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public RandomAccessibleInterval<T> createOutput(final RandomAccessibleInterval<B> in) {
+		return createOp.compute1(new FinalInterval(in));
+	}
+
+	@Override
+	public void compute1(final RandomAccessibleInterval<B> in, final RandomAccessibleInterval<T> out) {
+		final int n = in.numDimensions();
+		final long[] dims = Intervals.dimensionsAsLongArray(in);
+		final double[] w = new double[n];
+		for (int d = 0; d < n; d++) {
+			w[d] = spacing == null ? 1 : spacing[d];
+		}
+
+		// squared distances between the passes
+		final RandomAccessibleInterval<DoubleType> squared = n > 1 ? createBuffer(dims) : null;
+
+		for (int d = 0; d < n; d++) {
+			final int dim = d;
+			ops().thread().chunker(new Chunk() {
+
+				@Override
+				public void execute(final int startIndex, final int stepSize, final int numSteps) {
+					execute((long) startIndex, stepSize, numSteps);
+				}
+
+				@Override
+				public void execute(final long startIndex, final long stepSize, final long numSteps) {
+					new Pass(in, squared, out, dims, w[dim], dim).run(startIndex, stepSize, numSteps);
+				}
+			}, Intervals.numElements(dims) / dims[d]);
+		}
+	}
+
+	// -- Helper methods --
+
+	private static Img<DoubleType> createBuffer(final long[] dims) {
+		final ImgFactory<DoubleType> factory = Intervals.numElements(dims) <= Integer.MAX_VALUE
+				? new ArrayImgFactory<DoubleType>() : new CellImgFactory<DoubleType>(CELL_SIZE);
+		return factory.create(dims, new DoubleType());
+	}
+
+	/**
+	 * Computes the lower envelope of the parabolas rooted at the finite values
+	 * of {@code f}, sampled at the positions {@code q * w}.
+	 *
+	 * @param f the squared distances of the previous passes
+	 * @param w the spacing along the line
+	 * @param g receives the squared distances including this dimension
+	 * @param v scratch array for the roots of the envelope's parabolas
+	 * @param z scratch array for the boundaries between the parabolas
+	 * @param featIn the feature indices of {@code f}, or {@code null}
+	 * @param featOut receives the feature indices of {@code g}, or {@code null}
+	 */
+	private static void transform(final double[] f, final double w, final double[] g, final int[] v, final double[] z,
+			final long[] featIn, final long[] featOut) {
+		final int length = f.length;
+		int k = -1;
+		for (int q = 0; q < length; q++) {
+			if (f[q] == Double.POSITIVE_INFINITY) continue;
+			final double fq = f[q] + q * w * q * w;
+			double s = Double.NEGATIVE_INFINITY;
+			while (k >= 0) {
+				final int p = v[k];
+				s = (fq - (f[p] + p * w * p * w)) / (2 * w * (q - p));
+				if (s > z[k]) break;
+				k--;
+			}
+			if (k < 0) s = Double.NEGATIVE_INFINITY;
+			k++;
+			v[k] = q;
+			z[k] = s;
+		}
+
+		if (k < 0) {
+			// NB: No background element on this line, nor reachable from it.
+			Arrays.fill(g, Double.POSITIVE_INFINITY);
+			if (featOut != null) Arrays.fill(featOut, -1);
+			return;
+		}
+
+		z[k + 1] = Double.POSITIVE_INFINITY;
+		int j = 0;
+		for (int q = 0; q < length; q++) {
+			final double x = q * w;
+			while (z[j + 1] < x) {
+				j++;
+			}
+			final double dx = x - v[j] * w;
+			g[q] = dx * dx + f[v[j]];
+			if (featOut != null) featOut[q] = featIn[v[j]];
+		}
+	}
+
+	// -- Helper classes --
+
+	/** One task of a pass, transforming the lines along one dimension. */
+	private class Pass {
+
+		private final RandomAccessibleInterval<B> in;
+		private final RandomAccessibleInterval<T> out;
+		private final RandomAccess<B> inAccess;
+		private final RandomAccess<DoubleType> squaredAccess;
+		private final RandomAccess<T> outAccess;
+		private final RandomAccess<LongType> featureAccess;
+		private final long[] dims;
+		private final double w;
+		private final int dim;
+		private final boolean first;
+		private final boolean last;
+
+		private final long[] position;
+		private final double[] f;
+		private final double[] g;
+		private final int[] v;
+		private final double[] z;
+		private final long[] featIn;
+		private final long[] featOut;
+
+		private Pass(final RandomAccessibleInterval<B> in, final RandomAccessibleInterval<DoubleType> squared,
+				final RandomAccessibleInterval<T> out, final long[] dims, final double w, final int dim) {
+			this.in = in;
+			this.out = out;
+			this.dims = dims;
+			this.w = w;
+			this.dim = dim;
+			first = dim == 0;
+			last = dim == dims.length - 1;
+			inAccess = first ? in.randomAccess() : null;
+			squaredAccess = squared == null ? null : squared.randomAccess();
+			outAccess = last ? out.randomAccess() : null;
+			featureAccess = features == null ? null : features.randomAccess();
+
+			final int length = (int) dims[dim];
+			position = new long[dims.length];
+			f = new double[length];
+			g = new double[length];
+			v = new int[length];
+			z = new double[length + 1];
+			featIn = features == null ? null : new long[length];
+			featOut = features == null ? null : new long[length];
+		}
+
+		private void run(final long startIndex, final long stepSize, final long numSteps) {
+			for (long i = 0; i < numSteps; i++) {
+				setLine(startIndex + i * stepSize);
+				read();
+				transform(f, w, g, v, z, featIn, featOut);
+				write();
+			}
+		}
+
+		/** Sets the position to the start of the given line. */
+		private void setLine(final long line) {
+			long rest = line;
+			for (int d = 0; d < dims.length; d++) {
+				if (d == dim) {
+					position[d] = 0;
+					continue;
+				}
+				position[d] = rest % dims[d];
+				rest /= dims[d];
+			}
+		}
+
+		private void read() {
+			if (first) {
+				setPosition(inAccess, in);
+				// NB: Lines of the first dimension are contiguous in flat order.
+				long index = 0;
+				for (int d = dims.length - 1; d >= 0; d--) {
+					index = index * dims[d] + position[d];
+				}
+				for (int q = 0; q < f.length; q++) {
+					final boolean foreground = inAccess.get().get();
+					f[q] = foreground ? Double.POSITIVE_INFINITY : 0;
+					if (featIn != null) featIn[q] = foreground ? -1 : index + q;
+					inAccess.fwd(dim);
+				}
+				return;
+			}
+
+			setPosition(squaredAccess, null);
+			for (int q = 0; q < f.length; q++) {
+				f[q] = squaredAccess.get().get();
+				squaredAccess.fwd(dim);
+			}
+			if (featIn != null) {
+				setPosition(featureAccess, features);
+				for (int q = 0; q < f.length; q++) {
+					featIn[q] = featureAccess.get().get();
+					featureAccess.fwd(dim);
+				}
+			}
+		}
+
+		private void write() {
+			if (last) {
+				setPosition(outAccess, out);
+				for (int q = 0; q < g.length; q++) {
+					outAccess.get().setReal(Math.sqrt(g[q]));
+					outAccess.fwd(dim);
+				}
+			}
+			else {
+				setPosition(squaredAccess, null);
+				for (int q = 0; q < g.length; q++) {
+					squaredAccess.get().set(g[q]);
+					squaredAccess.fwd(dim);
+				}
+			}
+			if (featOut != null) {
+				setPosition(featureAccess, features);
+				for (int q = 0; q < g.length; q++) {
+					featureAccess.get().set(featOut[q]);
+					featureAccess.fwd(dim);
+				}
+			}
+		}
+
+		/** Positions the access at the line start, offset by the interval's min. */
+		private void setPosition(final RandomAccess<?> access, final RandomAccessibleInterval<?> interval) {
+			for (int d = 0; d < dims.length; d++) {
+				access.setPosition(position[d] + (interval == null ? 0 : interval.min(d)), d);
+			}
+		}
+	}
+}
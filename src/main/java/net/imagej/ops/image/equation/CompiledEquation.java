@@ -0,0 +1,220 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.image.equation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
+import net.imagej.ops.thread.chunker.CursorBasedChunk;
+import net.imglib2.Cursor;
+import net.imglib2.FlatIterationOrder;
+import net.imglib2.IterableInterval;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Intervals;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Computes an image using an equation, which is compiled once and then
+ * evaluated in parallel chunks.
+ * <p>
+ * The position coordinates are available via {@code p[d]} (as with
+ * {@link DefaultEquation}), and the samples of the given images via their
+ * names; e.g.: {@code a*b + c}. All images must be aligned with the output,
+ * i.e., have the same dimensions and iteration order. Equations which
+ * {@link EquationCompiler} does not support are left to
+ * {@link DefaultEquation}.
+ * </p>
+ * 
+ * @see EquationCompiler
+ */
+@Plugin(type = Ops.Image.Equation.class, priority = Priority.HIGH_PRIORITY)
+public class CompiledEquation<T extends RealType<T>> extends
+	AbstractUnaryHybridCF<String, IterableInterval<T>> implements EquationOp<T>,
+	Contingent, Parallel
+{
+
+	@Parameter(required = false)
+	private Map<String, ? extends IterableInterval<? extends RealType<?>>> images;
+
+	private final List<String> names = new ArrayList<>();
+	private final List<IterableInterval<? extends RealType<?>>> sources =
+		new ArrayList<>();
+
+	// the last compiled equation, reused while the input stays the same
+	private String compiledEquation;
+	private int compiledDimensions;
+	private EquationCompiler.Node expression;
+	private boolean usesPosition;
+
+	@Override
+	public void initialize() {
+		gatherImages();
+	}
+
+	// -- UnaryComputerOp methods --
+
+	@Override
+	public void compute1(final String input, final IterableInterval<T> output) {
+		compile(input, output.numDimensions());
+		final EquationCompiler.Node expr = expression;
+		final boolean localize = usesPosition;
+		final int numDimensions = output.numDimensions();
+
+		ops().thread().chunker(new CursorBasedChunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
+			{
+				final Cursor<T> c = localize ? output.localizingCursor() : output
+					.cursor();
+				setToStart(c, startIndex);
+				final List<Cursor<? extends RealType<?>>> cursors = new ArrayList<>();
+				for (final IterableInterval<? extends RealType<?>> source : sources) {
+					final Cursor<? extends RealType<?>> cursor = source.cursor();
+					setToStart(cursor, startIndex);
+					cursors.add(cursor);
+				}
+
+				final double[] position = new double[numDimensions];
+				final double[] samples = new double[cursors.size()];
+				for (long i = 0; i < numSteps; i++) {
+					if (localize) c.localize(position);
+					for (int s = 0; s < samples.length; s++) {
+						final Cursor<? extends RealType<?>> cursor = cursors.get(s);
+						samples[s] = cursor.get().getRealDouble();
+						cursor.jumpFwd(stepSize);
+					}
+					c.get().setReal(expr.evaluate(position, samples));
+					c.jumpFwd(stepSize);
+				}
+			}
+		}, output.size(), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
+	}
+
+	// -- UnaryOutputFactory methods --
+
+	@Override
+	public IterableInterval<T> createOutput(final String input) {
+		// produce a float64 array-backed image matching the given images, or a
+		// 256x256 one by default
+		final long[] dims = sources.isEmpty() ? new long[] { 256, 256 }
+			: Intervals.dimensionsAsLongArray(sources.get(0));
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		final IterableInterval<T> newImage = (IterableInterval) ArrayImgs.doubles(
+			dims);
+		return newImage;
+	}
+
+	// -- Contingent methods --
+
+	@Override
+	public boolean conforms() {
+		if (in() == null) return false;
+		gatherImages();
+		if (!aligned()) return false;
+		final int numDimensions = out() != null ? out().numDimensions() : sources
+			.isEmpty() ? 2 : sources.get(0).numDimensions();
+		try {
+			compile(in(), numDimensions);
+		}
+		catch (final IllegalArgumentException exc) {
+			return false;
+		}
+		return true;
+	}
+
+	// -- Helper methods --
+
+	private void gatherImages() {
+		names.clear();
+		sources.clear();
+		compiledEquation = null;
+		if (images == null) return;
+		for (final String name : images.keySet()) {
+			names.add(name);
+			sources.add(images.get(name));
+		}
+	}
+
+	private void compile(final String equation, final int numDimensions) {
+		if (equation.equals(compiledEquation) &&
+			numDimensions == compiledDimensions) return;
+		final EquationCompiler compiler = new EquationCompiler(numDimensions,
+			Collections.unmodifiableList(names));
+		expression = compiler.compile(equation);
+		usesPosition = compiler.usesPosition();
+		compiledEquation = equation;
+		compiledDimensions = numDimensions;
+	}
+
+	/**
+	 * Checks that all images iterate in lockstep with the output. If the output
+	 * is yet to be created, the images must iterate in flat order, as the
+	 * created output does.
+	 */
+	private boolean aligned() {
+		final IterableInterval<?> reference = out() != null ? out() : sources
+			.isEmpty() ? null : sources.get(0);
+		if (reference == null) return true;
+		if (out() == null && !(reference
+			.iterationOrder() instanceof FlatIterationOrder)) return false;
+		for (final IterableInterval<?> source : sources) {
+			if (source.numDimensions() != reference.numDimensions()) return false;
+			for (int d = 0; d < reference.numDimensions(); d++) {
+				if (reference.dimension(d) != source.dimension(d)) return false;
+			}
+			if (!reference.iterationOrder().equals(source.iterationOrder())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,499 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.image.equation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import org.scijava.sjep.Operator;
+import org.scijava.sjep.Operators;
+import org.scijava.sjep.Variable;
+import org.scijava.sjep.eval.AbstractStandardStackEvaluator;
+import org.scijava.sjep.eval.Evaluator;
+
+/**
+ * An SJEP {@link Evaluator} which compiles an equation into a tree of
+ * {@link Node}s over {@code double} coordinates and sample values.
+ * <p>
+ * The expression is parsed only once; the resulting tree can then be
+ * evaluated for every pixel, from any number of threads. Supported are
+ * numeric literals, the arithmetic, relational, logical, bitwise and shift
+ * operators, the common {@link Math} functions (with or without the
+ * {@code Math.} prefix), the constants {@code Math.PI} and {@code Math.E}, the
+ * position coordinates {@code p[d]} (as well as {@code x}, {@code y} and
+ * {@code z}) and the samples of the named images. Relational operators and
+ * {@code !} yield {@code 1} for true and {@code 0} for false. As in
+ * Javascript, {@code &&} and {@code ||} yield one of their operands, and the
+ * bitwise and shift operators work on 32-bit integers. Powers are written as
+ * {@code Math.pow}; {@code ^}, a bitwise XOR in Javascript, is not supported.
+ * </p>
+ * <p>
+ * Anything else is rejected with an {@link IllegalArgumentException}, so that
+ * callers can fall back to a more general evaluation strategy.
+ * </p>
+ */
+public class EquationCompiler extends AbstractStandardStackEvaluator {
+
+	/** A compiled (sub)expression. */
+	public interface Node {
+
+		/**
+		 * Evaluates the expression.
+		 * 
+		 * @param position The coordinates of the current pixel.
+		 * @param samples The values of the images at the current pixel, in the
+		 *          order of the image names given to the compiler.
+		 */
+		double evaluate(double[] position, double[] samples);
+	}
+
+	private static final Map<String, DoubleUnaryOperator> UNARY_FUNCTIONS =
+		new HashMap<>();
+	private static final Map<String, DoubleBinaryOperator> BINARY_FUNCTIONS =
+		new HashMap<>();
+
+	static {
+		UNARY_FUNCTIONS.put("abs", Math::abs);
+		UNARY_FUNCTIONS.put("acos", Math::acos);
+		UNARY_FUNCTIONS.put("asin", Math::asin);
+		UNARY_FUNCTIONS.put("atan", Math::atan);
+		UNARY_FUNCTIONS.put("cbrt", Math::cbrt);
+		UNARY_FUNCTIONS.put("ceil", Math::ceil);
+		UNARY_FUNCTIONS.put("cos", Math::cos);
+		UNARY_FUNCTIONS.put("cosh", Math::cosh);
+		UNARY_FUNCTIONS.put("exp", Math::exp);
+		UNARY_FUNCTIONS.put("floor", Math::floor);
+		UNARY_FUNCTIONS.put("log", Math::log);
+		UNARY_FUNCTIONS.put("log10", Math::log10);
+		// NB: Javascript rounds half up, which is what Math.floor(x + 0.5) does.
+		UNARY_FUNCTIONS.put("round", x -> Math.floor(x + 0.5));
+		UNARY_FUNCTIONS.put("signum", Math::signum);
+		UNARY_FUNCTIONS.put("sin", Math::sin);
+		UNARY_FUNCTIONS.put("sinh", Math::sinh);
+		UNARY_FUNCTIONS.put("sqrt", Math::sqrt);
+		UNARY_FUNCTIONS.put("tan", Math::tan);
+		UNARY_FUNCTIONS.put("tanh", Math::tanh);
+
+		BINARY_FUNCTIONS.put("atan2", Math::atan2);
+		BINARY_FUNCTIONS.put("hypot", Math::hypot);
+		BINARY_FUNCTIONS.put("max", Math::max);
+		BINARY_FUNCTIONS.put("min", Math::min);
+		BINARY_FUNCTIONS.put("pow", Math::pow);
+	}
+
+	/** Names of the coordinate aliases, in dimension order. */
+	private static final List<String> AXES = Arrays.asList("x", "y", "z");
+
+	private final int numDimensions;
+	private final List<String> imageNames;
+
+	private boolean usesPosition;
+
+	/**
+	 * @param numDimensions Dimensionality of the positions the compiled
+	 *          expression is evaluated at.
+	 * @param imageNames Names of the images whose samples are available to the
+	 *          expression.
+	 */
+	public EquationCompiler(final int numDimensions,
+		final List<String> imageNames)
+	{
+		this.numDimensions = numDimensions;
+		this.imageNames = imageNames;
+	}
+
+	// -- EquationCompiler methods --
+
+	/**
+	 * Compiles the given expression.
+	 * 
+	 * @throws IllegalArgumentException if the expression cannot be parsed, or
+	 *           uses unsupported operators, functions or variables.
+	 */
+	public Node compile(final String expression) {
+		usesPosition = false;
+		return node(evaluate(expression));
+	}
+
+	/**
+	 * Gets whether the last compiled expression refers to the position
+	 * coordinates. If not, callers need not localize at all.
+	 */
+	public boolean usesPosition() {
+		return usesPosition;
+	}
+
+	// -- StandardEvaluator methods --
+
+	// -- function --
+
+	@Override
+	public Object function(final Object a, final Object b) {
+		if (!(a instanceof Variable)) {
+			throw new IllegalArgumentException("Unsupported function: " + a);
+		}
+		final String name = stripMath(((Variable) a).getToken());
+		final List<?> args = list(b);
+		if (name.equals("p") && args.size() == 1) return position(args.get(0));
+		if (args.size() == 1 && UNARY_FUNCTIONS.containsKey(name)) {
+			return unary(UNARY_FUNCTIONS.get(name), args.get(0));
+		}
+		if (args.size() == 2 && BINARY_FUNCTIONS.containsKey(name)) {
+			return binary(BINARY_FUNCTIONS.get(name), args.get(0), args.get(1));
+		}
+		throw new IllegalArgumentException("Unsupported function: " + name +
+			" with " + args.size() + " argument(s)");
+	}
+
+	// -- dot --
+
+	@Override
+	public Object dot(final Object a, final Object b) {
+		if (a instanceof Variable && b instanceof Variable) {
+			// NB: Concatenate variable names, for Math.xyz support
+			final String namespace = ((Variable) a).getToken();
+			final String name = ((Variable) b).getToken();
+			return new Variable(namespace + "." + name);
+		}
+		return unsupported(Operators.DOT);
+	}
+
+	// -- groups --
+
+	@Override
+	public Object parens(final Object[] args) {
+		if (args.length == 1) return args[0];
+		return Arrays.asList(args);
+	}
+
+	@Override
+	public Object brackets(final Object[] args) {
+		return Arrays.asList(args);
+	}
+
+	@Override
+	public Object braces(final Object[] args) {
+		return unsupported(Operators.BRACES);
+	}
+
+	// -- transpose, power --
+
+	@Override
+	public Object transpose(final Object a) {
+		return unsupported(Operators.TRANSPOSE);
+	}
+
+	@Override
+	public Object dotTranspose(final Object a) {
+		return unsupported(Operators.DOT_TRANSPOSE);
+	}
+
+	@Override
+	public Object pow(final Object a, final Object b) {
+		// NB: In Javascript, ^ is a bitwise XOR, which binds more loosely than
+		// the arithmetic operators; the parser treats it as a power.
+		return unsupported(Operators.POW);
+	}
+
+	@Override
+	public Object dotPow(final Object a, final Object b) {
+		return unsupported(Operators.DOT_POW);
+	}
+
+	// -- unary --
+
+	@Override
+	public Object pos(final Object a) {
+		return node(a);
+	}
+
+	@Override
+	public Object neg(final Object a) {
+		return unary(x -> -x, a);
+	}
+
+	@Override
+	public Object complement(final Object a) {
+		return unary(x -> ~toInt32(x), a);
+	}
+
+	@Override
+	public Object not(final Object a) {
+		return unary(x -> bool(!truthy(x)), a);
+	}
+
+	// -- multiplicative --
+
+	@Override
+	public Object mul(final Object a, final Object b) {
+		return binary((x, y) -> x * y, a, b);
+	}
+
+	@Override
+	public Object div(final Object a, final Object b) {
+		return binary((x, y) -> x / y, a, b);
+	}
+
+	@Override
+	public Object mod(final Object a, final Object b) {
+		return binary((x, y) -> x % y, a, b);
+	}
+
+	@Override
+	public Object rightDiv(final Object a, final Object b) {
+		return binary((x, y) -> y / x, a, b);
+	}
+
+	@Override
+	public Object dotMul(final Object a, final Object b) {
+		return mul(a, b);
+	}
+
+	@Override
+	public Object dotDiv(final Object a, final Object b) {
+		return div(a, b);
+	}
+
+	@Override
+	public Object dotRightDiv(final Object a, final Object b) {
+		return rightDiv(a, b);
+	}
+
+	// -- additive --
+
+	@Override
+	public Object add(final Object a, final Object b) {
+		return binary((x, y) -> x + y, a, b);
+	}
+
+	@Override
+	public Object sub(final Object a, final Object b) {
+		return binary((x, y) -> x - y, a, b);
+	}
+
+	// -- shift --
+
+	@Override
+	public Object leftShift(final Object a, final Object b) {
+		return binary((x, y) -> toInt32(x) << toInt32(y), a, b);
+	}
+
+	@Override
+	public Object rightShift(final Object a, final Object b) {
+		return binary((x, y) -> toInt32(x) >> toInt32(y), a, b);
+	}
+
+	@Override
+	public Object unsignedRightShift(final Object a, final Object b) {
+		// NB: The result is an unsigned 32-bit integer.
+		return binary((x, y) -> (toInt32(x) & 0xffffffffL) >>> (toInt32(y) & 31),
+			a, b);
+	}
+
+	// -- colon --
+
+	@Override
+	public Object colon(final Object a, final Object b) {
+		return unsupported(Operators.COLON);
+	}
+
+	// -- relational --
+
+	@Override
+	public Object lessThan(final Object a, final Object b) {
+		return binary((x, y) -> bool(x < y), a, b);
+	}
+
+	@Override
+	public Object greaterThan(final Object a, final Object b) {
+		return binary((x, y) -> bool(x > y), a, b);
+	}
+
+	@Override
+	public Object lessThanOrEqual(final Object a, final Object b) {
+		return binary((x, y) -> bool(x <= y), a, b);
+	}
+
+	@Override
+	public Object greaterThanOrEqual(final Object a, final Object b) {
+		return binary((x, y) -> bool(x >= y), a, b);
+	}
+
+	@Override
+	public Object instanceOf(final Object a, final Object b) {
+		return unsupported(Operators.INSTANCEOF);
+	}
+
+	// -- equality --
+
+	@Override
+	public Object equal(final Object a, final Object b) {
+		return binary((x, y) -> bool(x == y), a, b);
+	}
+
+	@Override
+	public Object notEqual(final Object a, final Object b) {
+		return binary((x, y) -> bool(x != y), a, b);
+	}
+
+	// -- bitwise --
+
+	@Override
+	public Object bitwiseAnd(final Object a, final Object b) {
+		return binary((x, y) -> toInt32(x) & toInt32(y), a, b);
+	}
+
+	@Override
+	public Object bitwiseOr(final Object a, final Object b) {
+		return binary((x, y) -> toInt32(x) | toInt32(y), a, b);
+	}
+
+	// -- logical --
+
+	@Override
+	public Object logicalAnd(final Object a, final Object b) {
+		return binary((x, y) -> truthy(x) ? y : x, a, b);
+	}
+
+	@Override
+	public Object logicalOr(final Object a, final Object b) {
+		return binary((x, y) -> truthy(x) ? x : y, a, b);
+	}
+
+	// -- Helper methods --
+
+	/** Converts a token or intermediate result into a {@link Node}. */
+	private Node node(final Object token) {
+		if (token instanceof Node) return (Node) token;
+		if (token instanceof Number) {
+			return new Constant(((Number) token).doubleValue());
+		}
+		if (token instanceof Boolean) return new Constant(bool((Boolean) token));
+		if (token instanceof Variable) return variable(((Variable) token)
+			.getToken());
+		throw new IllegalArgumentException("Unsupported token: " + token);
+	}
+
+	private Node variable(final String name) {
+		final int index = imageNames.indexOf(name);
+		if (index >= 0) return (position, samples) -> samples[index];
+		if (name.equals("Math.PI")) return new Constant(Math.PI);
+		if (name.equals("Math.E")) return new Constant(Math.E);
+		if (AXES.contains(name)) return position(AXES.indexOf(name));
+		throw new IllegalArgumentException("Unknown variable: " + name);
+	}
+
+	private Node position(final Object dimension) {
+		final Node d = node(dimension);
+		if (!(d instanceof Constant)) {
+			throw new IllegalArgumentException("Non-constant dimension index");
+		}
+		return position((int) ((Constant) d).value);
+	}
+
+	private Node position(final int d) {
+		if (d < 0 || d >= numDimensions) {
+			throw new IllegalArgumentException("Invalid dimension: " + d);
+		}
+		usesPosition = true;
+		return (position, samples) -> position[d];
+	}
+
+	private Node unary(final DoubleUnaryOperator f, final Object a) {
+		final Node na = node(a);
+		// NB: Fold constant subexpressions once, rather than for every pixel.
+		if (na instanceof Constant) {
+			return new Constant(f.applyAsDouble(((Constant) na).value));
+		}
+		return (position, samples) -> f.applyAsDouble(na.evaluate(position,
+			samples));
+	}
+
+	private Node binary(final DoubleBinaryOperator f, final Object a,
+		final Object b)
+	{
+		final Node na = node(a), nb = node(b);
+		if (na instanceof Constant && nb instanceof Constant) {
+			return new Constant(f.applyAsDouble(((Constant) na).value,
+				((Constant) nb).value));
+		}
+		return (position, samples) -> f.applyAsDouble(na.evaluate(position,
+			samples), nb.evaluate(position, samples));
+	}
+
+	private Object unsupported(final Operator op) {
+		throw new IllegalArgumentException("Unsupported operator: " + op
+			.getToken());
+	}
+
+	private static String stripMath(final String name) {
+		return name.startsWith("Math.") ? name.substring(5) : name;
+	}
+
+	private static double bool(final boolean b) {
+		return b ? 1 : 0;
+	}
+
+	/** Whether Javascript considers the value true, i.e. neither 0 nor NaN. */
+	private static boolean truthy(final double x) {
+		return x != 0 && !Double.isNaN(x);
+	}
+
+	/**
+	 * Converts the value to a 32-bit integer like Javascript does: NaN and the
+	 * infinities become 0, other values are truncated and wrapped around.
+	 */
+	private static int toInt32(final double x) {
+		// NB: The remainder is exact and fits into a long; NaN becomes 0.
+		return (int) (long) (x % 4294967296.0);
+	}
+
+	// -- Helper classes --
+
+	private static final class Constant implements Node {
+
+		private final double value;
+
+		private Constant(final double value) {
+			this.value = value;
+		}
+
+		@Override
+		public double evaluate(final double[] position, final double[] samples) {
+			return value;
+		}
+	}
+
+}
@@ -397,6 +397,26 @@ public class ImageMomentsNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(op = net.imagej.ops.imagemoments.moments.DefaultMoments.class)
+	public <I extends RealType<I>> MomentSums moments(
+		final IterableInterval<I> in)
+	{
+		final MomentSums result =
+			(MomentSums) ops().run(net.imagej.ops.Ops.ImageMoments.Moments.class,
+				in);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.imagemoments.moments.DefaultMoments.class)
+	public <I extends RealType<I>> MomentSums moments(final MomentSums out,
+		final IterableInterval<I> in)
+	{
+		final MomentSums result =
+			(MomentSums) ops().run(net.imagej.ops.Ops.ImageMoments.Moments.class,
+				out, in);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.imagemoments.normalizedcentralmoments.DefaultNormalizedCentralMoment02.class)
 	public
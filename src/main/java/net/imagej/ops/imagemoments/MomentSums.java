@@ -0,0 +1,302 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.imagemoments;
+
+import java.util.Arrays;
+
+import net.imglib2.Localizable;
+
+/**
+ * Sums of all raw image moments of an N-dimensional image up to a maximum
+ * order, accumulated in a single pass over the pixels.
+ * <p>
+ * The central, normalized central and Hu moments are derived from the raw
+ * sums. NB: The sums are accumulated relative to an origin, usually the
+ * minimum of the image, which keeps the powers of the coordinates small and
+ * the derived central moments accurate for regions far from the image origin.
+ * </p>
+ */
+public class MomentSums {
+
+	private final int n;
+
+	private final int maxOrder;
+
+	private final long[] origin;
+
+	/** The exponents of each of the accumulated moments. */
+	private final int[][] exponents;
+
+	/** Maps mixed radix encoded exponents to the index of their sum. */
+	private final int[] indices;
+
+	private final double[] sums;
+
+	/** Powers of the current position, reused across {@link #add} calls. */
+	private final double[][] powers;
+
+	/**
+	 * Creates empty moment sums.
+	 *
+	 * @param origin the position relative to which the sums are accumulated;
+	 *          its length is the number of dimensions.
+	 * @param maxOrder the maximum total order of the moments.
+	 */
+	public MomentSums(final long[] origin, final int maxOrder) {
+		if (maxOrder < 0) {
+			throw new IllegalArgumentException("Negative order: " + maxOrder);
+		}
+		this.n = origin.length;
+		this.maxOrder = maxOrder;
+		this.origin = origin.clone();
+
+		int size = 1;
+		for (int d = 0; d < n; d++) {
+			size *= maxOrder + 1;
+		}
+		indices = new int[size];
+		Arrays.fill(indices, -1);
+
+		// enumerate all exponents with a total order of at most maxOrder
+		int count = 0;
+		final int[][] all = new int[size][];
+		final int[] e = new int[n];
+		for (int code = 0; code < size; code++) {
+			int rest = code;
+			int order = 0;
+			for (int d = 0; d < n; d++) {
+				e[d] = rest % (maxOrder + 1);
+				rest /= maxOrder + 1;
+				order += e[d];
+			}
+			if (order > maxOrder) continue;
+			indices[code] = count;
+			all[count++] = e.clone();
+		}
+		exponents = Arrays.copyOf(all, count);
+		sums = new double[count];
+		powers = new double[n][maxOrder + 1];
+	}
+
+	// -- MomentSums methods --
+
+	/** Gets the number of dimensions. */
+	public int numDimensions() {
+		return n;
+	}
+
+	/** Gets the maximum total order of the moments. */
+	public int getMaxOrder() {
+		return maxOrder;
+	}
+
+	/** Resets all sums to zero and sets the origin of the accumulation. */
+	public void reset(final long[] newOrigin) {
+		if (newOrigin.length != n) {
+			throw new IllegalArgumentException("Expected " + n +
+				" dimensions, but got " + newOrigin.length);
+		}
+		System.arraycopy(newOrigin, 0, origin, 0, n);
+		Arrays.fill(sums, 0);
+	}
+
+	/** Adds a pixel with the given position and value. */
+	public void add(final Localizable position, final double value) {
+		for (int d = 0; d < n; d++) {
+			final double x = position.getLongPosition(d) - origin[d];
+			final double[] p = powers[d];
+			p[0] = 1;
+			for (int k = 1; k <= maxOrder; k++) {
+				p[k] = p[k - 1] * x;
+			}
+		}
+		for (int i = 0; i < sums.length; i++) {
+			final int[] e = exponents[i];
+			double term = value;
+			for (int d = 0; d < n; d++) {
+				term *= powers[d][e[d]];
+			}
+			sums[i] += term;
+		}
+	}
+
+	/**
+	 * Gets the raw moment with the given exponents per dimension, e.g.
+	 * {@code raw(1, 0)} is the sum of {@code x * value} over all pixels.
+	 */
+	public double raw(final int... e) {
+		final double[] shift = new double[n];
+		for (int d = 0; d < n; d++) {
+			shift[d] = origin[d];
+		}
+		return expand(e, shift);
+	}
+
+	/** Gets the coordinate of the centroid in the given dimension. */
+	public double centroid(final int d) {
+		final int[] e = new int[n];
+		e[d] = 1;
+		return origin[d] + sum(e) / sum(new int[n]);
+	}
+
+	/** Gets the central moment with the given exponents per dimension. */
+	public double central(final int... e) {
+		final double m00 = sum(new int[n]);
+		final double[] shift = new double[n];
+		final int[] e1 = new int[n];
+		for (int d = 0; d < n; d++) {
+			e1[d] = 1;
+			shift[d] = -sum(e1) / m00;
+			e1[d] = 0;
+		}
+		return expand(e, shift);
+	}
+
+	/**
+	 * Gets the normalized central moment with the given exponents per
+	 * dimension.
+	 * <p>
+	 * NB: As the {@code imageMoments.normalizedCentralMoment} ops always did,
+	 * the central moment is divided by {@code centralMoment00} to the power of
+	 * {@code 1 + (p + q) / 2}, using integer division.
+	 * </p>
+	 */
+	public double normalizedCentral(final int... e) {
+		int order = 0;
+		for (final int k : e) {
+			order += k;
+		}
+		return central(e) / Math.pow(sum(new int[n]), 1 + order / 2);
+	}
+
+	/**
+	 * Gets the Hu moment with the given number, from 1 to 7. Requires a
+	 * two-dimensional image and a maximum order of at least three.
+	 */
+	public double hu(final int number) {
+		if (n != 2 || maxOrder < 3) {
+			throw new IllegalStateException(
+				"Hu moments require 2-D moment sums up to order 3");
+		}
+		final double n20 = normalizedCentral(2, 0);
+		final double n02 = normalizedCentral(0, 2);
+		final double n11 = normalizedCentral(1, 1);
+		final double n30 = normalizedCentral(3, 0);
+		final double n03 = normalizedCentral(0, 3);
+		final double n21 = normalizedCentral(2, 1);
+		final double n12 = normalizedCentral(1, 2);
+
+		switch (number) {
+			case 1:
+				return n20 + n02;
+			case 2:
+				return Math.pow(n20 - n02, 2) - 4 * (Math.pow(n11, 2));
+			case 3:
+				return Math.pow(n30 - 3 * n12, 2) + Math.pow(3 * n21 - n03, 2);
+			case 4:
+				return Math.pow(n30 + n12, 2) + Math.pow(n21 + n03, 2);
+			case 5:
+				return (n30 - 3 * n12) * (n30 + n12) * (Math.pow(n30 + n12, 2) - 3 *
+					Math.pow(n21 + n03, 2)) + (3 * n21 - n03) * (n21 + n03) * (3 * Math
+						.pow(n30 + n12, 2) - Math.pow(n21 + n03, 2));
+			case 6:
+				return (n20 - n02) * (Math.pow(n30 + n12, 2) - Math.pow(n21 + n03,
+					2)) + 4 * n11 * (n30 + n12) * (n21 + n03);
+			case 7:
+				return (3 * n21 - n03) * (n30 + n12) * (Math.pow(n30 + n12, 2) - 3 *
+					Math.pow(n21 + n03, 2)) - (n30 - 3 * n12) * (n21 + n03) * (3 * Math
+						.pow(n30 + n12, 2) - Math.pow(n21 + n03, 2));
+			default:
+				throw new IllegalArgumentException("No such Hu moment: " + number);
+		}
+	}
+
+	// -- Helper methods --
+
+	/** Gets the accumulated sum with the given exponents. */
+	private double sum(final int[] e) {
+		if (e.length != n) {
+			throw new IllegalArgumentException("Expected " + n +
+				" exponents, but got " + e.length);
+		}
+		int code = 0;
+		int order = 0;
+		for (int d = n - 1; d >= 0; d--) {
+			if (e[d] < 0) {
+				throw new IllegalArgumentException("Negative exponent: " + e[d]);
+			}
+			code = code * (maxOrder + 1) + e[d];
+			order += e[d];
+		}
+		if (order > maxOrder) {
+			throw new IllegalArgumentException("Order " + order +
+				" exceeds the maximum order " + maxOrder);
+		}
+		return sums[indices[code]];
+	}
+
+	/**
+	 * Computes the sum of {@code value * prod_d (x_d + shift_d)^e_d} from the
+	 * accumulated sums by binomial expansion.
+	 */
+	private double expand(final int[] e, final double[] shift) {
+		// check the exponents
+		sum(e);
+
+		final int[] k = new int[n];
+		double result = 0;
+		while (true) {
+			double coefficient = 1;
+			for (int d = 0; d < n; d++) {
+				coefficient *= binomial(e[d], k[d]) * Math.pow(shift[d], e[d] - k[d]);
+			}
+			if (coefficient != 0) result += coefficient * sum(k);
+
+			// next multi-index k <= e
+			int d = 0;
+			while (d < n && k[d] == e[d]) {
+				k[d++] = 0;
+			}
+			if (d == n) break;
+			k[d]++;
+		}
+		return result;
+	}
+
+	private static double binomial(final int n, final int k) {
+		double result = 1;
+		for (int i = 1; i <= k; i++) {
+			result = result * (n - k + i) / i;
+		}
+		return result;
+	}
+
+}
@@ -33,7 +33,8 @@ package net.imagej.ops.imagemoments.hu;
 import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
 import net.imagej.ops.imagemoments.AbstractImageMomentOp;
-import net.imagej.ops.special.chain.RTs;
+import net.imagej.ops.imagemoments.MomentSums;
+import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imglib2.IterableInterval;
 import net.imglib2.type.numeric.RealType;
@@ -53,23 +54,16 @@ public class DefaultHuMoment1<I extends RealType<I>, O extends RealType<O>>
 	extends AbstractImageMomentOp<I, O> implements Ops.ImageMoments.HuMoment1
 {
 
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment20Func;
-
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment02Func;
+	private UnaryFunctionOp<IterableInterval<I>, MomentSums> momentsFunc;
 
 	@Override
 	public void initialize() {
-		normalizedCentralMoment20Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment20.class, in());
-		normalizedCentralMoment02Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment02.class, in());
+		momentsFunc = Functions.unary(ops(), Ops.ImageMoments.Moments.class,
+			MomentSums.class, in());
 	}
 
 	@Override
 	public void compute1(final IterableInterval<I> input, final O output) {
-		double n20 = normalizedCentralMoment20Func.compute1(input).getRealDouble();
-		double n02 = normalizedCentralMoment02Func.compute1(input).getRealDouble();
-
-		output.setReal(n20 + n02);
+		output.setReal(momentsFunc.compute1(input).hu(1));
 	}
 }
@@ -33,7 +33,8 @@ package net.imagej.ops.imagemoments.hu;
 import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
 import net.imagej.ops.imagemoments.AbstractImageMomentOp;
-import net.imagej.ops.special.chain.RTs;
+import net.imagej.ops.imagemoments.MomentSums;
+import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imglib2.IterableInterval;
 import net.imglib2.type.numeric.RealType;
@@ -53,29 +54,16 @@ public class DefaultHuMoment2<I extends RealType<I>, O extends RealType<O>>
 	extends AbstractImageMomentOp<I, O> implements Ops.ImageMoments.HuMoment2
 {
 
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment20Func;
-
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment02Func;
-
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment11Func;
+	private UnaryFunctionOp<IterableInterval<I>, MomentSums> momentsFunc;
 
 	@Override
 	public void initialize() {
-		normalizedCentralMoment11Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment11.class, in());
-		normalizedCentralMoment20Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment20.class, in());
-		normalizedCentralMoment02Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment02.class, in());
+		momentsFunc = Functions.unary(ops(), Ops.ImageMoments.Moments.class,
+			MomentSums.class, in());
 	}
 
 	@Override
 	public void compute1(final IterableInterval<I> input, final O output) {
-
-		double n11 = normalizedCentralMoment11Func.compute1(input).getRealDouble();
-		double n20 = normalizedCentralMoment20Func.compute1(input).getRealDouble();
-		double n02 = normalizedCentralMoment02Func.compute1(input).getRealDouble();
-
-		output.setReal(Math.pow(n20 - n02, 2) - 4 * (Math.pow(n11, 2)));
+		output.setReal(momentsFunc.compute1(input).hu(2));
 	}
 }
@@ -33,7 +33,8 @@ package net.imagej.ops.imagemoments.hu;
 import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
 import net.imagej.ops.imagemoments.AbstractImageMomentOp;
-import net.imagej.ops.special.chain.RTs;
+import net.imagej.ops.imagemoments.MomentSums;
+import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imglib2.IterableInterval;
 import net.imglib2.type.numeric.RealType;
@@ -53,50 +54,16 @@ public class DefaultHuMoment6<I extends RealType<I>, O extends RealType<O>>
 	extends AbstractImageMomentOp<I, O> implements Ops.ImageMoments.HuMoment6
 {
 
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment30Func;
-
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment12Func;
-
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment21Func;
-
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment03Func;
-
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment02Func;
-
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment11Func;
-
-	private UnaryFunctionOp<IterableInterval<I>, O> normalizedCentralMoment20Func;
+	private UnaryFunctionOp<IterableInterval<I>, MomentSums> momentsFunc;
 
 	@Override
 	public void initialize() {
-		normalizedCentralMoment02Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment02.class, in());
-		normalizedCentralMoment03Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment03.class, in());
-		normalizedCentralMoment11Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment11.class, in());
-		normalizedCentralMoment12Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment12.class, in());
-		normalizedCentralMoment20Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment20.class, in());
-		normalizedCentralMoment21Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment21.class, in());
-		normalizedCentralMoment30Func =
-			RTs.function(ops(), Ops.ImageMoments.NormalizedCentralMoment30.class, in());
+		momentsFunc = Functions.unary(ops(), Ops.ImageMoments.Moments.class,
+			MomentSums.class, in());
 	}
 
 	@Override
 	public void compute1(final IterableInterval<I> input, final O output) {
-		double n02 = normalizedCentralMoment02Func.compute1(input).getRealDouble();
-		double n03 = normalizedCentralMoment03Func.compute1(input).getRealDouble();
-		double n11 = normalizedCentralMoment11Func.compute1(input).getRealDouble();
-		double n12 = normalizedCentralMoment12Func.compute1(input).getRealDouble();
-		double n20 = normalizedCentralMoment20Func.compute1(input).getRealDouble();
-		double n21 = normalizedCentralMoment21Func.compute1(input).getRealDouble();
-		double n30 = normalizedCentralMoment30Func.compute1(input).getRealDouble();
-
-		output.setReal((n20 - n02) *
-			(Math.pow(n30 + n12, 2) - Math.pow(n21 + n03, 2)) + 4 * n11 *
-			(n30 + n12) * (n21 + n03));
+		output.setReal(momentsFunc.compute1(input).hu(6));
 	}
 }
@@ -0,0 +1,83 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.imagemoments.moments;
+
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imagej.ops.imagemoments.ImageMomentOp;
+import net.imagej.ops.imagemoments.MomentSums;
+import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
+import net.imglib2.Cursor;
+import net.imglib2.IterableInterval;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.plugin.Plugin;
+
+/**
+ * {@link Op} to calculate the {@code imageMoments.moments}, i.e. the
+ * {@link MomentSums} of all raw moments up to order three, in a single pass.
+ * Sums with another maximum order can be computed by passing them as output.
+ * 
+ * @param <I> input type
+ */
+@Plugin(type = Ops.ImageMoments.Moments.class, label = "Image Moment: Moments")
+public class DefaultMoments<I extends RealType<I>> extends
+	AbstractUnaryHybridCF<IterableInterval<I>, MomentSums> implements
+	ImageMomentOp<IterableInterval<I>, MomentSums>, Ops.ImageMoments.Moments
+{
+
+	@Override
+	public void compute1(final IterableInterval<I> input,
+		final MomentSums output)
+	{
+		output.reset(min(input));
+
+		final Cursor<I> cursor = input.localizingCursor();
+		while (cursor.hasNext()) {
+			cursor.fwd();
+			output.add(cursor, cursor.get().getRealDouble());
+		}
+	}
+
+	@Override
+	public MomentSums createOutput(final IterableInterval<I> input) {
+		return new MomentSums(min(input), 3);
+	}
+
+	// -- Helper methods --
+
+	private static long[] min(final IterableInterval<?> input) {
+		final long[] min = new long[input.numDimensions()];
+		input.min(min);
+		return min;
+	}
+
+}
@@ -36,10 +36,12 @@ import net.imagej.ops.AbstractNamespace;
 import net.imagej.ops.Namespace;
 import net.imagej.ops.Op;
 import net.imagej.ops.OpMethod;
+import net.imagej.table.ResultsTable;
 import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.algorithm.labeling.ConnectedComponents.StructuringElement;
 import net.imglib2.roi.labeling.ImgLabeling;
 import net.imglib2.type.numeric.IntegerType;
+import net.imglib2.type.numeric.RealType;
 
 import org.scijava.plugin.Plugin;
 
@@ -89,6 +91,38 @@ public class LabelingNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.labeling.features.DefaultLabelingFeatures.class)
+	public <L, I extends IntegerType<I>> ResultsTable features(
+		final ImgLabeling<L, I> in)
+	{
+		final ResultsTable result = (ResultsTable) ops().run(
+			net.imagej.ops.Ops.Labeling.Features.class, in);
+		return result;
+	}
+
+	@OpMethod(
+		op = net.imagej.ops.labeling.features.DefaultLabelingFeatures.class)
+	public <L, I extends IntegerType<I>, T extends RealType<T>> ResultsTable
+		features(final ImgLabeling<L, I> in,
+			final RandomAccessibleInterval<T> intensity)
+	{
+		final ResultsTable result = (ResultsTable) ops().run(
+			net.imagej.ops.Ops.Labeling.Features.class, in, intensity);
+		return result;
+	}
+
+	@OpMethod(
+		op = net.imagej.ops.labeling.features.DefaultLabelingFeatures.class)
+	public <L, I extends IntegerType<I>, T extends RealType<T>> ResultsTable
+		features(final ImgLabeling<L, I> in,
+			final RandomAccessibleInterval<T> intensity, final boolean shape)
+	{
+		final ResultsTable result = (ResultsTable) ops().run(
+			net.imagej.ops.Ops.Labeling.Features.class, in, intensity, shape);
+		return result;
+	}
+
 	@Override
 	public String getName() {
 		return "labeling";
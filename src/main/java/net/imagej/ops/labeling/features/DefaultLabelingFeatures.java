@@ -0,0 +1,593 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.labeling.features;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.geom.geom3d.mesh.Mesh;
+import net.imagej.ops.special.chain.RTs;
+import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
+import net.imagej.ops.special.function.Functions;
+import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imagej.table.DefaultResultsTable;
+import net.imagej.table.ResultsTable;
+import net.imglib2.Cursor;
+import net.imglib2.FinalInterval;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.roi.geometric.Polygon;
+import net.imglib2.roi.labeling.ImgLabeling;
+import net.imglib2.roi.labeling.LabelingMapping;
+import net.imglib2.type.logic.BitType;
+import net.imglib2.type.numeric.IntegerType;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
+
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Computes the features of all labels of an {@link ImgLabeling} at once, and
+ * returns them as a {@link ResultsTable} with one row per label.
+ * <p>
+ * A single raster pass over the index image, and the optional intensity image,
+ * updates accumulators which are kept in primitive arrays indexed by label:
+ * the size, bounding box, centroid and covariance of the positions, and the
+ * mean, standard deviation, minimum, maximum, sum and center of mass of the
+ * intensities. The lines of the pass are processed in parallel chunks, each
+ * with its own accumulators, which are merged when the chunk is done.
+ * </p>
+ * <p>
+ * If shape features are requested, each label of a 2D or 3D labeling is then
+ * cropped to its bounding box, traced into a contour or a mesh, and measured
+ * by the {@code geom} ops. The labels are processed in parallel, and the ops
+ * are matched once per chunk of labels instead of once per label. Only the
+ * first contour of a 2D label with several components is measured.
+ * </p>
+ * <p>
+ * The row headers are the {@link Object#toString()} values of the labels, in
+ * the order of {@link LabelingMapping#getLabels()}; labels which do not occur
+ * in the labeling get no row. Positions are given in the coordinates of the
+ * labeling.
+ * </p>
+ */
+@Plugin(type = Ops.Labeling.Features.class)
+public class DefaultLabelingFeatures<L, I extends IntegerType<I>, T extends RealType<T>>
+	extends AbstractUnaryFunctionOp<ImgLabeling<L, I>, ResultsTable> implements
+	Ops.Labeling.Features, Contingent, Parallel
+{
+
+	private static final String[] AXES = { "X", "Y", "Z" };
+
+	@Parameter(required = false)
+	private RandomAccessibleInterval<T> intensity;
+
+	@Parameter(required = false)
+	private boolean shape = true;
+
+	@Override
+	public boolean conforms() {
+		return intensity == null || Intervals.equalDimensions(in(), intensity);
+	}
+
+	@Override
+	public ResultsTable compute1(final ImgLabeling<L, I> labeling) {
+		final int n = labeling.numDimensions();
+		final RandomAccessibleInterval<I> indexImg = labeling.getIndexImg();
+
+		// dense ids of the labels, and the ids of the labels of each index
+		final LabelingMapping<L> mapping = labeling.getMapping();
+		final List<L> labels = new ArrayList<>(mapping.getLabels());
+		final Map<L, Integer> ids = new HashMap<>();
+		for (int id = 0; id < labels.size(); id++) {
+			ids.put(labels.get(id), id);
+		}
+		final int[][] labelIds = new int[mapping.numSets()][];
+		for (int index = 0; index < labelIds.length; index++) {
+			final Set<L> set = mapping.labelsAtIndex(index);
+			labelIds[index] = new int[set.size()];
+			int i = 0;
+			for (final L label : set) {
+				labelIds[index][i++] = ids.get(label);
+			}
+		}
+
+		final Accumulators total = accumulate(labeling, indexImg, labelIds, labels
+			.size());
+
+		// one row per label which occurs in the labeling
+		int numRows = 0;
+		final int[] rowIds = new int[labels.size()];
+		for (int id = 0; id < labels.size(); id++) {
+			if (total.size[id] > 0) rowIds[numRows++] = id;
+		}
+		final int[] rows = Arrays.copyOf(rowIds, numRows);
+
+		final List<String> headers = new ArrayList<>();
+		final List<double[]> columns = new ArrayList<>();
+
+		final double[] size = column(headers, columns, "Size", numRows);
+		final double[][] centroid = new double[n][];
+		final double[][] boxMin = new double[n][];
+		final double[][] boxMax = new double[n][];
+		for (int d = 0; d < n; d++) {
+			centroid[d] = column(headers, columns, "Centroid " + axis(d), numRows);
+		}
+		for (int d = 0; d < n; d++) {
+			boxMin[d] = column(headers, columns, "BBox Min " + axis(d), numRows);
+			boxMax[d] = column(headers, columns, "BBox Max " + axis(d), numRows);
+		}
+		final double[][] covariance = new double[n * (n + 1) / 2][];
+		for (int d = 0, p = 0; d < n; d++) {
+			for (int e = d; e < n; e++, p++) {
+				covariance[p] = column(headers, columns, "Covariance " + axis(d) +
+					axis(e), numRows);
+			}
+		}
+
+		for (int row = 0; row < numRows; row++) {
+			final int id = rows[row];
+			final long count = total.size[id];
+			size[row] = count;
+			for (int d = 0, p = 0; d < n; d++) {
+				final long sumD = total.sum[id * n + d];
+				centroid[d][row] = labeling.min(d) + (double) sumD / count;
+				boxMin[d][row] = labeling.min(d) + total.min[id * n + d];
+				boxMax[d][row] = labeling.min(d) + total.max[id * n + d];
+				for (int e = d; e < n; e++, p++) {
+					final long sumE = total.sum[id * n + e];
+					final long sumDE = total.products[id * covariance.length + p];
+					covariance[p][row] = (sumDE - (double) sumD * sumE / count) / count;
+				}
+			}
+		}
+
+		if (intensity != null) {
+			final double[] mean = column(headers, columns, "Intensity Mean",
+				numRows);
+			final double[] stdDev = column(headers, columns, "Intensity StdDev",
+				numRows);
+			final double[] min = column(headers, columns, "Intensity Min", numRows);
+			final double[] max = column(headers, columns, "Intensity Max", numRows);
+			final double[] sum = column(headers, columns, "Intensity Sum", numRows);
+			final double[][] centerOfMass = new double[n][];
+			for (int d = 0; d < n; d++) {
+				centerOfMass[d] = column(headers, columns, "Center of Mass " + axis(d),
+					numRows);
+			}
+
+			for (int row = 0; row < numRows; row++) {
+				final int id = rows[row];
+				final long count = total.size[id];
+				mean[row] = total.mean[id];
+				stdDev[row] = count < 2 ? Double.NaN : Math.sqrt(total.m2[id] /
+					(count - 1));
+				min[row] = total.intensityMin[id];
+				max[row] = total.intensityMax[id];
+				sum[row] = total.mean[id] * count;
+				for (int d = 0; d < n; d++) {
+					centerOfMass[d][row] = labeling.min(d) + total.weightedSum[id * n +
+						d] / sum[row];
+				}
+			}
+		}
+
+		if (shape && (n == 2 || n == 3)) {
+			final double[][] shapeColumns;
+			if (n == 2) {
+				shapeColumns = new double[][] { //
+					column(headers, columns, "Perimeter", numRows), //
+					column(headers, columns, "Contour Area", numRows), //
+					column(headers, columns, "Convex Area", numRows), //
+					column(headers, columns, "Solidity", numRows), //
+					column(headers, columns, "Circularity", numRows), //
+					column(headers, columns, "Feret Diameter", numRows), //
+					column(headers, columns, "Min Feret Diameter", numRows) };
+			}
+			else {
+				shapeColumns = new double[][] { //
+					column(headers, columns, "Surface Area", numRows), //
+					column(headers, columns, "Mesh Volume", numRows), //
+					column(headers, columns, "Convex Volume", numRows), //
+					column(headers, columns, "Solidity", numRows) };
+			}
+
+			ops().thread().chunker(new Chunk() {
+
+				@Override
+				public void execute(final int startIndex, final int stepSize,
+					final int numSteps)
+				{
+					final Shapes shapes = new Shapes(indexImg, labelIds, total, n,
+						shapeColumns);
+					for (int i = 0; i < numSteps; i++) {
+						final int row = startIndex + i * stepSize;
+						shapes.measure(row, rows[row]);
+					}
+				}
+			}, numRows);
+		}
+
+		final ResultsTable table = new DefaultResultsTable();
+		for (final String header : headers) {
+			table.appendColumn(header);
+		}
+		table.setRowCount(numRows);
+		for (int row = 0; row < numRows; row++) {
+			table.setRowHeader(row, labels.get(rows[row]).toString());
+			for (int c = 0; c < columns.size(); c++) {
+				table.setValue(c, row, columns.get(c)[row]);
+			}
+		}
+		return table;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Accumulates the labels of all lines along the first dimension, in parallel
+	 * chunks of about equal size per thread.
+	 */
+	private Accumulators accumulate(final ImgLabeling<L, I> labeling,
+		final RandomAccessibleInterval<I> indexImg, final int[][] labelIds,
+		final int numLabels)
+	{
+		final int n = labeling.numDimensions();
+		final long[] dims = Intervals.dimensionsAsLongArray(labeling);
+		final long lines = Intervals.numElements(dims) / dims[0];
+		final int threads = Runtime.getRuntime().availableProcessors();
+		final boolean intensities = intensity != null;
+		final Accumulators total = new Accumulators(numLabels, n, intensities);
+
+		ops().thread().chunker(new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
+			{
+				// NB: Each chunk accumulates separately, to avoid contention.
+				final Accumulators acc = new Accumulators(numLabels, n, intensities);
+				final RandomAccess<I> indexAccess = indexImg.randomAccess();
+				final RandomAccess<T> intensityAccess = intensities ? intensity
+					.randomAccess() : null;
+				final long[] position = new long[n];
+
+				for (long i = 0; i < numSteps; i++) {
+					long rest = startIndex + i * stepSize;
+					position[0] = 0;
+					for (int d = 1; d < n; d++) {
+						position[d] = rest % dims[d];
+						rest /= dims[d];
+					}
+					for (int d = 0; d < n; d++) {
+						indexAccess.setPosition(labeling.min(d) + position[d], d);
+						if (intensities) {
+							intensityAccess.setPosition(intensity.min(d) + position[d], d);
+						}
+					}
+
+					for (long x = 0; x < dims[0]; x++) {
+						final int[] ids = labelIds[indexAccess.get().getInteger()];
+						if (ids.length > 0) {
+							position[0] = x;
+							final double value = intensities ? intensityAccess.get()
+								.getRealDouble() : 0;
+							for (final int id : ids) {
+								acc.add(id, position, value);
+							}
+						}
+						indexAccess.fwd(0);
+						if (intensities) intensityAccess.fwd(0);
+					}
+				}
+
+				synchronized (total) {
+					total.add(acc);
+				}
+			}
+		}, lines, (lines + threads - 1) / threads);
+
+		return total;
+	}
+
+	private static double[] column(final List<String> headers,
+		final List<double[]> columns, final String header, final int numRows)
+	{
+		final double[] column = new double[numRows];
+		headers.add(header);
+		columns.add(column);
+		return column;
+	}
+
+	private static String axis(final int d) {
+		return d < AXES.length ? AXES[d] : "D" + d;
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * Per-label accumulators of one chunk, in primitive arrays indexed by label
+	 * id, and by label id times the number of values per label.
+	 */
+	private static final class Accumulators {
+
+		private final int n;
+		private final int numProducts;
+		private final long[] size;
+		/** positions relative to the minimum of the labeling */
+		private final long[] sum;
+		private final long[] products;
+		private final long[] min;
+		private final long[] max;
+		/** running means and squared deviations, after Welford and Chan et al. */
+		private final double[] mean;
+		private final double[] m2;
+		private final double[] intensityMin;
+		private final double[] intensityMax;
+		private final double[] weightedSum;
+
+		private Accumulators(final int numLabels, final int n,
+			final boolean intensities)
+		{
+			this.n = n;
+			numProducts = n * (n + 1) / 2;
+			size = new long[numLabels];
+			sum = new long[numLabels * n];
+			products = new long[numLabels * numProducts];
+			min = new long[numLabels * n];
+			max = new long[numLabels * n];
+			Arrays.fill(min, Long.MAX_VALUE);
+			Arrays.fill(max, Long.MIN_VALUE);
+			if (intensities) {
+				mean = new double[numLabels];
+				m2 = new double[numLabels];
+				intensityMin = new double[numLabels];
+				intensityMax = new double[numLabels];
+				weightedSum = new double[numLabels * n];
+				Arrays.fill(intensityMin, Double.POSITIVE_INFINITY);
+				Arrays.fill(intensityMax, Double.NEGATIVE_INFINITY);
+			}
+			else {
+				mean = m2 = intensityMin = intensityMax = weightedSum = null;
+			}
+		}
+
+		private void add(final int id, final long[] position, final double value) {
+			final long count = ++size[id];
+			final int offset = id * n;
+			for (int d = 0, p = id * numProducts; d < n; d++) {
+				final long x = position[d];
+				sum[offset + d] += x;
+				if (x < min[offset + d]) min[offset + d] = x;
+				if (x > max[offset + d]) max[offset + d] = x;
+				for (int e = d; e < n; e++, p++) {
+					products[p] += x * position[e];
+				}
+			}
+			if (mean == null) return;
+
+			final double delta = value - mean[id];
+			mean[id] += delta / count;
+			m2[id] += delta * (value - mean[id]);
+			if (value < intensityMin[id]) intensityMin[id] = value;
+			if (value > intensityMax[id]) intensityMax[id] = value;
+			for (int d = 0; d < n; d++) {
+				weightedSum[offset + d] += value * position[d];
+			}
+		}
+
+		/** Merges the accumulators of another chunk into these. */
+		private void add(final Accumulators other) {
+			for (int id = 0; id < size.length; id++) {
+				final long countB = other.size[id];
+				if (countB == 0) continue;
+				final long countA = size[id];
+				size[id] = countA + countB;
+
+				for (int d = id * n; d < (id + 1) * n; d++) {
+					sum[d] += other.sum[d];
+					min[d] = Math.min(min[d], other.min[d]);
+					max[d] = Math.max(max[d], other.max[d]);
+				}
+				for (int p = id * numProducts; p < (id + 1) * numProducts; p++) {
+					products[p] += other.products[p];
+				}
+				if (mean == null) continue;
+
+				final double delta = other.mean[id] - mean[id];
+				mean[id] += delta * countB / size[id];
+				m2[id] += other.m2[id] + delta * delta * countA * countB / size[id];
+				intensityMin[id] = Math.min(intensityMin[id], other.intensityMin[id]);
+				intensityMax[id] = Math.max(intensityMax[id], other.intensityMax[id]);
+				for (int d = id * n; d < (id + 1) * n; d++) {
+					weightedSum[d] += other.weightedSum[d];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Measures the contours or meshes of the labels of one chunk, with ops which
+	 * are matched for the first label and reused for all others.
+	 */
+	private class Shapes {
+
+		private final RandomAccessibleInterval<I> indexImg;
+		private final int[][] labelIds;
+		private final Accumulators total;
+		private final int n;
+		private final double[][] columns;
+
+		private UnaryFunctionOp<Img<BitType>, Polygon> contourFunc;
+		private UnaryFunctionOp<Img<BitType>, Mesh> meshFunc;
+		private UnaryFunctionOp<Object, DoubleType> sizeFunc;
+		private UnaryFunctionOp<Object, DoubleType> boundarySizeFunc;
+		private UnaryFunctionOp<Object, DoubleType> convexSizeFunc;
+		private UnaryFunctionOp<Object, DoubleType> feretFunc;
+		private UnaryFunctionOp<Object, DoubleType> minFeretFunc;
+
+		private Shapes(final RandomAccessibleInterval<I> indexImg,
+			final int[][] labelIds, final Accumulators total, final int n,
+			final double[][] columns)
+		{
+			this.indexImg = indexImg;
+			this.labelIds = labelIds;
+			this.total = total;
+			this.n = n;
+			this.columns = columns;
+		}
+
+		private void measure(final int row, final int id) {
+			final Img<BitType> mask = mask(id);
+			if (n == 2) {
+				if (contourFunc == null) {
+					contourFunc = Functions.unary(ops(), Ops.Geometric.Contour.class,
+						Polygon.class, mask, true, true);
+				}
+				final Polygon polygon = contourFunc.compute1(mask);
+				if (polygon.getVertices().size() < 3) {
+					// NB: Single pixels and lines have no area to measure.
+					for (final double[] column : columns) {
+						column[row] = Double.NaN;
+					}
+					return;
+				}
+				if (sizeFunc == null) matchFunctions(polygon);
+
+				final double perimeter = measure(boundarySizeFunc, polygon);
+				final double area = measure(sizeFunc, polygon);
+				final double convexArea = measure(convexSizeFunc, polygon);
+				columns[0][row] = perimeter;
+				columns[1][row] = area;
+				columns[2][row] = convexArea;
+				columns[3][row] = area / convexArea;
+				// NB: Same as geom.circularity, without measuring twice.
+				columns[4][row] = 4 * Math.PI * area / (perimeter * perimeter);
+				columns[5][row] = measure(feretFunc, polygon);
+				columns[6][row] = measure(minFeretFunc, polygon);
+			}
+			else {
+				if (meshFunc == null) {
+					meshFunc = Functions.unary(ops(), Ops.Geometric.MarchingCubes.class,
+						Mesh.class, mask);
+				}
+				final Mesh mesh = meshFunc.compute1(mask);
+				if (sizeFunc == null) matchFunctions(mesh);
+
+				final double volume = measure(sizeFunc, mesh);
+				final double convexVolume = measure(convexSizeFunc, mesh);
+				columns[0][row] = measure(boundarySizeFunc, mesh);
+				columns[1][row] = volume;
+				columns[2][row] = convexVolume;
+				columns[3][row] = volume / convexVolume;
+			}
+		}
+
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		private void matchFunctions(final Object in) {
+			sizeFunc = (UnaryFunctionOp) RTs.function(ops(),
+				Ops.Geometric.Size.class, in);
+			boundarySizeFunc = (UnaryFunctionOp) RTs.function(ops(),
+				Ops.Geometric.BoundarySize.class, in);
+			convexSizeFunc = (UnaryFunctionOp) RTs.function(ops(),
+				Ops.Geometric.SizeConvexHull.class, in);
+			if (n == 2) {
+				feretFunc = (UnaryFunctionOp) RTs.function(ops(),
+					Ops.Geometric.FeretsDiameter.class, in);
+				minFeretFunc = (UnaryFunctionOp) RTs.function(ops(),
+					Ops.Geometric.MinFeretsDiameter.class, in);
+			}
+		}
+
+		private double measure(final UnaryFunctionOp<Object, DoubleType> func,
+			final Object in)
+		{
+			return func.compute1(in).getRealDouble();
+		}
+
+		/**
+		 * Copies the label into a binary image of its bounding box, with a
+		 * background margin of one pixel.
+		 */
+		private Img<BitType> mask(final int id) {
+			final long[] boxMin = new long[n];
+			final long[] boxMax = new long[n];
+			final long[] maskDims = new long[n];
+			final long[] innerMax = new long[n];
+			for (int d = 0; d < n; d++) {
+				boxMin[d] = indexImg.min(d) + total.min[id * n + d];
+				boxMax[d] = indexImg.min(d) + total.max[id * n + d];
+				maskDims[d] = boxMax[d] - boxMin[d] + 3;
+				innerMax[d] = maskDims[d] - 2;
+			}
+
+			final Img<BitType> mask = ArrayImgs.bits(maskDims);
+			final long[] innerMin = new long[n];
+			Arrays.fill(innerMin, 1);
+			final Cursor<I> c = Views.flatIterable(Views.interval(indexImg,
+				new FinalInterval(boxMin, boxMax))).cursor();
+			final Cursor<BitType> m = Views.flatIterable(Views.interval(mask,
+				new FinalInterval(innerMin, innerMax))).cursor();
+			while (c.hasNext()) {
+				final int[] ids = labelIds[c.next().getInteger()];
+				m.fwd();
+				for (final int other : ids) {
+					if (other == id) {
+						m.get().set(true);
+						break;
+					}
+				}
+			}
+			return mask;
+		}
+	}
+
+}
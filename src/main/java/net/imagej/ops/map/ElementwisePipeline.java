@@ -0,0 +1,322 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.map;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.ops.Op;
+import net.imagej.ops.OpEnvironment;
+import net.imagej.ops.special.computer.BinaryComputerOp;
+import net.imagej.ops.special.computer.Computers;
+import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
+import net.imagej.ops.thread.chunker.CursorBasedChunk;
+import net.imglib2.Cursor;
+import net.imglib2.IterableInterval;
+import net.imglib2.img.Img;
+import net.imglib2.type.NativeType;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.real.DoubleType;
+
+/**
+ * A lazily evaluated chain of element-wise ops, such as those of the
+ * {@code math}, {@code convert} and {@code logic} namespaces.
+ * <p>
+ * The builder methods only record the steps; {@link #compute} then matches
+ * each step's op once and applies the whole chain to every element in a
+ * single parallel pass. Hence, no intermediate images are created, e.g.:
+ * </p>
+ * 
+ * <pre>
+ * new ElementwisePipeline(ops) //
+ * 	.combine(Ops.Math.Subtract.class, background) //
+ * 	.combine(Ops.Math.Multiply.class, gain) //
+ * 	.map(Ops.Math.Sqrt.class) //
+ * 	.convert(Ops.Convert.Uint8.class, new UnsignedByteType()) //
+ * 	.compute(in, out);
+ * </pre>
+ * <p>
+ * Unless converted explicitly, intermediate values are {@link DoubleType}s;
+ * the result is written to the output via {@link RealType#setReal(double)}.
+ * Both inputs of binary ops are {@link DoubleType}s, so that constants and
+ * image operands are not rounded to the type of the values they combine with.
+ * Image operands must be aligned with the input, i.e., have the same
+ * dimensions and iteration order.
+ * </p>
+ */
+public class ElementwisePipeline {
+
+	private final OpEnvironment ops;
+
+	private final List<Step> steps = new ArrayList<>();
+
+	public ElementwisePipeline(final OpEnvironment ops) {
+		this.ops = ops;
+	}
+
+	// -- Builder methods --
+
+	/**
+	 * Appends a unary computer op, e.g. {@code Ops.Math.Sqrt}, which produces a
+	 * {@link DoubleType}.
+	 */
+	public ElementwisePipeline map(final Class<? extends Op> opType,
+		final Object... args)
+	{
+		return convert(opType, new DoubleType(), args);
+	}
+
+	/**
+	 * Appends a unary computer op, e.g. {@code Ops.Convert.Uint8}, which
+	 * produces values of the given type.
+	 */
+	public ElementwisePipeline convert(final Class<? extends Op> opType,
+		final RealType<?> outType, final Object... args)
+	{
+		steps.add(new Step(opType, outType, null, 0, false, args));
+		return this;
+	}
+
+	/**
+	 * Appends a binary computer op, e.g. {@code Ops.Math.Add}, whose second
+	 * input is the corresponding element of the given image, and which produces
+	 * a {@link DoubleType}.
+	 */
+	public ElementwisePipeline combine(final Class<? extends Op> opType,
+		final IterableInterval<? extends RealType<?>> operand,
+		final Object... args)
+	{
+		return combine(opType, operand, new DoubleType(), args);
+	}
+
+	/**
+	 * Appends a binary computer op, e.g. {@code Ops.Logic.LessThan}, whose
+	 * second input is the corresponding element of the given image, and which
+	 * produces values of the given type.
+	 */
+	public ElementwisePipeline combine(final Class<? extends Op> opType,
+		final IterableInterval<? extends RealType<?>> operand,
+		final RealType<?> outType, final Object... args)
+	{
+		steps.add(new Step(opType, outType, operand, 0, true, args));
+		return this;
+	}
+
+	/**
+	 * Appends a binary computer op, e.g. {@code Ops.Math.Add}, whose second
+	 * input is the given constant, and which produces a {@link DoubleType}.
+	 */
+	public ElementwisePipeline combine(final Class<? extends Op> opType,
+		final double operand, final Object... args)
+	{
+		return combine(opType, operand, new DoubleType(), args);
+	}
+
+	/**
+	 * Appends a binary computer op, e.g. {@code Ops.Logic.LessThan}, whose
+	 * second input is the given constant, and which produces values of the given
+	 * type.
+	 */
+	public ElementwisePipeline combine(final Class<? extends Op> opType,
+		final double operand, final RealType<?> outType, final Object... args)
+	{
+		steps.add(new Step(opType, outType, null, operand, true, args));
+		return this;
+	}
+
+	// -- Execution methods --
+
+	/**
+	 * Applies the recorded steps to the given input, creating an output of the
+	 * given type.
+	 */
+	public <O extends NativeType<O> & RealType<O>> Img<O> compute(
+		final IterableInterval<? extends RealType<?>> in, final O outType)
+	{
+		final Img<O> out = ops.create().img(in, outType);
+		compute(in, out);
+		return out;
+	}
+
+	/** Applies the recorded steps to the given input, in a single pass. */
+	public <O extends RealType<O>> void compute(
+		final IterableInterval<? extends RealType<?>> in,
+		final IterableInterval<O> out)
+	{
+		checkAligned(in, out);
+		for (final Step step : steps) {
+			if (step.image != null) checkAligned(in, step.image);
+		}
+		if (in.size() == 0) return;
+
+		// match each op once, against the types flowing through the chain
+		final List<Object> prototypes = new ArrayList<>();
+		RealType<?> type = in.firstElement().createVariable();
+		for (final Step step : steps) {
+			final RealType<?> outType = step.outType.createVariable();
+			if (step.binary) {
+				prototypes.add(Computers.binary(ops, step.opType, outType,
+					new DoubleType(), new DoubleType(), step.args));
+			}
+			else {
+				prototypes.add(Computers.unary(ops, step.opType, outType, type,
+					step.args));
+			}
+			type = outType;
+		}
+
+		ops.thread().chunker(new CursorBasedChunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
+			{
+				final Stage[] stages = new Stage[steps.size()];
+				for (int s = 0; s < stages.length; s++) {
+					stages[s] = new Stage(steps.get(s), prototypes.get(s), startIndex);
+				}
+				final Cursor<? extends RealType<?>> inCursor = in.cursor();
+				final Cursor<O> outCursor = out.cursor();
+				setToStart(inCursor, startIndex);
+				setToStart(outCursor, startIndex);
+
+				for (long i = 0; i < numSteps; i++) {
+					RealType<?> value = inCursor.get();
+					for (final Stage stage : stages) {
+						value = stage.compute(value);
+						stage.jumpFwd(stepSize);
+					}
+					outCursor.get().setReal(value.getRealDouble());
+					inCursor.jumpFwd(stepSize);
+					outCursor.jumpFwd(stepSize);
+				}
+			}
+		}, in.size(), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
+	}
+
+	// -- Helper methods --
+
+	private static void checkAligned(final IterableInterval<?> in,
+		final IterableInterval<?> other)
+	{
+		boolean aligned = in.numDimensions() == other.numDimensions();
+		for (int d = 0; aligned && d < in.numDimensions(); d++) {
+			aligned = in.dimension(d) == other.dimension(d);
+		}
+		if (!aligned || !in.iterationOrder().equals(other.iterationOrder())) {
+			throw new IllegalArgumentException(
+				"Images are not aligned with the input");
+		}
+	}
+
+	// -- Helper classes --
+
+	/** A recorded step of the pipeline. */
+	private static final class Step {
+
+		private final Class<? extends Op> opType;
+		private final RealType<?> outType;
+		private final IterableInterval<? extends RealType<?>> image;
+		private final double constant;
+		private final boolean binary;
+		private final Object[] args;
+
+		private Step(final Class<? extends Op> opType, final RealType<?> outType,
+			final IterableInterval<? extends RealType<?>> image,
+			final double constant, final boolean binary, final Object[] args)
+		{
+			this.opType = opType;
+			this.outType = outType;
+			this.image = image;
+			this.constant = constant;
+			this.binary = binary;
+			this.args = args;
+		}
+	}
+
+	/** The state of a {@link Step} within a single chunk. */
+	private static final class Stage {
+
+		private final UnaryComputerOp<RealType<?>, RealType<?>> unary;
+		private final BinaryComputerOp<RealType<?>, RealType<?>, RealType<?>> binary;
+		private final RealType<?> output;
+		private final DoubleType left;
+		private final DoubleType operand;
+		private final Cursor<? extends RealType<?>> cursor;
+
+		@SuppressWarnings("unchecked")
+		private Stage(final Step step, final Object prototype,
+			final long startIndex)
+		{
+			output = step.outType.createVariable();
+			if (step.binary) {
+				unary = null;
+				binary = ((BinaryComputerOp<RealType<?>, RealType<?>, RealType<?>>) prototype)
+					.getIndependentInstance();
+				left = new DoubleType();
+				operand = new DoubleType(step.constant);
+				cursor = step.image == null ? null : step.image.cursor();
+				if (cursor != null) CursorBasedChunk.setToStart(cursor, startIndex);
+			}
+			else {
+				unary = ((UnaryComputerOp<RealType<?>, RealType<?>>) prototype)
+					.getIndependentInstance();
+				binary = null;
+				left = null;
+				operand = null;
+				cursor = null;
+			}
+		}
+
+		private RealType<?> compute(final RealType<?> input) {
+			if (unary != null) unary.compute1(input, output);
+			else {
+				left.set(input.getRealDouble());
+				if (cursor != null) operand.set(cursor.get().getRealDouble());
+				binary.compute2(left, operand, output);
+			}
+			return output;
+		}
+
+		private void jumpFwd(final long steps) {
+			if (cursor != null) cursor.jumpFwd(steps);
+		}
+	}
+
+}
@@ -34,6 +34,7 @@ import net.imagej.ops.Contingent;
 import net.imagej.ops.Ops;
 import net.imagej.ops.Parallel;
 import net.imagej.ops.special.inplace.BinaryInplace1Op;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
 import net.imagej.ops.thread.chunker.ChunkerOp;
 import net.imagej.ops.thread.chunker.CursorBasedChunk;
 import net.imglib2.IterableInterval;
@@ -67,11 +68,18 @@ public class MapIIAndIIInplaceParallel<EA> extends
 			@Override
 			public void execute(final int startIndex, final int stepSize,
 				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
 			{
 				Maps.inplace(arg, in, (BinaryInplace1Op<EA, EA, EA>) getOp(),
 					startIndex, stepSize, numSteps);
 			}
-		}, arg.size());
+		}, arg.size(), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
 	}
 
 	@Override
@@ -83,9 +91,16 @@ public class MapIIAndIIInplaceParallel<EA> extends
 			@Override
 			public void execute(final int startIndex, final int stepSize,
 				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
 			{
 				Maps.inplace(in, arg, getOp(), startIndex, stepSize, numSteps);
 			}
-		}, in.size());
+		}, in.size(), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
 	}
 }
@@ -32,6 +32,7 @@ package net.imagej.ops.map;
 
 import net.imagej.ops.Ops;
 import net.imagej.ops.Parallel;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
 import net.imagej.ops.thread.chunker.ChunkerOp;
 import net.imagej.ops.thread.chunker.CursorBasedChunk;
 import net.imglib2.IterableInterval;
@@ -57,10 +58,17 @@ public class MapIIInplaceParallel<A> extends
 			@Override
 			public void execute(final int startIndex, final int stepSize,
 				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
 			{
 				Maps.inplace(arg, getOp(), startIndex, stepSize, numSteps);
 			}
-		}, arg.size());
+		}, arg.size(), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
 	}
 
 }
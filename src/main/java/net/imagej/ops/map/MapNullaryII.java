@@ -2,6 +2,7 @@
 package net.imagej.ops.map;
 
 import net.imagej.ops.Ops;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
 import net.imagej.ops.thread.chunker.ChunkerOp;
 import net.imagej.ops.thread.chunker.CursorBasedChunk;
 import net.imglib2.IterableInterval;
@@ -28,10 +29,17 @@ public class MapNullaryII<O> extends
 			@Override
 			public void execute(final int startIndex, final int stepSize,
 				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
 			{
 				Maps.map(output, getOp(), startIndex, stepSize, numSteps);
 			}
-		}, output.size());
+		}, output.size(), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
 	}
 
 }
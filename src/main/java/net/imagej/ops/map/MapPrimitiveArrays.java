@@ -0,0 +1,161 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.map;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
+import net.imglib2.IterableInterval;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.cell.CellImg;
+import net.imglib2.img.planar.PlanarImg;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Parallelized {@link MapOp}s over {@link ArrayImg}s, {@link PlanarImg}s and
+ * {@link CellImg}s, which run tight loops over the backing primitive arrays.
+ * <p>
+ * These maps apply to element ops which also implement
+ * {@link DoubleUnaryOperator} or {@link DoubleBinaryOperator}, such as the
+ * {@code math} ops on {@link RealType}s and the {@code convert.clip},
+ * {@code convert.copy} and {@code convert.scale} ops; so they also back
+ * {@code convert.imageType}. All other cases are left to the cursor-based
+ * maps.
+ * </p>
+ * 
+ * @see PrimitiveArrays
+ */
+public class MapPrimitiveArrays {
+
+	private MapPrimitiveArrays() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/**
+	 * {@link MapUnaryComputer} from {@link IterableInterval} to
+	 * {@link IterableInterval}, both backed by primitive arrays.
+	 * 
+	 * @param <EI> element type of inputs
+	 * @param <EO> element type of outputs
+	 */
+	@Plugin(type = Ops.Map.class, priority = Priority.HIGH_PRIORITY)
+	public static class IIToII<EI extends RealType<EI>, EO extends RealType<EO>>
+		extends
+		AbstractMapComputer<EI, EO, IterableInterval<EI>, IterableInterval<EO>>
+		implements Contingent, Parallel
+	{
+
+		@Override
+		public boolean conforms() {
+			return getOp() instanceof DoubleUnaryOperator && PrimitiveArrays
+				.compatible(in(), out());
+		}
+
+		@Override
+		public void compute1(final IterableInterval<EI> input,
+			final IterableInterval<EO> output)
+		{
+			ops().thread().chunker(new Chunk() {
+
+				@Override
+				public void execute(final int startIndex, final int stepSize,
+					final int numSteps)
+				{
+					execute((long) startIndex, stepSize, numSteps);
+				}
+
+				@Override
+				public void execute(final long startIndex, final long stepSize,
+					final long numSteps)
+				{
+					PrimitiveArrays.map(input, output, (DoubleUnaryOperator) getOp()
+						.getIndependentInstance(), startIndex, stepSize, numSteps);
+				}
+			}, input.size(), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
+		}
+	}
+
+	/**
+	 * {@link MapBinaryComputer} from {@link IterableInterval} and
+	 * {@link IterableInterval} to {@link IterableInterval}, all backed by
+	 * primitive arrays.
+	 * 
+	 * @param <EI1> element type of first inputs
+	 * @param <EI2> element type of second inputs
+	 * @param <EO> element type of outputs
+	 */
+	@Plugin(type = Ops.Map.class, priority = Priority.HIGH_PRIORITY)
+	public static class IIAndIIToII<EI1 extends RealType<EI1>, EI2 extends RealType<EI2>, EO extends RealType<EO>>
+		extends
+		AbstractMapBinaryComputer<EI1, EI2, EO, IterableInterval<EI1>, IterableInterval<EI2>, IterableInterval<EO>>
+		implements Contingent, Parallel
+	{
+
+		@Override
+		public boolean conforms() {
+			return getOp() instanceof DoubleBinaryOperator && PrimitiveArrays
+				.compatible(in1(), in2(), out());
+		}
+
+		@Override
+		public void compute2(final IterableInterval<EI1> input1,
+			final IterableInterval<EI2> input2, final IterableInterval<EO> output)
+		{
+			ops().thread().chunker(new Chunk() {
+
+				@Override
+				public void execute(final int startIndex, final int stepSize,
+					final int numSteps)
+				{
+					execute((long) startIndex, stepSize, numSteps);
+				}
+
+				@Override
+				public void execute(final long startIndex, final long stepSize,
+					final long numSteps)
+				{
+					PrimitiveArrays.map(input1, input2, output,
+						(DoubleBinaryOperator) getOp().getIndependentInstance(), startIndex,
+						stepSize, numSteps);
+				}
+			}, input1.size(), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
+		}
+	}
+
+}
@@ -0,0 +1,500 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import net.imglib2.Cursor;
+import net.imglib2.IterableInterval;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.basictypeaccess.array.ArrayDataAccess;
+import net.imglib2.img.cell.AbstractCell;
+import net.imglib2.img.cell.CellImg;
+import net.imglib2.img.planar.PlanarImg;
+import net.imglib2.type.logic.BitType;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.integer.ByteType;
+import net.imglib2.type.numeric.integer.IntType;
+import net.imglib2.type.numeric.integer.LongType;
+import net.imglib2.type.numeric.integer.ShortType;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.integer.UnsignedIntType;
+import net.imglib2.type.numeric.integer.UnsignedShortType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.type.numeric.real.FloatType;
+
+/**
+ * Utility class for ops which operate directly on the primitive arrays
+ * backing {@link ArrayImg}s, {@link PlanarImg}s and {@link CellImg}s.
+ * <p>
+ * The storage arrays of an image are the single array of an
+ * {@link ArrayImg}, the planes of a {@link PlanarImg} and the cells of a
+ * {@link CellImg}, in that order. Concatenated, they define a storage index
+ * for each element. {@link ArrayImg}s and {@link PlanarImg}s store their
+ * elements in flat iteration order, so the same storage index addresses the
+ * same position in all such images of equal dimensions. The same holds for
+ * {@link CellImg}s with equal dimensions and cell dimensions.
+ * </p>
+ * <p>
+ * Maps process elements in blocks: each block is read into a {@code double}
+ * buffer, transformed, and written back, in three tight loops.
+ * </p>
+ * 
+ * @see MapPrimitiveArrays
+ */
+public final class PrimitiveArrays {
+
+	/** Number of elements processed per block. */
+	private static final int BLOCK_SIZE = 4096;
+
+	private PrimitiveArrays() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/** The supported element types, along with their storage arrays. */
+	private enum Kind {
+			BIT, BYTE, UNSIGNED_BYTE, SHORT, UNSIGNED_SHORT, INT, UNSIGNED_INT, LONG,
+			FLOAT, DOUBLE
+	}
+
+	// -- Helpers for conforms() --
+
+	/**
+	 * Checks whether the given images are backed by primitive arrays of
+	 * supported types, with compatible layouts.
+	 */
+	public static boolean compatible(final IterableInterval<?> in,
+		final IterableInterval<?> out)
+	{
+		final Layout inLayout = layout(in), outLayout = layout(out);
+		return inLayout != null && writable(outLayout) && inLayout.matches(
+			outLayout);
+	}
+
+	/**
+	 * Checks whether the given images are backed by primitive arrays of
+	 * supported types, with compatible layouts.
+	 */
+	public static boolean compatible(final IterableInterval<?> in1,
+		final IterableInterval<?> in2, final IterableInterval<?> out)
+	{
+		final Layout in1Layout = layout(in1), in2Layout = layout(in2);
+		final Layout outLayout = layout(out);
+		return in1Layout != null && in2Layout != null && writable(outLayout) &&
+			in1Layout.matches(in2Layout) && in1Layout.matches(outLayout);
+	}
+
+	// -- Storage --
+
+	/**
+	 * Gets the storage arrays of the given image, in storage order; or
+	 * {@code null} if the image is not backed by primitive arrays.
+	 */
+	public static Object[] storage(final IterableInterval<?> image) {
+		final List<Object> arrays = new ArrayList<>();
+		if (image instanceof ArrayImg) {
+			arrays.add(((ArrayImg<?, ?>) image).update(null));
+		}
+		else if (image instanceof PlanarImg) {
+			final PlanarImg<?, ?> planar = (PlanarImg<?, ?>) image;
+			for (int p = 0; p < planar.numSlices(); p++) {
+				arrays.add(planar.getPlane(p));
+			}
+		}
+		else if (image instanceof CellImg) {
+			final Cursor<?> cells = ((CellImg<?, ?, ?>) image).getCells().cursor();
+			while (cells.hasNext()) {
+				arrays.add(((AbstractCell<?>) cells.next()).getData());
+			}
+		}
+		else return null;
+
+		for (int i = 0; i < arrays.size(); i++) {
+			final Object access = arrays.get(i);
+			if (!(access instanceof ArrayDataAccess)) return null;
+			arrays.set(i, ((ArrayDataAccess<?>) access).getCurrentStorageArray());
+		}
+		return arrays.toArray();
+	}
+
+	/**
+	 * Checks whether the given images have the same container and element
+	 * types, and the same dimensions and cell dimensions; i.e., whether their
+	 * storage arrays correspond one-to-one.
+	 */
+	public static boolean sameStorage(final IterableInterval<?> a,
+		final IterableInterval<?> b)
+	{
+		if (a.getClass() != b.getClass()) return false;
+		if (a.size() == 0 || b.size() == 0) return a.size() == b.size();
+		if (a.firstElement().getClass() != b.firstElement().getClass()) {
+			return false;
+		}
+		return sameDimensions(a, b) && Arrays.equals(cellDimensions(a),
+			cellDimensions(b));
+	}
+
+	// -- Maps --
+
+	public static void map(final IterableInterval<?> a,
+		final IterableInterval<?> b, final DoubleUnaryOperator op,
+		final long startIndex, final long stepSize, final long numSteps)
+	{
+		final Layout in = layout(a), out = layout(b);
+		final RealType<?> scratch = out.createVariable();
+		final double[] buffer = new double[BLOCK_SIZE];
+		final long end = startIndex + numSteps * stepSize;
+		long i = startIndex;
+		while (i < end) {
+			final int n = blockLength(i, end, stepSize, in, out);
+			in.read(i, stepSize, buffer, n);
+			for (int k = 0; k < n; k++) {
+				buffer[k] = op.applyAsDouble(buffer[k]);
+			}
+			out.write(i, stepSize, buffer, n, scratch);
+			i += n * stepSize;
+		}
+	}
+
+	public static void map(final IterableInterval<?> a,
+		final IterableInterval<?> b, final IterableInterval<?> c,
+		final DoubleBinaryOperator op, final long startIndex, final long stepSize,
+		final long numSteps)
+	{
+		final Layout in1 = layout(a), in2 = layout(b), out = layout(c);
+		final RealType<?> scratch = out.createVariable();
+		final double[] buffer1 = new double[BLOCK_SIZE];
+		final double[] buffer2 = new double[BLOCK_SIZE];
+		final long end = startIndex + numSteps * stepSize;
+		long i = startIndex;
+		while (i < end) {
+			final int n = blockLength(i, end, stepSize, in1, in2, out);
+			in1.read(i, stepSize, buffer1, n);
+			in2.read(i, stepSize, buffer2, n);
+			for (int k = 0; k < n; k++) {
+				buffer1[k] = op.applyAsDouble(buffer1[k], buffer2[k]);
+			}
+			out.write(i, stepSize, buffer1, n, scratch);
+			i += n * stepSize;
+		}
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Gets the number of elements of the next block, which must neither cross
+	 * the end of the chunk nor the end of an array.
+	 */
+	private static int blockLength(final long index, final long end,
+		final long stepSize, final Layout... layouts)
+	{
+		long n = Math.min(BLOCK_SIZE, (end - index + stepSize - 1) / stepSize);
+		for (final Layout layout : layouts) {
+			final long remaining = layout.remaining(index);
+			n = Math.min(n, (remaining + stepSize - 1) / stepSize);
+		}
+		return (int) n;
+	}
+
+	private static boolean writable(final Layout layout) {
+		// NB: Bits share their longs, so chunks must not write them.
+		return layout != null && layout.kind != Kind.BIT;
+	}
+
+	private static boolean sameDimensions(final IterableInterval<?> a,
+		final IterableInterval<?> b)
+	{
+		if (a.numDimensions() != b.numDimensions()) return false;
+		for (int d = 0; d < a.numDimensions(); d++) {
+			if (a.dimension(d) != b.dimension(d)) return false;
+		}
+		return true;
+	}
+
+	/** Gets the cell dimensions of a {@link CellImg}, else {@code null}. */
+	private static int[] cellDimensions(final IterableInterval<?> image) {
+		if (!(image instanceof CellImg)) return null;
+		final int[] cellDims = new int[image.numDimensions()];
+		((CellImg<?, ?, ?>) image).getCells().cellDimensions(cellDims);
+		return cellDims;
+	}
+
+	/** Gets the number of elements stored in each array of the image. */
+	private static long[] arrayLengths(final IterableInterval<?> image,
+		final int numArrays)
+	{
+		final long[] lengths = new long[numArrays];
+		final int[] cellDims = cellDimensions(image);
+		if (cellDims == null) {
+			Arrays.fill(lengths, image.size() / numArrays);
+			return lengths;
+		}
+		final Cursor<?> cells = ((CellImg<?, ?, ?>) image).getCells()
+			.localizingCursor();
+		for (int i = 0; i < numArrays; i++) {
+			cells.fwd();
+			long length = 1;
+			for (int d = 0; d < cellDims.length; d++) {
+				final long min = cells.getLongPosition(d) * cellDims[d];
+				length *= Math.min(cellDims[d], image.dimension(d) - min);
+			}
+			lengths[i] = length;
+		}
+		return lengths;
+	}
+
+	private static Layout layout(final IterableInterval<?> image) {
+		if (image == null || image.size() == 0) return null;
+		final Object[] arrays = storage(image);
+		if (arrays == null) return null;
+		final Kind kind = kind(image.firstElement(), arrays[0]);
+		if (kind == null) return null;
+		final long[] lengths = arrayLengths(image, arrays.length);
+		final long[] starts = new long[arrays.length + 1];
+		for (int i = 0; i < arrays.length; i++) {
+			starts[i + 1] = starts[i] + lengths[i];
+		}
+		return new Layout(image, kind, arrays, starts, cellDimensions(image));
+	}
+
+	/**
+	 * Gets the {@link Kind} of the given element type, if it is stored exactly
+	 * as the given array suggests.
+	 */
+	private static Kind kind(final Object type, final Object array) {
+		final Class<?> c = type.getClass();
+		if (c == FloatType.class && array instanceof float[]) return Kind.FLOAT;
+		if (c == DoubleType.class && array instanceof double[]) return Kind.DOUBLE;
+		if (c == BitType.class && array instanceof long[]) return Kind.BIT;
+		if (c == ByteType.class && array instanceof byte[]) return Kind.BYTE;
+		if (c == UnsignedByteType.class && array instanceof byte[]) {
+			return Kind.UNSIGNED_BYTE;
+		}
+		if (c == ShortType.class && array instanceof short[]) return Kind.SHORT;
+		if (c == UnsignedShortType.class && array instanceof short[]) {
+			return Kind.UNSIGNED_SHORT;
+		}
+		if (c == IntType.class && array instanceof int[]) return Kind.INT;
+		if (c == UnsignedIntType.class && array instanceof int[]) {
+			return Kind.UNSIGNED_INT;
+		}
+		if (c == LongType.class && array instanceof long[]) return Kind.LONG;
+		return null;
+	}
+
+	// -- Helper classes --
+
+	/** The storage arrays of an image, in storage order. */
+	private static final class Layout {
+
+		private final IterableInterval<?> image;
+		private final Kind kind;
+		private final Object[] arrays;
+		private final long[] starts;
+		private final int[] cellDims;
+
+		private Layout(final IterableInterval<?> image, final Kind kind,
+			final Object[] arrays, final long[] starts, final int[] cellDims)
+		{
+			this.image = image;
+			this.kind = kind;
+			this.arrays = arrays;
+			this.starts = starts;
+			this.cellDims = cellDims;
+		}
+
+		/** Checks whether both layouts share their storage indices. */
+		private boolean matches(final Layout other) {
+			return other != null && sameDimensions(image, other.image) && Arrays
+				.equals(cellDims, other.cellDims);
+		}
+
+		private RealType<?> createVariable() {
+			return ((RealType<?>) image.firstElement()).createVariable();
+		}
+
+		/** Gets the index of the array holding the given storage index. */
+		private int array(final long index) {
+			final int i = Arrays.binarySearch(starts, index);
+			return i >= 0 ? i : -i - 2;
+		}
+
+		/** Gets the number of elements from the given index to its array's end. */
+		private long remaining(final long index) {
+			return starts[array(index) + 1] - index;
+		}
+
+		/** Reads {@code n} elements, none of which may cross an array. */
+		private void read(final long index, final long stepSize,
+			final double[] buffer, final int n)
+		{
+			final int segment = array(index);
+			final Object array = arrays[segment];
+			final int offset = (int) (index - starts[segment]);
+			final int step = (int) stepSize;
+			switch (kind) {
+				case BIT: {
+					final long[] a = (long[]) array;
+					for (int k = 0; k < n; k++) {
+						final int j = offset + k * step;
+						buffer[k] = (a[j >>> 6] >>> (j & 63)) & 1;
+					}
+					break;
+				}
+				case BYTE: {
+					final byte[] a = (byte[]) array;
+					for (int k = 0; k < n; k++)
+						buffer[k] = a[offset + k * step];
+					break;
+				}
+				case UNSIGNED_BYTE: {
+					final byte[] a = (byte[]) array;
+					for (int k = 0; k < n; k++)
+						buffer[k] = a[offset + k * step] & 0xff;
+					break;
+				}
+				case SHORT: {
+					final short[] a = (short[]) array;
+					for (int k = 0; k < n; k++)
+						buffer[k] = a[offset + k * step];
+					break;
+				}
+				case UNSIGNED_SHORT: {
+					final short[] a = (short[]) array;
+					for (int k = 0; k < n; k++)
+						buffer[k] = a[offset + k * step] & 0xffff;
+					break;
+				}
+				case INT: {
+					final int[] a = (int[]) array;
+					for (int k = 0; k < n; k++)
+						buffer[k] = a[offset + k * step];
+					break;
+				}
+				case UNSIGNED_INT: {
+					final int[] a = (int[]) array;
+					for (int k = 0; k < n; k++)
+						buffer[k] = a[offset + k * step] & 0xffffffffL;
+					break;
+				}
+				case LONG: {
+					final long[] a = (long[]) array;
+					for (int k = 0; k < n; k++)
+						buffer[k] = a[offset + k * step];
+					break;
+				}
+				case FLOAT: {
+					final float[] a = (float[]) array;
+					for (int k = 0; k < n; k++)
+						buffer[k] = a[offset + k * step];
+					break;
+				}
+				case DOUBLE: {
+					final double[] a = (double[]) array;
+					for (int k = 0; k < n; k++)
+						buffer[k] = a[offset + k * step];
+					break;
+				}
+			}
+		}
+
+		/**
+		 * Writes {@code n} elements, none of which may cross an array.
+		 * <p>
+		 * Integer values are passed through the given scratch variable, so that
+		 * rounding, clamping and wrapping are exactly those of
+		 * {@link RealType#setReal(double)}.
+		 * </p>
+		 */
+		private void write(final long index, final long stepSize,
+			final double[] buffer, final int n, final RealType<?> scratch)
+		{
+			final int segment = array(index);
+			final Object array = arrays[segment];
+			final int offset = (int) (index - starts[segment]);
+			final int step = (int) stepSize;
+			switch (kind) {
+				case FLOAT: {
+					final float[] a = (float[]) array;
+					for (int k = 0; k < n; k++)
+						a[offset + k * step] = (float) buffer[k];
+					break;
+				}
+				case DOUBLE: {
+					final double[] a = (double[]) array;
+					for (int k = 0; k < n; k++)
+						a[offset + k * step] = buffer[k];
+					break;
+				}
+				case BYTE:
+				case UNSIGNED_BYTE: {
+					final byte[] a = (byte[]) array;
+					for (int k = 0; k < n; k++)
+						a[offset + k * step] = (byte) coded(scratch, buffer[k]);
+					break;
+				}
+				case SHORT:
+				case UNSIGNED_SHORT: {
+					final short[] a = (short[]) array;
+					for (int k = 0; k < n; k++)
+						a[offset + k * step] = (short) coded(scratch, buffer[k]);
+					break;
+				}
+				case INT:
+				case UNSIGNED_INT: {
+					final int[] a = (int[]) array;
+					for (int k = 0; k < n; k++)
+						a[offset + k * step] = (int) coded(scratch, buffer[k]);
+					break;
+				}
+				case LONG: {
+					final long[] a = (long[]) array;
+					for (int k = 0; k < n; k++)
+						a[offset + k * step] = coded(scratch, buffer[k]);
+					break;
+				}
+				case BIT:
+					throw new UnsupportedOperationException("Bits are read-only");
+			}
+		}
+
+		/** Gets the integer value the type would store for the given value. */
+		private static long coded(final RealType<?> scratch, final double value) {
+			scratch.setReal(value);
+			return (long) scratch.getRealDouble();
+		}
+	}
+
+}
@@ -30,6 +30,8 @@
 
 package net.imagej.ops.math;
 
+import java.util.function.DoubleBinaryOperator;
+
 import net.imagej.ops.Ops;
 import net.imagej.ops.special.computer.AbstractBinaryComputerOp;
 import net.imglib2.type.numeric.RealType;
@@ -54,12 +56,19 @@ public class BinaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Add.class)
 	public static class Add<I1 extends RealType<I1>, I2 extends RealType<I2>, O extends RealType<O>>
-		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Add
+		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Add,
+		DoubleBinaryOperator
 	{
 
 		@Override
 		public void compute2(final I1 input1, final I2 input2, final O output) {
-			output.setReal(input1.getRealDouble() + input2.getRealDouble());
+			output.setReal(applyAsDouble(input1.getRealDouble(), input2
+				.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double x, final double y) {
+			return x + y;
 		}
 	}
 
@@ -69,13 +78,19 @@ public class BinaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.And.class)
 	public static class And<I1 extends RealType<I1>, I2 extends RealType<I2>, O extends RealType<O>>
-		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.And
+		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.And,
+		DoubleBinaryOperator
 	{
 
 		@Override
 		public void compute2(final I1 input1, final I2 input2, final O output) {
-			output.setReal((long) input1.getRealDouble() & (long) input2
-				.getRealDouble());
+			output.setReal(applyAsDouble(input1.getRealDouble(), input2
+				.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double x, final double y) {
+			return (long) x & (long) y;
 		}
 	}
 
@@ -85,7 +100,8 @@ public class BinaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Divide.class)
 	public static class Divide<I1 extends RealType<I1>, I2 extends RealType<I2>, O extends RealType<O>>
-		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Divide
+		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Divide,
+		DoubleBinaryOperator
 	{
 
 		@Parameter
@@ -93,12 +109,13 @@ public class BinaryRealTypeMath {
 
 		@Override
 		public void compute2(final I1 input1, final I2 input2, final O output) {
-			if (input2.getRealDouble() == 0) {
-				output.setReal(dbzVal);
-			}
-			else {
-				output.setReal(input1.getRealDouble() / input2.getRealDouble());
-			}
+			output.setReal(applyAsDouble(input1.getRealDouble(), input2
+				.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double x, final double y) {
+			return y == 0 ? dbzVal : x / y;
 		}
 	}
 
@@ -108,12 +125,19 @@ public class BinaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Multiply.class)
 	public static class Multiply<I1 extends RealType<I1>, I2 extends RealType<I2>, O extends RealType<O>>
-		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Multiply
+		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Multiply,
+		DoubleBinaryOperator
 	{
 
 		@Override
 		public void compute2(final I1 input1, final I2 input2, final O output) {
-			output.setReal(input1.getRealDouble() * input2.getRealDouble());
+			output.setReal(applyAsDouble(input1.getRealDouble(), input2
+				.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double x, final double y) {
+			return x * y;
 		}
 	}
 
@@ -123,13 +147,19 @@ public class BinaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Or.class)
 	public static class Or<I1 extends RealType<I1>, I2 extends RealType<I2>, O extends RealType<O>>
-		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Or
+		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Or,
+		DoubleBinaryOperator
 	{
 
 		@Override
 		public void compute2(final I1 input1, final I2 input2, final O output) {
-			output.setReal((long) input1.getRealDouble() | (long) input2
-				.getRealDouble());
+			output.setReal(applyAsDouble(input1.getRealDouble(), input2
+				.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double x, final double y) {
+			return (long) x | (long) y;
 		}
 	}
 
@@ -139,12 +169,19 @@ public class BinaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Subtract.class)
 	public static class Subtract<I1 extends RealType<I1>, I2 extends RealType<I2>, O extends RealType<O>>
-		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Subtract
+		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Subtract,
+		DoubleBinaryOperator
 	{
 
 		@Override
 		public void compute2(final I1 input1, final I2 input2, final O output) {
-			output.setReal(input1.getRealDouble() - input2.getRealDouble());
+			output.setReal(applyAsDouble(input1.getRealDouble(), input2
+				.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double x, final double y) {
+			return x - y;
 		}
 	}
 
@@ -154,13 +191,19 @@ public class BinaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Xor.class)
 	public static class Xor<I1 extends RealType<I1>, I2 extends RealType<I2>, O extends RealType<O>>
-		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Xor
+		extends AbstractBinaryComputerOp<I1, I2, O> implements Ops.Math.Xor,
+		DoubleBinaryOperator
 	{
 
 		@Override
 		public void compute2(final I1 input1, final I2 input2, final O output) {
-			output.setReal((long) input1.getRealDouble() ^ (long) input2
-				.getRealDouble());
+			output.setReal(applyAsDouble(input1.getRealDouble(), input2
+				.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double x, final double y) {
+			return (long) x ^ (long) y;
 		}
 	}
 
@@ -31,6 +31,7 @@
 package net.imagej.ops.math;
 
 import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
 
 import net.imagej.ops.Ops;
 import net.imagej.ops.special.computer.AbstractUnaryComputerOp;
@@ -59,12 +60,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Abs.class)
 	public static class Abs<I extends RealType<I>, O extends RealType<O>> extends
-		AbstractUnaryComputerOp<I, O> implements Ops.Math.Abs
+		AbstractUnaryComputerOp<I, O> implements Ops.Math.Abs,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.abs(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.abs(value);
 		}
 	}
 
@@ -299,12 +306,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Ceil.class)
 	public static class Ceil<I extends RealType<I>, O extends RealType<O>> extends
-		AbstractUnaryComputerOp<I, O> implements Ops.Math.Ceil
+		AbstractUnaryComputerOp<I, O> implements Ops.Math.Ceil,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.ceil(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.ceil(value);
 		}
 	}
 
@@ -314,12 +327,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Cos.class)
 	public static class Cos<I extends RealType<I>, O extends RealType<O>> extends
-		AbstractUnaryComputerOp<I, O> implements Ops.Math.Cos
+		AbstractUnaryComputerOp<I, O> implements Ops.Math.Cos,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.cos(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.cos(value);
 		}
 	}
 
@@ -419,12 +438,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Exp.class)
 	public static class Exp<I extends RealType<I>, O extends RealType<O>> extends
-		AbstractUnaryComputerOp<I, O> implements Ops.Math.Exp
+		AbstractUnaryComputerOp<I, O> implements Ops.Math.Exp,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.exp(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.exp(value);
 		}
 	}
 
@@ -449,12 +474,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Floor.class)
 	public static class Floor<I extends RealType<I>, O extends RealType<O>>
-		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Floor
+		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Floor,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.floor(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.floor(value);
 		}
 	}
 
@@ -506,12 +537,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Log.class)
 	public static class Log<I extends RealType<I>, O extends RealType<O>> extends
-		AbstractUnaryComputerOp<I, O> implements Ops.Math.Log
+		AbstractUnaryComputerOp<I, O> implements Ops.Math.Log,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.log(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.log(value);
 		}
 	}
 
@@ -568,7 +605,8 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Max.class)
 	public static class MaxConstant<I extends RealType<I>, O extends RealType<O>>
-		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Max
+		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Max,
+		DoubleUnaryOperator
 	{
 
 		@Parameter
@@ -576,9 +614,12 @@ public final class UnaryRealTypeMath {
 
 		@Override
 		public void compute1(final I input, final O output) {
-			final double value = input.getRealDouble();
-			if (value < constant) output.setReal(value);
-			else output.setReal(constant);
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return value < constant ? value : constant;
 		}
 	}
 
@@ -590,7 +631,8 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Min.class)
 	public static class MinConstant<I extends RealType<I>, O extends RealType<O>>
-		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Min
+		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Min,
+		DoubleUnaryOperator
 	{
 
 		@Parameter
@@ -598,9 +640,12 @@ public final class UnaryRealTypeMath {
 
 		@Override
 		public void compute1(final I input, final O output) {
-			final double value = input.getRealDouble();
-			if (value > constant) output.setReal(value);
-			else output.setReal(constant);
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return value > constant ? value : constant;
 		}
 	}
 
@@ -610,12 +655,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.NearestInt.class)
 	public static class NearestInt<I extends RealType<I>, O extends RealType<O>>
-		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.NearestInt
+		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.NearestInt,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.rint(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.rint(value);
 		}
 	}
 
@@ -625,12 +676,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Negate.class)
 	public static class Negate<I extends RealType<I>, O extends RealType<O>>
-		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Negate
+		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Negate,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(-input.getRealDouble());
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return -value;
 		}
 	}
 
@@ -640,7 +697,8 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Power.class)
 	public static class PowerConstant<I extends RealType<I>, O extends RealType<O>>
-		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Power
+		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Power,
+		DoubleUnaryOperator
 	{
 
 		@Parameter
@@ -648,7 +706,12 @@ public final class UnaryRealTypeMath {
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.pow(input.getRealDouble(), constant));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.pow(value, constant);
 		}
 	}
 
@@ -739,12 +802,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Round.class)
 	public static class Round<I extends RealType<I>, O extends RealType<O>>
-		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Round
+		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Round,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal((double) Math.round(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return (double) Math.round(value);
 		}
 	}
 
@@ -786,12 +855,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Signum.class)
 	public static class Signum<I extends RealType<I>, O extends RealType<O>>
-		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Signum
+		extends AbstractUnaryComputerOp<I, O> implements Ops.Math.Signum,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.signum(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.signum(value);
 		}
 	}
 
@@ -801,12 +876,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Sin.class)
 	public static class Sin<I extends RealType<I>, O extends RealType<O>> extends
-		AbstractUnaryComputerOp<I, O> implements Ops.Math.Sin
+		AbstractUnaryComputerOp<I, O> implements Ops.Math.Sin,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.sin(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.sin(value);
 		}
 	}
 
@@ -871,13 +952,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Sqr.class)
 	public static class Sqr<I extends RealType<I>, O extends RealType<O>> extends
-		AbstractUnaryComputerOp<I, O> implements Ops.Math.Sqr
+		AbstractUnaryComputerOp<I, O> implements Ops.Math.Sqr,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			final double value = input.getRealDouble();
-			output.setReal(value * value);
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return value * value;
 		}
 	}
 
@@ -887,12 +973,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Sqrt.class)
 	public static class Sqrt<I extends RealType<I>, O extends RealType<O>> extends
-		AbstractUnaryComputerOp<I, O> implements Ops.Math.Sqrt
+		AbstractUnaryComputerOp<I, O> implements Ops.Math.Sqrt,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.sqrt(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.sqrt(value);
 		}
 	}
 
@@ -920,12 +1012,18 @@ public final class UnaryRealTypeMath {
 	 */
 	@Plugin(type = Ops.Math.Tan.class)
 	public static class Tan<I extends RealType<I>, O extends RealType<O>> extends
-		AbstractUnaryComputerOp<I, O> implements Ops.Math.Tan
+		AbstractUnaryComputerOp<I, O> implements Ops.Math.Tan,
+		DoubleUnaryOperator
 	{
 
 		@Override
 		public void compute1(final I input, final O output) {
-			output.setReal(Math.tan(input.getRealDouble()));
+			output.setReal(applyAsDouble(input.getRealDouble()));
+		}
+
+		@Override
+		public double applyAsDouble(final double value) {
+			return Math.tan(value);
 		}
 	}
 
@@ -370,7 +370,8 @@ public class MorphologyNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class)
+	@OpMethod(ops = { net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class,
+		net.imagej.ops.morphology.fillHoles.ScanlineFillHoles.class })
 	public <T extends BooleanType<T>> RandomAccessibleInterval<T> fillHoles(
 		final RandomAccessibleInterval<T> out, final RandomAccessibleInterval<T> in,
 		final StructuringElement structElement)
@@ -378,12 +379,13 @@ public class MorphologyNamespace extends AbstractNamespace {
 		@SuppressWarnings("unchecked")
 		final RandomAccessibleInterval<T> result =
 			(RandomAccessibleInterval<T>) ops().run(
-				net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class, out, in,
+				net.imagej.ops.Ops.Morphology.FillHoles.class, out, in,
 				structElement);
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class)
+	@OpMethod(ops = { net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class,
+		net.imagej.ops.morphology.fillHoles.ScanlineFillHoles.class })
 	public <T extends BooleanType<T>> RandomAccessibleInterval<T> fillHoles(
 		final RandomAccessibleInterval<T> out, final RandomAccessibleInterval<T> in,
 		final StructuringElement structElement, final boolean background)
@@ -391,23 +393,25 @@ public class MorphologyNamespace extends AbstractNamespace {
 		@SuppressWarnings("unchecked")
 		final RandomAccessibleInterval<T> result =
 			(RandomAccessibleInterval<T>) ops().run(
-				net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class, out, in,
+				net.imagej.ops.Ops.Morphology.FillHoles.class, out, in,
 				structElement, background);
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class)
+	@OpMethod(ops = { net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class,
+		net.imagej.ops.morphology.fillHoles.ScanlineFillHoles.class })
 	public <T extends BooleanType<T>> RandomAccessibleInterval<T> fillHoles(
 		final RandomAccessibleInterval<T> in)
 	{
 		@SuppressWarnings("unchecked")
 		final RandomAccessibleInterval<T> result =
 			(RandomAccessibleInterval<T>) ops().run(
-				net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class, in);
+				net.imagej.ops.Ops.Morphology.FillHoles.class, in);
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class)
+	@OpMethod(ops = { net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class,
+		net.imagej.ops.morphology.fillHoles.ScanlineFillHoles.class })
 	public <T extends BooleanType<T>> RandomAccessibleInterval<T> fillHoles(
 		final RandomAccessibleInterval<T> out,
 		final RandomAccessibleInterval<T> in)
@@ -415,11 +419,12 @@ public class MorphologyNamespace extends AbstractNamespace {
 		@SuppressWarnings("unchecked")
 		final RandomAccessibleInterval<T> result =
 			(RandomAccessibleInterval<T>) ops().run(
-				net.imagej.ops.morphology.fillHoles.DefaultFillHoles.class, out, in);
+				net.imagej.ops.Ops.Morphology.FillHoles.class, out, in);
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.morphology.floodFill.DefaultFloodFill.class)
+	@OpMethod(ops = { net.imagej.ops.morphology.floodFill.DefaultFloodFill.class,
+		net.imagej.ops.morphology.floodFill.ScanlineFloodFill.class })
 	public <T extends Type<T> & Comparable<T>> RandomAccessibleInterval<T>
 		floodFill(final RandomAccessibleInterval<T> out,
 			final RandomAccessibleInterval<T> in, final Localizable startPos,
@@ -428,12 +433,13 @@ public class MorphologyNamespace extends AbstractNamespace {
 		@SuppressWarnings("unchecked")
 		final RandomAccessibleInterval<T> result =
 			(RandomAccessibleInterval<T>) ops().run(
-				net.imagej.ops.morphology.floodFill.DefaultFloodFill.class, out, in, startPos,
+				net.imagej.ops.Ops.Morphology.FloodFill.class, out, in, startPos,
 				structElement);
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.morphology.floodFill.DefaultFloodFill.class)
+	@OpMethod(ops = { net.imagej.ops.morphology.floodFill.DefaultFloodFill.class,
+		net.imagej.ops.morphology.floodFill.ScanlineFloodFill.class })
 	public <T extends Type<T> & Comparable<T>> RandomAccessibleInterval<T>
 		floodFill(final RandomAccessibleInterval<T> in1, final Localizable in2,
 			final StructuringElement structElement)
@@ -441,7 +447,7 @@ public class MorphologyNamespace extends AbstractNamespace {
 		@SuppressWarnings("unchecked")
 		final RandomAccessibleInterval<T> result =
 			(RandomAccessibleInterval<T>) ops().run(
-				net.imagej.ops.morphology.floodFill.DefaultFloodFill.class, in1, in2,
+				net.imagej.ops.Ops.Morphology.FloodFill.class, in1, in2,
 				structElement);
 		return result;
 	}
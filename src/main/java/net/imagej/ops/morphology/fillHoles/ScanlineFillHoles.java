@@ -0,0 +1,163 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.morphology.fillHoles;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.create.img.CreateImgFromInterval;
+import net.imagej.ops.morphology.floodFill.SpanFill;
+import net.imagej.ops.special.chain.RAIs;
+import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
+import net.imagej.ops.thread.chunker.CursorBasedChunk;
+import net.imglib2.Cursor;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.labeling.ConnectedComponents.StructuringElement;
+import net.imglib2.type.BooleanType;
+import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Fills the holes of a BooleanType image.
+ * <p>
+ * All background elements on the border of the image seed a single
+ * {@link SpanFill}, which marks the exterior background. The output is then
+ * written in one sweep, in parallel chunks: the exterior becomes background,
+ * everything else foreground.
+ * </p>
+ */
+@Plugin(type = Ops.Morphology.FillHoles.class,
+	priority = Priority.HIGH_PRIORITY)
+public class ScanlineFillHoles<T extends BooleanType<T>> extends
+	AbstractUnaryHybridCF<RandomAccessibleInterval<T>, RandomAccessibleInterval<T>>
+	implements Ops.Morphology.FillHoles, Contingent, Parallel
+{
+
+	@Parameter(required = false)
+	private StructuringElement structElement = StructuringElement.EIGHT_CONNECTED;
+
+	@Parameter(required = false)
+	private boolean background = false;
+
+	private UnaryFunctionOp<RandomAccessibleInterval<T>, RandomAccessibleInterval<T>> createFunc;
+
+	@Override
+	public void initialize() {
+		createFunc = RAIs.function(ops(), CreateImgFromInterval.class, in());
+	}
+
+	@Override
+	public boolean conforms() {
+		return SpanFill.fits(in()) && (out() == null || Intervals
+			.equalDimensions(in(), out()));
+	}
+
+	@Override
+	public void compute1(final RandomAccessibleInterval<T> op,
+		final RandomAccessibleInterval<T> r)
+	{
+		final SpanFill<T> exterior = new SpanFill<>(op, t -> t
+			.get() == background, structElement);
+		seedBorder(op, exterior);
+		exterior.fill(null, null);
+
+		final Cursor<T> cursor = Views.flatIterable(r).cursor();
+		ops().thread().chunker(new CursorBasedChunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
+			{
+				final Cursor<T> c = cursor.copyCursor();
+				setToStart(c, startIndex);
+				long index = startIndex;
+				for (long i = 0; i < numSteps; i++) {
+					c.get().set(exterior.isVisited(index) ? background : !background);
+					c.jumpFwd(stepSize);
+					index += stepSize;
+				}
+			}
+		}, Intervals.numElements(r), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
+	}
+
+	@Override
+	public RandomAccessibleInterval<T> createOutput(
+		final RandomAccessibleInterval<T> input)
+	{
+		return createFunc.compute1(input);
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Seeds all background elements on the border: whole lines along dimension
+	 * 0 which lie on the border of another dimension, and the ends of all other
+	 * lines.
+	 */
+	private static <T extends BooleanType<T>> void seedBorder(final RandomAccessibleInterval<T> op,
+		final SpanFill<T> fill)
+	{
+		final int n = op.numDimensions();
+		final long width = op.dimension(0);
+		final long lines = Intervals.numElements(op) / width;
+		final long[] position = new long[n];
+		for (long line = 0; line < lines; line++) {
+			boolean border = false;
+			long rest = line;
+			for (int d = 1; d < n; d++) {
+				position[d] = rest % op.dimension(d);
+				rest /= op.dimension(d);
+				border |= position[d] == 0 || position[d] == op.dimension(d) - 1;
+			}
+			final long lineStart = line * width;
+			if (border) {
+				fill.seedRuns(lineStart, position, 0, width - 1);
+			}
+			else {
+				fill.seedRuns(lineStart, position, 0, 0);
+				fill.seedRuns(lineStart, position, width - 1, width - 1);
+			}
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.morphology.floodFill;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.create.img.CreateImgFromInterval;
+import net.imagej.ops.special.chain.RAIs;
+import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imagej.ops.special.hybrid.AbstractBinaryHybridCF;
+import net.imglib2.Localizable;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.labeling.ConnectedComponents.StructuringElement;
+import net.imglib2.type.Type;
+import net.imglib2.util.Intervals;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Flood fill which writes the value at the start position into all connected
+ * elements of the same value, using a {@link SpanFill}.
+ * <p>
+ * The input is not copied: elements of the output outside of the filled
+ * region are left untouched.
+ * </p>
+ */
+@Plugin(type = Ops.Morphology.FloodFill.class,
+	priority = Priority.HIGH_PRIORITY)
+public class ScanlineFloodFill<T extends Type<T> & Comparable<T>> extends
+	AbstractBinaryHybridCF<RandomAccessibleInterval<T>, Localizable, RandomAccessibleInterval<T>>
+	implements Ops.Morphology.FloodFill, Contingent
+{
+
+	@Parameter()
+	private StructuringElement structElement = StructuringElement.EIGHT_CONNECTED;
+
+	private UnaryFunctionOp<RandomAccessibleInterval<T>, RandomAccessibleInterval<T>> createFunc;
+
+	@Override
+	public void initialize() {
+		createFunc = RAIs.function(ops(), CreateImgFromInterval.class, in1());
+	}
+
+	@Override
+	public boolean conforms() {
+		if (!SpanFill.fits(in1())) return false;
+		if (in2() != null && in2().numDimensions() != in1().numDimensions()) {
+			return false;
+		}
+		return out() == null || Intervals.equalDimensions(in1(), out());
+	}
+
+	@Override
+	public void compute2(final RandomAccessibleInterval<T> op0,
+		final Localizable loc, final RandomAccessibleInterval<T> r)
+	{
+		final RandomAccess<T> op0c = op0.randomAccess();
+		op0c.setPosition(loc);
+		final T floodVal = op0c.get().copy();
+
+		final SpanFill<T> fill = new SpanFill<>(op0, t -> t.compareTo(
+			floodVal) == 0, structElement);
+		long index = 0;
+		for (int d = op0.numDimensions() - 1; d >= 0; d--) {
+			index = index * op0.dimension(d) + loc.getLongPosition(d) - op0.min(d);
+		}
+		fill.seed(index);
+		fill.fill(r, floodVal);
+	}
+
+	@Override
+	public RandomAccessibleInterval<T> createOutput(
+		final RandomAccessibleInterval<T> input1, final Localizable input2)
+	{
+		return createFunc.compute1(input1);
+	}
+}
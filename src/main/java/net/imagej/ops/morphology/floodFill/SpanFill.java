@@ -0,0 +1,259 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.morphology.floodFill;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.labeling.ConnectedComponents.StructuringElement;
+import net.imglib2.type.Type;
+import net.imglib2.util.Intervals;
+
+/**
+ * Scanline flood fill over the elements of an interval which satisfy a
+ * predicate.
+ * <p>
+ * The fill works on maximal runs of matching elements along dimension 0. Each
+ * run is marked in a visited bit set, and the neighbouring lines are scanned
+ * once for the starts of further runs, which are kept as flat indices in a
+ * ring buffer of primitive longs. The input is neither copied nor written to.
+ * </p>
+ */
+public final class SpanFill<T extends Type<T>> {
+
+	private final RandomAccessibleInterval<T> interval;
+	private final RandomAccess<T> access;
+	private final Predicate<T> inside;
+	private final int n;
+	private final long[] dims;
+	private final long[] strides;
+	private final long[] position;
+	private final long[][] offsets;
+	private final boolean diagonal;
+	private final long[] visited;
+
+	private long[] queue = new long[64];
+	private int head;
+	private int size;
+
+	/**
+	 * @param interval the elements to fill
+	 * @param inside whether an element belongs to the filled region
+	 * @param structElement the connectivity of the region
+	 */
+	public SpanFill(final RandomAccessibleInterval<T> interval,
+		final Predicate<T> inside, final StructuringElement structElement)
+	{
+		this.interval = interval;
+		this.inside = inside;
+		access = interval.randomAccess();
+		n = interval.numDimensions();
+		dims = Intervals.dimensionsAsLongArray(interval);
+		strides = new long[n];
+		long stride = 1;
+		for (int d = 0; d < n; d++) {
+			strides[d] = stride;
+			stride *= dims[d];
+		}
+		position = new long[n];
+		diagonal = structElement == StructuringElement.EIGHT_CONNECTED;
+		offsets = lineOffsets(n, diagonal);
+		visited = new long[(int) ((stride + 63) >>> 6)];
+	}
+
+	/**
+	 * Whether an interval is small enough for the visited bit set of a fill.
+	 */
+	public static boolean fits(final RandomAccessibleInterval<?> interval) {
+		return (Intervals.numElements(interval) + 63) >>> 6 < Integer.MAX_VALUE;
+	}
+
+	/** Adds the element at the given flat index to the seeds of the fill. */
+	public void seed(final long index) {
+		if (size == queue.length) {
+			// NB: Unroll the ring into a buffer of twice the size.
+			final long[] grown = new long[queue.length << 1];
+			final int tail = queue.length - head;
+			System.arraycopy(queue, head, grown, 0, tail);
+			System.arraycopy(queue, 0, grown, tail, head);
+			queue = grown;
+			head = 0;
+		}
+		final int slot = head + size;
+		queue[slot < queue.length ? slot : slot - queue.length] = index;
+		size++;
+	}
+
+	/**
+	 * Seeds the starts of the runs of matching, unvisited elements between
+	 * {@code from} and {@code to} of the line starting at the given flat index,
+	 * whose coordinates in dimensions 1 and above are in {@code linePosition}.
+	 */
+	public void seedRuns(final long lineStart, final long[] linePosition,
+		final long from, final long to)
+	{
+		setPosition(linePosition, from);
+		boolean previous = false;
+		for (long x = from; x <= to; x++) {
+			final boolean matches = !isVisited(lineStart + x) && inside.test(access
+				.get());
+			if (matches && !previous) seed(lineStart + x);
+			previous = matches;
+			access.fwd(0);
+		}
+	}
+
+	/**
+	 * Fills the regions of all seeds which satisfy the predicate.
+	 *
+	 * @param out if not {@code null}, receives {@code value} at the filled
+	 *          elements
+	 * @param value the value to write
+	 */
+	public void fill(final RandomAccessibleInterval<T> out, final T value) {
+		final RandomAccess<T> outAccess = out == null ? null : out.randomAccess();
+		final long width = dims[0];
+		final long[] neighbor = new long[n];
+		while (size > 0) {
+			final long index = queue[head];
+			head = head + 1 == queue.length ? 0 : head + 1;
+			size--;
+			if (isVisited(index)) continue;
+
+			long rest = index;
+			for (int d = 0; d < n; d++) {
+				position[d] = rest % dims[d];
+				rest /= dims[d];
+			}
+			final long x = position[0];
+			final long lineStart = index - x;
+			setPosition(position, x);
+			if (!inside.test(access.get())) continue;
+
+			// extend the run in both directions
+			long x0 = x;
+			while (x0 > 0 && !isVisited(lineStart + x0 - 1)) {
+				access.bck(0);
+				if (!inside.test(access.get())) break;
+				x0--;
+			}
+			long x1 = x;
+			setPosition(position, x);
+			while (x1 < width - 1 && !isVisited(lineStart + x1 + 1)) {
+				access.fwd(0);
+				if (!inside.test(access.get())) break;
+				x1++;
+			}
+
+			for (long i = x0; i <= x1; i++) {
+				visited[(int) ((lineStart + i) >>> 6)] |= 1L << (lineStart + i);
+			}
+			if (out != null) {
+				for (int d = 1; d < n; d++) {
+					outAccess.setPosition(out.min(d) + position[d], d);
+				}
+				outAccess.setPosition(out.min(0) + x0, 0);
+				for (long i = x0; i <= x1; i++) {
+					outAccess.get().set(value);
+					outAccess.fwd(0);
+				}
+			}
+
+			// scan the neighbouring lines
+			final long from = diagonal ? Math.max(0, x0 - 1) : x0;
+			final long to = diagonal ? Math.min(width - 1, x1 + 1) : x1;
+			for (final long[] offset : offsets) {
+				long neighborStart = lineStart;
+				boolean within = true;
+				for (int d = 1; d < n; d++) {
+					neighbor[d] = position[d] + offset[d];
+					if (neighbor[d] < 0 || neighbor[d] >= dims[d]) {
+						within = false;
+						break;
+					}
+					neighborStart += offset[d] * strides[d];
+				}
+				if (within) seedRuns(neighborStart, neighbor, from, to);
+			}
+		}
+	}
+
+	/** Whether the element at the given flat index has been filled. */
+	public boolean isVisited(final long index) {
+		return (visited[(int) (index >>> 6)] >>> index & 1) != 0;
+	}
+
+	// -- Helper methods --
+
+	private void setPosition(final long[] linePosition, final long x) {
+		access.setPosition(interval.min(0) + x, 0);
+		for (int d = 1; d < n; d++) {
+			access.setPosition(interval.min(d) + linePosition[d], d);
+		}
+	}
+
+	/**
+	 * The offsets of the lines along dimension 0 which neighbour a line, i.e.
+	 * the faces or the full 3^(n-1) - 1 neighbourhood in the other dimensions.
+	 */
+	private static long[][] lineOffsets(final int n, final boolean diagonal) {
+		final List<long[]> offsets = new ArrayList<>();
+		if (!diagonal) {
+			for (int d = 1; d < n; d++) {
+				for (final long step : new long[] { -1, 1 }) {
+					final long[] offset = new long[n];
+					offset[d] = step;
+					offsets.add(offset);
+				}
+			}
+			return offsets.toArray(new long[offsets.size()][]);
+		}
+		long count = 1;
+		for (int d = 1; d < n; d++) {
+			count *= 3;
+		}
+		for (long i = 0; i < count; i++) {
+			final long[] offset = new long[n];
+			boolean zero = true;
+			long rest = i;
+			for (int d = 1; d < n; d++) {
+				offset[d] = rest % 3 - 1;
+				rest /= 3;
+				zero &= offset[d] == 0;
+			}
+			if (!zero) offsets.add(offset);
+		}
+		return offsets.toArray(new long[offsets.size()][]);
+	}
+}
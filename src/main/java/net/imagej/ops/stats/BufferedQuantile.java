@@ -0,0 +1,220 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.stats;
+
+import java.util.Arrays;
+
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imglib2.type.numeric.IntegerType;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * {@link Op} to calculate the n-th {@code stats.quantile} without boxing the
+ * samples.
+ * <p>
+ * The samples are copied into a {@code double[]} buffer which is reused
+ * across calls of the same op instance (see {@link #getIndependentInstance()}
+ * for multi-threaded use). For {@link IntegerType} samples whose value range
+ * does not exceed the number of samples (e.g. large neighborhoods of 8- or
+ * 16-bit images), the quantile is found by counting the values in a reusable
+ * histogram; otherwise quickselect is run on the buffer. Both paths yield the
+ * same result as {@link DefaultQuantile}.
+ * </p>
+ * 
+ * @param <I> input type
+ * @param <O> output type
+ */
+@Plugin(type = Ops.Stats.Quantile.class, label = "Statistics: Quantile",
+	priority = Priority.HIGH_PRIORITY)
+public class BufferedQuantile<I extends RealType<I>, O extends RealType<O>>
+	extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.Quantile
+{
+
+	/** Maximum number of bins of the counting histogram. */
+	private static final int MAX_HISTOGRAM_SIZE = 1 << 16;
+
+	@Parameter(min = "0.0", max = "1.0")
+	private double quantile;
+
+	private double[] values = new double[16];
+
+	private int[] histogram;
+
+	@Override
+	public void compute1(final Iterable<I> input, final O output) {
+		int size = 0;
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		boolean integer = true;
+		for (final I type : input) {
+			if (size == 0) integer = type instanceof IntegerType;
+			if (size == values.length) values = Arrays.copyOf(values, 2 * size);
+			final double value = type.getRealDouble();
+			values[size++] = value;
+			if (value < min) min = value;
+			if (value > max) max = value;
+		}
+
+		if (size == 0) {
+			output.setReal(Double.NaN);
+			return;
+		}
+
+		final int k = Math.min(size - 1, (int) (size * quantile));
+		final double range = max - min + 1;
+		if (integer && range <= size && range <= MAX_HISTOGRAM_SIZE) {
+			output.setReal(countingSelect(size, (long) min, (int) range, k));
+		}
+		else {
+			output.setReal(select(values, 0, size - 1, k));
+		}
+	}
+
+	// -- Threadable methods --
+
+	@Override
+	public BufferedQuantile<I, O> getIndependentInstance() {
+		final BufferedQuantile<I, O> instance = new BufferedQuantile<>();
+		instance.setEnvironment(ops());
+		instance.quantile = quantile;
+		return instance;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Returns the value of the kth lowest element by counting the occurrences of
+	 * each value. Do note that for nth lowest element, k = n - 1.
+	 */
+	private double countingSelect(final int size, final long min,
+		final int range, final int k)
+	{
+		if (histogram == null || histogram.length < range) {
+			histogram = new int[range];
+		}
+		else {
+			Arrays.fill(histogram, 0, range, 0);
+		}
+
+		for (int i = 0; i < size; i++) {
+			histogram[(int) ((long) values[i] - min)]++;
+		}
+
+		int count = 0;
+		for (int bin = 0; bin < range; bin++) {
+			count += histogram[bin];
+			if (count > k) return min + bin;
+		}
+		throw new IllegalStateException("Histogram does not contain " + size +
+			" values");
+	}
+
+	/**
+	 * Returns the value of the kth lowest element. Do note that for nth lowest
+	 * element, k = n - 1.
+	 */
+	private static double select(final double[] array, final int inLeft,
+		final int inRight, final int k)
+	{
+
+		int left = inLeft;
+		int right = inRight;
+
+		while (true) {
+
+			if (right <= left + 1) {
+
+				if (right == left + 1 && array[right] < array[left]) {
+					swap(array, left, right);
+				}
+
+				return array[k];
+
+			}
+			final int middle = (left + right) >>> 1;
+			swap(array, middle, left + 1);
+
+			if (array[left] > array[right]) {
+				swap(array, left, right);
+			}
+
+			if (array[left + 1] > array[right]) {
+				swap(array, left + 1, right);
+			}
+
+			if (array[left] > array[left + 1]) {
+				swap(array, left, left + 1);
+			}
+
+			int i = left + 1;
+			int j = right;
+			final double pivot = array[left + 1];
+
+			while (true) {
+				do
+					++i;
+				while (array[i] < pivot);
+				do
+					--j;
+				while (array[j] > pivot);
+
+				if (j < i) {
+					break;
+				}
+
+				swap(array, i, j);
+			}
+
+			array[left + 1] = array[j];
+			array[j] = pivot;
+
+			if (j >= k) {
+				right = j - 1;
+			}
+
+			if (j <= k) {
+				left = i;
+			}
+		}
+	}
+
+	/** Helper method for swapping array entries */
+	private static void swap(final double[] array, final int a, final int b) {
+		final double temp = array[a];
+		array[a] = array[b];
+		array[b] = temp;
+	}
+}
@@ -32,15 +32,15 @@ package net.imagej.ops.stats;
 
 import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
-import net.imagej.ops.special.chain.RTs;
+import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imglib2.type.numeric.RealType;
 
 import org.scijava.plugin.Plugin;
 
 /**
- * {@link Op} to calculate the {@code stats.kurtosis} using {@code stats.stdDev}
- * and {@code stats.moment4AboutMean}.
+ * {@link Op} to calculate the {@code stats.kurtosis} from the
+ * {@code stats.summary}.
  * 
  * @author Daniel Seebacher (University of Konstanz)
  * @author Christian Dietz (University of Konstanz)
@@ -52,26 +52,16 @@ public class DefaultKurtosis<I extends RealType<I>, O extends RealType<O>>
 	extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.Kurtosis
 {
 
-	private UnaryFunctionOp<Iterable<I>, O> stdDevFunc;
-	
-	private UnaryFunctionOp<Iterable<I>, O> moment4AboutMeanFunc;
+	private UnaryFunctionOp<Iterable<I>, StatsSummary> summaryFunc;
 
 	@Override
 	public void initialize() {
-		stdDevFunc = RTs.function(ops(), Ops.Stats.StdDev.class, in());
-		moment4AboutMeanFunc = RTs.function(ops(), Ops.Stats.Moment4AboutMean.class, in());
+		summaryFunc = Functions.unary(ops(), Ops.Stats.Summary.class,
+			StatsSummary.class, in());
 	}
-	
+
 	@Override
 	public void compute1(final Iterable<I> input, final O output) {
-		output.setReal(Double.NaN);
-
-		final double std = stdDevFunc.compute1(input).getRealDouble();
-		final double moment4 =
-				moment4AboutMeanFunc.compute1(input).getRealDouble();
-
-		if (std != 0) {
-			output.setReal((moment4) / (std * std * std * std));
-		}
+		output.setReal(summaryFunc.compute1(input).getKurtosis());
 	}
 }
@@ -67,4 +67,15 @@ public class DefaultMedian<I extends RealType<I>, O extends RealType<O>> extends
 		op.compute1(input, output);
 	}
 
+	// -- Threadable methods --
+
+	@Override
+	public DefaultMedian<I, O> getIndependentInstance() {
+		// NB: The quantile op may hold buffers which cannot be shared.
+		final DefaultMedian<I, O> instance = new DefaultMedian<>();
+		instance.setEnvironment(ops());
+		instance.op = op.getIndependentInstance();
+		return instance;
+	}
+
 }
@@ -32,15 +32,15 @@ package net.imagej.ops.stats;
 
 import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
-import net.imagej.ops.special.chain.RTs;
+import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imglib2.type.numeric.RealType;
 
 import org.scijava.plugin.Plugin;
 
 /**
- * {@link Op} to calculate the {@code stats.moment2AboutMean} using
- * {@code stats.mean} and {@code stats.size}.
+ * {@link Op} to calculate the {@code stats.moment2AboutMean} from the
+ * {@code stats.summary}.
  * 
  * @author Daniel Seebacher (University of Konstanz)
  * @author Christian Dietz (University of Konstanz)
@@ -51,27 +51,17 @@ import org.scijava.plugin.Plugin;
 public class DefaultMoment2AboutMean<I extends RealType<I>, O extends RealType<O>>
 	extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.Moment2AboutMean
 {
-	
-	private UnaryFunctionOp<Iterable<I>, O> meanFunc;
-	private UnaryFunctionOp<Iterable<I>, O> sizeFunc;
+
+	private UnaryFunctionOp<Iterable<I>, StatsSummary> summaryFunc;
 
 	@Override
 	public void initialize() {
-		meanFunc = RTs.function(ops(), Ops.Stats.Mean.class, in());
-		sizeFunc = RTs.function(ops(), Ops.Stats.Size.class, in());
+		summaryFunc = Functions.unary(ops(), Ops.Stats.Summary.class,
+			StatsSummary.class, in());
 	}
 
 	@Override
 	public void compute1(final Iterable<I> input, final O output) {
-		final double mean = meanFunc.compute1(input).getRealDouble();
-		final double size = sizeFunc.compute1(input).getRealDouble();
-
-		double res = 0;
-		for (final I in : input) {
-			final double val = in.getRealDouble() - mean;
-			res += val * val;
-		}
-
-		output.setReal(res / size);
+		output.setReal(summaryFunc.compute1(input).getMoment2AboutMean());
 	}
 }
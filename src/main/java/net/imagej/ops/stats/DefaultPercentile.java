@@ -70,4 +70,16 @@ public class DefaultPercentile<I extends RealType<I>, O extends RealType<O>> ext
 	public void compute1(final Iterable<I> input, final O output) {
 		op.compute1(input, output);
 	}
+
+	// -- Threadable methods --
+
+	@Override
+	public DefaultPercentile<I, O> getIndependentInstance() {
+		// NB: The quantile op may hold buffers which cannot be shared.
+		final DefaultPercentile<I, O> instance = new DefaultPercentile<>();
+		instance.setEnvironment(ops());
+		instance.percent = percent;
+		instance.op = op.getIndependentInstance();
+		return instance;
+	}
 }
@@ -32,15 +32,15 @@ package net.imagej.ops.stats;
 
 import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
-import net.imagej.ops.special.chain.RTs;
+import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imglib2.type.numeric.RealType;
 
 import org.scijava.plugin.Plugin;
 
 /**
- * {@link Op} to calculate the {@code stats.skewness} using
- * {@code stats.moment3AboutMean} and {@code stats.stdDev}.
+ * {@link Op} to calculate the {@code stats.skewness} from the
+ * {@code stats.summary}.
  * 
  * @author Daniel Seebacher (University of Konstanz)
  * @author Christian Dietz (University of Konstanz)
@@ -52,24 +52,16 @@ public class DefaultSkewness<I extends RealType<I>, O extends RealType<O>>
 	extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.Skewness
 {
 
-	private UnaryFunctionOp<Iterable<I>, O> moment3AboutMeanFunc;
-	private UnaryFunctionOp<Iterable<I>, O> stdDevFunc;
+	private UnaryFunctionOp<Iterable<I>, StatsSummary> summaryFunc;
 
 	@Override
 	public void initialize() {
-		moment3AboutMeanFunc = RTs.function(ops(), Ops.Stats.Moment3AboutMean.class, in());
-		stdDevFunc = RTs.function(ops(), Ops.Stats.StdDev.class, in());
+		summaryFunc = Functions.unary(ops(), Ops.Stats.Summary.class,
+			StatsSummary.class, in());
 	}
-	
+
 	@Override
 	public void compute1(final Iterable<I> input, final O output) {
-		final double moment3 =
-				moment3AboutMeanFunc.compute1(input).getRealDouble();
-		final double std = stdDevFunc.compute1(input).getRealDouble();
-
-		output.setReal(Double.NaN);
-		if (std != 0) {
-			output.setReal((moment3) / (std * std * std));
-		}
+		output.setReal(summaryFunc.compute1(input).getSkewness());
 	}
 }
@@ -32,15 +32,15 @@ package net.imagej.ops.stats;
 
 import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
-import net.imagej.ops.special.chain.RTs;
+import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imglib2.type.numeric.RealType;
 
 import org.scijava.plugin.Plugin;
 
 /**
- * {@link Op} to calculate the {@code stats.stdDev} using
- * {@code stats.variance}.
+ * {@link Op} to calculate the {@code stats.stdDev} from the
+ * {@code stats.summary}.
  * 
  * @author Daniel Seebacher (University of Konstanz)
  * @author Christian Dietz (University of Konstanz)
@@ -51,17 +51,17 @@ import org.scijava.plugin.Plugin;
 public class DefaultStandardDeviation<I extends RealType<I>, O extends RealType<O>>
 	extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.StdDev
 {
-	
-	private UnaryFunctionOp<Iterable<I>, O> varianceFunc;
+
+	private UnaryFunctionOp<Iterable<I>, StatsSummary> summaryFunc;
 
 	@Override
 	public void initialize() {
-		varianceFunc = RTs.function(ops(), Ops.Stats.Variance.class, in());
+		summaryFunc = Functions.unary(ops(), Ops.Stats.Summary.class,
+			StatsSummary.class, in());
 	}
 
 	@Override
 	public void compute1(final Iterable<I> input, final O output) {
-		output.setReal(varianceFunc.compute1(input).getRealDouble());
+		output.setReal(summaryFunc.compute1(input).getStdDev());
 	}
-
 }
@@ -32,15 +32,15 @@ package net.imagej.ops.stats;
 
 import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
-import net.imagej.ops.special.chain.RTs;
+import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imglib2.type.numeric.RealType;
 
 import org.scijava.plugin.Plugin;
 
 /**
- * {@link Op} to calculate the {@code stats.variance} using the
- * {@code stats.stdDev} using the two-pass algorithm.
+ * {@link Op} to calculate the {@code stats.variance} from the
+ * {@code stats.summary}.
  * 
  * @author Daniel Seebacher (University of Konstanz)
  * @author Christian Dietz (University of Konstanz)
@@ -54,28 +54,17 @@ import org.scijava.plugin.Plugin;
 public class DefaultVariance<I extends RealType<I>, O extends RealType<O>>
 	extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.Variance
 {
-	
-	private UnaryFunctionOp<Iterable<I>, O> meanOp;
+
+	private UnaryFunctionOp<Iterable<I>, StatsSummary> summaryFunc;
 
 	@Override
 	public void initialize() {
-		meanOp = RTs.function(ops(), Ops.Stats.Mean.class, in());
+		summaryFunc = Functions.unary(ops(), Ops.Stats.Summary.class,
+			StatsSummary.class, in());
 	}
 
 	@Override
 	public void compute1(final Iterable<I> input, final O output) {
-
-		double mean = meanOp.compute1(input).getRealDouble();
-
-		int n = 0;
-		double sum = 0d;
-
-		for (I in : input) {
-			n++;
-			double x = in.getRealDouble();
-			sum += (x - mean) * (x - mean);
-		}
-
-		output.setReal(sum / (n - 1));
+		output.setReal(summaryFunc.compute1(input).getVariance());
 	}
 }
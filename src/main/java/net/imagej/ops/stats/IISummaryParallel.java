@@ -0,0 +1,115 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.stats;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
+import net.imglib2.Cursor;
+import net.imglib2.IterableInterval;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Plugin;
+
+/**
+ * {@link Op} to calculate the {@code stats.summary} of an
+ * {@link IterableInterval} in parallel chunks, whose partial summaries are
+ * merged afterwards.
+ * 
+ * @param <I> input type
+ * @see StatsSummary#merge(StatsSummary)
+ */
+@Plugin(type = Ops.Stats.Summary.class, label = "Statistics: Summary",
+	priority = Priority.HIGH_PRIORITY)
+public class IISummaryParallel<I extends RealType<I>> extends
+	AbstractUnaryHybridCF<IterableInterval<I>, StatsSummary> implements
+	Ops.Stats.Summary, Parallel
+{
+
+	/** Inputs with fewer elements are summarized by the calling thread. */
+	private static final long MIN_PARALLEL_SIZE = 1 << 16;
+
+	@Override
+	public void compute1(final IterableInterval<I> input,
+		final StatsSummary output)
+	{
+		output.reset();
+		if (input.size() < MIN_PARALLEL_SIZE) {
+			output.addAll(input);
+			return;
+		}
+
+		// NB: Merge the chunks in a fixed order, for reproducible rounding.
+		final Map<Long, StatsSummary> partials = new TreeMap<>();
+		ops().thread().chunker(new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
+			{
+				final StatsSummary partial = new StatsSummary();
+				final Cursor<I> cursor = input.cursor();
+				cursor.jumpFwd(startIndex + 1);
+				for (long i = 0; i < numSteps; i++) {
+					partial.add(cursor.get().getRealDouble());
+					cursor.jumpFwd(stepSize);
+				}
+				synchronized (partials) {
+					partials.put(startIndex, partial);
+				}
+			}
+		}, input.size(), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
+
+		for (final StatsSummary partial : partials.values()) {
+			output.merge(partial);
+		}
+	}
+
+	@Override
+	public StatsSummary createOutput(final IterableInterval<I> input) {
+		return new StatsSummary();
+	}
+
+}
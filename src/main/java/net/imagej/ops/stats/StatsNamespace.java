@@ -319,14 +319,16 @@ public class StatsNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.DefaultQuantile.class)
+	@OpMethod(ops = { net.imagej.ops.stats.DefaultQuantile.class,
+		net.imagej.ops.stats.BufferedQuantile.class })
 	public <T extends RealType<T>, O extends RealType<O>> O quantile(final Iterable<T> in, final double quantile) {
 		final O result =
 			(O) ops().run(net.imagej.ops.Ops.Stats.Quantile.class, in, quantile);
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.DefaultQuantile.class)
+	@OpMethod(ops = { net.imagej.ops.stats.DefaultQuantile.class,
+		net.imagej.ops.stats.BufferedQuantile.class })
 	public <T extends RealType<T>, O extends RealType<O>> O quantile(final O out, final Iterable<T> in, final double quantile) {
 		final O result =
 			(O) ops().run(net.imagej.ops.Ops.Stats.Quantile.class, out, in, quantile);
@@ -476,6 +478,40 @@ public class StatsNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(op = net.imagej.ops.stats.IISummaryParallel.class)
+	public <T extends RealType<T>> StatsSummary summary(
+		final IterableInterval<T> in)
+	{
+		final StatsSummary result = (StatsSummary) ops().run(
+			net.imagej.ops.Ops.Stats.Summary.class, in);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.stats.IISummaryParallel.class)
+	public <T extends RealType<T>> StatsSummary summary(final StatsSummary out,
+		final IterableInterval<T> in)
+	{
+		final StatsSummary result = (StatsSummary) ops().run(
+			net.imagej.ops.Ops.Stats.Summary.class, out, in);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.stats.DefaultSummary.class)
+	public <T extends RealType<T>> StatsSummary summary(final Iterable<T> in) {
+		final StatsSummary result = (StatsSummary) ops().run(
+			net.imagej.ops.Ops.Stats.Summary.class, in);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.stats.DefaultSummary.class)
+	public <T extends RealType<T>> StatsSummary summary(final StatsSummary out,
+		final Iterable<T> in)
+	{
+		final StatsSummary result = (StatsSummary) ops().run(
+			net.imagej.ops.Ops.Stats.Summary.class, out, in);
+		return result;
+	}
+
 	@OpMethod(ops = { net.imagej.ops.stats.DefaultVariance.class,
 		net.imagej.ops.stats.IterableVariance.class })
 	public <T extends RealType<T>, O extends RealType<O>> O variance(
@@ -0,0 +1,219 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.stats;
+
+import net.imglib2.type.numeric.RealType;
+
+/**
+ * Moment based descriptive statistics of a set of values, accumulated in a
+ * single pass.
+ * <p>
+ * Values are added with the numerically stable online updates of Welford and
+ * Terriberry, and two summaries of disjoint sets of values can be
+ * {@link #merge merged}, e.g. to combine the partial results of parallel
+ * chunks. The statistics are defined in the same way as the corresponding
+ * {@code stats} ops.
+ * </p>
+ * 
+ * @see <a href=
+ *      "https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Higher-order_statistics">
+ *      Wikipedia</a>
+ */
+public class StatsSummary {
+
+	private long n;
+
+	private double mean;
+
+	// NB: Sums of the 2nd, 3rd and 4th powers of the deviations from the mean.
+	private double m2;
+	private double m3;
+	private double m4;
+
+	private double sum;
+
+	private double min = Double.POSITIVE_INFINITY;
+
+	private double max = Double.NEGATIVE_INFINITY;
+
+	// -- StatsSummary methods --
+
+	/** Adds a value to the summary. */
+	public void add(final double x) {
+		final double n1 = n;
+		n++;
+		final double delta = x - mean;
+		final double deltaN = delta / n;
+		final double deltaN2 = deltaN * deltaN;
+		final double term1 = delta * deltaN * n1;
+		mean += deltaN;
+		m4 += term1 * deltaN2 * ((double) n * n - 3 * n + 3) + 6 * deltaN2 * m2 -
+			4 * deltaN * m3;
+		m3 += term1 * deltaN * (n - 2) - 3 * deltaN * m2;
+		m2 += term1;
+
+		sum += x;
+		if (x < min) min = x;
+		if (x > max) max = x;
+	}
+
+	/** Adds all values of the given {@link Iterable} to the summary. */
+	public void addAll(final Iterable<? extends RealType<?>> values) {
+		for (final RealType<?> value : values) {
+			add(value.getRealDouble());
+		}
+	}
+
+	/**
+	 * Merges the given summary of a disjoint set of values into this summary,
+	 * as if its values had been added to this summary.
+	 */
+	public void merge(final StatsSummary other) {
+		if (other.n == 0) return;
+		if (n == 0) {
+			set(other);
+			return;
+		}
+
+		final double na = n;
+		final double nb = other.n;
+		final double nn = na + nb;
+		final double delta = other.mean - mean;
+		final double delta2 = delta * delta;
+
+		final double newM4 = m4 + other.m4 + delta2 * delta2 * na * nb * (na * na -
+			na * nb + nb * nb) / (nn * nn * nn) + 6 * delta2 * (na * na * other.m2 +
+				nb * nb * m2) / (nn * nn) + 4 * delta * (na * other.m3 - nb * m3) / nn;
+		final double newM3 = m3 + other.m3 + delta2 * delta * na * nb * (na - nb) /
+			(nn * nn) + 3 * delta * (na * other.m2 - nb * m2) / nn;
+		m2 += other.m2 + delta2 * na * nb / nn;
+		m3 = newM3;
+		m4 = newM4;
+		mean += delta * nb / nn;
+		n += other.n;
+
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/** Copies the state of the given summary into this one. */
+	public void set(final StatsSummary other) {
+		n = other.n;
+		mean = other.mean;
+		m2 = other.m2;
+		m3 = other.m3;
+		m4 = other.m4;
+		sum = other.sum;
+		min = other.min;
+		max = other.max;
+	}
+
+	/** Resets the summary to the summary of no values. */
+	public void reset() {
+		set(new StatsSummary());
+	}
+
+	/** Gets the number of values. */
+	public long getSize() {
+		return n;
+	}
+
+	/** Gets the sum of the values. */
+	public double getSum() {
+		return sum;
+	}
+
+	/** Gets the smallest value, or positive infinity if there are no values. */
+	public double getMin() {
+		return min;
+	}
+
+	/** Gets the largest value, or negative infinity if there are no values. */
+	public double getMax() {
+		return max;
+	}
+
+	/** Gets the arithmetic mean, or {@code NaN} if there are no values. */
+	public double getMean() {
+		return n == 0 ? Double.NaN : mean;
+	}
+
+	/**
+	 * Gets the (bias corrected) sample variance, or {@code NaN} if there are
+	 * less than two values.
+	 */
+	public double getVariance() {
+		return n < 2 ? Double.NaN : m2 / (n - 1);
+	}
+
+	/** Gets the square root of the {@link #getVariance() variance}. */
+	public double getStdDev() {
+		return Math.sqrt(getVariance());
+	}
+
+	/** Gets the second central moment, i.e. the population variance. */
+	public double getMoment2AboutMean() {
+		return m2 / n;
+	}
+
+	/** Gets the third central moment. */
+	public double getMoment3AboutMean() {
+		return m3 / n;
+	}
+
+	/** Gets the fourth central moment. */
+	public double getMoment4AboutMean() {
+		return m4 / n;
+	}
+
+	/**
+	 * Gets the skewness, i.e. the third central moment divided by the cubed
+	 * {@link #getStdDev() standard deviation}, or {@code NaN} if the standard
+	 * deviation is zero.
+	 */
+	public double getSkewness() {
+		final double std = getStdDev();
+		return std == 0 ? Double.NaN : getMoment3AboutMean() / (std * std * std);
+	}
+
+	/**
+	 * Gets the kurtosis, i.e. the fourth central moment divided by the fourth
+	 * power of the {@link #getStdDev() standard deviation}, or {@code NaN} if
+	 * the standard deviation is zero.
+	 */
+	public double getKurtosis() {
+		final double std = getStdDev();
+		return std == 0 ? Double.NaN : getMoment4AboutMean() /
+			(std * std * std * std);
+	}
+
+}
@@ -61,7 +61,7 @@ public abstract class AbstractChunker extends AbstractOp implements ChunkerOp {
 	protected long numberOfElements;
 
 	/** Reason for cancelation, or null if not canceled. */
-	private String cancelReason;
+	private volatile String cancelReason;
 
 	// -- Chunker methods --
 
@@ -75,6 +75,11 @@ public abstract class AbstractChunker extends AbstractOp implements ChunkerOp {
 		this.numberOfElements = totalSize;
 	}
 
+	@Override
+	public void setNumberOfElements(final long totalSize) {
+		this.numberOfElements = totalSize;
+	}
+
 	// -- Cancelable methods --
 
 	@Override
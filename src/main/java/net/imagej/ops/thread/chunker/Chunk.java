@@ -57,4 +57,34 @@ public interface Chunk {
 	 */
 	void execute(int startIndex, int stepSize, int numSteps);
 
+	/**
+	 * Solve the subproblem for the element at startIndex, increase the index by
+	 * the given stepSize and repeat numSteps. This variant is used by
+	 * {@link ChunkerOp}s which support more than {@link Integer#MAX_VALUE}
+	 * elements.
+	 * <p>
+	 * The default implementation delegates to
+	 * {@link #execute(int, int, int)}, and thus only accepts subproblems whose
+	 * indices fit into an {@code int}. {@link Chunk}s which shall be able to
+	 * process larger problems need to override this method.
+	 * </p>
+	 * 
+	 * @param startIndex zero based index that identifies the first element of
+	 *          this subproblem (w.r.t. the global problem enumeration)
+	 * @param stepSize the step-size between two consecutive elements
+	 * @param numSteps how many steps shall be taken
+	 */
+	default void execute(final long startIndex, final long stepSize,
+		final long numSteps)
+	{
+		final long lastIndex = startIndex + stepSize * Math.max(0, numSteps - 1);
+		if (lastIndex > Integer.MAX_VALUE || stepSize > Integer.MAX_VALUE ||
+			numSteps > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Index " + lastIndex +
+				" exceeds the int range of " + getClass().getName());
+		}
+		execute((int) startIndex, (int) stepSize, (int) numSteps);
+	}
+
 }
@@ -0,0 +1,134 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.thread.chunker;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import net.imagej.ops.Ops;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Work-stealing implementation of a {@link ChunkerOp}. The range of elements
+ * is recursively split in halves by a {@link ForkJoinPool}, until the
+ * resulting chunks reach the grain size. Idle threads steal pending chunks from
+ * busy ones, such that elements with uneven processing costs do not leave
+ * cores idle. Each chunk consists of consecutive elements.
+ * <p>
+ * The grain size is the larger of the (optional) minimum grain size and a
+ * fraction of the elements per thread. By default, the minimum grain size is
+ * one, such that few coarse elements (tiles, slabs, blocks) are still
+ * processed in parallel; callers which chunk over single pixels should pass
+ * {@link #PIXEL_GRAIN_SIZE} instead. Cancellation is checked before each
+ * chunk is processed, and a failing chunk cancels all chunks which have not
+ * been started yet. The number of elements may exceed
+ * {@link Integer#MAX_VALUE}, in which case the {@link Chunk} needs to override
+ * {@link Chunk#execute(long, long, long)}.
+ * </p>
+ * <p>
+ * The chunks run on the common {@link ForkJoinPool} rather than on the threads
+ * of the {@link org.scijava.thread.ThreadService}. Hence, this chunker has a
+ * lower priority than {@link DefaultChunker}, and callers opt in explicitly by
+ * passing a minimum grain size.
+ * </p>
+ */
+@Plugin(type = Ops.Thread.Chunker.class, priority = Priority.LOW_PRIORITY)
+public class ChunkerForkJoin extends AbstractChunker {
+
+	/** Suggested minimum grain size for chunks of single pixels. */
+	public static final long PIXEL_GRAIN_SIZE = 256;
+
+	/** Number of chunks which are created per thread, at most. */
+	private static final int CHUNKS_PER_THREAD = 8;
+
+	/** Minimum number of elements processed by a single chunk. */
+	@Parameter(required = false)
+	private long minGrainSize = 1;
+
+	@Override
+	public void run() {
+		if (numberOfElements <= 0) return;
+
+		final ForkJoinPool pool = ForkJoinPool.commonPool();
+		final long maxChunks = (long) pool.getParallelism() * CHUNKS_PER_THREAD;
+		final long grainSize = Math.max(Math.max(1, minGrainSize),
+			(numberOfElements + maxChunks - 1) / maxChunks);
+
+		pool.invoke(new ChunkAction(0, numberOfElements, grainSize));
+	}
+
+	// -- Helper classes --
+
+	/** Processes a range of elements, splitting it if it is too large. */
+	private class ChunkAction extends RecursiveAction {
+
+		private final long startIndex;
+		private final long numSteps;
+		private final long grainSize;
+
+		public ChunkAction(final long startIndex, final long numSteps,
+			final long grainSize)
+		{
+			this.startIndex = startIndex;
+			this.numSteps = numSteps;
+			this.grainSize = grainSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (isCanceled()) return;
+
+			if (numSteps <= grainSize) {
+				try {
+					chunkable.execute(startIndex, 1L, numSteps);
+				}
+				catch (final RuntimeException | Error exc) {
+					// NB: Prevent pending chunks from being processed.
+					cancel(exc.getMessage() == null ? exc.toString() : exc
+						.getMessage());
+					throw exc;
+				}
+				return;
+			}
+
+			final long half = numSteps / 2;
+			final ChunkAction right = new ChunkAction(startIndex + half, numSteps -
+				half, grainSize);
+			right.fork();
+			new ChunkAction(startIndex, half, grainSize).compute();
+			right.join();
+		}
+	}
+
+}
@@ -48,4 +48,7 @@ public interface ChunkerOp extends Ops.Thread.Chunker, Cancelable {
 	/** Sets the total number of elements which should be processed in parallel. */
 	void setNumberOfElements(final int numberOfElements);
 
+	/** Sets the total number of elements which should be processed in parallel. */
+	void setNumberOfElements(final long numberOfElements);
+
 }
@@ -58,6 +58,7 @@ public class DefaultChunker extends AbstractChunker {
 
 	@Override
 	public void run() {
+		if (numberOfElements <= 0) return;
 
 		// TODO: is there a better way to determine the optimal chunk size?
 		
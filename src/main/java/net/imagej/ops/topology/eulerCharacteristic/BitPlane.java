@@ -0,0 +1,185 @@
+package net.imagej.ops.topology.eulerCharacteristic;
+
+import net.imagej.ops.OpEnvironment;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.type.BooleanType;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A 2D plane of a 3D binary image, packed into bit words
+ * <p>
+ * Each row is stored in its own run of longs, with voxel u at bit u + 1. Together with an empty row above and below
+ * the plane, this leaves a background margin of one voxel around it, so that 2x2 neighborhoods reaching one voxel
+ * beyond the plane can be read without bounds checks.
+ * </p>
+ */
+final class BitPlane {
+    /**
+     * Minimum number of slabs per parallel chunk
+     * <p>
+     * A slab is a whole plane of work, so even stacks of a few slices are split among the threads. Within a chunk,
+     * consecutive slabs share a plane.
+     * </p>
+     */
+    static final long SLAB_GRAIN_SIZE = 2;
+
+    private final int width;
+    private final int height;
+    private final int rowWords;
+    private final long[] words;
+
+    /** Creates an empty plane of the given size */
+    BitPlane(final long width, final long height) {
+        this.width = (int) width;
+        this.height = (int) height;
+        rowWords = (this.width + 1) / 64 + 2;
+        words = new long[(this.height + 2) * rowWords];
+    }
+
+    /**
+     * Reads the plane at position w of dimension wDim of the interval, streaming each row along uDim
+     *
+     * @implNote Planes outside the interval are background
+     */
+    <B extends BooleanType<B>> void read(final RandomAccess<B> access, final RandomAccessibleInterval<B> interval,
+                                         final int uDim, final int vDim, final int wDim, final long w) {
+        Arrays.fill(words, 0);
+        if (w < 0 || w >= interval.dimension(wDim)) {
+            return;
+        }
+
+        access.setPosition(interval.min(wDim) + w, wDim);
+        for (int v = 0; v < height; v++) {
+            access.setPosition(interval.min(uDim), uDim);
+            access.setPosition(interval.min(vDim) + v, vDim);
+            final int offset = (v + 1) * rowWords;
+            for (int u = 0; u < width; u++) {
+                if (access.get().get()) {
+                    final int bit = u + 1;
+                    words[offset + (bit >>> 6)] |= 1L << bit;
+                }
+                access.fwd(uDim);
+            }
+        }
+    }
+
+    /** Returns 1 if the voxel at (u, v) is foreground, and 0 otherwise, also outside the plane */
+    int get(final long u, final long v) {
+        if (u < 0 || u >= width || v < 0 || v >= height) {
+            return 0;
+        }
+        final int bit = (int) u + 1;
+        return (int) (words[((int) v + 1) * rowWords + (bit >>> 6)] >>> bit) & 1;
+    }
+
+    /**
+     * Sums the LUT values of all 2x2x2 neighborhoods of the given 3D interval
+     * <p>
+     * The LUT is indexed like {@link EulerCharacteristic26N#neighborhoodEulerIndex}, i.e. bit 0 is the voxel at
+     * (x, y, z), bit 1 the one at (x + 1, y, z), bit 2 at (x, y + 1, z) and so forth. If padded, the neighborhoods
+     * which reach one voxel beyond the interval are included, and voxels outside the interval are background.
+     * </p><p>
+     * The Z-slab pairs are processed in parallel. Each thread packs its planes into bit words, and moves along the
+     * rows with shifts, skipping empty words.
+     * </p>
+     */
+    static <B extends BooleanType<B>> long sumOctants(final OpEnvironment ops,
+                                                      final RandomAccessibleInterval<B> interval, final int[] lut,
+                                                      final boolean padded) {
+        final long xSize = interval.dimension(0);
+        final long ySize = interval.dimension(1);
+        final long zSize = interval.dimension(2);
+        // neighborhoods start at x = first...xSize - 1 - last, and alike for y and z
+        final int first = padded ? -1 : 0;
+        final int last = padded ? 0 : 1;
+        final long slabs = zSize - first - last;
+        if (xSize - first - last <= 0 || ySize - first - last <= 0 || slabs <= 0) {
+            return 0;
+        }
+
+        final AtomicLong sum = new AtomicLong();
+        ops.thread().chunker(new Chunk() {
+            @Override
+            public void execute(final int startIndex, final int stepSize, final int numSteps) {
+                final RandomAccess<B> access = interval.randomAccess();
+                BitPlane lower = new BitPlane(xSize, ySize);
+                BitPlane upper = new BitPlane(xSize, ySize);
+                long previous = Long.MIN_VALUE;
+                long partialSum = 0;
+
+                for (int i = 0; i < numSteps; i++) {
+                    final long z = (long) startIndex + (long) i * stepSize + first;
+                    if (z == previous + 1) {
+                        // NB: Reuse the shared plane of consecutive slabs
+                        final BitPlane swap = lower;
+                        lower = upper;
+                        upper = swap;
+                    } else {
+                        lower.read(access, interval, 0, 1, 2, z);
+                    }
+                    upper.read(access, interval, 0, 1, 2, z + 1);
+                    previous = z;
+                    partialSum += sumSlab(lower, upper, lut, first, last);
+                }
+
+                sum.addAndGet(partialSum);
+            }
+        }, slabs, SLAB_GRAIN_SIZE);
+
+        return sum.get();
+    }
+
+    /** Sums the LUT values of the 2x2x2 neighborhoods between two planes */
+    private static long sumSlab(final BitPlane lower, final BitPlane upper, final int[] lut, final int first,
+                                final int last) {
+        final long[] l = lower.words;
+        final long[] u = upper.words;
+        final int rowWords = lower.rowWords;
+        // bit positions of the neighborhoods' first voxels
+        final int firstBit = first + 1;
+        final int lastBit = lower.width - last;
+        long sum = 0;
+
+        for (int y = first; y < lower.height - last; y++) {
+            final int a = (y + 1) * rowWords;
+            final int b = a + rowWords;
+            for (int w = firstBit >>> 6; w <= lastBit >>> 6; w++) {
+                final long la = l[a + w];
+                final long lb = l[b + w];
+                final long ua = u[a + w];
+                final long ub = u[b + w];
+                final long nextLa = l[a + w + 1];
+                final long nextLb = l[b + w + 1];
+                final long nextUa = u[a + w + 1];
+                final long nextUb = u[b + w + 1];
+                if ((la | lb | ua | ub) == 0 && ((nextLa | nextLb | nextUa | nextUb) & 1) == 0) {
+                    // NB: Empty neighborhoods don't change χ
+                    continue;
+                }
+
+                final int from = Math.max(firstBit, w << 6);
+                final int to = Math.min(lastBit, (w << 6) + 63);
+                for (int bit = from; bit <= to; bit++) {
+                    final int s = bit & 63;
+                    final int index;
+                    if (s < 63) {
+                        index = (int) ((la >>> s) & 3) | (int) ((lb >>> s) & 3) << 2 | (int) ((ua >>> s) & 3) << 4 |
+                                (int) ((ub >>> s) & 3) << 6;
+                    } else {
+                        index = (int) ((la >>> 63) | (nextLa & 1) << 1) |
+                                (int) ((lb >>> 63) | (nextLb & 1) << 1) << 2 |
+                                (int) ((ua >>> 63) | (nextUa & 1) << 1) << 4 |
+                                (int) ((ub >>> 63) | (nextUb & 1) << 1) << 6;
+                    }
+                    sum += lut[index];
+                }
+            }
+        }
+
+        return sum;
+    }
+}
@@ -2,6 +2,7 @@ package net.imagej.ops.topology.eulerCharacteristic;
 
 import net.imagej.ops.Contingent;
 import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
 import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
 import net.imglib2.RandomAccess;
 import net.imglib2.RandomAccessibleInterval;
@@ -41,7 +42,7 @@ import org.scijava.plugin.Plugin;
 @Plugin(type = Ops.Topology.EulerCharacteristic26N.class)
 public class EulerCharacteristic26N<B extends BooleanType<B>>
         extends AbstractUnaryHybridCF<RandomAccessibleInterval<B>, DoubleType>
-        implements Ops.Topology.EulerCharacteristic26N, Contingent {
+        implements Ops.Topology.EulerCharacteristic26N, Contingent, Parallel {
     /** Δχ(v) for all configurations of a 2x2x2 voxel neighborhood */
     private static final int[] EULER_LUT = {
              0,  1,  1,  0,  1,  0, -2, -1,  1, -2,  0, -1,  0, -1, -1,  0,
@@ -68,17 +69,7 @@ public class EulerCharacteristic26N<B extends BooleanType<B>>
 
     @Override
     public void compute1(RandomAccessibleInterval<B> interval, DoubleType output) {
-        final RandomAccess<B> access = interval.randomAccess();
-        long sumDeltaEuler = 0;
-
-        for (long z = 0; z < interval.dimension(2) - 1; z++) {
-            for (long y = 0; y < interval.dimension(1) - 1; y++) {
-                for (long x = 0; x < interval.dimension(0) - 1; x++) {
-                    int index = neighborhoodEulerIndex(access, x, y, z);
-                    sumDeltaEuler += EULER_LUT[index];
-                }
-            }
-        }
+        final long sumDeltaEuler = BitPlane.sumOctants(ops(), interval, EULER_LUT, false);
 
         output.set(sumDeltaEuler / 8.0);
     }
@@ -2,6 +2,7 @@ package net.imagej.ops.topology.eulerCharacteristic;
 
 import net.imagej.ops.Contingent;
 import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
 import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
 import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.type.BooleanType;
@@ -43,7 +44,7 @@ import org.scijava.plugin.Plugin;
 @Plugin(type = Ops.Topology.EulerCharacteristic26NFloating.class)
 public class EulerCharacteristic26NFloating
         <B extends BooleanType<B>> extends AbstractUnaryHybridCF<RandomAccessibleInterval<B>, DoubleType>
-        implements Ops.Topology.EulerCharacteristic26NFloating, Contingent {
+        implements Ops.Topology.EulerCharacteristic26NFloating, Contingent, Parallel {
     /** Δχ(v) for all configurations of a 2x2x2 voxel neighborhood */
     private static final int[] EULER_LUT = new int[256];
 
@@ -184,6 +185,17 @@ public class EulerCharacteristic26NFloating
     }
     //endregion
 
+    /** Δχ(v) indexed like {@link EulerCharacteristic26N#neighborhoodEulerIndex} */
+    private static final int[] OCTANT_LUT = new int[256];
+
+    static {
+        for (int index = 0; index < 256; index++) {
+            // NB: Octant numbers the neighbors in y before x, so swap the x and y bits
+            final int neighborhood = index & 0b10011001 | (index & 0b00100010) << 1 | (index & 0b01000100) >>> 1;
+            OCTANT_LUT[index] = getDeltaEuler(neighborhood);
+        }
+    }
+
     /** The algorithm is defined only for 3D images */
     @Override
     public boolean conforms() {
@@ -192,17 +204,7 @@ public class EulerCharacteristic26NFloating
 
     @Override
     public void compute1(RandomAccessibleInterval<B> interval, DoubleType output) {
-        final Octant<B> octant = new Octant<>(interval);
-        int sumDeltaEuler = 0;
-
-        for (int z = 0; z <= interval.dimension(2); z++) {
-            for (int y = 0; y <= interval.dimension(1); y++) {
-                for (int x = 0; x <= interval.dimension(0); x++) {
-                    octant.setNeighborhood(x, y, z);
-                    sumDeltaEuler += getDeltaEuler(octant);
-                }
-            }
-        }
+        final long sumDeltaEuler = BitPlane.sumOctants(ops(), interval, OCTANT_LUT, true);
 
         output.set(sumDeltaEuler / 8.0);
     }
@@ -210,50 +212,58 @@ public class EulerCharacteristic26NFloating
     @Override
     public DoubleType createOutput(RandomAccessibleInterval<B> input) { return new DoubleType(0.0); }
 
-    /** Determines the Δχ from Toriwaki & Yonekura value for this 2x2x2 neighborhood */
-    private static int getDeltaEuler(final Octant octant) {
-        if (octant.isNeighborhoodEmpty()) {
+    /**
+     * Determines the Δχ from Toriwaki & Yonekura value for this 2x2x2 neighborhood
+     *
+     * @param neighborhood the neighbors of an {@link Octant}, bit n - 1 being set if neighbor n is foreground
+     */
+    private static int getDeltaEuler(final int neighborhood) {
+        if (neighborhood == 0) {
             return 0;
         }
 
         int index = 1;
-        if (octant.isNeighborForeground(8)) {
-            if (octant.isNeighborForeground(1)) { index |= 128; }
-            if (octant.isNeighborForeground(2)) { index |= 64; }
-            if (octant.isNeighborForeground(3)) { index |= 32; }
-            if (octant.isNeighborForeground(4)) { index |= 16; }
-            if (octant.isNeighborForeground(5)) { index |= 8; }
-            if (octant.isNeighborForeground(6)) { index |= 4; }
-            if (octant.isNeighborForeground(7)) { index |= 2; }
-        } else if (octant.isNeighborForeground(7)) {
-            if (octant.isNeighborForeground(2)) { index |= 128; }
-            if (octant.isNeighborForeground(4)) { index |= 64; }
-            if (octant.isNeighborForeground(1)) { index |= 32; }
-            if (octant.isNeighborForeground(3)) { index |= 16; }
-            if (octant.isNeighborForeground(6)) { index |= 8; }
-            if (octant.isNeighborForeground(5)) { index |= 2; }
-        } else if (octant.isNeighborForeground(6)) {
-            if (octant.isNeighborForeground(3)) { index |= 128; }
-            if (octant.isNeighborForeground(1)) { index |= 64; }
-            if (octant.isNeighborForeground(4)) { index |= 32; }
-            if (octant.isNeighborForeground(2)) { index |= 16; }
-            if (octant.isNeighborForeground(5)) { index |= 4; }
-        } else if (octant.isNeighborForeground(5)) {
-            if (octant.isNeighborForeground(4)) { index |= 128; }
-            if (octant.isNeighborForeground(3)) { index |= 64; }
-            if (octant.isNeighborForeground(2)) { index |= 32; }
-            if (octant.isNeighborForeground(1)) { index |= 16; }
-        } else if (octant.isNeighborForeground(4)) {
-            if (octant.isNeighborForeground(1)) { index |= 8; }
-            if (octant.isNeighborForeground(3)) { index |= 4; }
-            if (octant.isNeighborForeground(2)) { index |= 2; }
-        } else if (octant.isNeighborForeground(3)) {
-            if (octant.isNeighborForeground(2)) { index |= 8; }
-            if (octant.isNeighborForeground(1)) { index |= 4; }
-        } else if (octant.isNeighborForeground(2)) {
-            if (octant.isNeighborForeground(1)) { index |= 2; }
+        if (isForeground(neighborhood, 8)) {
+            if (isForeground(neighborhood, 1)) { index |= 128; }
+            if (isForeground(neighborhood, 2)) { index |= 64; }
+            if (isForeground(neighborhood, 3)) { index |= 32; }
+            if (isForeground(neighborhood, 4)) { index |= 16; }
+            if (isForeground(neighborhood, 5)) { index |= 8; }
+            if (isForeground(neighborhood, 6)) { index |= 4; }
+            if (isForeground(neighborhood, 7)) { index |= 2; }
+        } else if (isForeground(neighborhood, 7)) {
+            if (isForeground(neighborhood, 2)) { index |= 128; }
+            if (isForeground(neighborhood, 4)) { index |= 64; }
+            if (isForeground(neighborhood, 1)) { index |= 32; }
+            if (isForeground(neighborhood, 3)) { index |= 16; }
+            if (isForeground(neighborhood, 6)) { index |= 8; }
+            if (isForeground(neighborhood, 5)) { index |= 2; }
+        } else if (isForeground(neighborhood, 6)) {
+            if (isForeground(neighborhood, 3)) { index |= 128; }
+            if (isForeground(neighborhood, 1)) { index |= 64; }
+            if (isForeground(neighborhood, 4)) { index |= 32; }
+            if (isForeground(neighborhood, 2)) { index |= 16; }
+            if (isForeground(neighborhood, 5)) { index |= 4; }
+        } else if (isForeground(neighborhood, 5)) {
+            if (isForeground(neighborhood, 4)) { index |= 128; }
+            if (isForeground(neighborhood, 3)) { index |= 64; }
+            if (isForeground(neighborhood, 2)) { index |= 32; }
+            if (isForeground(neighborhood, 1)) { index |= 16; }
+        } else if (isForeground(neighborhood, 4)) {
+            if (isForeground(neighborhood, 1)) { index |= 8; }
+            if (isForeground(neighborhood, 3)) { index |= 4; }
+            if (isForeground(neighborhood, 2)) { index |= 2; }
+        } else if (isForeground(neighborhood, 3)) {
+            if (isForeground(neighborhood, 2)) { index |= 8; }
+            if (isForeground(neighborhood, 1)) { index |= 4; }
+        } else if (isForeground(neighborhood, 2)) {
+            if (isForeground(neighborhood, 1)) { index |= 2; }
         }
 
         return EULER_LUT[index];
     }
+
+    private static boolean isForeground(final int neighborhood, final int n) {
+        return (neighborhood & (1 << (n - 1))) != 0;
+    }
 }
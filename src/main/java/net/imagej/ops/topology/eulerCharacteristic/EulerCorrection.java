@@ -342,16 +342,17 @@ public class EulerCorrection<B extends BooleanType<B>>
     //region -- Helper methods --
     private static <B extends BooleanType<B>> int getAtLocation(final Traverser<B> traverser, final long x,
                                                                 final long y, final long z) {
-        traverser.access.setPosition(x, 0);
-        traverser.access.setPosition(y, 1);
-        traverser.access.setPosition(z, 2);
-        final double realDouble = traverser.access.get().getRealDouble();
-
-        return (int) realDouble;
+        return traverser.get(x, y, z);
     }
     //endregion
 
-    /** A convenience class for passing parameters */
+    /**
+     * A convenience class for passing parameters
+     * <p>
+     * The correction only needs the voxels on the faces of the stack, so the traverser reads the six faces into
+     * {@link BitPlane}s once, streaming along their rows.
+     * </p>
+     */
     public static class Traverser<B extends BooleanType<B>> {
         public final long x0 = 0;
         public final long y0 = 0;
@@ -363,6 +364,9 @@ public class EulerCorrection<B extends BooleanType<B>>
         public final long ySize;
         public final long zSize;
         public final RandomAccess<B> access;
+        private final BitPlane[] xFaces = new BitPlane[2];
+        private final BitPlane[] yFaces = new BitPlane[2];
+        private final BitPlane[] zFaces = new BitPlane[2];
 
         public Traverser(RandomAccessibleInterval<B> interval) {
             xSize = interval.dimension(0);
@@ -372,6 +376,37 @@ public class EulerCorrection<B extends BooleanType<B>>
             y1 = ySize - 1;
             z1 = zSize - 1;
             access = Views.extendZero(interval).randomAccess();
+
+            final RandomAccess<B> faceAccess = interval.randomAccess();
+            for (int i = 0; i < 2; i++) {
+                xFaces[i] = new BitPlane(ySize, zSize);
+                xFaces[i].read(faceAccess, interval, 1, 2, 0, i == 0 ? x0 : x1);
+                yFaces[i] = new BitPlane(xSize, zSize);
+                yFaces[i].read(faceAccess, interval, 0, 2, 1, i == 0 ? y0 : y1);
+                zFaces[i] = new BitPlane(xSize, ySize);
+                zFaces[i].read(faceAccess, interval, 0, 1, 2, i == 0 ? z0 : z1);
+            }
+        }
+
+        /** Returns 1 if the voxel at (x, y, z) is foreground, and 0 otherwise, also outside the stack */
+        public int get(final long x, final long y, final long z) {
+            if (x < 0 || x >= xSize || y < 0 || y >= ySize || z < 0 || z >= zSize) {
+                return 0;
+            }
+            if (z == z0 || z == z1) {
+                return zFaces[z == z0 ? 0 : 1].get(x, y);
+            }
+            if (y == y0 || y == y1) {
+                return yFaces[y == y0 ? 0 : 1].get(x, z);
+            }
+            if (x == x0 || x == x1) {
+                return xFaces[x == x0 ? 0 : 1].get(y, z);
+            }
+            // NB: Not needed by the correction, but read it anyway
+            access.setPosition(x, 0);
+            access.setPosition(y, 1);
+            access.setPosition(z, 2);
+            return (int) access.get().getRealDouble();
         }
     }
 }
@@ -601,7 +601,8 @@ public class TransformNamespace extends AbstractNamespace {
 	/** Executes the "project" operation on the given arguments. */
 	@OpMethod(ops = {
 			net.imagej.ops.transform.project.DefaultProjectParallel.class,
-			net.imagej.ops.transform.project.ProjectRAIToIterableInterval.class })
+			net.imagej.ops.transform.project.ProjectRAIToIterableInterval.class,
+			net.imagej.ops.transform.project.ProjectStreaming.class })
 	public <T, V> IterableInterval<V> project(final IterableInterval<V> out,
 			final RandomAccessibleInterval<T> in,
 			final UnaryComputerOp<Iterable<T>, V> method, final int dim) {
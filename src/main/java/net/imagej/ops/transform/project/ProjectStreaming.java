@@ -0,0 +1,304 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.transform.project;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.special.computer.AbstractUnaryComputerOp;
+import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
+import net.imagej.ops.thread.chunker.CursorBasedChunk;
+import net.imglib2.Cursor;
+import net.imglib2.FlatIterationOrder;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.cell.CellImg;
+import net.imglib2.img.planar.PlanarImg;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Projects along a dimension by streaming over the input in its own iteration
+ * order, for the associative reductions sum, mean, min, max, size and
+ * variance.
+ * <p>
+ * The input is split into chunks which are processed in parallel. Each worker
+ * thread accumulates its chunks into its own buffer of output size, and the
+ * buffers are merged once all chunks are done. As no {@link net.imglib2.RandomAccess} is needed,
+ * {@link PlanarImg}s are read plane by plane and {@link CellImg}s cell by
+ * cell. Variances are computed in two passes, the second one summing the
+ * squared deviations from the means of the first.
+ * </p>
+ * 
+ * @see DefaultProjectParallel
+ */
+@Plugin(type = Ops.Transform.Project.class, priority = Priority.HIGH_PRIORITY)
+public class ProjectStreaming<T extends RealType<T>, V extends RealType<V>>
+	extends
+	AbstractUnaryComputerOp<RandomAccessibleInterval<T>, IterableInterval<V>>
+	implements Contingent, Parallel, Ops.Transform.Project
+{
+
+	/** The reductions this op supports. */
+	private enum Reduction {
+			SUM, MEAN, MIN, MAX, SIZE, VARIANCE
+	}
+
+	@Parameter
+	private UnaryComputerOp<Iterable<T>, V> method;
+
+	// dimension which will be projected
+	@Parameter
+	private int dim;
+
+	@Override
+	public void compute1(final RandomAccessibleInterval<T> input,
+		final IterableInterval<V> output)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<T> in = (IterableInterval<T>) input;
+		final Reduction reduction = reduction(method);
+		final long n = input.dimension(dim);
+
+		final double[] values;
+		switch (reduction) {
+			case SIZE:
+				values = new double[(int) output.size()];
+				Arrays.fill(values, n);
+				break;
+			case MIN:
+			case MAX:
+				values = accumulate(in, reduction, null);
+				break;
+			default:
+				values = accumulate(in, Reduction.SUM, null);
+		}
+		if (reduction == Reduction.MEAN) {
+			for (int i = 0; i < values.length; i++) {
+				values[i] /= n;
+			}
+		}
+		else if (reduction == Reduction.VARIANCE) {
+			for (int i = 0; i < values.length; i++) {
+				values[i] /= n;
+			}
+			final double[] m2 = accumulate(in, Reduction.VARIANCE, values);
+			for (int i = 0; i < values.length; i++) {
+				values[i] = n < 2 ? Double.NaN : m2[i] / (n - 1);
+			}
+		}
+
+		final Cursor<V> cursor = output.localizingCursor();
+		final long[] position = new long[output.numDimensions()];
+		final boolean flat = output.iterationOrder() instanceof FlatIterationOrder;
+		int index = 0;
+		while (cursor.hasNext()) {
+			cursor.fwd();
+			if (!flat) {
+				cursor.localize(position);
+				index = (int) flatIndex(position, output);
+			}
+			cursor.get().setReal(values[index++]);
+		}
+	}
+
+	@Override
+	public boolean conforms() {
+		if (!(in() instanceof IterableInterval) || reduction(method) == null) {
+			return false;
+		}
+		if (dim < 0 || dim >= in().numDimensions() || in().numDimensions() != out()
+			.numDimensions() + 1 || in().dimension(dim) == 0 || out()
+				.size() > Integer.MAX_VALUE)
+		{
+			return false;
+		}
+		for (int d = 0; d < out().numDimensions(); d++) {
+			if (out().dimension(d) != in().dimension(d < dim ? d : d + 1)) {
+				return false;
+			}
+		}
+		return out().size() == 0 || ((IterableInterval<?>) in())
+			.firstElement() instanceof RealType && out()
+				.firstElement() instanceof RealType;
+	}
+
+	// -- Helper methods --
+
+	private static Reduction reduction(final Object op) {
+		if (op instanceof Ops.Stats.Sum) return Reduction.SUM;
+		if (op instanceof Ops.Stats.Mean) return Reduction.MEAN;
+		if (op instanceof Ops.Stats.Min) return Reduction.MIN;
+		if (op instanceof Ops.Stats.Max) return Reduction.MAX;
+		if (op instanceof Ops.Stats.Size) return Reduction.SIZE;
+		if (op instanceof Ops.Stats.Variance) return Reduction.VARIANCE;
+		return null;
+	}
+
+	/**
+	 * Reduces the input along {@link #dim}, in parallel chunks of its iteration
+	 * order. {@link Reduction#VARIANCE} sums the squared deviations from the
+	 * given means.
+	 */
+	private double[] accumulate(final IterableInterval<T> in,
+		final Reduction reduction, final double[] means)
+	{
+		final int size = (int) (in.size() / in.dimension(dim));
+		// NB: A thread processes one chunk at a time, so it can reuse its buffer.
+		final Map<Thread, double[]> buffers = new ConcurrentHashMap<>();
+
+		// in flat iteration order, the projected index follows from the index
+		final boolean flat = in.iterationOrder() instanceof FlatIterationOrder;
+		long inner = 1;
+		for (int d = 0; d < dim; d++) {
+			inner *= in.dimension(d);
+		}
+		final long innerSize = inner;
+		final long outerSize = inner * in.dimension(dim);
+
+		ops().thread().chunker(new CursorBasedChunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				execute((long) startIndex, stepSize, numSteps);
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
+			{
+				final double[] buffer = buffers.computeIfAbsent(Thread.currentThread(),
+					thread -> {
+						final double[] b = new double[size];
+						Arrays.fill(b, identity(reduction));
+						return b;
+					});
+
+				final Cursor<T> cursor = flat ? in.cursor() : in.localizingCursor();
+				final long[] position = new long[in.numDimensions()];
+				setToStart(cursor, startIndex);
+
+				long i = startIndex;
+				for (long k = 0; k < numSteps; k++) {
+					final int index;
+					if (flat) {
+						index = (int) (i % innerSize + i / outerSize * innerSize);
+					}
+					else {
+						cursor.localize(position);
+						index = (int) projectedIndex(position, in);
+					}
+					final double value = cursor.get().getRealDouble();
+					switch (reduction) {
+						case MIN:
+							if (value < buffer[index]) buffer[index] = value;
+							break;
+						case MAX:
+							if (value > buffer[index]) buffer[index] = value;
+							break;
+						case VARIANCE: {
+							final double delta = value - means[index];
+							buffer[index] += delta * delta;
+							break;
+						}
+						default:
+							buffer[index] += value;
+					}
+					cursor.jumpFwd(stepSize);
+					i += stepSize;
+				}
+			}
+		}, in.size(), ChunkerForkJoin.PIXEL_GRAIN_SIZE);
+
+		final double[] result = new double[size];
+		Arrays.fill(result, identity(reduction));
+		for (final double[] buffer : buffers.values()) {
+			for (int j = 0; j < size; j++) {
+				switch (reduction) {
+					case MIN:
+						result[j] = Math.min(result[j], buffer[j]);
+						break;
+					case MAX:
+						result[j] = Math.max(result[j], buffer[j]);
+						break;
+					default:
+						result[j] += buffer[j];
+				}
+			}
+		}
+		return result;
+	}
+
+	private static double identity(final Reduction reduction) {
+		switch (reduction) {
+			case MIN:
+				return Double.POSITIVE_INFINITY;
+			case MAX:
+				return Double.NEGATIVE_INFINITY;
+			default:
+				return 0;
+		}
+	}
+
+	/** Gets the flat index of the projection of an input position. */
+	private long projectedIndex(final long[] position,
+		final IterableInterval<?> in)
+	{
+		long index = 0;
+		for (int d = in.numDimensions() - 1; d >= 0; d--) {
+			if (d == dim) continue;
+			index = index * in.dimension(d) + position[d] - in.min(d);
+		}
+		return index;
+	}
+
+	/** Gets the flat index of an output position. */
+	private static long flatIndex(final long[] position,
+		final IterableInterval<?> out)
+	{
+		long index = 0;
+		for (int d = out.numDimensions() - 1; d >= 0; d--) {
+			index = index * out.dimension(d) + position[d] - out.min(d);
+		}
+		return index;
+	}
+
+}
@@ -42,6 +42,10 @@ import net.imglib2.type.numeric.real.DoubleType;
 
 import org.junit.Test;
 import org.scijava.ItemIO;
+import org.scijava.Priority;
+import org.scijava.convert.AbstractConverter;
+import org.scijava.convert.ConversionRequest;
+import org.scijava.convert.Converter;
 import org.scijava.module.Module;
 import org.scijava.plugin.Attr;
 import org.scijava.plugin.Parameter;
@@ -77,6 +81,40 @@ public class OpMatchingServiceTest extends AbstractOpTest {
 		assertTrue(Double.isNaN(value.get()));
 	}
 
+	/**
+	 * Tests that repeated requests for the same op yield fresh modules populated
+	 * with the new arguments.
+	 */
+	@Test
+	public void testRepeatedMatch() {
+		for (int i = 0; i < 3; i++) {
+			final DoubleType value = new DoubleType(i);
+			final OpCandidate match = matcher.findMatch(ops, OpRef.create("test.nan",
+				value));
+			assertSame(NaNOp.class, match.getModule().getDelegateObject()
+				.getClass());
+			assertSame(value, match.getModule().getInput("arg"));
+		}
+		assertMatches("test.dessert.gelati", RichGelato.class);
+		assertMatches("italianIceCream", RichGelato.class);
+	}
+
+	/**
+	 * Tests that a match which needed a value-dependent conversion is not reused
+	 * for other values of the same class.
+	 */
+	@Test
+	public void testValueDependentConversion() {
+		// NB: No scoops of nothing, so the cone is the only match.
+		assertSame(ConeOp.class, matcher.findMatch(ops, OpRef.create("test.scoop",
+			new Amount(0))).getModule().getDelegateObject().getClass());
+		assertSame(ScoopsOp.class, matcher.findMatch(ops, OpRef.create(
+			"test.scoop", new Amount(2))).getModule().getDelegateObject()
+			.getClass());
+		assertSame(ConeOp.class, matcher.findMatch(ops, OpRef.create("test.scoop",
+			new Amount(0))).getModule().getDelegateObject().getClass());
+	}
+
 	/** Tests support for matching when there are optional parameters. */
 	@Test
 	public void testOptionalParams() {
@@ -210,6 +248,90 @@ public class OpMatchingServiceTest extends AbstractOpTest {
 		}
 	}
 
+	public static class Amount {
+
+		private final int value;
+
+		public Amount(final int value) {
+			this.value = value;
+		}
+	}
+
+	public static class Scoops {
+		// NB: Only the type matters.
+	}
+
+	public static class Cone {
+		// NB: Only the type matters.
+	}
+
+	/** Converts positive {@link Amount}s only. */
+	@Plugin(type = Converter.class)
+	public static class AmountToScoopsConverter extends
+		AbstractConverter<Amount, Scoops>
+	{
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T convert(final Object src, final Class<T> dest) {
+			return (T) new Scoops();
+		}
+
+		@Override
+		public boolean supports(final ConversionRequest request) {
+			final Object src = request.sourceObject();
+			if (src instanceof Amount && ((Amount) src).value <= 0) return false;
+			return super.supports(request);
+		}
+
+		@Override
+		public Class<Scoops> getOutputType() {
+			return Scoops.class;
+		}
+
+		@Override
+		public Class<Amount> getInputType() {
+			return Amount.class;
+		}
+	}
+
+	@Plugin(type = Converter.class)
+	public static class AmountToConeConverter extends
+		AbstractConverter<Amount, Cone>
+	{
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T convert(final Object src, final Class<T> dest) {
+			return (T) new Cone();
+		}
+
+		@Override
+		public Class<Cone> getOutputType() {
+			return Cone.class;
+		}
+
+		@Override
+		public Class<Amount> getInputType() {
+			return Amount.class;
+		}
+	}
+
+	@Plugin(type = Op.class, name = "test.scoop",
+		priority = Priority.HIGH_PRIORITY)
+	public static class ScoopsOp extends NoOp {
+
+		@Parameter
+		private Scoops scoops;
+	}
+
+	@Plugin(type = Op.class, name = "test.scoop")
+	public static class ConeOp extends NoOp {
+
+		@Parameter
+		private Cone cone;
+	}
+
 	@Plugin(type = Op.class)
 	public static class OptionalParams extends AbstractOp {
 
@@ -37,10 +37,12 @@ import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
 import net.imagej.ops.map.MapIIInplaceParallel;
 import net.imagej.ops.map.MapIterableInplace;
+import net.imagej.ops.map.MapPrimitiveArrays;
 import net.imagej.ops.map.MapUnaryComputers.IIToII;
 import net.imagej.ops.map.MapUnaryComputers.IIToIIParallel;
 import net.imagej.ops.map.MapUnaryComputers.IIToRAI;
 import net.imagej.ops.map.MapUnaryComputers.IIToRAIParallel;
+import net.imagej.ops.special.computer.Computers;
 import net.imglib2.img.Img;
 import net.imglib2.type.numeric.NumericType;
 import net.imglib2.type.numeric.integer.ByteType;
@@ -55,7 +57,8 @@ import org.junit.rules.TestRule;
  * {@link IIToRAI},
  * {@link IIToII},
  * {@link IIToRAIParallel},
- * {@link IIToIIParallel}
+ * {@link IIToIIParallel},
+ * {@link MapPrimitiveArrays.IIToII}
  * 
  * @author Christian Dietz (University of Konstanz)
  */
@@ -66,6 +69,7 @@ public class MappersBenchmarkTest extends AbstractOpBenchmark {
 	private Img<ByteType> out;
 	private Op addConstant;
 	private Op addConstantInplace;
+	private Op abs;
 
 	/** Needed for JUnit-Benchmarks */
 	@Rule
@@ -82,6 +86,8 @@ public class MappersBenchmarkTest extends AbstractOpBenchmark {
 		addConstantInplace =
 			ops.op(AddConstantInplace.class, NumericType.class,
 				new ByteType((byte) 5));
+		abs = Computers.unary(ops, Ops.Math.Abs.class, ByteType.class,
+			ByteType.class);
 	}
 
 	@Test
@@ -105,6 +111,16 @@ public class MappersBenchmarkTest extends AbstractOpBenchmark {
 			addConstant);
 	}
 
+	@Test
+	public void pixelWiseTestCursorMapperII() {
+		ops.run(IIToIIParallel.class, out, in, abs);
+	}
+
+	@Test
+	public void pixelWiseTestPrimitiveArrayMapper() {
+		ops.run(MapPrimitiveArrays.IIToII.class, out, in, abs);
+	}
+
 	@Test
 	public void pixelWiseTestMapperInplace() {
 		ops.run(MapIterableInplace.class, in, addConstantInplace);
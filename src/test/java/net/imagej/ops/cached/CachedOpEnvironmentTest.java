@@ -106,6 +106,52 @@ public class CachedOpEnvironmentTest extends AbstractOpTest {
 		assertEquals(2.0, hybrid.compute1(imgB).getRealDouble(), 0.0);
 	}
 
+	@Test
+	public void testBoundedCache() {
+		ctr = 0;
+
+		// NB: Room for a single DoubleType output only.
+		final BoundedOpCache cache = new BoundedOpCache(16, 1,
+			BoundedOpCache::estimateSize);
+		env.setCache(cache);
+
+		assertEquals(1.0, func.compute1(imgA).get(), 0.0);
+		assertEquals(1.0, func.compute1(imgA).get(), 0.0);
+		assertEquals(2.0, func.compute1(imgB).get(), 0.0);
+
+		// imgA was evicted by imgB
+		assertEquals(3.0, func.compute1(imgA).get(), 0.0);
+
+		assertEquals(1, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+		assertEquals(2, cache.getEvictionCount());
+		assertEquals(1, cache.size());
+		assertEquals(16, cache.weight());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(4.0, func.compute1(imgA).get(), 0.0);
+	}
+
+	@Test
+	public void testBoundedCacheSegments() {
+		ctr = 0;
+
+		// NB: The maximum weight is shared by all segments.
+		final BoundedOpCache cache = new BoundedOpCache(16, 16,
+			BoundedOpCache::estimateSize);
+		env.setCache(cache);
+
+		assertEquals(1.0, func.compute1(imgA).get(), 0.0);
+		assertEquals(1.0, func.compute1(imgA).get(), 0.0);
+		assertEquals(2.0, func.compute1(imgB).get(), 0.0);
+
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(1, cache.size());
+		assertEquals(16, cache.weight());
+	}
+
 	// some specialized ops to track number of counts
 	public static class MyMin extends AbstractUnaryHybridCF<Img<ByteType>, DoubleType>
 		implements Ops.Stats.Min
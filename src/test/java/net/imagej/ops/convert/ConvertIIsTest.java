@@ -31,6 +31,7 @@
 package net.imagej.ops.convert;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import net.imagej.ops.AbstractOpTest;
 import net.imagej.ops.Ops;
@@ -38,6 +39,8 @@ import net.imagej.ops.convert.clip.ClipRealTypes;
 import net.imagej.ops.convert.copy.CopyRealTypes;
 import net.imagej.ops.convert.imageType.ConvertIIs;
 import net.imagej.ops.convert.scale.ScaleRealTypes;
+import net.imagej.ops.map.MapPrimitiveArrays;
+import net.imagej.ops.special.computer.Computers;
 import net.imagej.ops.special.inplace.Inplaces;
 import net.imagej.ops.special.inplace.UnaryInplaceOp;
 import net.imglib2.Cursor;
@@ -45,8 +48,15 @@ import net.imglib2.FinalDimensions;
 import net.imglib2.IterableInterval;
 import net.imglib2.RandomAccess;
 import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgFactory;
+import net.imglib2.img.cell.CellImgFactory;
+import net.imglib2.img.planar.PlanarImgFactory;
+import net.imglib2.type.logic.BitType;
 import net.imglib2.type.numeric.integer.ByteType;
 import net.imglib2.type.numeric.integer.ShortType;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.integer.UnsignedShortType;
+import net.imglib2.type.numeric.real.FloatType;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -111,6 +121,77 @@ public class ConvertIIsTest extends AbstractOpTest {
 		}
 	}
 
+	@Test
+	public void testPrimitiveArrays() {
+		// the converters run as tight loops over the backing arrays
+		final Object mapper = Computers.unary(ops, Ops.Map.class, out, in,
+			new ClipRealTypes<ShortType, ByteType>());
+		assertTrue(mapper instanceof MapPrimitiveArrays.IIToII);
+	}
+
+	@Test
+	public void testCellsToFloat() {
+		final long[] dims = { 23, 17, 3 };
+		final Img<UnsignedShortType> cells = new CellImgFactory<UnsignedShortType>(
+			8).create(dims, new UnsignedShortType());
+		int i = 0;
+		for (final UnsignedShortType t : cells) {
+			t.set((i++ * 997) % 65536);
+		}
+		final Img<FloatType> floats = new CellImgFactory<FloatType>(8).create(
+			dims, new FloatType());
+		ops.run(ConvertIIs.class, floats, cells,
+			new CopyRealTypes<UnsignedShortType, FloatType>());
+
+		final Cursor<UnsignedShortType> c = cells.cursor();
+		final Cursor<FloatType> f = floats.cursor();
+		while (c.hasNext()) {
+			assertEquals(c.next().get(), f.next().get(), 0);
+		}
+
+		// and back to 16 bits, scaled
+		final Img<UnsignedShortType> scaled = new CellImgFactory<UnsignedShortType>(
+			8).create(dims, new UnsignedShortType());
+		ops.run(ConvertIIs.class, scaled, floats,
+			new ScaleRealTypes<FloatType, UnsignedShortType>());
+		final Img<UnsignedShortType> expected = new ArrayImgFactory<UnsignedShortType>()
+			.create(dims, new UnsignedShortType());
+		final ScaleRealTypes<FloatType, UnsignedShortType> scale =
+			new ScaleRealTypes<>();
+		scale.checkInput(new FloatType(), new UnsignedShortType());
+		final Cursor<FloatType> fc = floats.localizingCursor();
+		final RandomAccess<UnsignedShortType> era = expected.randomAccess();
+		final RandomAccess<UnsignedShortType> sra = scaled.randomAccess();
+		while (fc.hasNext()) {
+			fc.fwd();
+			era.setPosition(fc);
+			sra.setPosition(fc);
+			scale.compute1(fc.get(), era.get());
+			assertEquals(era.get().get(), sra.get().get());
+		}
+	}
+
+	@Test
+	public void testBitToUnsignedByte() {
+		final long[] dims = { 70, 5, 2 };
+		final Img<BitType> bits = new ArrayImgFactory<BitType>().create(dims,
+			new BitType());
+		int i = 0;
+		for (final BitType t : bits) {
+			t.set(i++ % 3 == 0);
+		}
+		final Img<UnsignedByteType> bytes = new PlanarImgFactory<UnsignedByteType>()
+			.create(dims, new UnsignedByteType());
+		ops.run(ConvertIIs.class, bytes, bits,
+			new CopyRealTypes<BitType, UnsignedByteType>());
+
+		final Cursor<BitType> c = bits.cursor();
+		final Cursor<UnsignedByteType> b = bytes.cursor();
+		while (c.hasNext()) {
+			assertEquals(c.next().get() ? 1 : 0, b.next().get());
+		}
+	}
+
 	// -- Helper methods --
 
 	private byte scale(final short value) {
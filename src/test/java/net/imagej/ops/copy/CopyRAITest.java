@@ -32,10 +32,12 @@ package net.imagej.ops.copy;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Random;
 
 import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Ops;
 import net.imagej.ops.special.hybrid.Hybrids;
 import net.imagej.ops.special.hybrid.UnaryHybridCF;
 import net.imglib2.Cursor;
@@ -44,9 +46,12 @@ import net.imglib2.FinalInterval;
 import net.imglib2.RandomAccess;
 import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.img.Img;
+import net.imglib2.img.ImgFactory;
 import net.imglib2.img.array.ArrayImgFactory;
+import net.imglib2.img.cell.CellImgFactory;
 import net.imglib2.img.planar.PlanarImgFactory;
 import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.real.FloatType;
 import net.imglib2.view.IntervalView;
 import net.imglib2.view.Views;
 
@@ -172,4 +177,42 @@ public class CopyRAITest extends AbstractOpTest {
 		assertEquals(ops.stats().mean(outFromPlanar).getRealDouble(), 100.0, delta);
 
 	}
+
+	@Test
+	public void copyStorageArraysTest() {
+		final int[] dims = { 300, 301, 3 };
+		assertStorageCopy(new ArrayImgFactory<FloatType>().create(dims,
+			new FloatType()));
+		assertStorageCopy(new PlanarImgFactory<FloatType>().create(dims,
+			new FloatType()));
+		assertStorageCopy(new CellImgFactory<FloatType>(64).create(dims,
+			new FloatType()));
+	}
+
+	private void assertStorageCopy(final Img<FloatType> img) {
+		final Random r = new Random(0xdeadbeef);
+		for (final FloatType t : img) {
+			t.set(r.nextFloat());
+		}
+
+		final ImgFactory<FloatType> factory = img.factory();
+		final Img<FloatType> output = factory.create(img, new FloatType());
+		assertTrue(ops.op(Ops.Copy.RAI.class, output,
+			img) instanceof CopyStorageArrays);
+		ops.copy().rai(output, img);
+
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<FloatType> created =
+			(RandomAccessibleInterval<FloatType>) ops.run(CopyStorageArrays.class,
+				img);
+
+		final Cursor<FloatType> inc = img.cursor();
+		final Cursor<FloatType> outc = output.cursor();
+		final Cursor<FloatType> createdc = Views.iterable(created).cursor();
+		while (inc.hasNext()) {
+			final float expected = inc.next().get();
+			assertEquals(expected, outc.next().get(), 0);
+			assertEquals(expected, createdc.next().get(), 0);
+		}
+	}
 }
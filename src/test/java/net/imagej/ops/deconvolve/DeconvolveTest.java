@@ -31,16 +31,27 @@
 package net.imagej.ops.deconvolve;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import net.imagej.ops.AbstractOpTest;
 import net.imagej.ops.filter.convolve.ConvolveFFTF;
+import net.imagej.ops.filter.fft.CreateOutputFFTMethods;
+import net.imagej.ops.filter.pad.PadInputFFTMethods;
+import net.imagej.ops.filter.pad.PadShiftKernelFFTMethods;
+import net.imagej.ops.special.computer.BinaryComputerOp;
+import net.imagej.ops.special.computer.Computers;
 import net.imglib2.Cursor;
+import net.imglib2.FinalDimensions;
 import net.imglib2.Point;
 import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.algorithm.region.hypersphere.HyperSphere;
 import net.imglib2.img.Img;
 import net.imglib2.img.array.ArrayImgFactory;
+import net.imglib2.img.cell.CellImgFactory;
 import net.imglib2.outofbounds.OutOfBoundsConstantValueFactory;
+import net.imglib2.outofbounds.OutOfBoundsMirrorFactory;
+import net.imglib2.outofbounds.OutOfBoundsMirrorFactory.Boundary;
+import net.imglib2.type.numeric.complex.ComplexFloatType;
 import net.imglib2.type.numeric.real.FloatType;
 import net.imglib2.util.Util;
 import net.imglib2.view.Views;
@@ -92,6 +103,135 @@ public class DeconvolveTest extends AbstractOpTest {
 		}
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testRichardsonLucyWorkspace() {
+		final int[] size = new int[] { 48, 40 };
+		final int[] kernelSize = new int[] { 9, 11 };
+
+		final Img<FloatType> in = new ArrayImgFactory<FloatType>().create(size,
+			new FloatType());
+		placeSphereInCenter(in);
+		final Img<FloatType> kernel = new ArrayImgFactory<FloatType>().create(
+			kernelSize, new FloatType());
+		placeSphereInCenter(kernel);
+		final Img<FloatType> convolved = (Img<FloatType>) ops.run(
+			ConvolveFFTF.class, in, kernel);
+
+		// reference: the function op, which sets up a new computer per call
+		final RandomAccessibleInterval<FloatType> expected =
+			(RandomAccessibleInterval<FloatType>) ops.run(RichardsonLucyF.class,
+				convolved, kernel, 5);
+
+		// set up the computer once, as RichardsonLucyF does
+		final FinalDimensions paddedSize = new FinalDimensions(size[0] +
+			kernelSize[0] - 1, size[1] + kernelSize[1] - 1);
+		final RandomAccessibleInterval<FloatType> paddedInput =
+			(RandomAccessibleInterval<FloatType>) ops.run(PadInputFFTMethods.class,
+				convolved, paddedSize, true, new OutOfBoundsMirrorFactory<>(
+					Boundary.SINGLE));
+		final RandomAccessibleInterval<FloatType> paddedKernel =
+			(RandomAccessibleInterval<FloatType>) ops.run(
+				PadShiftKernelFFTMethods.class, kernel, paddedSize, true);
+		final RandomAccessibleInterval<ComplexFloatType> fftImg =
+			(RandomAccessibleInterval<ComplexFloatType>) ops.run(
+				CreateOutputFFTMethods.class, paddedSize, new ComplexFloatType(), true);
+		final RandomAccessibleInterval<ComplexFloatType> fftKernel =
+			(RandomAccessibleInterval<ComplexFloatType>) ops.run(
+				CreateOutputFFTMethods.class, paddedSize, new ComplexFloatType(), true);
+
+		final Img<FloatType> out = in.factory().create(in, new FloatType());
+		final BinaryComputerOp<RandomAccessibleInterval<FloatType>, RandomAccessibleInterval<FloatType>, RandomAccessibleInterval<FloatType>> rl =
+			Computers.binary(ops, RichardsonLucyC.class, out, paddedInput,
+				paddedKernel, fftImg, fftKernel, true, true, 5, paddedInput, null, null,
+				null, null, 0.0);
+
+		// repeated calls reuse the workspace, but must not share state
+		for (int i = 0; i < 2; i++) {
+			rl.compute2(paddedInput, paddedKernel, out);
+			assertEquals(5, ((RichardsonLucyC<?, ?, ?, ?>) rl).getIterations());
+			final Cursor<FloatType> e = Views.iterable(expected).cursor();
+			final Cursor<FloatType> a = out.cursor();
+			while (e.hasNext()) {
+				assertEquals(e.next().get(), a.next().get(), 0.0f);
+			}
+		}
+
+		// any change is below an infinite tolerance, so one iteration is done
+		final BinaryComputerOp<RandomAccessibleInterval<FloatType>, RandomAccessibleInterval<FloatType>, RandomAccessibleInterval<FloatType>> converging =
+			Computers.binary(ops, RichardsonLucyC.class, out, paddedInput,
+				paddedKernel, fftImg, fftKernel, true, true, 5, paddedInput, null, null,
+				null, null, Double.POSITIVE_INFINITY);
+		converging.compute2(paddedInput, paddedKernel, out);
+		assertEquals(1, ((RichardsonLucyC<?, ?, ?, ?>) converging).getIterations());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testRichardsonLucyTiled() {
+		final int[] size = new int[] { 60, 50 };
+		final int[] kernelSize = new int[] { 9, 11 };
+
+		final Img<FloatType> in = new ArrayImgFactory<FloatType>().create(size,
+			new FloatType());
+		placeSphereInCenter(in);
+		final Img<FloatType> kernel = new ArrayImgFactory<FloatType>().create(
+			kernelSize, new FloatType());
+		placeSphereInCenter(kernel);
+		final Img<FloatType> convolved = (Img<FloatType>) ops.run(
+			ConvolveFFTF.class, in, kernel);
+
+		final RandomAccessibleInterval<FloatType> expected =
+			(RandomAccessibleInterval<FloatType>) ops.run(RichardsonLucyF.class,
+				convolved, kernel, 5);
+
+		// a single tile covering the input gives the untiled result
+		final RandomAccessibleInterval<FloatType> single = ops.deconvolve()
+			.richardsonLucyTiled(convolved, kernel, 5, 64, 64);
+		final Cursor<FloatType> e = Views.iterable(expected).cursor();
+		final Cursor<FloatType> a = Views.iterable(single).cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().get(), a.next().get(), 0.0f);
+		}
+
+		// several tiles, written to a caller-supplied cell image: each iteration
+		// blurs and correlates with the kernel, so an overlap of twice the kernel
+		// radius per iteration gives every core block the untiled result
+		final Img<FloatType> cells = new CellImgFactory<FloatType>(16).create(
+			size, new FloatType());
+		ops.deconvolve().richardsonLucyTiled(cells, convolved, kernel, 5,
+			new long[] { 25, 20 }, new long[] { 40, 50 });
+		assertClose(expected, cells, 1e-3);
+
+		// with a small overlap, the seams differ but stay finite
+		final RandomAccessibleInterval<FloatType> tiled = ops.deconvolve()
+			.richardsonLucyTiled(convolved, kernel, 5, new long[] { 25, 20 },
+				new long[] { 9, 11 }, true);
+		assertEquals(size[0], tiled.dimension(0));
+		assertEquals(size[1], tiled.dimension(1));
+		for (final FloatType value : Views.iterable(tiled)) {
+			assertFalse(Float.isNaN(value.get()));
+		}
+	}
+
+	/**
+	 * Asserts that two images agree up to the given fraction of the largest
+	 * absolute value of the expected image.
+	 */
+	private void assertClose(final RandomAccessibleInterval<FloatType> expected,
+		final RandomAccessibleInterval<FloatType> actual, final double tolerance)
+	{
+		float max = 0;
+		for (final FloatType value : Views.iterable(expected)) {
+			max = Math.max(max, Math.abs(value.get()));
+		}
+		final Cursor<FloatType> e = Views.flatIterable(expected).cursor();
+		final Cursor<FloatType> a = Views.flatIterable(actual).cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().get(), a.next().get(), tolerance * max);
+		}
+	}
+
 	// utility to place a small sphere at the center of the image
 	private void placeSphereInCenter(Img<FloatType> img) {
 
@@ -0,0 +1,104 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.features.haralick;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import net.imagej.ops.Op;
+import net.imagej.ops.features.AbstractFeatureTest;
+import net.imagej.ops.image.cooccurrenceMatrix.MatrixOrientation;
+import net.imagej.ops.image.cooccurrenceMatrix.MatrixOrientation2D;
+import net.imagej.ops.image.cooccurrenceMatrix.MatrixOrientation3D;
+import net.imglib2.img.Img;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.real.DoubleType;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link DefaultHaralickFeatureSet}.
+ */
+public class HaralickFeatureSetTest extends AbstractFeatureTest {
+
+	@Test
+	public void testFeatureSet2D() {
+		final Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> result =
+			ops.haralick().featureSet(random, 32, 1);
+
+		assertEquals(MatrixOrientation2D.values().length, result.size());
+		assertSameFeatures(random, 32, 1, result);
+	}
+
+	@Test
+	public void testFeatureSetConstant() {
+		assertSameFeatures(constant, 8, 2, ops.haralick().featureSet(constant, 8,
+			2));
+	}
+
+	@Test
+	public void testFeatureSet3D() {
+		@SuppressWarnings("unchecked")
+		final Class<? extends Op>[] features = new Class[] {
+			net.imagej.ops.Ops.Haralick.Contrast.class,
+			net.imagej.ops.Ops.Haralick.ICM1.class,
+			net.imagej.ops.Ops.Haralick.SumVariance.class };
+		final Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> result =
+			ops.haralick().featureSet(random3d, 16, 1, new MatrixOrientation[] {
+				MatrixOrientation3D.HORIZONTAL_VERTICAL,
+				MatrixOrientation3D.VERTICAL_DIAGONAL }, features);
+
+		assertEquals(2, result.size());
+		for (final Map<Class<? extends Op>, DoubleType> values : result.values()) {
+			assertEquals(features.length, values.size());
+		}
+		assertSameFeatures(random3d, 16, 1, result);
+	}
+
+	private void assertSameFeatures(final Img<UnsignedByteType> img,
+		final int numGreyLevels, final int distance,
+		final Map<MatrixOrientation, Map<Class<? extends Op>, DoubleType>> result)
+	{
+		for (final MatrixOrientation orientation : result.keySet()) {
+			for (final Map.Entry<Class<? extends Op>, DoubleType> entry : result.get(
+				orientation).entrySet())
+			{
+				final double expected = ((DoubleType) ops.run(entry.getKey(), img,
+					numGreyLevels, distance, orientation)).get();
+				assertEquals(entry.getKey().getSimpleName() + " " + orientation,
+					expected, entry.getValue().get(), 1e-9 * Math.max(1, Math.abs(
+						expected)));
+			}
+		}
+	}
+
+}
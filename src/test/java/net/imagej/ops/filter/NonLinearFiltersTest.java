@@ -31,29 +31,40 @@
 package net.imagej.ops.filter;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collections;
 
 import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
 import net.imagej.ops.filter.max.DefaultMaxFilter;
 import net.imagej.ops.filter.max.MaxFilterOp;
+import net.imagej.ops.filter.max.RectangleMaxFilter;
 import net.imagej.ops.filter.mean.DefaultMeanFilter;
 import net.imagej.ops.filter.mean.MeanFilterOp;
+import net.imagej.ops.filter.mean.RectangleMeanFilter;
 import net.imagej.ops.filter.median.DefaultMedianFilter;
 import net.imagej.ops.filter.median.MedianFilterOp;
+import net.imagej.ops.filter.median.RectangleMedianFilter;
 import net.imagej.ops.filter.min.DefaultMinFilter;
 import net.imagej.ops.filter.min.MinFilterOp;
+import net.imagej.ops.filter.min.RectangleMinFilter;
 import net.imagej.ops.filter.sigma.DefaultSigmaFilter;
 import net.imagej.ops.filter.sigma.SigmaFilterOp;
 import net.imagej.ops.filter.variance.DefaultVarianceFilter;
+import net.imagej.ops.filter.variance.RectangleVarianceFilter;
 import net.imagej.ops.filter.variance.VarianceFilterOp;
+import net.imglib2.Cursor;
 import net.imglib2.algorithm.neighborhood.RectangleShape;
 import net.imglib2.algorithm.neighborhood.RectangleShape.NeighborhoodsIterableInterval;
 import net.imglib2.img.Img;
 import net.imglib2.outofbounds.OutOfBoundsMirrorFactory;
 import net.imglib2.outofbounds.OutOfBoundsMirrorFactory.Boundary;
 import net.imglib2.type.numeric.integer.ByteType;
+import net.imglib2.type.numeric.real.DoubleType;
 import net.imglib2.util.Util;
 import net.imglib2.view.Views;
 
@@ -192,4 +203,193 @@ public class NonLinearFiltersTest extends AbstractOpTest {
 		assertEquals((byte)Util.round((sumSq - (sum * sum / 9)) / 8), out.firstElement().get());
 	}
 
+	/**
+	 * @see RectangleMaxFilter
+	 * @see RectangleMedianFilter
+	 * @see RectangleMinFilter
+	 */
+	@Test
+	public void testRectangleFilters() {
+		final Img<ByteType> in3D = generateByteArrayTestImg(true, new long[] { 13,
+			7, 5 });
+		final RectangleShape shape3D = new RectangleShape(2, false);
+
+		assertSameResult(in3D, shape3D, RectangleMaxFilter.class,
+			DefaultMaxFilter.class);
+		assertSameResult(in3D, shape3D, RectangleMedianFilter.class,
+			DefaultMedianFilter.class);
+		assertSameResult(in3D, shape3D, RectangleMinFilter.class,
+			DefaultMinFilter.class);
+	}
+
+	/**
+	 * Tests that the output of a translated input is written at the positions
+	 * of the output, not those of the input.
+	 * 
+	 * @see RectangleMaxFilter
+	 * @see RectangleMedianFilter
+	 */
+	@Test
+	public void testRectangleFiltersTranslatedInput() {
+		final Img<ByteType> in3D = generateByteArrayTestImg(true, new long[] { 13,
+			7, 5 });
+		final RectangleShape shape3D = new RectangleShape(2, false);
+
+		assertSameTranslatedResult(in3D, shape3D, RectangleMaxFilter.class);
+		assertSameTranslatedResult(in3D, shape3D, RectangleMedianFilter.class);
+	}
+
+	/**
+	 * @see RectangleMeanFilter
+	 * @see RectangleVarianceFilter
+	 */
+	@Test
+	public void testRectangleSumFilters() {
+		final Img<ByteType> in3D = generateByteArrayTestImg(true, new long[] { 13,
+			7, 5 });
+
+		for (final boolean skipCenter : new boolean[] { false, true }) {
+			final RectangleShape shape3D = new RectangleShape(2, skipCenter);
+			assertSameRealResult(in3D, shape3D, RectangleMeanFilter.class,
+				DefaultMeanFilter.class);
+			assertSameRealResult(in3D, shape3D, RectangleVarianceFilter.class,
+				DefaultVarianceFilter.class);
+		}
+	}
+
+	/**
+	 * @see RectangleMeanFilter
+	 * @see RectangleVarianceFilter
+	 */
+	@Test
+	public void testRectangleSumFiltersTranslatedInput() {
+		final Img<ByteType> in3D = generateByteArrayTestImg(true, new long[] { 13,
+			7, 5 });
+		final RectangleShape shape3D = new RectangleShape(2, true);
+
+		assertSameTranslatedRealResult(in3D, shape3D, RectangleMeanFilter.class);
+		assertSameTranslatedRealResult(in3D, shape3D,
+			RectangleVarianceFilter.class);
+	}
+
+	/**
+	 * Tests that shapes with too few values for the statistic are left to the
+	 * default filters.
+	 * 
+	 * @see RectangleMeanFilter
+	 * @see RectangleVarianceFilter
+	 */
+	@Test
+	public void testRectangleSumFiltersEmptyShape() {
+		final Img<DoubleType> out = ops.create().img(in, new DoubleType());
+
+		assertFalse(ops.op(Ops.Filter.Mean.class, out, in, new RectangleShape(0,
+			true), oobFactory) instanceof RectangleMeanFilter);
+		assertTrue(ops.op(Ops.Filter.Mean.class, out, in, new RectangleShape(0,
+			false), oobFactory) instanceof RectangleMeanFilter);
+		assertFalse(ops.op(Ops.Filter.Variance.class, out, in, new RectangleShape(
+			0, false), oobFactory) instanceof RectangleVarianceFilter);
+		assertTrue(ops.op(Ops.Filter.Variance.class, out, in, new RectangleShape(1,
+			true), oobFactory) instanceof RectangleVarianceFilter);
+	}
+
+	/**
+	 * Tests the variance of an image whose values are large compared to their
+	 * spread, for which plain sums of squares would cancel.
+	 * 
+	 * @see RectangleVarianceFilter
+	 */
+	@Test
+	public void testRectangleVarianceLargeOffset() {
+		final Img<DoubleType> input = ops.create().img(new long[] { 40, 30 });
+		final Cursor<DoubleType> c = input.localizingCursor();
+		while (c.hasNext()) {
+			c.fwd();
+			c.get().set(1e8 + (c.getIntPosition(0) * 7 + c.getIntPosition(1) * 3) %
+				5 * 0.01);
+		}
+		final RectangleShape rectangle = new RectangleShape(3, false);
+
+		final Img<DoubleType> expected = ops.create().img(input, new DoubleType());
+		final Img<DoubleType> actual = ops.create().img(input, new DoubleType());
+		ops.run(DefaultVarianceFilter.class, expected, input, rectangle,
+			oobFactory);
+		ops.run(RectangleVarianceFilter.class, actual, input, rectangle,
+			oobFactory);
+
+		final Cursor<DoubleType> e = expected.cursor();
+		final Cursor<DoubleType> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().get(), a.next().get(), 1e-8);
+		}
+	}
+
+	private void assertSameResult(final Img<ByteType> input,
+		final RectangleShape rectangle, final Class<? extends Op> rectangleOp,
+		final Class<? extends Op> defaultOp)
+	{
+		final Img<ByteType> expected = input.factory().create(input, input
+			.firstElement());
+		final Img<ByteType> actual = input.factory().create(input, input
+			.firstElement());
+		ops.run(defaultOp, expected, input, rectangle, oobFactory);
+		ops.run(rectangleOp, actual, input, rectangle, oobFactory);
+
+		final Cursor<ByteType> e = expected.cursor();
+		final Cursor<ByteType> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().get(), a.next().get());
+		}
+	}
+
+	private void assertSameTranslatedResult(final Img<ByteType> input,
+		final RectangleShape rectangle, final Class<? extends Op> rectangleOp)
+	{
+		final Img<ByteType> expected = input.factory().create(input, input
+			.firstElement());
+		final Img<ByteType> actual = input.factory().create(input, input
+			.firstElement());
+		ops.run(rectangleOp, expected, input, rectangle, oobFactory);
+		ops.run(rectangleOp, actual, Views.translate(input, 5, -3, 2), rectangle,
+			oobFactory);
+
+		final Cursor<ByteType> e = expected.cursor();
+		final Cursor<ByteType> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().get(), a.next().get());
+		}
+	}
+
+	private void assertSameTranslatedRealResult(final Img<ByteType> input,
+		final RectangleShape rectangle, final Class<? extends Op> rectangleOp)
+	{
+		final Img<DoubleType> expected = ops.create().img(input, new DoubleType());
+		final Img<DoubleType> actual = ops.create().img(input, new DoubleType());
+		ops.run(rectangleOp, expected, input, rectangle, oobFactory);
+		ops.run(rectangleOp, actual, Views.translate(input, 5, -3, 2), rectangle,
+			oobFactory);
+
+		final Cursor<DoubleType> e = expected.cursor();
+		final Cursor<DoubleType> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().get(), a.next().get(), 0);
+		}
+	}
+
+	private void assertSameRealResult(final Img<ByteType> input,
+		final RectangleShape rectangle, final Class<? extends Op> rectangleOp,
+		final Class<? extends Op> defaultOp)
+	{
+		final Img<DoubleType> expected = ops.create().img(input, new DoubleType());
+		final Img<DoubleType> actual = ops.create().img(input, new DoubleType());
+		ops.run(defaultOp, expected, input, rectangle, oobFactory);
+		ops.run(rectangleOp, actual, input, rectangle, oobFactory);
+
+		final Cursor<DoubleType> e = expected.cursor();
+		final Cursor<DoubleType> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().get(), a.next().get(), 1e-6);
+		}
+	}
+
 }
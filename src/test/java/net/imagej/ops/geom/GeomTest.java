@@ -30,26 +30,37 @@
 
 package net.imagej.ops.geom;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import net.imagej.ops.Ops;
 import net.imagej.ops.features.AbstractFeatureTest;
+import net.imagej.ops.geom.geom2d.CalipersFeret;
+import net.imagej.ops.geom.geom2d.CalipersSmallestEnclosingRectangle;
 import net.imagej.ops.geom.geom2d.DefaultCircularity;
 import net.imagej.ops.geom.geom2d.DefaultContour;
 import net.imagej.ops.geom.geom2d.DefaultEccentricity;
+import net.imagej.ops.geom.geom2d.DefaultFeret;
 import net.imagej.ops.geom.geom2d.DefaultFeretsAngle;
 import net.imagej.ops.geom.geom2d.DefaultFeretsDiameter;
 import net.imagej.ops.geom.geom2d.DefaultMajorAxis;
+import net.imagej.ops.geom.geom2d.DefaultMinFeretsAngle;
+import net.imagej.ops.geom.geom2d.DefaultMinFeretsDiameter;
 import net.imagej.ops.geom.geom2d.DefaultMinorAxis;
 import net.imagej.ops.geom.geom2d.DefaultPerimeterLength;
 import net.imagej.ops.geom.geom2d.DefaultRoundness;
+import net.imagej.ops.geom.geom2d.DefaultSmallestEnclosingRectangle;
 import net.imagej.ops.geom.geom2d.DefaultSizePolygon;
 import net.imagej.ops.geom.geom2d.SolidityPolygon;
 import net.imagej.ops.geom.geom3d.BoundaryPixelCountConvexHullMesh;
 import net.imagej.ops.geom.geom3d.BoundarySizeConvexHullMesh;
 import net.imagej.ops.geom.geom3d.ConvexityMesh;
 import net.imagej.ops.geom.geom3d.DefaultCompactness;
+import net.imagej.ops.geom.geom3d.DefaultConvexHull3D;
 import net.imagej.ops.geom.geom3d.DefaultMainElongation;
 import net.imagej.ops.geom.geom3d.DefaultMarchingCubes;
 import net.imagej.ops.geom.geom3d.DefaultMedianElongation;
@@ -58,16 +69,26 @@ import net.imagej.ops.geom.geom3d.DefaultSphericity;
 import net.imagej.ops.geom.geom3d.DefaultSurfaceArea;
 import net.imagej.ops.geom.geom3d.DefaultSurfacePixelCount;
 import net.imagej.ops.geom.geom3d.RugosityMesh;
+import net.imagej.ops.geom.geom3d.SlabMarchingCubes;
 import net.imagej.ops.geom.geom3d.SizeConvexHullMesh;
 import net.imagej.ops.geom.geom3d.SolidityMesh;
+import net.imagej.ops.geom.geom3d.mesh.DefaultMesh;
+import net.imagej.ops.geom.geom3d.mesh.DefaultVolume;
+import net.imagej.ops.geom.geom3d.mesh.Facet;
+import net.imagej.ops.geom.geom3d.mesh.IndexedMesh;
 import net.imagej.ops.geom.geom3d.mesh.Mesh;
+import net.imagej.ops.geom.geom3d.mesh.TriangularFacet;
+import net.imglib2.Cursor;
 import net.imglib2.RealLocalizable;
 import net.imglib2.RealPoint;
 import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
 import net.imglib2.roi.geometric.Polygon;
 import net.imglib2.roi.labeling.LabelRegion;
+import net.imglib2.type.logic.BitType;
 import net.imglib2.type.numeric.real.DoubleType;
 import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.util.Pair;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -190,6 +211,59 @@ public class GeomTest extends AbstractFeatureTest {
 			"] was [" + actualAngle + "]", isEquals);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCalipersFeret() {
+		final Pair<RealLocalizable, RealLocalizable> expected =
+			(Pair<RealLocalizable, RealLocalizable>) ops.run(DefaultFeret.class,
+				contour);
+		final Pair<RealLocalizable, RealLocalizable> actual =
+			(Pair<RealLocalizable, RealLocalizable>) ops.run(CalipersFeret.class,
+				contour);
+		assertTrue(expected.getA() == actual.getA());
+		assertTrue(expected.getB() == actual.getB());
+	}
+
+	@Test
+	public void testMinFerets() {
+		// a 4 x 2 rectangle, rotated by 30 degrees, with points inside
+		final double[][] points = { { 0, 0 }, { 4, 0 }, { 4, 2 }, { 0, 2 }, { 1,
+			1 }, { 2, 0 }, { 3, 1.5 } };
+		final List<RealLocalizable> vertices = new ArrayList<>();
+		final double cos = Math.cos(Math.PI / 6);
+		final double sin = Math.sin(Math.PI / 6);
+		for (final double[] p : points) {
+			vertices.add(new RealPoint(cos * p[0] - sin * p[1], sin * p[0] + cos *
+				p[1]));
+		}
+		final Polygon polygon = new Polygon(vertices);
+
+		assertEquals(2, ((DoubleType) ops.run(DefaultMinFeretsDiameter.class,
+			polygon)).get(), 1e-10);
+		assertEquals(120, ((DoubleType) ops.run(DefaultMinFeretsAngle.class,
+			polygon)).get(), 1e-10);
+		assertEquals(Math.sqrt(20), ((DoubleType) ops.run(
+			DefaultFeretsDiameter.class, polygon)).get(), 1e-10);
+
+		final Polygon rectangle = (Polygon) ops.run(
+			CalipersSmallestEnclosingRectangle.class, polygon);
+		assertEquals(4, rectangle.getVertices().size());
+		assertEquals(8, ((DoubleType) ops.run(DefaultSizePolygon.class,
+			rectangle)).get(), 1e-10);
+	}
+
+	@Test
+	public void testCalipersSmallestEnclosingRectangle() {
+		final double area = ((DoubleType) ops.run(DefaultSizePolygon.class,
+			(Polygon) ops.run(CalipersSmallestEnclosingRectangle.class, contour)))
+				.get();
+		assertTrue(area >= ((DoubleType) ops.run(DefaultSizePolygon.class,
+			contour)).get());
+		assertTrue(area <= ((DoubleType) ops.run(DefaultSizePolygon.class,
+			(Polygon) ops.run(DefaultSmallestEnclosingRectangle.class, contour)))
+				.get() + 1e-6);
+	}
+
 	@Test
 	public void testEccentricity() {
 		final double expected = expensiveTestsEnabled ? 1.670273923 : 1.689817582;
@@ -293,6 +367,49 @@ public class GeomTest extends AbstractFeatureTest {
 			.run(DefaultSurfaceArea.class, mesh)).get(), 0.186);
 	}
 
+	@Test
+	public void testIndexedMesh() {
+		final IndexedMesh indexed = (IndexedMesh) mesh;
+		// each vertex is shared by all triangles of its cube edge
+		assertTrue(indexed.vertexCount() < indexed.triangleCount());
+
+		// the same triangles as separate facets give the same results
+		final DefaultMesh facets = new DefaultMesh();
+		for (final Facet f : indexed.getFacets()) {
+			facets.addFace((TriangularFacet) f);
+		}
+		assertEquals(facets.getVertices().size(), indexed.vertexCount());
+		assertEquals(facets.getSurfaceArea(), indexed.getSurfaceArea(), 1e-6);
+		assertEquals(((DoubleType) ops.run(DefaultVolume.class, facets)).get(),
+			((DoubleType) ops.run(DefaultVolume.class, indexed)).get(), 1e-6);
+		assertEquals(((Mesh) ops.run(DefaultConvexHull3D.class, facets))
+			.getSurfaceArea(), ((Mesh) ops.run(DefaultConvexHull3D.class, indexed))
+				.getSurfaceArea(), 1e-6);
+	}
+
+	@Test
+	public void testSlabMarchingCubes() {
+		assertSameMesh((IndexedMesh) mesh, (IndexedMesh) ops.run(
+			SlabMarchingCubes.class, region3D));
+	}
+
+	@Test
+	public void testSlabMarchingCubesManySlabs() {
+		// NB: Far more layers than the grain size, so that the stack is split
+		// into several slabs, which are stitched together.
+		final Img<BitType> img = ArrayImgs.bits(12, 10, 60);
+		final Cursor<BitType> cursor = img.localizingCursor();
+		while (cursor.hasNext()) {
+			cursor.fwd();
+			final long x = cursor.getLongPosition(0);
+			final long y = cursor.getLongPosition(1);
+			final long z = cursor.getLongPosition(2);
+			cursor.get().set((x * 7 + y * 3 + z * 5) % 11 < 5);
+		}
+		assertSameMesh((IndexedMesh) ops.run(DefaultMarchingCubes.class, img),
+			(IndexedMesh) ops.run(SlabMarchingCubes.class, img));
+	}
+
 	@Test
 	public void testBoundaryPixelCount() {
 		final double expected = expensiveTestsEnabled ? 20996.0 : 2070.0;
@@ -360,4 +477,14 @@ public class GeomTest extends AbstractFeatureTest {
 			.getDoublePosition(1), AbstractFeatureTest.BIG_DELTA);
 	}
 
+	private static void assertSameMesh(final IndexedMesh expected,
+		final IndexedMesh actual)
+	{
+		assertEquals(expected.vertexCount(), actual.vertexCount());
+		assertEquals(expected.triangleCount(), actual.triangleCount());
+		assertArrayEquals(expected.getVertexBuffer(), actual.getVertexBuffer(), 0);
+		assertArrayEquals(expected.getTriangleBuffer(), actual
+			.getTriangleBuffer());
+		assertEquals(expected.getSurfaceArea(), actual.getSurfaceArea(), 1e-6);
+	}
 }
@@ -33,14 +33,17 @@ package net.imagej.ops.geom;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
 
 import net.imagej.ops.AbstractOpTest;
 import net.imagej.ops.geom.geom3d.DefaultConvexHull3D;
+import net.imagej.ops.geom.geom3d.QuickHull3D;
 import net.imagej.ops.geom.geom3d.mesh.DefaultMesh;
 import net.imagej.ops.geom.geom3d.mesh.Facet;
+import net.imagej.ops.geom.geom3d.mesh.IndexedMesh;
 import net.imagej.ops.geom.geom3d.mesh.TriangularFacet;
 import net.imagej.ops.geom.geom3d.mesh.Vertex;
 import net.imglib2.RealLocalizable;
@@ -49,8 +52,8 @@ import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.junit.Test;
 
 /**
- * This class tests the {@link DefaultConvexHull3D} implementation. The number
- * of facets is verified with qhull.org and
+ * This class tests the {@link DefaultConvexHull3D} and {@link QuickHull3D}
+ * implementations. The number of facets is verified with qhull.org and
  * {@link QuickHull3DTest#isConvex(List, double)} checks for each centroid if it
  * is behind all other facets.
  * 
@@ -227,6 +230,34 @@ public class QuickHull3DTest extends AbstractOpTest {
 		assertEquals(20, convexHull.getVertices().size());
 	}
 
+	@Test
+	public void quickHull3D_100_000_Test() {
+		DefaultMesh df = new DefaultMesh(randomPointSet(100000, 20150818));
+
+		IndexedMesh convexHull = (IndexedMesh) ops.run(QuickHull3D.class, df);
+		assertTrue(isConvex(convexHull.getFacets(), 1e-10));
+		assertEquals(175, convexHull.getVertices().size());
+		assertEquals(((DefaultMesh) ops.run(DefaultConvexHull3D.class, df))
+			.getSurfaceArea(), convexHull.getSurfaceArea(), 1e-10);
+	}
+
+	@Test
+	public void quickHull3D_pointCloud_Test() {
+		// the corners of the unit cube, and points inside and on its faces
+		final double[] points = { 0, 0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 0, 0, 0, 1, 1,
+			0, 1, 0, 1, 1, 1, 1, 1, 0.5, 0.5, 0.5, 0.5, 0.5, 0, 0.25, 0.75, 1, 1,
+			0.5, 0.5 };
+
+		IndexedMesh convexHull = QuickHull3D.hull(points);
+		assertTrue(isConvex(convexHull.getFacets(), 1e-10));
+		assertEquals(8, convexHull.vertexCount());
+		assertEquals(12, convexHull.triangleCount());
+		assertEquals(6, convexHull.getSurfaceArea(), 1e-10);
+
+		// points in one plane have no hull
+		assertEquals(0, QuickHull3D.hull(Arrays.copyOf(points, 12)).triangleCount());
+	}
+
 	/**
 	 * Checks for each centroid of each facet if the centroid is behind all other
 	 * facets.
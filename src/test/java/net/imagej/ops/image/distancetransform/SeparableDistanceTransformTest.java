@@ -0,0 +1,106 @@
+package net.imagej.ops.image.distancetransform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Ops;
+import net.imglib2.Cursor;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.type.logic.BitType;
+import net.imglib2.type.numeric.integer.LongType;
+import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.view.Views;
+
+import org.junit.Test;
+
+public class SeparableDistanceTransformTest extends AbstractOpTest {
+
+	final static double EPSILON = 0.0001;
+
+	@Test
+	public void testMatchesDefault() {
+		final Img<BitType> in = ArrayImgs.bits(20, 20, 5, 3);
+		generateImg(in, 0.7);
+
+		assertTrue(ops.op(Ops.Image.DistanceTransform.class, in) instanceof SeparableDistanceTransform);
+
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<FloatType> expected = (RandomAccessibleInterval<FloatType>) ops
+				.run(DefaultDistanceTransform.class, in);
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<FloatType> actual = (RandomAccessibleInterval<FloatType>) ops
+				.run(SeparableDistanceTransform.class, in);
+
+		final Cursor<FloatType> e = Views.flatIterable(expected).cursor();
+		final Cursor<FloatType> a = Views.flatIterable(actual).cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().get(), a.next().get(), EPSILON);
+		}
+	}
+
+	@Test
+	public void testSpacingAndFeatures() {
+		final Img<BitType> in = ArrayImgs.bits(31, 17);
+		generateImg(in, 0.9);
+		final double[] spacing = { 0.5, 2.0 };
+
+		final Img<FloatType> out = ArrayImgs.floats(31, 17);
+		final Img<LongType> features = ArrayImgs.longs(31, 17);
+		ops.image().distancetransform(out, in, spacing, features);
+
+		final RandomAccess<BitType> raIn = in.randomAccess();
+		final RandomAccess<FloatType> raOut = out.randomAccess();
+		final RandomAccess<LongType> raFeatures = features.randomAccess();
+		for (int x0 = 0; x0 < in.dimension(0); x0++) {
+			for (int y0 = 0; y0 < in.dimension(1); y0++) {
+				raOut.setPosition(new int[] { x0, y0 });
+				raFeatures.setPosition(new int[] { x0, y0 });
+
+				// brute force nearest background element
+				double expected = Double.POSITIVE_INFINITY;
+				for (int x = 0; x < in.dimension(0); x++) {
+					for (int y = 0; y < in.dimension(1); y++) {
+						raIn.setPosition(new int[] { x, y });
+						if (!raIn.get().get()) {
+							expected = Math.min(expected, distance(x0, y0, x, y, spacing));
+						}
+					}
+				}
+				assertEquals(expected, raOut.get().get(), EPSILON);
+
+				// the feature is a background element at that distance
+				final long feature = raFeatures.get().get();
+				final int x = (int) (feature % in.dimension(0));
+				final int y = (int) (feature / in.dimension(0));
+				raIn.setPosition(new int[] { x, y });
+				assertFalse(raIn.get().get());
+				assertEquals(expected, distance(x0, y0, x, y, spacing), EPSILON);
+			}
+		}
+	}
+
+	private double distance(final int x0, final int y0, final int x, final int y, final double[] spacing) {
+		final double dx = (x0 - x) * spacing[0];
+		final double dy = (y0 - y) * spacing[1];
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	/*
+	 * generate a random BitType image
+	 */
+	private void generateImg(final Img<BitType> in, final double foreground) {
+		final Random random = new Random(0xdeadbeef);
+		for (final BitType b : in) {
+			b.set(random.nextDouble() < foreground);
+		}
+		// make sure there is some background
+		in.firstElement().set(false);
+	}
+}
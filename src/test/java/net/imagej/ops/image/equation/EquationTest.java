@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.image.equation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imglib2.Cursor;
+import net.imglib2.IterableInterval;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.real.DoubleType;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link net.imagej.ops.Ops.Image.Equation}.
+ */
+public class EquationTest extends AbstractOpTest {
+
+	@Test
+	public void testCompiledMatchesDefault() {
+		assertCompiledMatchesDefault("Math.cos(0.1*p[0]) + Math.sin(0.1*p[1]) - " +
+			"(p[0] > 10 && p[1] % 3 == 0) + Math.pow(2, -p[1])");
+		// logical operators yield one of their operands
+		assertCompiledMatchesDefault("(p[0] % 4 && p[1] + 0.5) + " +
+			"(p[1] % 3 || -p[0]) + !(p[0] * Math.log(-1))");
+		// bitwise and shift operators work on 32-bit integers
+		assertCompiledMatchesDefault("(p[0] << 30) + (p[1] << 40) + " +
+			"(-p[0] - 0.5 >> 1) + (p[1] - 8 >>> 28)");
+		assertCompiledMatchesDefault("(p[0] * 1e9 & p[1] * 7) + (p[0] | 1e10) + " +
+			"~(p[1] * 3e9)");
+
+		// ^ is a bitwise XOR in Javascript, which is left to the default equation
+		final String xor = "p[0] ^ p[1] + 1";
+		final Img<DoubleType> out = ArrayImgs.doubles(23, 17);
+		assertTrue(ops.op(Ops.Image.Equation.class, out,
+			xor) instanceof DefaultEquation);
+		ops.run(Ops.Image.Equation.class, out, xor);
+		final Cursor<DoubleType> c = out.localizingCursor();
+		while (c.hasNext()) {
+			c.fwd();
+			assertEquals(c.getIntPosition(0) ^ c.getIntPosition(1) + 1, c.get()
+				.get(), 0.0);
+		}
+	}
+
+	@Test
+	public void testImages() {
+		final Img<DoubleType> a = ArrayImgs.doubles(31, 29, 3);
+		final Img<DoubleType> b = ArrayImgs.doubles(31, 29, 3);
+		final Img<DoubleType> c = ArrayImgs.doubles(31, 29, 3);
+		int i = 0;
+		final Cursor<DoubleType> ca = a.cursor(), cb = b.cursor(), cc = c.cursor();
+		while (ca.hasNext()) {
+			ca.next().set(i % 7);
+			cb.next().set(i % 5 - 2);
+			cc.next().set(i++);
+		}
+		final Map<String, IterableInterval<? extends RealType<?>>> images =
+			new HashMap<>();
+		images.put("a", a);
+		images.put("b", b);
+		images.put("c", c);
+
+		final IterableInterval<DoubleType> out = ops.image().equation(null,
+			"a*b + c", images);
+		assertEquals(a.size(), out.size());
+		final Cursor<DoubleType> co = out.cursor();
+		ca.reset();
+		cb.reset();
+		cc.reset();
+		while (co.hasNext()) {
+			assertEquals(ca.next().get() * cb.next().get() + cc.next().get(), co
+				.next().get(), 0.0);
+		}
+	}
+
+	@Test
+	public void testFallback() {
+		final Img<DoubleType> out = ArrayImgs.doubles(4, 4);
+		final Op compiled = ops.op(Ops.Image.Equation.class, out, "p[0] + 1");
+		assertTrue(compiled instanceof CompiledEquation);
+
+		// NB: Not supported by the compiler, so Javascript takes over.
+		final Op fallback = ops.op(Ops.Image.Equation.class, out,
+			"Math.random() * 0");
+		assertTrue(fallback instanceof DefaultEquation);
+	}
+
+	private void assertCompiledMatchesDefault(final String equation) {
+		final Img<DoubleType> expected = ArrayImgs.doubles(23, 17);
+		final Img<DoubleType> actual = ArrayImgs.doubles(23, 17);
+		ops.run(DefaultEquation.class, expected, equation);
+		ops.run(CompiledEquation.class, actual, equation);
+
+		final Cursor<DoubleType> e = expected.cursor();
+		final Cursor<DoubleType> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(equation, e.next().get(), a.next().get(), 1e-12);
+		}
+	}
+}
@@ -66,6 +66,7 @@ import net.imglib2.img.Img;
 import net.imglib2.img.array.ArrayImgs;
 import net.imglib2.type.numeric.integer.UnsignedByteType;
 import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.view.Views;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -110,6 +111,43 @@ public class ImageMomentsTest extends AbstractOpTest {
 			.getRealDouble(), 1e-3);
 	}
 
+	/**
+	 * Test the {@link MomentSums} from which the other moments are derived.
+	 */
+	@Test
+	public void testMomentSums() {
+		final MomentSums sums = ops.imagemoments().moments(img);
+		assertEquals(1277534.0, sums.raw(0, 0), 1e-3);
+		assertEquals(6.3018047E7, sums.raw(1, 0), 1e-3);
+		assertEquals(3.12877962E9, sums.raw(1, 1), 1e-3);
+		assertEquals(-2.1636455685491943E8, sums.central(2, 1), 1e-3);
+		assertEquals(-4.0994213161157227E8, sums.central(0, 3), 1e-3);
+
+		// central moments do not depend on the position of the region
+		final MomentSums shifted = ops.imagemoments().moments(Views.iterable(
+			Views.translate(img, 100000, -20000)));
+		assertEquals(sums.centroid(0) + 100000, shifted.centroid(0), 1e-6);
+		assertEquals(sums.central(2, 1), shifted.central(2, 1), 1e-3);
+		assertEquals(sums.central(0, 3), shifted.central(0, 3), 1e-3);
+		assertEquals(sums.hu(7), shifted.hu(7), 1e-30);
+
+		// N-D sums of a configurable order
+		final Img<UnsignedByteType> img3D = ArrayImgs.unsignedBytes(4, 5, 6);
+		long sum = 0, sumZZZZ = 0;
+		final Cursor<UnsignedByteType> c = img3D.localizingCursor();
+		while (c.hasNext()) {
+			c.fwd();
+			c.get().set(c.getIntPosition(0) + c.getIntPosition(2));
+			final long z = c.getLongPosition(2);
+			sum += c.get().get();
+			sumZZZZ += c.get().get() * z * z * z * z;
+		}
+		final MomentSums sums3D = ops.imagemoments().moments(new MomentSums(
+			new long[3], 4), img3D);
+		assertEquals(sum, sums3D.raw(0, 0, 0), 0);
+		assertEquals(sumZZZZ, sums3D.raw(0, 0, 4), 0);
+	}
+
 	/**
 	 * Test the Central Moment Ops.
 	 */
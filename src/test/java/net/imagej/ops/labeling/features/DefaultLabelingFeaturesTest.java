@@ -0,0 +1,249 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.labeling.features;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.geom.geom3d.mesh.Mesh;
+import net.imagej.table.ResultsTable;
+import net.imglib2.RandomAccess;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.roi.geometric.Polygon;
+import net.imglib2.roi.labeling.ImgLabeling;
+import net.imglib2.roi.labeling.LabelRegion;
+import net.imglib2.roi.labeling.LabelRegions;
+import net.imglib2.roi.labeling.LabelingType;
+import net.imglib2.type.numeric.integer.IntType;
+import net.imglib2.type.numeric.real.DoubleType;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link DefaultLabelingFeatures}.
+ */
+public class DefaultLabelingFeaturesTest extends AbstractOpTest {
+
+	@Test
+	public void testFeatures2D() {
+		final ImgLabeling<String, IntType> labeling = new ImgLabeling<>(ArrayImgs
+			.ints(30, 20));
+		final RandomAccess<LabelingType<String>> ra = labeling.randomAccess();
+		// a 4x3 rectangle, an L shape overlapping it, and a single pixel
+		for (int y = 2; y < 5; y++) {
+			for (int x = 3; x < 7; x++) {
+				add(ra, "rect", x, y);
+			}
+		}
+		for (int y = 4; y < 12; y++) {
+			add(ra, "ell", 6, y);
+		}
+		for (int x = 7; x < 15; x++) {
+			add(ra, "ell", x, 11);
+		}
+		add(ra, "pixel", 25, 17);
+
+		final Img<DoubleType> img = ArrayImgs.doubles(30, 20);
+		final RandomAccess<DoubleType> imgAccess = img.randomAccess();
+		for (int y = 0; y < 20; y++) {
+			for (int x = 0; x < 30; x++) {
+				imgAccess.setPosition(new int[] { x, y });
+				imgAccess.get().set(x + 100 * y);
+			}
+		}
+
+		final ResultsTable table = ops.labeling().features(labeling, img);
+		assertEquals(3, table.getRowCount());
+
+		final int rect = row(table, "rect");
+		assertEquals(12, value(table, "Size", rect), 0);
+		assertEquals(4.5, value(table, "Centroid X", rect), 1e-12);
+		assertEquals(3, value(table, "Centroid Y", rect), 1e-12);
+		assertEquals(3, value(table, "BBox Min X", rect), 0);
+		assertEquals(6, value(table, "BBox Max X", rect), 0);
+		assertEquals(1.25, value(table, "Covariance XX", rect), 1e-12);
+		assertEquals(0, value(table, "Covariance XY", rect), 1e-12);
+		assertEquals(2.0 / 3, value(table, "Covariance YY", rect), 1e-12);
+		assertEquals(304.5, value(table, "Intensity Mean", rect), 1e-9);
+		assertEquals(203, value(table, "Intensity Min", rect), 0);
+		assertEquals(406, value(table, "Intensity Max", rect), 0);
+		assertEquals(12 * 304.5, value(table, "Intensity Sum", rect), 1e-9);
+		double variance = 0;
+		for (int y = 2; y < 5; y++) {
+			for (int x = 3; x < 7; x++) {
+				variance += Math.pow(x + 100 * y - 304.5, 2) / 11;
+			}
+		}
+		assertEquals(Math.sqrt(variance), value(table, "Intensity StdDev", rect),
+			1e-9);
+
+		// the overlapping pixel belongs to both labels
+		final int ell = row(table, "ell");
+		assertEquals(16, value(table, "Size", ell), 0);
+		assertEquals(4, value(table, "BBox Min Y", ell), 0);
+		assertEquals(14, value(table, "BBox Max X", ell), 0);
+
+		// shape features agree with the geom ops on the label region
+		final LabelRegions<String> regions = new LabelRegions<>(labeling);
+		for (final String label : new String[] { "rect", "ell" }) {
+			final LabelRegion<String> region = regions.getLabelRegion(label);
+			final Polygon contour = ops.geom().contour(region, true, true);
+			final int row = row(table, label);
+			assertEquals(ops.geom().boundarySize(contour).get(), value(table,
+				"Perimeter", row), 1e-10);
+			assertEquals(ops.geom().size(contour).get(), value(table,
+				"Contour Area", row), 1e-10);
+			assertEquals(ops.geom().feretsDiameter(contour).get(), value(table,
+				"Feret Diameter", row), 1e-10);
+			assertEquals(ops.geom().minFeretsDiameter(contour).get(), value(table,
+				"Min Feret Diameter", row), 1e-10);
+		}
+		assertEquals(1, value(table, "Solidity", rect), 1e-10);
+
+		final int pixel = row(table, "pixel");
+		assertEquals(1, value(table, "Size", pixel), 0);
+		assertEquals(25, value(table, "Center of Mass X", pixel), 1e-12);
+		assertTrue(Double.isNaN(value(table, "Intensity StdDev", pixel)));
+		assertTrue(Double.isNaN(value(table, "Perimeter", pixel)));
+	}
+
+	@Test
+	public void testFeatures3D() {
+		final ImgLabeling<String, IntType> labeling = new ImgLabeling<>(ArrayImgs
+			.ints(12, 10, 8));
+		final RandomAccess<LabelingType<String>> ra = labeling.randomAccess();
+		for (int z = 2; z < 6; z++) {
+			for (int y = 1; y < 8; y++) {
+				for (int x = 1 + z; x < 10; x++) {
+					add(ra, "wedge", x, y, z);
+				}
+			}
+		}
+
+		final ResultsTable table = ops.labeling().features(labeling);
+		assertEquals(1, table.getRowCount());
+		assertEquals(7 * (7 + 6 + 5 + 4), value(table, "Size", 0), 0);
+		assertEquals(5, value(table, "BBox Max Z", 0), 0);
+
+		final LabelRegion<String> region = new LabelRegions<>(labeling)
+			.getLabelRegion("wedge");
+		final Mesh mesh = ops.geom().marchingCubes(region);
+		assertEquals(ops.geom().boundarySize(mesh).get(), value(table,
+			"Surface Area", 0), 1e-6);
+		assertEquals(ops.geom().size(mesh).get(), value(table, "Mesh Volume", 0),
+			1e-6);
+
+		// without shape features, only the accumulated columns are computed
+		final ResultsTable noShape = ops.labeling().features(labeling, null,
+			false);
+		assertEquals(table.getColumnCount() - 4, noShape.getColumnCount());
+	}
+
+	@Test
+	public void testFeaturesManyLines() {
+		// NB: Many more lines than threads, so that chunks hold several lines.
+		final int width = 37;
+		final int height = 400;
+		final ImgLabeling<String, IntType> labeling = new ImgLabeling<>(ArrayImgs
+			.ints(width, height));
+		final Img<DoubleType> img = ArrayImgs.doubles(width, height);
+		final RandomAccess<LabelingType<String>> ra = labeling.randomAccess();
+		final RandomAccess<DoubleType> imgAccess = img.randomAccess();
+
+		final int numLabels = 5;
+		final long[] size = new long[numLabels];
+		final double[] sumX = new double[numLabels];
+		final double[] sumY = new double[numLabels];
+		final double[] sum = new double[numLabels];
+		final long[] minX = new long[numLabels];
+		final long[] maxX = new long[numLabels];
+		Arrays.fill(minX, Long.MAX_VALUE);
+		Arrays.fill(maxX, Long.MIN_VALUE);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final double value = (x * 7 + y * 13) % 17;
+				imgAccess.setPosition(new int[] { x, y });
+				imgAccess.get().set(value);
+				// irregular labels, some lines start or end with background
+				final int label = (x * 3 + y * 5) % 11;
+				if (label >= numLabels) continue;
+				add(ra, "l" + label, x, y);
+				size[label]++;
+				sumX[label] += x;
+				sumY[label] += y;
+				sum[label] += value;
+				minX[label] = Math.min(minX[label], x);
+				maxX[label] = Math.max(maxX[label], x);
+			}
+		}
+
+		final ResultsTable table = ops.labeling().features(labeling, img, false);
+		assertEquals(numLabels, table.getRowCount());
+		for (int label = 0; label < numLabels; label++) {
+			final int row = row(table, "l" + label);
+			assertEquals(size[label], value(table, "Size", row), 0);
+			assertEquals(sumX[label] / size[label], value(table, "Centroid X", row),
+				1e-10);
+			assertEquals(sumY[label] / size[label], value(table, "Centroid Y", row),
+				1e-10);
+			assertEquals(minX[label], value(table, "BBox Min X", row), 0);
+			assertEquals(maxX[label], value(table, "BBox Max X", row), 0);
+			assertEquals(sum[label], value(table, "Intensity Sum", row), 1e-8);
+		}
+	}
+
+	// -- Helper methods --
+
+	private static void add(final RandomAccess<LabelingType<String>> ra,
+		final String label, final int... position)
+	{
+		ra.setPosition(position);
+		ra.get().add(label);
+	}
+
+	private static int row(final ResultsTable table, final String label) {
+		for (int row = 0; row < table.getRowCount(); row++) {
+			if (label.equals(table.getRowHeader(row))) return row;
+		}
+		throw new IllegalArgumentException("No row for " + label);
+	}
+
+	private static double value(final ResultsTable table, final String column,
+		final int row)
+	{
+		return table.get(column).getValue(row);
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.map;
+
+import static org.junit.Assert.assertEquals;
+
+import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Ops;
+import net.imglib2.Cursor;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.type.logic.BitType;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.type.numeric.real.FloatType;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ElementwisePipeline}.
+ */
+public class ElementwisePipelineTest extends AbstractOpTest {
+
+	@Test
+	public void testMath() {
+		final Img<FloatType> in = generateFloatArrayTestImg(true, 67, 45);
+		final Img<FloatType> background = generateFloatArrayTestImg(true, 67, 45);
+		for (final FloatType t : background) {
+			t.mul(0.5f);
+		}
+
+		final Img<DoubleType> out = new ElementwisePipeline(ops) //
+			.combine(Ops.Math.Subtract.class, background) //
+			.combine(Ops.Math.Multiply.class, 2.5) //
+			.map(Ops.Math.Abs.class) //
+			.map(Ops.Math.Sqrt.class) //
+			.compute(in, new DoubleType());
+
+		final Cursor<FloatType> i = in.cursor();
+		final Cursor<FloatType> b = background.cursor();
+		final Cursor<DoubleType> o = out.cursor();
+		while (i.hasNext()) {
+			final double expected = Math.sqrt(Math.abs((i.next().getRealDouble() -
+				b.next().getRealDouble()) * 2.5));
+			assertEquals(expected, o.next().get(), 0.0);
+		}
+	}
+
+	@Test
+	public void testIntegerInputFractionalOperands() {
+		final Img<UnsignedByteType> in = ArrayImgs.unsignedBytes(256);
+		int v = 0;
+		for (final UnsignedByteType t : in) {
+			t.set(v++);
+		}
+		final Img<FloatType> background = ArrayImgs.floats(256);
+		for (final FloatType t : background) {
+			t.set(0.25f);
+		}
+
+		final Img<DoubleType> out = new ElementwisePipeline(ops) //
+			.combine(Ops.Math.Multiply.class, 0.5) //
+			.combine(Ops.Math.Subtract.class, -5.0) //
+			.compute(in, new DoubleType());
+		final Img<DoubleType> subtracted = new ElementwisePipeline(ops) //
+			.combine(Ops.Math.Subtract.class, background) //
+			.compute(in, new DoubleType());
+
+		final Cursor<UnsignedByteType> i = in.cursor();
+		final Cursor<DoubleType> s = subtracted.cursor();
+		for (final DoubleType t : out) {
+			final double value = i.next().getRealDouble();
+			assertEquals(value * 0.5 + 5, t.get(), 0.0);
+			assertEquals(value - 0.25, s.next().get(), 0.0);
+		}
+	}
+
+	@Test
+	public void testConvertAndLogic() {
+		final Img<FloatType> in = ArrayImgs.floats(100);
+		int v = -50;
+		for (final FloatType t : in) {
+			t.set(v++ * 3.7f);
+		}
+
+		final Img<UnsignedByteType> converted = ArrayImgs.unsignedBytes(100);
+		new ElementwisePipeline(ops) //
+			.convert(Ops.Convert.Uint8.class, new UnsignedByteType()) //
+			.compute(in, converted);
+		final Img<UnsignedByteType> expected = ArrayImgs.unsignedBytes(100);
+		ops.convert().uint8(expected, in);
+		final Cursor<UnsignedByteType> e = expected.cursor();
+		for (final UnsignedByteType t : converted) {
+			assertEquals(e.next().get(), t.get());
+		}
+
+		final Img<BitType> mask = ArrayImgs.bits(100);
+		new ElementwisePipeline(ops) //
+			.combine(Ops.Logic.LessThan.class, 10.0, new BitType()) //
+			.compute(in, mask);
+		final Cursor<FloatType> c = in.cursor();
+		for (final BitType t : mask) {
+			assertEquals(c.next().get() < 10, t.get());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMisaligned() {
+		new ElementwisePipeline(ops) //
+			.combine(Ops.Math.Add.class, ArrayImgs.floats(10, 10)) //
+			.compute(ArrayImgs.floats(10, 11), new DoubleType());
+	}
+
+}
@@ -31,16 +31,28 @@
 package net.imagej.ops.map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.DoubleUnaryOperator;
 
 import net.imagej.ops.AbstractOpTest;
 import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
+import net.imagej.ops.special.computer.BinaryComputerOp;
 import net.imagej.ops.special.computer.Computers;
+import net.imagej.ops.special.computer.UnaryComputerOp;
 import net.imagej.ops.special.inplace.BinaryInplaceOp;
 import net.imagej.ops.special.inplace.Inplaces;
 import net.imglib2.Cursor;
 import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.planar.PlanarImgs;
+import net.imglib2.type.numeric.RealType;
 import net.imglib2.type.numeric.integer.ByteType;
+import net.imglib2.type.numeric.integer.ShortType;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.type.numeric.real.FloatType;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -167,8 +179,67 @@ public class MapTest extends AbstractOpTest {
 		assertImgSubOneEquals(in, out);
 	}
 
+	@Test
+	public void testPrimitiveArrays() {
+		final Img<FloatType> in = ArrayImgs.floats(7, 5, 3);
+		float v = -20.5f;
+		for (final FloatType t : in) {
+			t.set(v);
+			v += 0.75f;
+		}
+		final Img<UnsignedByteType> expected = ArrayImgs.unsignedBytes(7, 5, 3);
+		final Img<UnsignedByteType> actual = PlanarImgs.unsignedBytes(7, 5, 3);
+
+		final UnaryComputerOp<FloatType, UnsignedByteType> sqr = Computers.unary(
+			ops, Ops.Math.Sqr.class, UnsignedByteType.class, FloatType.class);
+		ops.run(MapUnaryComputers.IIToII.class, expected, in, sqr);
+		final Op map = ops.op(Ops.Map.class, actual, in, sqr);
+		assertTrue(map instanceof MapPrimitiveArrays.IIToII);
+		ops.run(map, actual, in, sqr);
+		assertImgEquals(expected, actual);
+
+		// interleaved chunks
+		final Img<UnsignedByteType> interleaved = PlanarImgs.unsignedBytes(7, 5, 3);
+		for (int start = 0; start < 4; start++) {
+			PrimitiveArrays.map(in, interleaved, (DoubleUnaryOperator) sqr, start, 4,
+				(in.size() - start + 3) / 4);
+		}
+		assertImgEquals(expected, interleaved);
+	}
+
+	@Test
+	public void testPrimitiveArraysBinary() {
+		final Img<ShortType> in1 = ArrayImgs.shorts(9, 4, 2);
+		final Img<FloatType> in2 = PlanarImgs.floats(9, 4, 2);
+		int i = 0;
+		final Cursor<FloatType> c2 = in2.cursor();
+		for (final ShortType t : in1) {
+			t.set((short) (i * 37 - 500));
+			c2.next().set(i++ % 5 - 2);
+		}
+		final Img<DoubleType> expected = ArrayImgs.doubles(9, 4, 2);
+		final Img<DoubleType> actual = ArrayImgs.doubles(9, 4, 2);
+
+		final BinaryComputerOp<ShortType, FloatType, DoubleType> div = Computers
+			.binary(ops, Ops.Math.Divide.class, DoubleType.class, ShortType.class,
+				FloatType.class, -1.0);
+		ops.run(MapBinaryComputers.IIAndIIToII.class, expected, in1, in2, div);
+		ops.run(MapPrimitiveArrays.IIAndIIToII.class, actual, in1, in2, div);
+		assertImgEquals(expected, actual);
+	}
+
 	// -- helper methods --
 
+	private static <T extends RealType<T>> void assertImgEquals(
+		final Img<T> expected, final Img<T> actual)
+	{
+		final Cursor<T> e = expected.cursor();
+		final Cursor<T> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().getRealDouble(), a.next().getRealDouble(), 0.0);
+		}
+	}
+
 	private static void assertImgSubEquals(Img<ByteType> in1, Img<ByteType> in2,
 		Img<ByteType> out)
 	{
@@ -30,16 +30,24 @@
 
 package net.imagej.ops.morphology;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.IOException;
 
 import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.morphology.fillHoles.DefaultFillHoles;
+import net.imagej.ops.morphology.fillHoles.ScanlineFillHoles;
 import net.imglib2.Cursor;
+import net.imglib2.Point;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.algorithm.labeling.ConnectedComponents.StructuringElement;
 import net.imglib2.img.Img;
 import net.imglib2.type.logic.BitType;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
 import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.view.Views;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -90,4 +98,102 @@ public class MorphologyOpsTest extends AbstractOpTest {
 		assertNotNull("Img With Holes", ops.morphology().extractHoles(imgWithHoles,
 			StructuringElement.FOUR_CONNECTED, false));
 	}
+
+	@Test
+	public void testFloodFill() {
+		// a diagonal line, which is only connected via corners
+		final Img<UnsignedByteType> in = ops.create().img(new long[] { 7, 7 },
+			new UnsignedByteType());
+		final RandomAccess<UnsignedByteType> ra = in.randomAccess();
+		for (int i = 0; i < 7; i++) {
+			ra.setPosition(new int[] { i, i });
+			ra.get().set(1);
+		}
+
+		final Point start = new Point(3, 3);
+		assertEquals(1, sum(ops.morphology().floodFill(in, start,
+			StructuringElement.FOUR_CONNECTED)));
+		assertEquals(7, sum(ops.morphology().floodFill(in, start,
+			StructuringElement.EIGHT_CONNECTED)));
+
+		// the line splits the background into two regions without corners
+		final Img<UnsignedByteType> out = ops.create().img(in);
+		for (final UnsignedByteType t : out) {
+			t.set(2);
+		}
+		ops.morphology().floodFill(out, in, new Point(0, 6),
+			StructuringElement.FOUR_CONNECTED);
+		assertEquals(28 * 2, sum(out));
+	}
+
+	@Test
+	public void testFillHoles() {
+		// a hollow cube, and the same cube with a gap in its wall
+		final Img<BitType> closed = ops.create().img(new long[] { 7, 7, 7 },
+			new BitType());
+		final RandomAccess<BitType> ra = closed.randomAccess();
+		for (int z = 1; z < 6; z++) {
+			for (int y = 1; y < 6; y++) {
+				for (int x = 1; x < 6; x++) {
+					final boolean wall = x == 1 || x == 5 || y == 1 || y == 5 ||
+						z == 1 || z == 5;
+					ra.setPosition(new int[] { x, y, z });
+					ra.get().set(wall);
+				}
+			}
+		}
+		final Img<BitType> open = closed.copy();
+		final RandomAccess<BitType> openRa = open.randomAccess();
+		openRa.setPosition(new int[] { 3, 1, 3 });
+		openRa.get().set(false);
+
+		final Img<BitType> out = ops.create().img(closed);
+		ops.morphology().fillHoles(out, closed, StructuringElement.FOUR_CONNECTED);
+		assertEquals(125, count(out));
+		ops.morphology().fillHoles(out, open, StructuringElement.FOUR_CONNECTED);
+		assertEquals(count(open), count(out));
+
+		// the background flag inverts the roles of the values
+		final Img<BitType> inverted = closed.copy();
+		for (final BitType t : inverted) {
+			t.not();
+		}
+		ops.morphology().fillHoles(out, inverted,
+			StructuringElement.EIGHT_CONNECTED, true);
+		assertEquals(343 - 125, count(out));
+	}
+
+	@Test
+	public void testScanlineFillHoles() {
+		for (final StructuringElement se : StructuringElement.values()) {
+			final Img<BitType> expected = ops.create().img(imgWithHoles);
+			final Img<BitType> actual = ops.create().img(imgWithHoles);
+			ops.run(DefaultFillHoles.class, expected, imgWithHoles, se);
+			ops.run(ScanlineFillHoles.class, actual, imgWithHoles, se);
+
+			final Cursor<BitType> e = expected.cursor();
+			final Cursor<BitType> a = actual.cursor();
+			while (e.hasNext()) {
+				assertEquals(e.next().get(), a.next().get());
+			}
+		}
+	}
+
+	private static long sum(
+		final RandomAccessibleInterval<UnsignedByteType> img)
+	{
+		long sum = 0;
+		for (final UnsignedByteType t : Views.iterable(img)) {
+			sum += t.get();
+		}
+		return sum;
+	}
+
+	private static long count(final Img<BitType> img) {
+		long count = 0;
+		for (final BitType t : img) {
+			if (t.get()) count++;
+		}
+		return count;
+	}
 }
@@ -183,6 +183,20 @@ public class StatisticsTest extends AbstractOpTest {
 			0.00001d);
 	}
 
+	@Test
+	public void testDefaultStdDev() {
+		// NB: The standard deviation derived from the summary is the square root
+		// of the variance, not the variance itself.
+		final double variance = ((DoubleType) ops.run(DefaultVariance.class,
+			randomlyFilledImg)).getRealDouble();
+		Assert.assertEquals("StdDev", Math.sqrt(variance), ((DoubleType) ops.run(
+			DefaultStandardDeviation.class, randomlyFilledImg)).getRealDouble(),
+			0.00001d);
+		Assert.assertEquals("StdDev", 73.7460374274008, ((DoubleType) ops.run(
+			DefaultStandardDeviation.class, randomlyFilledImg)).getRealDouble(),
+			0.00001d);
+	}
+
 	@Test
 	public void testSum() {
 		Assert.assertEquals("Sum", 1277534.0, ((DoubleType) ops.run(
@@ -257,6 +271,28 @@ public class StatisticsTest extends AbstractOpTest {
 			0.00001d);
 	}
 
+	@Test
+	public void testBufferedQuantile() {
+		// counting path: 8-bit values, more samples than distinct values
+		for (final double q : new double[] { 0, 0.1, 0.5, 0.9, 0.99 }) {
+			Assert.assertEquals(q + "-th Quantile", ((DoubleType) ops.run(
+				DefaultQuantile.class, randomlyFilledImg, q)).getRealDouble(),
+				((DoubleType) ops.run(BufferedQuantile.class, randomlyFilledImg, q))
+					.getRealDouble(), 0d);
+		}
+
+		// quickselect path: float values
+		Assert.assertEquals("0.3-th Quantile", ((DoubleType) ops.run(
+			DefaultQuantile.class, img, 0.3d)).getRealDouble(), ((DoubleType) ops
+				.run(BufferedQuantile.class, img, 0.3d)).getRealDouble(), 0d);
+
+		// quickselect path: few integer values with a large range
+		final Img<UnsignedByteType> small = ArrayImgs.unsignedBytes(new byte[] {
+			(byte) 200, 3, 17, (byte) 255, 0 }, 5);
+		Assert.assertEquals("Median", 17d, ((DoubleType) ops.run(
+			BufferedQuantile.class, small, 0.5d)).getRealDouble(), 0d);
+	}
+
 	@Test
 	public void testSkewness() {
 		Assert.assertEquals("Skewness", -0.0012661517853476312, ((DoubleType) ops
@@ -264,6 +300,59 @@ public class StatisticsTest extends AbstractOpTest {
 			0.00001d);
 	}
 
+	@Test
+	public void testSummary() {
+		final StatsSummary summary = ops.stats().summary(randomlyFilledImg);
+		Assert.assertEquals("Size", 10000, summary.getSize());
+		Assert.assertEquals("Sum", 1277534.0, summary.getSum(), 0.00001d);
+		Assert.assertEquals("Min", 0, summary.getMin(), 0.00001d);
+		Assert.assertEquals("Max", 254d, summary.getMax(), 0.00001d);
+		Assert.assertEquals("Mean", 127.7534, summary.getMean(), 0.00001d);
+		Assert.assertEquals("Variance", 5438.4780362436, summary.getVariance(),
+			0.00001d);
+		Assert.assertEquals("StdDev", 73.7460374274008, summary.getStdDev(),
+			0.00001d);
+		Assert.assertEquals("Moment 3 About Mean", -507.810691261427, summary
+			.getMoment3AboutMean(), 0.00001d);
+		Assert.assertEquals("Moment 4 About Mean", 53069780.9168701, summary
+			.getMoment4AboutMean(), 0.00001d);
+		Assert.assertEquals("Skewness", -0.0012661517853476312, summary
+			.getSkewness(), 0.00001d);
+		Assert.assertEquals("Kurtosis", 1.794289587623922, summary.getKurtosis(),
+			0.00001d);
+
+		// partial summaries of the two halves merge into the whole
+		final StatsSummary first = new StatsSummary();
+		final StatsSummary second = new StatsSummary();
+		int i = 0;
+		for (final UnsignedByteType value : randomlyFilledImg) {
+			(i++ < 3000 ? first : second).add(value.getRealDouble());
+		}
+		first.merge(second);
+		Assert.assertEquals(summary.getSize(), first.getSize());
+		Assert.assertEquals(summary.getMean(), first.getMean(), 1e-9);
+		Assert.assertEquals(summary.getVariance(), first.getVariance(), 1e-6);
+		Assert.assertEquals(summary.getMoment3AboutMean(), first
+			.getMoment3AboutMean(), 1e-4);
+		Assert.assertEquals(summary.getMoment4AboutMean(), first
+			.getMoment4AboutMean(), 1e-2);
+
+		// the parallel op agrees with the sequential one
+		final Img<UnsignedByteType> large =
+			generateRandomlyFilledUnsignedByteTestImgWithSeed(new long[] { 400,
+				300 }, 1234567890L);
+		final StatsSummary parallel = (StatsSummary) ops.run(
+			IISummaryParallel.class, large);
+		final StatsSummary sequential = (StatsSummary) ops.run(
+			DefaultSummary.class, large);
+		Assert.assertEquals(sequential.getSize(), parallel.getSize());
+		Assert.assertEquals(sequential.getSum(), parallel.getSum(), 0d);
+		Assert.assertEquals(sequential.getVariance(), parallel.getVariance(),
+			1e-6);
+		Assert.assertEquals(sequential.getKurtosis(), parallel.getKurtosis(),
+			1e-9);
+	}
+
 	@Test
 	public void testSumOfInverses() {
 		Assert.assertEquals("Sum Of Inverses", Double.POSITIVE_INFINITY,
@@ -0,0 +1,157 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2016 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.thread;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Ops;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imagej.ops.thread.chunker.ChunkerForkJoin;
+import net.imagej.ops.thread.chunker.ChunkerOp;
+import net.imagej.ops.thread.chunker.DefaultChunker;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ChunkerForkJoin}.
+ */
+public class ChunkerForkJoinTest extends AbstractOpTest {
+
+	@Test
+	public void testAllElementsVisitedOnce() {
+		final int size = 100003;
+		final AtomicIntegerArray visits = new AtomicIntegerArray(size);
+		ops.run(ChunkerForkJoin.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				for (int i = 0; i < numSteps; i++) {
+					visits.incrementAndGet(startIndex + i * stepSize);
+				}
+			}
+		}, (long) size, 10L);
+
+		for (int i = 0; i < size; i++) {
+			assertEquals(1, visits.get(i));
+		}
+	}
+
+	@Test
+	public void testFewElementsAreSplit() {
+		// coarse elements, such as tiles or slabs, get a chunk each by default
+		final AtomicLong chunks = new AtomicLong();
+		ops.run(ChunkerForkJoin.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				chunks.incrementAndGet();
+			}
+		}, 8L);
+
+		assertEquals(8, chunks.get());
+	}
+
+	@Test
+	public void testLongElementCount() {
+		final long size = 3L * Integer.MAX_VALUE;
+		final AtomicLong total = new AtomicLong();
+		final AtomicLong maxIndex = new AtomicLong();
+		ops.run(ChunkerForkJoin.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				throw new IllegalStateException("Expected long-indexed execution");
+			}
+
+			@Override
+			public void execute(final long startIndex, final long stepSize,
+				final long numSteps)
+			{
+				total.addAndGet(numSteps);
+				maxIndex.accumulateAndGet(startIndex + numSteps - 1, Math::max);
+			}
+		}, size);
+
+		assertEquals(size, total.get());
+		assertEquals(size - 1, maxIndex.get());
+	}
+
+	@Test
+	public void testOptIn() {
+		final Chunk chunk = new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				// NB: No-op.
+			}
+		};
+
+		// NB: Only callers passing a minimum grain size leave the ThreadService.
+		assertTrue(ops.op(Ops.Thread.Chunker.class, chunk,
+			100L) instanceof DefaultChunker);
+		assertTrue(ops.op(Ops.Thread.Chunker.class, chunk, 100L,
+			1L) instanceof ChunkerForkJoin);
+	}
+
+	@Test
+	public void testCancel() {
+		final AtomicLong processed = new AtomicLong();
+		final ChunkerOp chunker = (ChunkerOp) ops.op(ChunkerForkJoin.class,
+			new Chunk() {
+
+				@Override
+				public void execute(final int startIndex, final int stepSize,
+					final int numSteps)
+				{
+					processed.addAndGet(numSteps);
+				}
+			}, 1000000L, 1L);
+		chunker.cancel("canceled before running");
+		chunker.run();
+
+		assertTrue(chunker.isCanceled());
+		assertEquals(0, processed.get());
+	}
+
+}
@@ -103,4 +103,30 @@ public class EulerCharacteristic26NFloatingTest extends AbstractOpTest {
 
         assertEquals("Euler characteristic (χ) is incorrect", 0.0, result, 1e-12);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test with separate cubes along a long X-axis, so that they straddle the words of the packed rows
+     * <p>
+     * Here χ = β_0 - β_1 + β_2 = 4 - 0 + 0 = 4.
+     * </p>
+     */
+    @Test
+    public void testCubesAcrossWords() throws Exception {
+        final Img<BitType> img = ArrayImgs.bits(200, 5, 6);
+        final RandomAccess<BitType> access = img.randomAccess();
+        for (final long start : new long[]{1, 62, 126, 190}) {
+            for (long z = 1; z < 5; z++) {
+                for (long y = 1; y < 4; y++) {
+                    for (long x = start; x < start + 3; x++) {
+                        access.setPosition(new long[]{x, y, z});
+                        access.get().setOne();
+                    }
+                }
+            }
+        }
+
+        final double result = ops.topology().eulerCharacteristic26NFloating(img).get();
+
+        assertEquals("Euler characteristic (χ) is incorrect", 4.0, result, 1e-12);
+    }
+}
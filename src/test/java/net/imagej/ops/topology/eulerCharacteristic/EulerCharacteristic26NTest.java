@@ -134,4 +134,57 @@ public class EulerCharacteristic26NTest extends AbstractOpTest {
         access.get().setInteger(value);
     }
     //endregion
-}
\ No newline at end of file
+
+    /**
+     * Test with separate cubes along a long X-axis, so that they straddle the words of the packed rows
+     * <p>
+     * Here χ = β_0 - β_1 + β_2 = 4 - 0 + 0 = 4.
+     * </p>
+     */
+    @Test
+    public void testCubesAcrossWords() throws Exception {
+        final Img<BitType> img = ArrayImgs.bits(200, 5, 6);
+        final RandomAccess<BitType> access = img.randomAccess();
+        for (final long start : new long[]{1, 62, 126, 190}) {
+            for (long z = 1; z < 5; z++) {
+                for (long y = 1; y < 4; y++) {
+                    for (long x = start; x < start + 3; x++) {
+                        access.setPosition(new long[]{x, y, z});
+                        access.get().setOne();
+                    }
+                }
+            }
+        }
+
+        final double result = ops.topology().eulerCharacteristic26N(img).get();
+
+        assertEquals("Euler characteristic (χ) is incorrect", 4.0, result, 1e-12);
+    }
+
+    /**
+     * Tests a stack of cuboids whose depth differs from the {@link BitPlane#SLAB_GRAIN_SIZE}, so that the slabs are
+     * split into many parallel chunks, and the cuboids cross the chunk boundaries
+     * <p>
+     * Here χ = β_0 - β_1 + β_2 = 16 - 0 + 0 = 16.
+     * </p>
+     */
+    @Test
+    public void testCuboidsAcrossChunks() throws Exception {
+        final Img<BitType> img = ArrayImgs.bits(5, 5, 130);
+        final RandomAccess<BitType> access = img.randomAccess();
+        for (long start = 1; start < 129; start += 8) {
+            for (long z = start; z < start + 5; z++) {
+                for (long y = 1; y < 4; y++) {
+                    for (long x = 1; x < 4; x++) {
+                        access.setPosition(new long[]{x, y, z});
+                        access.get().setOne();
+                    }
+                }
+            }
+        }
+
+        final double result = ops.topology().eulerCharacteristic26N(img).get();
+
+        assertEquals("Euler characteristic (χ) is incorrect", 16.0, result, 1e-12);
+    }
+}
@@ -31,14 +31,25 @@
 package net.imagej.ops.transform.project;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
 
 import net.imagej.ops.AbstractOpTest;
 import net.imagej.ops.Ops;
 import net.imagej.ops.special.computer.Computers;
 import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imglib2.Cursor;
 import net.imglib2.RandomAccess;
 import net.imglib2.img.Img;
+import net.imglib2.img.ImgFactory;
+import net.imglib2.img.array.ArrayImgFactory;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.cell.CellImgFactory;
+import net.imglib2.img.planar.PlanarImgFactory;
 import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.type.numeric.real.FloatType;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -86,6 +97,54 @@ public class ProjectTest extends AbstractOpTest {
 		testEquality(out1, out2);
 	}
 
+	@Test
+	public void testStreaming() {
+		final long[] dims = { 13, 11, 7 };
+		assertStreaming(new ArrayImgFactory<FloatType>(), dims);
+		assertStreaming(new PlanarImgFactory<FloatType>(), dims);
+		assertStreaming(new CellImgFactory<FloatType>(4), dims);
+	}
+
+	private void assertStreaming(final ImgFactory<FloatType> factory,
+		final long[] dims)
+	{
+		final Img<FloatType> img = factory.create(dims, new FloatType());
+		final Random r = new Random(0xdeadbeef);
+		for (final FloatType t : img) {
+			t.set(r.nextFloat() * 100);
+		}
+
+		final Class<?>[] methods = { Ops.Stats.Sum.class, Ops.Stats.Mean.class,
+			Ops.Stats.Min.class, Ops.Stats.Max.class, Ops.Stats.Size.class,
+			Ops.Stats.Variance.class };
+		for (int d = 0; d < dims.length; d++) {
+			final long[] outDims = new long[dims.length - 1];
+			for (int i = 0; i < outDims.length; i++) {
+				outDims[i] = dims[i < d ? i : i + 1];
+			}
+			for (final Class<?> method : methods) {
+				final Img<DoubleType> expected = ArrayImgs.doubles(outDims);
+				final Img<DoubleType> actual = ArrayImgs.doubles(outDims);
+				@SuppressWarnings({ "rawtypes", "unchecked" })
+				final UnaryComputerOp<Iterable<FloatType>, DoubleType> stats =
+					(UnaryComputerOp) Computers.unary(ops, (Class) method,
+						DoubleType.class, img);
+
+				assertTrue(ops.op(Ops.Transform.Project.class, actual, img, stats,
+					d) instanceof ProjectStreaming);
+				ops.transform().project(actual, img, stats, d);
+				ops.run(DefaultProjectParallel.class, expected, img, stats, d);
+
+				final Cursor<DoubleType> e = expected.cursor();
+				final Cursor<DoubleType> a = actual.cursor();
+				while (e.hasNext()) {
+					final double value = e.next().get();
+					assertEquals(value, a.next().get(), 1e-9 * Math.abs(value) + 1e-9);
+				}
+			}
+		}
+	}
+
 	private void testEquality(final Img<UnsignedByteType> img1,
 		final Img<UnsignedByteType> img2)
 	{